@@ -38,7 +38,9 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -61,11 +63,17 @@ public final class FormDAO implements IFormDAO
     private static final String SQL_QUERY_UPDATE = "UPDATE forms_form SET id_form = ?, title = ?, description = ?, update_date = ?, availability_start_date = ?, availability_end_date = ?, workgroup = ?, id_workflow = ?, authentification_needed = ?, one_response_by_user = ?, breadcrumb_name = ?, display_summary = ?, return_url = ?, max_number_response = ?, captcha_step_initial = ?, captcha_step_final = ?, captcha_recap = ?, count_responses = ?, label_final_button = ?, unavailable_message = ?, id_logo = ? , id_category = ?, backup_enabled = ?, access_to_responses_by_role = ? WHERE id_form = ?";
     private static final String SQL_QUERY_COUNT_NUMBER_OF_RESPONSE = "SELECT count(id_form) FROM forms_response WHERE id_form = ? and from_save = 0";
     private static final String SQL_QUERY_COUNT_NUMBER_RESPONSE_USER = "SELECT count(id_form) FROM forms_response WHERE id_form=? and guid= ? AND from_save = 0 ";
+    private static final String SQL_QUERY_COUNT_NUMBER_OF_RESPONSE_GROUP_BY_FORM = "SELECT id_form, count(id_response) FROM forms_response WHERE from_save = 0 ";
+    private static final String SQL_FILTER_ID_FORM_IN = " AND id_form IN (?";
+    private static final String SQL_GROUP_BY_FORM = " GROUP BY id_form";
     private static final String SQL_QUERY_SELECT_BY_LISTE_ID_FORM = SQL_QUERY_SELECTALL + " WHERE id_form IN (?";
     private static final String SQL_CLOSE_PARENTHESIS = " ) ";
     private static final String SQL_ADITIONAL_PARAMETER = ",?";
     private static final String COLUMN_PERIOD_DISPONIBILITY = "period_disponibility";
 
+    // Maximum number of parameters of an IN clause, below the limits of the JDBC drivers
+    private static final int SIZE_ID_CHUNK = 500;
+
     /**
      * {@inheritDoc }
      */
@@ -286,6 +294,63 @@ public final class FormDAO implements IFormDAO
         return nCount;
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Map<Integer, Integer> countNumberOfResponseForms( List<Integer> listIdForm, Plugin plugin )
+    {
+        Map<Integer, Integer> mapCounts = new HashMap<>( );
+
+        for ( int nFrom = 0; nFrom < listIdForm.size( ); nFrom += SIZE_ID_CHUNK )
+        {
+            List<Integer> listIdChunk = listIdForm.subList( nFrom, Math.min( nFrom + SIZE_ID_CHUNK, listIdForm.size( ) ) );
+            StringBuilder sbSQL = new StringBuilder( SQL_QUERY_COUNT_NUMBER_OF_RESPONSE_GROUP_BY_FORM ).append( SQL_FILTER_ID_FORM_IN );
+
+            for ( int i = 1; i < listIdChunk.size( ); i++ )
+            {
+                sbSQL.append( SQL_ADITIONAL_PARAMETER );
+            }
+
+            sbSQL.append( SQL_CLOSE_PARENTHESIS ).append( SQL_GROUP_BY_FORM );
+
+            try ( DAOUtil daoUtil = new DAOUtil( sbSQL.toString( ), plugin ) )
+            {
+                for ( int i = 0; i < listIdChunk.size( ); i++ )
+                {
+                    daoUtil.setInt( i + 1, listIdChunk.get( i ) );
+                }
+                daoUtil.executeQuery( );
+
+                while ( daoUtil.next( ) )
+                {
+                    mapCounts.put( daoUtil.getInt( 1 ), daoUtil.getInt( 2 ) );
+                }
+            }
+        }
+        return mapCounts;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Map<Integer, Integer> countNumberOfResponseAllForms( Plugin plugin )
+    {
+        Map<Integer, Integer> mapCounts = new HashMap<>( );
+
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_COUNT_NUMBER_OF_RESPONSE_GROUP_BY_FORM + SQL_GROUP_BY_FORM, plugin ) )
+        {
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+                mapCounts.put( daoUtil.getInt( 1 ), daoUtil.getInt( 2 ) );
+            }
+        }
+        return mapCounts;
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -41,6 +41,7 @@ import fr.paris.lutece.portal.service.spring.SpringContextService;
 import fr.paris.lutece.util.ReferenceList;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -174,6 +175,28 @@ public final class FormHome
         return _dao.countNumberOfResponseForms( nIdFormm );
     }
 
+    /**
+     * Count the number of responses of a list of forms with a single grouped query
+     * 
+     * @param listIdForm
+     *            the ids of the forms
+     * @return the number of responses by form id, without the forms which have no response
+     */
+    public static Map<Integer, Integer> getNumberOfResponseForms( List<Integer> listIdForm )
+    {
+        return _dao.countNumberOfResponseForms( listIdForm, _plugin );
+    }
+
+    /**
+     * Count the number of responses of all the forms with a single grouped query
+     * 
+     * @return the number of responses by form id, without the forms which have no response
+     */
+    public static Map<Integer, Integer> getNumberOfResponseAllForms( )
+    {
+        return _dao.countNumberOfResponseAllForms( _plugin );
+    }
+
     /**
      * count the number of response for form
      *
@@ -35,8 +35,13 @@ package fr.paris.lutece.plugins.forms.business;
 
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -59,16 +64,19 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
     private static final String SQL_QUERY_SELECT_BY_FORM_RESPONSE = SQL_QUERY_SELECTALL + " WHERE id_form_response = ?";
     private static final String SQL_QUERY_INSERT = "INSERT INTO forms_question_response ( id_form_response, id_question, id_step, iteration_number ) VALUES ( ?, ?, ?, ? ) ";
     private static final String SQL_QUERY_DELETE = "DELETE FROM forms_question_response WHERE id_question_response = ? ";
+    private static final String SQL_QUERY_DELETE_BY_FORM_RESPONSE = "DELETE FROM forms_question_response WHERE id_form_response = ? ";
     private static final String SQL_QUERY_UPDATE = "UPDATE forms_question_response SET id_form_response = ?, id_question = ?, id_step = ?, iteration_number = ? WHERE id_question_response = ?";
     private static final String SQL_QUERY_SELECT_BY_QUESTION = SQL_QUERY_SELECTALL + " WHERE id_question = ?";
     private static final String SQL_QUERY_SELECT_BY_RESPONSE_AND_QUESTION = SQL_QUERY_SELECTALL + " WHERE id_form_response = ? AND id_question = ? ORDER BY iteration_number ASC";
     private static final String SQL_QUERY_SELECT_BY_RESPONSE_AND_STEP = SQL_QUERY_SELECTALL
             + " WHERE id_form_response = ? AND id_step = ? ORDER BY id_question_response ASC";
-    private static final String SQL_QUERY_SELECT_BY_LIST_RESPONSE_STEP = SQL_QUERY_SELECTALL + " WHERE ";
     private static final String SQL_QUERY_SELECT_BY_LIST_FORM_RESPONSE = SQL_QUERY_SELECTALL + " WHERE id_form_response IN (?";
     private static final String SQL_CLOSE_PARENTHESIS = " ) ";
     private static final String SQL_ADITIONAL_PARAMETER = ",?";
 
+    // Maximum number of parameters of an IN clause, below the limits of the JDBC drivers
+    private static final int SIZE_ID_CHUNK = 500;
+
     private static final FormQuestionEntryResponseDAO _formQuestionEntryResponseDAO = new FormQuestionEntryResponseDAO( );
 
     private static final String PARAMETER_QUESTION_RESPONSE_ID = "id_question_response";
@@ -107,6 +115,55 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
         }
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void insert( List<FormQuestionResponse> listFormQuestionResponse, Plugin plugin )
+    {
+        if ( listFormQuestionResponse.isEmpty( ) )
+        {
+            return;
+        }
+
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT, Statement.RETURN_GENERATED_KEYS, plugin ) )
+        {
+            for ( FormQuestionResponse formQuestionResponse : listFormQuestionResponse )
+            {
+                int nIndex = 0;
+                daoUtil.setInt( ++nIndex, formQuestionResponse.getIdFormResponse( ) );
+                daoUtil.setInt( ++nIndex, formQuestionResponse.getQuestion( ).getId( ) );
+                daoUtil.setInt( ++nIndex, formQuestionResponse.getIdStep( ) );
+                daoUtil.setInt( ++nIndex, formQuestionResponse.getQuestion( ).getIterationNumber( ) );
+                daoUtil.addBatch( );
+            }
+
+            daoUtil.executeBatch( );
+
+            // The generated keys are returned in the order of the batch
+            for ( FormQuestionResponse formQuestionResponse : listFormQuestionResponse )
+            {
+                if ( daoUtil.nextGeneratedKey( ) )
+                {
+                    formQuestionResponse.setId( daoUtil.getGeneratedKeyInt( 1 ) );
+                }
+            }
+        }
+
+        List<FormQuestionEntryResponse> listFormQuestionEntryResponse = new ArrayList<>( );
+        for ( FormQuestionResponse formQuestionResponse : listFormQuestionResponse )
+        {
+            for ( Response response : formQuestionResponse.getEntryResponse( ) )
+            {
+                FormQuestionEntryResponse formQuestionEntryResponse = new FormQuestionEntryResponse( );
+                formQuestionEntryResponse._nIdQuestionResponse = formQuestionResponse.getId( );
+                formQuestionEntryResponse._response = response;
+                listFormQuestionEntryResponse.add( formQuestionEntryResponse );
+            }
+        }
+        _formQuestionEntryResponseDAO.insert( listFormQuestionEntryResponse, plugin );
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -150,6 +207,21 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
 
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void deleteByFormResponse( int nIdFormResponse, Plugin plugin )
+    {
+        _formQuestionEntryResponseDAO.deleteByFormResponse( nIdFormResponse, plugin );
+
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_BY_FORM_RESPONSE, plugin ) )
+        {
+            daoUtil.setInt( 1, nIdFormResponse );
+            daoUtil.executeUpdate( );
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -291,27 +363,41 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
             return list;
         }
 
-        String query = SQL_QUERY_SELECT_BY_LIST_RESPONSE_STEP
-                + listFormResponseStep.stream( ).map( frs -> " (  id_form_response = ? AND id_step = ? ) " ).collect( Collectors.joining( " OR " ) );
-
-        try ( DAOUtil daoUtil = new DAOUtil( query, plugin ) )
+        // The question responses are loaded by form response, then only the ones of the given steps are kept
+        Set<Integer> setIdFormResponse = new LinkedHashSet<>( );
+        Set<Long> setResponseStepKeys = new HashSet<>( );
+        for ( FormResponseStep formResponseStep : listFormResponseStep )
         {
-            int nIndex = 1;
-            for ( FormResponseStep formResponseStep : listFormResponseStep )
-            {
-                daoUtil.setInt( nIndex++, formResponseStep.getFormResponseId( ) );
-                daoUtil.setInt( nIndex++, formResponseStep.getStep( ).getId( ) );
-            }
-            daoUtil.executeQuery( );
+            setIdFormResponse.add( formResponseStep.getFormResponseId( ) );
+            setResponseStepKeys.add( getResponseStepKey( formResponseStep.getFormResponseId( ), formResponseStep.getStep( ).getId( ) ) );
+        }
 
-            while ( daoUtil.next( ) )
+        List<FormQuestionResponse> listFormQuestionResponse = selectFormQuestionResponseListByFormResponseIdList( new ArrayList<>( setIdFormResponse ),
+                plugin );
+        for ( FormQuestionResponse formQuestionResponse : listFormQuestionResponse )
+        {
+            if ( setResponseStepKeys.contains( getResponseStepKey( formQuestionResponse.getIdFormResponse( ), formQuestionResponse.getIdStep( ) ) ) )
             {
-                list.add( dataToObject( daoUtil ) );
+                list.add( formQuestionResponse );
             }
         }
         return list;
     }
 
+    /**
+     * Build the key of a step of a form response
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param nIdStep
+     *            the id of the step
+     * @return the key
+     */
+    private static long getResponseStepKey( int nIdFormResponse, int nIdStep )
+    {
+        return ( (long) nIdFormResponse << 32 ) | ( nIdStep & 0xFFFFFFFFL );
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -367,13 +453,13 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
     public List<FormQuestionResponse> selectFormQuestionResponseListByFormResponseIdList( List<Integer> listIdFormResponse, Plugin plugin )
     {
         List<FormQuestionResponse> list = new ArrayList<>( );
-        int nlistIdFormResponseSize = listIdFormResponse.size( );
 
-        if ( nlistIdFormResponseSize > 0 )
+        for ( int nFrom = 0; nFrom < listIdFormResponse.size( ); nFrom += SIZE_ID_CHUNK )
         {
+            List<Integer> listIdChunk = listIdFormResponse.subList( nFrom, Math.min( nFrom + SIZE_ID_CHUNK, listIdFormResponse.size( ) ) );
             StringBuilder sbSQL = new StringBuilder( SQL_QUERY_SELECT_BY_LIST_FORM_RESPONSE );
 
-            for ( int i = 1; i < nlistIdFormResponseSize; i++ )
+            for ( int i = 1; i < listIdChunk.size( ); i++ )
             {
                 sbSQL.append( SQL_ADITIONAL_PARAMETER );
             }
@@ -382,10 +468,9 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
 
             try ( DAOUtil daoUtil = new DAOUtil( sbSQL.toString( ), plugin ) )
             {
-
-                for ( int i = 0; i < nlistIdFormResponseSize; i++ )
+                for ( int i = 0; i < listIdChunk.size( ); i++ )
                 {
-                    daoUtil.setInt( i + 1, listIdFormResponse.get( i ) );
+                    daoUtil.setInt( i + 1, listIdChunk.get( i ) );
                 }
 
                 daoUtil.executeQuery( );
@@ -443,12 +528,21 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
             List<FormQuestionEntryResponse> listFormQuestionEntryResponse = _formQuestionEntryResponseDAO
                     .selectByFormQuestionResponseList( formQuestionResponsesList, plugin );
 
+            // Group the entry responses by question response in a single pass
+            Map<Integer, List<Response>> mapEntryResponses = new HashMap<>( );
+            for ( FormQuestionEntryResponse formQuestionEntryResponse : listFormQuestionEntryResponse )
+            {
+                if ( formQuestionEntryResponse._response != null )
+                {
+                    mapEntryResponses.computeIfAbsent( formQuestionEntryResponse._nIdQuestionResponse, nId -> new ArrayList<>( ) )
+                            .add( formQuestionEntryResponse._response );
+                }
+            }
+
             for ( FormQuestionResponse formQuestionResponse : formQuestionResponsesList )
             {
-                List<FormQuestionEntryResponse> entryResponseList = listFormQuestionEntryResponse.stream( )
-                        .filter( entry -> entry._nIdQuestionResponse == formQuestionResponse.getId( ) ).collect( Collectors.toList( ) );
-                formQuestionResponse.setEntryResponse( entryResponseList.stream( ).map( entryResponse -> entryResponse._response ).filter( Objects::nonNull )
-                        .collect( Collectors.toList( ) ) );
+                List<Response> listEntryResponse = mapEntryResponses.getOrDefault( formQuestionResponse.getId( ), Collections.emptyList( ) );
+                formQuestionResponse.setEntryResponse( new ArrayList<>( listEntryResponse ) );
             }
         }
     }
@@ -524,6 +618,10 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
         private static final String SQL_QUERY_INSERT_ENTRY_RESPONSE = "INSERT INTO forms_question_entry_response ( id_question_response, id_entry_response ) VALUES ( ?, ? ) ";
         private static final String SQL_QUERY_DELETE_QUESTION_ENTRY_RESPONSE = "DELETE FROM forms_question_entry_response WHERE id_question_entry_response = ?";
         private static final String SQL_QUERY_SELECT_IN = SQL_QUERY_SELECT_ALL + " WHERE id_question_response IN ( ";
+        private static final String SQL_QUERY_SELECT_ENTRY_RESPONSE_ID_BY_FORM_RESPONSE = "SELECT qer.id_entry_response FROM forms_question_entry_response qer"
+                + " INNER JOIN forms_question_response qr ON qr.id_question_response = qer.id_question_response WHERE qr.id_form_response = ?";
+        private static final String SQL_QUERY_DELETE_QUESTION_ENTRY_RESPONSE_BY_FORM_RESPONSE = "DELETE FROM forms_question_entry_response WHERE id_question_response IN"
+                + " ( SELECT id_question_response FROM forms_question_response WHERE id_form_response = ? )";
 
         /**
          * Selects the form question entry responses for the specified form question response
@@ -563,33 +661,46 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
         private List<FormQuestionEntryResponse> selectByFormQuestionResponseList( List<FormQuestionResponse> formQuestionResponseList, Plugin plugin )
         {
             List<Integer> idList = formQuestionResponseList.stream( ).map( FormQuestionResponse::getId ).distinct( ).collect( Collectors.toList( ) );
-            String query = SQL_QUERY_SELECT_IN + idList.stream( ).distinct( ).map( i -> "?" ).collect( Collectors.joining( "," ) ) + " )";
-
             List<FormQuestionEntryResponse> listFormQuestionEntryResponse = new ArrayList<>( );
 
-            try ( DAOUtil daoUtil = new DAOUtil( query, plugin ) )
+            for ( int nFrom = 0; nFrom < idList.size( ); nFrom += SIZE_ID_CHUNK )
             {
-                for ( int i = 0; i < idList.size( ); i++ )
+                List<Integer> idChunk = idList.subList( nFrom, Math.min( nFrom + SIZE_ID_CHUNK, idList.size( ) ) );
+                String query = SQL_QUERY_SELECT_IN + idChunk.stream( ).map( i -> "?" ).collect( Collectors.joining( "," ) ) + " )";
+
+                try ( DAOUtil daoUtil = new DAOUtil( query, plugin ) )
                 {
-                    daoUtil.setInt( i + 1, idList.get( i ) );
+                    for ( int i = 0; i < idChunk.size( ); i++ )
+                    {
+                        daoUtil.setInt( i + 1, idChunk.get( i ) );
+                    }
+                    daoUtil.executeQuery( );
+
+                    while ( daoUtil.next( ) )
+                    {
+                        listFormQuestionEntryResponse.add( dataToObjectWithoutResponse( daoUtil ) );
+                    }
                 }
-                daoUtil.executeQuery( );
+            }
 
-                while ( daoUtil.next( ) )
+            List<Integer> responseIdList = listFormQuestionEntryResponse.stream( ).map( entryReponse -> entryReponse._response.getIdResponse( ) )
+                    .distinct( ).collect( Collectors.toList( ) );
+            Map<Integer, Response> mapResponses = new HashMap<>( responseIdList.size( ) * 2 );
+
+            for ( int nFrom = 0; nFrom < responseIdList.size( ); nFrom += SIZE_ID_CHUNK )
+            {
+                ResponseFilter filter = new ResponseFilter( );
+                filter.setListId( new ArrayList<>( responseIdList.subList( nFrom, Math.min( nFrom + SIZE_ID_CHUNK, responseIdList.size( ) ) ) ) );
+
+                for ( Response response : ResponseHome.getResponseList( filter ) )
                 {
-                    listFormQuestionEntryResponse.add( dataToObjectWithoutResponse( daoUtil ) );
+                    mapResponses.put( response.getIdResponse( ), response );
                 }
             }
-            ResponseFilter filter = new ResponseFilter( );
-            filter.setListId( listFormQuestionEntryResponse.stream( ).map( entryReponse -> entryReponse._response.getIdResponse( ) ).distinct( )
-                    .collect( Collectors.toList( ) ) );
-
-            List<Response> responseList = ResponseHome.getResponseList( filter );
 
             for ( FormQuestionEntryResponse formQuestionEntryResponse : listFormQuestionEntryResponse )
             {
-                Integer responseId = formQuestionEntryResponse._response.getIdResponse( );
-                formQuestionEntryResponse._response = responseList.stream( ).filter( resp -> resp.getIdResponse( ) == responseId ).findFirst( ).orElse( null );
+                formQuestionEntryResponse._response = mapResponses.get( formQuestionEntryResponse._response.getIdResponse( ) );
             }
 
             return listFormQuestionEntryResponse;
@@ -644,6 +755,41 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
             }
         }
 
+        /**
+         * Inserts the specified form question entry responses. The entry responses are created one by one by the generic attributes, which give
+         * their keys, then the links are inserted in a single batch.
+         * 
+         * @param listFormQuestionEntryResponse
+         *            the form question entry responses to insert
+         * @param plugin
+         *            the plugin
+         */
+        private void insert( List<FormQuestionEntryResponse> listFormQuestionEntryResponse, Plugin plugin )
+        {
+            if ( listFormQuestionEntryResponse.isEmpty( ) )
+            {
+                return;
+            }
+
+            for ( FormQuestionEntryResponse formQuestionEntryResponse : listFormQuestionEntryResponse )
+            {
+                ResponseHome.create( formQuestionEntryResponse._response );
+            }
+
+            try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_ENTRY_RESPONSE, plugin ) )
+            {
+                for ( FormQuestionEntryResponse formQuestionEntryResponse : listFormQuestionEntryResponse )
+                {
+                    int nIndex = 0;
+                    daoUtil.setInt( ++nIndex, formQuestionEntryResponse._nIdQuestionResponse );
+                    daoUtil.setInt( ++nIndex, formQuestionEntryResponse._response.getIdResponse( ) );
+                    daoUtil.addBatch( );
+                }
+
+                daoUtil.executeBatch( );
+            }
+        }
+
         /**
          * Deletes the specified form question entry response
          * 
@@ -666,6 +812,40 @@ public final class FormQuestionResponseDAO implements IFormQuestionResponseDAO
             }
         }
 
+        /**
+         * Deletes the form question entry responses of a form response, with their entry responses
+         * 
+         * @param nIdFormResponse
+         *            the identifier of the form response
+         * @param plugin
+         *            the plugin
+         */
+        private void deleteByFormResponse( int nIdFormResponse, Plugin plugin )
+        {
+            List<Integer> listIdEntryResponse = new ArrayList<>( );
+            try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_ENTRY_RESPONSE_ID_BY_FORM_RESPONSE, plugin ) )
+            {
+                daoUtil.setInt( 1, nIdFormResponse );
+                daoUtil.executeQuery( );
+
+                while ( daoUtil.next( ) )
+                {
+                    listIdEntryResponse.add( daoUtil.getInt( 1 ) );
+                }
+            }
+
+            try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_QUESTION_ENTRY_RESPONSE_BY_FORM_RESPONSE, plugin ) )
+            {
+                daoUtil.setInt( 1, nIdFormResponse );
+                daoUtil.executeUpdate( );
+            }
+
+            for ( Integer nIdEntryResponse : listIdEntryResponse )
+            {
+                ResponseHome.remove( nIdEntryResponse );
+            }
+        }
+
         /**
          * Creates a form question entry response from the specified {@code DAOUtil} object
          * 
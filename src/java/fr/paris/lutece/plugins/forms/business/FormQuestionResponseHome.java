@@ -70,6 +70,20 @@ public final class FormQuestionResponseHome
         return formQuestionResponse;
     }
 
+    /**
+     * Create the formQuestionResponse objects of a list, inserted in a single batch with their entry responses
+     * 
+     * @param listFormQuestionResponse
+     *            The formQuestionResponse objects to store
+     * @return The list of formQuestionResponse objects, with their primary keys
+     */
+    public static List<FormQuestionResponse> create( List<FormQuestionResponse> listFormQuestionResponse )
+    {
+        _dao.insert( listFormQuestionResponse, _plugin );
+
+        return listFormQuestionResponse;
+    }
+
     /**
      * Update of the formQuestionResponse which is specified in parameter
      * 
@@ -95,6 +109,17 @@ public final class FormQuestionResponseHome
         _dao.delete( formQuestionResponse, _plugin );
     }
 
+    /**
+     * Remove the formQuestionResponse objects of a form response, with their entry responses
+     * 
+     * @param nIdFormResponse
+     *            The identifier of the form response
+     */
+    public static void removeByFormResponse( int nIdFormResponse )
+    {
+        _dao.deleteByFormResponse( nIdFormResponse, _plugin );
+    }
+
     /**
      * Remove the formQuestionResponse related to a Question whose identifier is specified in parameter
      * 
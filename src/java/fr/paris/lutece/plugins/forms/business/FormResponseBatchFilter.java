@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business;
+
+import java.sql.Timestamp;
+
+/**
+ * Filter of the form responses read batch by batch, in the order of their identifiers
+ */
+public class FormResponseBatchFilter
+{
+    public static final int ALL_INT = -1;
+
+    private int _nIdForm = ALL_INT;
+    private Timestamp _dateUpdateFrom;
+    private Timestamp _dateUpdateTo;
+
+    /**
+     * @return the id of the form of the form responses, or {@link #ALL_INT} for all the forms
+     */
+    public int getIdForm( )
+    {
+        return _nIdForm;
+    }
+
+    /**
+     * @param nIdForm
+     *            the id of the form of the form responses
+     */
+    public void setIdForm( int nIdForm )
+    {
+        _nIdForm = nIdForm;
+    }
+
+    /**
+     * @return true if the filter contains a form id
+     */
+    public boolean containsIdForm( )
+    {
+        return _nIdForm != ALL_INT;
+    }
+
+    /**
+     * @return the date from which the form responses have been updated, included, or null
+     */
+    public Timestamp getUpdateFrom( )
+    {
+        return _dateUpdateFrom;
+    }
+
+    /**
+     * @param dateUpdateFrom
+     *            the date from which the form responses have been updated, included
+     */
+    public void setUpdateFrom( Timestamp dateUpdateFrom )
+    {
+        _dateUpdateFrom = dateUpdateFrom;
+    }
+
+    /**
+     * @return the date before which the form responses have been updated, excluded, or null
+     */
+    public Timestamp getUpdateTo( )
+    {
+        return _dateUpdateTo;
+    }
+
+    /**
+     * @param dateUpdateTo
+     *            the date before which the form responses have been updated, excluded
+     */
+    public void setUpdateTo( Timestamp dateUpdateTo )
+    {
+        _dateUpdateTo = dateUpdateTo;
+    }
+
+    /**
+     * Create a filter on the form responses of a form
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the filter
+     */
+    public static FormResponseBatchFilter forForm( int nIdForm )
+    {
+        FormResponseBatchFilter filter = new FormResponseBatchFilter( );
+        filter.setIdForm( nIdForm );
+        return filter;
+    }
+}
@@ -36,7 +36,10 @@ package fr.paris.lutece.plugins.forms.business;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.portal.service.util.AppException;
@@ -51,6 +54,13 @@ public final class FormResponseDAO implements IFormResponseDAO
     // Constants
     private static final String SQL_QUERY_SELECTALL = "SELECT id_response, id_form, guid, creation_date, update_date, from_save, status,role, admin, update_date_status FROM forms_response";
     private static final String SQL_QUERY_SELECT_ID = "SELECT id_response FROM forms_response";
+    private static final String SQL_QUERY_SELECT_COMPLETED_UPDATE_DATES = "SELECT id_response, update_date FROM forms_response WHERE from_save = 0 AND id_response > ? ORDER BY id_response LIMIT ? ";
+    private static final String SQL_QUERY_SELECT_ID_BY_BATCH = SQL_QUERY_SELECT_ID + " WHERE id_response > ? ";
+    private static final String SQL_QUERY_COUNT = "SELECT COUNT(*) FROM forms_response WHERE 1 = 1 ";
+    private static final String SQL_FILTER_ID_FORM = " AND id_form = ? ";
+    private static final String SQL_FILTER_UPDATE_FROM = " AND update_date >= ? ";
+    private static final String SQL_FILTER_UPDATE_TO = " AND update_date < ? ";
+    private static final String SQL_ORDER_BY_ID_LIMIT = " ORDER BY id_response LIMIT ? ";
     private static final String SQL_QUERY_SELECTALL_BY_ID_FORM = SQL_QUERY_SELECTALL + " WHERE id_form = ? ";
     private static final String SQL_QUERY_SELECT = SQL_QUERY_SELECTALL + " WHERE id_response = ?";
     private static final String SQL_QUERY_INSERT = "INSERT INTO forms_response ( id_form, guid, creation_date, update_date, from_save, status, role, admin, update_date_status ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ?, ? ) ";
@@ -62,6 +72,7 @@ public final class FormResponseDAO implements IFormResponseDAO
     private static final String SQL_QUERY_SELECT_ALL_BY_USER = SQL_QUERY_SELECTALL + " WHERE guid = ? AND from_save = 0 ";
     private static final String SQL_QUERY_SELECT_ALL_BY_ROLE = SQL_QUERY_SELECTALL + " WHERE from_save = 0 AND role IN ( ? ";
     private static final String SQL_QUERY_SELECT_BY_LIST_FORM_RESPONSE = SQL_QUERY_SELECTALL + " WHERE id_response IN (?";
+    private static final String SQL_QUERY_SELECT_COMPLETED_BY_LIST_FORM_RESPONSE = SQL_QUERY_SELECTALL + " WHERE from_save = 0 AND id_response IN (?";
     private static final String SQL_CLOSE_PARENTHESIS = " ) ";
     private static final String SQL_ADITIONAL_PARAMETER = ",?";
 
@@ -193,6 +204,139 @@ public final class FormResponseDAO implements IFormResponseDAO
         return formResponseIdList;
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Map<Integer, Timestamp> selectCompletedFormResponseUpdateDates( int nIdFormResponseAfter, int nMaxResults, Plugin plugin )
+    {
+        Map<Integer, Timestamp> mapUpdateDates = new LinkedHashMap<>( );
+
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_COMPLETED_UPDATE_DATES, plugin ) )
+        {
+            daoUtil.setInt( 1, nIdFormResponseAfter );
+            daoUtil.setInt( 2, nMaxResults );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+                mapUpdateDates.put( daoUtil.getInt( 1 ), daoUtil.getTimestamp( 2 ) );
+            }
+        }
+        return mapUpdateDates;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void selectFormResponsesIdByBatch( FormResponseBatchFilter filter, int nBatchSize, Consumer<List<Integer>> batchConsumer, Plugin plugin )
+    {
+        String strSQL = SQL_QUERY_SELECT_ID_BY_BATCH + getFilterClauses( filter ) + SQL_ORDER_BY_ID_LIMIT;
+        int nIdAfter = 0;
+        List<Integer> listIdFormResponse;
+
+        do
+        {
+            listIdFormResponse = new ArrayList<>( nBatchSize );
+
+            // The statement is closed before the page is consumed, so that no connection is held while the consumer works
+            try ( DAOUtil daoUtil = new DAOUtil( strSQL, plugin ) )
+            {
+                int nIndex = 1;
+                daoUtil.setInt( nIndex++, nIdAfter );
+                nIndex = setFilterValues( daoUtil, filter, nIndex );
+                daoUtil.setInt( nIndex, nBatchSize );
+                daoUtil.executeQuery( );
+
+                while ( daoUtil.next( ) )
+                {
+                    listIdFormResponse.add( daoUtil.getInt( 1 ) );
+                }
+            }
+
+            if ( !listIdFormResponse.isEmpty( ) )
+            {
+                nIdAfter = listIdFormResponse.get( listIdFormResponse.size( ) - 1 );
+                batchConsumer.accept( listIdFormResponse );
+            }
+        }
+        while ( listIdFormResponse.size( ) == nBatchSize );
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int countFormResponses( FormResponseBatchFilter filter, Plugin plugin )
+    {
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_COUNT + getFilterClauses( filter ), plugin ) )
+        {
+            setFilterValues( daoUtil, filter, 1 );
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                return daoUtil.getInt( 1 );
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Build the SQL clauses of a filter
+     * 
+     * @param filter
+     *            the filter
+     * @return the SQL clauses
+     */
+    private static String getFilterClauses( FormResponseBatchFilter filter )
+    {
+        StringBuilder sbClauses = new StringBuilder( );
+        if ( filter.containsIdForm( ) )
+        {
+            sbClauses.append( SQL_FILTER_ID_FORM );
+        }
+        if ( filter.getUpdateFrom( ) != null )
+        {
+            sbClauses.append( SQL_FILTER_UPDATE_FROM );
+        }
+        if ( filter.getUpdateTo( ) != null )
+        {
+            sbClauses.append( SQL_FILTER_UPDATE_TO );
+        }
+        return sbClauses.toString( );
+    }
+
+    /**
+     * Set the values of the SQL clauses of a filter
+     * 
+     * @param daoUtil
+     *            the daoUtil
+     * @param filter
+     *            the filter
+     * @param nFirstIndex
+     *            the index of the first value
+     * @return the index following the last value
+     */
+    private static int setFilterValues( DAOUtil daoUtil, FormResponseBatchFilter filter, int nFirstIndex )
+    {
+        int nIndex = nFirstIndex;
+        if ( filter.containsIdForm( ) )
+        {
+            daoUtil.setInt( nIndex++, filter.getIdForm( ) );
+        }
+        if ( filter.getUpdateFrom( ) != null )
+        {
+            daoUtil.setTimestamp( nIndex++, filter.getUpdateFrom( ) );
+        }
+        if ( filter.getUpdateTo( ) != null )
+        {
+            daoUtil.setTimestamp( nIndex++, filter.getUpdateTo( ) );
+        }
+        return nIndex;
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -319,13 +463,38 @@ public final class FormResponseDAO implements IFormResponseDAO
      */
     @Override
     public List<FormResponse> selectFormResponseByPrimaryKeyList( List<Integer> listIdFormResponse, Plugin plugin )
+    {
+        return selectFormResponseByPrimaryKeyList( SQL_QUERY_SELECT_BY_LIST_FORM_RESPONSE, listIdFormResponse, plugin );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<FormResponse> selectCompletedFormResponseByPrimaryKeyList( List<Integer> listIdFormResponse, Plugin plugin )
+    {
+        return selectFormResponseByPrimaryKeyList( SQL_QUERY_SELECT_COMPLETED_BY_LIST_FORM_RESPONSE, listIdFormResponse, plugin );
+    }
+
+    /**
+     * Load the data of the formResponses Objects for a given list of formResponses identifiers
+     * 
+     * @param strQuery
+     *            the query, ending with the opened IN clause
+     * @param listIdFormResponse
+     *            the list of formResponses identifiers
+     * @param plugin
+     *            the Plugin
+     * @return The list which contains the data of the FormResponse objects
+     */
+    private List<FormResponse> selectFormResponseByPrimaryKeyList( String strQuery, List<Integer> listIdFormResponse, Plugin plugin )
     {
         List<FormResponse> list = new ArrayList<>( );
         int nlistIdFormResponseSize = listIdFormResponse.size( );
 
         if ( nlistIdFormResponseSize > 0 )
         {
-            StringBuilder sbSQL = new StringBuilder( SQL_QUERY_SELECT_BY_LIST_FORM_RESPONSE );
+            StringBuilder sbSQL = new StringBuilder( strQuery );
 
             for ( int i = 1; i < nlistIdFormResponseSize; i++ )
             {
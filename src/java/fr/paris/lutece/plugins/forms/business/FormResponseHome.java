@@ -33,7 +33,14 @@
  */
 package fr.paris.lutece.plugins.forms.business;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import fr.paris.lutece.plugins.genericattributes.business.Entry;
@@ -45,6 +52,7 @@ import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.resource.ExtendableResourceRemovalListenerService;
 import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
 
 /**
  * This class provides instances management methods (create, find, ...) for FormResponseHome objects
@@ -54,6 +62,8 @@ public final class FormResponseHome
     // Static variable pointed at the DAO instance
     private static IFormResponseDAO _dao = SpringContextService.getBean( "forms.formResponseDAO" );
     private static Plugin _plugin = PluginService.getPlugin( "forms" );
+    private static final int SIZE_ID_CHUNK = 500;
+    private static final int SIZE_ID_BATCH = AppPropertiesService.getPropertyInt( "forms.response.batch.size", 1000 );
 
     /**
      * Private constructor - this class need not be instantiated
@@ -136,67 +146,127 @@ public final class FormResponseHome
     }
 
     /**
-     * Returns an instance of a formResponse whose identifier is specified in parameter
+     * Returns an instance of a formResponse whose identifier is specified in parameter, loaded with the data needed by the indexation and the exports
      * 
      * @param nKey
      *            The formResponse primary key
-     * @return an instance of FormResponse
+     * @return an instance of FormResponse, or null if it does not exist or is saved as draft
      */
     public static FormResponse findByPrimaryKeyForIndex( int nKey )
+    {
+        List<FormResponse> listFormResponse = findByPrimaryKeyListForIndex( Collections.singletonList( nKey ) );
+        return listFormResponse.isEmpty( ) ? null : listFormResponse.get( 0 );
+    }
+
+    /**
+     * Returns the formResponses whose identifiers are specified in parameter, loaded with the data needed by the indexation and the exports. The
+     * formResponses are loaded by chunks, with a fixed number of queries per chunk.
+     * 
+     * @param listIdFormResponse
+     *            The formResponse primary keys
+     * @return the formResponses in the order of the given identifiers, without the ones which do not exist or are saved as draft
+     */
+    public static List<FormResponse> findByPrimaryKeyListForIndex( List<Integer> listIdFormResponse )
+    {
+        List<FormResponse> listFormResponse = new ArrayList<>( listIdFormResponse.size( ) );
+        for ( int nFrom = 0; nFrom < listIdFormResponse.size( ); nFrom += SIZE_ID_CHUNK )
+        {
+            int nTo = Math.min( nFrom + SIZE_ID_CHUNK, listIdFormResponse.size( ) );
+            listFormResponse.addAll( findChunkForIndex( listIdFormResponse.subList( nFrom, nTo ) ) );
+        }
+        return listFormResponse;
+    }
+
+    /**
+     * Load a chunk of formResponses with their steps, question responses, questions, entries and fields
+     * 
+     * @param listIdFormResponse
+     *            The formResponse primary keys
+     * @return the formResponses in the order of the given identifiers
+     */
+    private static List<FormResponse> findChunkForIndex( List<Integer> listIdFormResponse )
     {
         // FormResponse
-        FormResponse formResponse = _dao.load( nKey, _plugin );
-        if ( formResponse.isFromSave( ) )
+        Map<Integer, FormResponse> mapFormResponses = _dao.selectCompletedFormResponseByPrimaryKeyList( listIdFormResponse, _plugin ).stream( )
+                .collect( Collectors.toMap( FormResponse::getId, Function.identity( ) ) );
+        if ( mapFormResponses.isEmpty( ) )
         {
-            return null;
+            return new ArrayList<>( 0 );
         }
+        List<Integer> listIdCompleted = new ArrayList<>( mapFormResponses.keySet( ) );
 
         // FormResponseStep
-        List<FormResponseStep> formResponseStepList = FormResponseStepHome.findStepsByFormResponsePartial( formResponse.getId( ) );
-        formResponse.setSteps( formResponseStepList );
+        List<FormResponseStep> formResponseStepList = FormResponseStepHome.findStepsByFormResponseListPartial( listIdCompleted );
 
         // FormQuestionResponse
-        List<FormQuestionResponse> formQuestionResponseList = FormQuestionResponseHome
-                .selectFormQuestionResponseListByListFormResponseStep( formResponseStepList );
+        List<FormQuestionResponse> formQuestionResponseList = FormQuestionResponseHome.getFormQuestionResponseListByFormResponseList( listIdCompleted );
 
         // Questions
-        List<Question> questionList = QuestionHome.findByPrimaryKeyList( formQuestionResponseList.stream( ).map( FormQuestionResponse::getQuestion )
-                .map( Question::getId ).distinct( ).collect( Collectors.toList( ) ) );
-        List<Entry> entryList = EntryHome
-                .findByPrimaryKeyList( questionList.stream( ).map( Question::getIdEntry ).distinct( ).collect( Collectors.toList( ) ) );
-        List<Field> fieldList = FieldHome.getFieldListByListIdEntry( entryList.stream( ).map( Entry::getIdEntry ).collect( Collectors.toList( ) ) );
+        Map<Integer, Question> mapQuestions = QuestionHome
+                .findByPrimaryKeyList( formQuestionResponseList.stream( ).map( fqr -> fqr.getQuestion( ).getId( ) ).distinct( ).collect( Collectors.toList( ) ) )
+                .stream( ).collect( Collectors.toMap( Question::getId, Function.identity( ) ) );
+        Map<Integer, Entry> mapEntries = EntryHome
+                .findByPrimaryKeyList( mapQuestions.values( ).stream( ).map( Question::getIdEntry ).distinct( ).collect( Collectors.toList( ) ) ).stream( )
+                .collect( Collectors.toMap( Entry::getIdEntry, Function.identity( ) ) );
+        List<Field> fieldList = FieldHome.getFieldListByListIdEntry( new ArrayList<>( mapEntries.keySet( ) ) );
 
-        for ( Entry entry : entryList )
+        Map<Integer, Field> mapFields = new HashMap<>( );
+        for ( Entry entry : mapEntries.values( ) )
+        {
+            entry.setFields( new ArrayList<>( ) );
+        }
+        for ( Field field : fieldList )
         {
-            entry.setFields(
-                    fieldList.stream( ).filter( ( Field f ) -> f.getParentEntry( ).getIdEntry( ) == entry.getIdEntry( ) ).collect( Collectors.toList( ) ) );
+            mapFields.put( field.getIdField( ), field );
+            Entry entry = mapEntries.get( field.getParentEntry( ).getIdEntry( ) );
+            if ( entry != null )
+            {
+                entry.getFields( ).add( field );
+            }
         }
-        for ( Question question : questionList )
+        for ( Question question : mapQuestions.values( ) )
         {
-            question.setEntry( entryList.stream( ).filter( entry -> entry.getIdEntry( ) == question.getIdEntry( ) ).findFirst( ).orElse( null ) );
+            question.setEntry( mapEntries.get( question.getIdEntry( ) ) );
         }
 
-        // Populate FormQuestionResponse
+        // Populate FormQuestionResponse, grouped by form response and step
+        Map<Integer, Map<Integer, List<FormQuestionResponse>>> mapQuestionResponses = new HashMap<>( );
         for ( FormQuestionResponse fqr : formQuestionResponseList )
         {
-            fqr.setQuestion( questionList.stream( ).filter( q -> q.getId( ) == fqr.getQuestion( ).getId( ) ).findFirst( ).orElse( null ) );
+            fqr.setQuestion( mapQuestions.get( fqr.getQuestion( ).getId( ) ) );
 
             for ( Response resp : fqr.getEntryResponse( ) )
             {
                 if ( resp.getField( ) != null )
                 {
-                    resp.setField( fieldList.stream( ).filter( ( Field f ) -> f.getIdField( ) == resp.getField( ).getIdField( ) ).findFirst( ).orElse( null ) );
+                    resp.setField( mapFields.get( resp.getField( ).getIdField( ) ) );
                 }
             }
+            mapQuestionResponses.computeIfAbsent( fqr.getIdFormResponse( ), id -> new HashMap<>( ) ).computeIfAbsent( fqr.getIdStep( ), id -> new ArrayList<>( ) )
+                    .add( fqr );
         }
 
         // Populate FormResponseStep
-        for ( FormResponseStep formQuestionStep : formResponseStepList )
+        Map<Integer, List<FormResponseStep>> mapSteps = new HashMap<>( );
+        for ( FormResponseStep formResponseStep : formResponseStepList )
         {
-            formQuestionStep.setQuestions( formQuestionResponseList.stream( ).filter( fqr -> formQuestionStep.getStep( ).getId( ) == fqr.getIdStep( ) )
-                    .collect( Collectors.toList( ) ) );
+            List<FormQuestionResponse> listStepQuestions = mapQuestionResponses.getOrDefault( formResponseStep.getFormResponseId( ), Collections.emptyMap( ) )
+                    .get( formResponseStep.getStep( ).getId( ) );
+            formResponseStep.setQuestions( listStepQuestions != null ? listStepQuestions : new ArrayList<>( ) );
+            mapSteps.computeIfAbsent( formResponseStep.getFormResponseId( ), id -> new ArrayList<>( ) ).add( formResponseStep );
         }
-        return formResponse;
+
+        List<FormResponse> listFormResponse = new ArrayList<>( mapFormResponses.size( ) );
+        for ( Integer nIdFormResponse : listIdFormResponse )
+        {
+            FormResponse formResponse = mapFormResponses.get( nIdFormResponse );
+            if ( formResponse != null )
+            {
+                formResponse.setSteps( mapSteps.getOrDefault( nIdFormResponse, new ArrayList<>( ) ) );
+                listFormResponse.add( formResponse );
+            }
+        }
+        return listFormResponse;
     }
 
     /**
@@ -215,7 +285,9 @@ public final class FormResponseHome
      * Returns all the formResponse objects, completed with the steps
      * 
      * @return all the formResponse objects completed with the steps
+     * @deprecated loads all the formResponses in memory, use {@link #forEachFormResponseIdBatch(FormResponseBatchFilter, Consumer)}
      */
+    @Deprecated
     public static List<FormResponse> selectAllFormResponses( )
     {
         List<FormResponse> listFormResponses = _dao.selectFormResponseList( _plugin );
@@ -230,19 +302,82 @@ public final class FormResponseHome
      * Returns all the formResponse ids
      * 
      * @return all the formResponse ids
+     * @deprecated loads all the formResponse ids in memory, use {@link #forEachFormResponseIdBatch(FormResponseBatchFilter, Consumer)}
      */
+    @Deprecated
     public static List<Integer> selectAllFormResponsesId( )
     {
         return _dao.selectAllFormResponsesId( _plugin );
     }
 
+    /**
+     * Returns the formResponse ids of a form
+     * 
+     * @param nIdForm
+     *            the id form
+     * @return the formResponse ids of the form
+     * @deprecated loads all the formResponse ids of the form in memory, use
+     *             {@link #forEachFormResponseIdBatch(FormResponseBatchFilter, Consumer)} with {@link FormResponseBatchFilter#forForm(int)}
+     */
+    @Deprecated
+    public static List<Integer> selectFormResponsesIdByIdForm( int nIdForm )
+    {
+        List<Integer> listIdFormResponse = new ArrayList<>( );
+        forEachFormResponseIdBatch( FormResponseBatchFilter.forForm( nIdForm ), listIdFormResponse::addAll );
+        return listIdFormResponse;
+    }
+
+    /**
+     * Pass the ids of the formResponses matching a filter to a consumer, batch by batch in the order of the ids. The ids are read by keyset
+     * pagination, so that only one batch is held in memory at a time, whatever the number of formResponses.
+     * 
+     * @param filter
+     *            the filter of the formResponses
+     * @param batchConsumer
+     *            the consumer of the batches of ids
+     */
+    public static void forEachFormResponseIdBatch( FormResponseBatchFilter filter, Consumer<List<Integer>> batchConsumer )
+    {
+        _dao.selectFormResponsesIdByBatch( filter, SIZE_ID_BATCH, batchConsumer, _plugin );
+    }
+
+    /**
+     * Count the formResponses matching a filter
+     * 
+     * @param filter
+     *            the filter of the formResponses
+     * @return the number of formResponses matching the filter
+     */
+    public static int countFormResponses( FormResponseBatchFilter filter )
+    {
+        return _dao.countFormResponses( filter, _plugin );
+    }
+
+    /**
+     * Returns the update dates of the completed formResponses which follow a given id, in the order of the ids. Used to read all the completed
+     * formResponses page by page.
+     * 
+     * @param nIdFormResponseAfter
+     *            the id the returned formResponses follow
+     * @param nMaxResults
+     *            the maximum number of returned formResponses
+     * @return the update dates by formResponse id, in the order of the ids
+     */
+    public static Map<Integer, Timestamp> findCompletedUpdateDates( int nIdFormResponseAfter, int nMaxResults )
+    {
+        return _dao.selectCompletedFormResponseUpdateDates( nIdFormResponseAfter, nMaxResults, _plugin );
+    }
+
     /**
      * Returns all the formResponse objects, completed with the steps
      * 
      * @param nIdForm
      *            the id form
      * @return all the formResponse objects completed with the steps
+     * @deprecated loads all the formResponses of the form in memory, use
+     *             {@link #forEachFormResponseIdBatch(FormResponseBatchFilter, Consumer)} with {@link FormResponseBatchFilter#forForm(int)}
      */
+    @Deprecated
     public static List<FormResponse> selectAllFormResponsesUncompleteByIdForm( int nIdForm )
     {
         return _dao.selectFormResponseListUncompleteByIdForm( nIdForm, _plugin );
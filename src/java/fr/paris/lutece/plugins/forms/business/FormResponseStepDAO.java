@@ -54,6 +54,9 @@ public final class FormResponseStepDAO implements IFormResponseStepDAO
     private static final String SQL_QUERY_DELETE_BY_STEP = "DELETE FROM forms_response_step WHERE id_step = ? ";
     private static final String SQL_QUERY_UPDATE = "UPDATE forms_response_step SET id_form_response = ?, id_step = ?, order_response = ? WHERE id = ?";
     private static final String SQL_QUERY_SELECT_BY_ID_RESPONSE = SQL_QUERY_SELECTALL + " WHERE id_form_response = ? ORDER BY order_response ASC";
+    private static final String SQL_QUERY_SELECT_BY_LIST_ID_RESPONSE = SQL_QUERY_SELECTALL + " WHERE id_form_response IN (?";
+    private static final String SQL_QUERY_ORDER_BY_RESPONSE_AND_ORDER = " ) ORDER BY id_form_response ASC, order_response ASC";
+    private static final String SQL_ADITIONAL_PARAMETER = ",?";
 
     /**
      * {@inheritDoc }
@@ -77,6 +80,41 @@ public final class FormResponseStepDAO implements IFormResponseStepDAO
         }
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void insert( List<FormResponseStep> listFormResponseStep, Plugin plugin )
+    {
+        if ( listFormResponseStep.isEmpty( ) )
+        {
+            return;
+        }
+
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT, Statement.RETURN_GENERATED_KEYS, plugin ) )
+        {
+            for ( FormResponseStep formResponseStep : listFormResponseStep )
+            {
+                int nIndex = 1;
+                daoUtil.setInt( nIndex++, formResponseStep.getFormResponseId( ) );
+                daoUtil.setInt( nIndex++, formResponseStep.getStep( ).getId( ) );
+                daoUtil.setInt( nIndex++, formResponseStep.getOrder( ) );
+                daoUtil.addBatch( );
+            }
+
+            daoUtil.executeBatch( );
+
+            // The generated keys are returned in the order of the batch
+            for ( FormResponseStep formResponseStep : listFormResponseStep )
+            {
+                if ( daoUtil.nextGeneratedKey( ) )
+                {
+                    formResponseStep.setId( daoUtil.getGeneratedKeyInt( 1 ) );
+                }
+            }
+        }
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -176,6 +214,44 @@ public final class FormResponseStepDAO implements IFormResponseStepDAO
         return listIdStep;
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public List<FormResponseStep> selectFormResponseStepsByFormResponseList( List<Integer> listIdFormResponse, Plugin plugin )
+    {
+        List<FormResponseStep> list = new ArrayList<>( );
+        int nListIdFormResponseSize = listIdFormResponse.size( );
+
+        if ( nListIdFormResponseSize > 0 )
+        {
+            StringBuilder sbSQL = new StringBuilder( SQL_QUERY_SELECT_BY_LIST_ID_RESPONSE );
+
+            for ( int i = 1; i < nListIdFormResponseSize; i++ )
+            {
+                sbSQL.append( SQL_ADITIONAL_PARAMETER );
+            }
+
+            sbSQL.append( SQL_QUERY_ORDER_BY_RESPONSE_AND_ORDER );
+
+            try ( DAOUtil daoUtil = new DAOUtil( sbSQL.toString( ), plugin ) )
+            {
+                for ( int i = 0; i < nListIdFormResponseSize; i++ )
+                {
+                    daoUtil.setInt( i + 1, listIdFormResponse.get( i ) );
+                }
+
+                daoUtil.executeQuery( );
+
+                while ( daoUtil.next( ) )
+                {
+                    list.add( dataToObject( daoUtil ) );
+                }
+            }
+        }
+        return list;
+    }
+
     /**
      * 
      * @param daoUtil
@@ -69,6 +69,20 @@ public final class FormResponseStepHome
         return formResponseStep;
     }
 
+    /**
+     * Create the formResponseStep objects of a list, inserted in a single batch
+     * 
+     * @param listFormResponseStep
+     *            The formResponseStep objects to store
+     * @return The list of formResponseStep objects, with their primary keys
+     */
+    public static List<FormResponseStep> create( List<FormResponseStep> listFormResponseStep )
+    {
+        _dao.insert( listFormResponseStep, _plugin );
+
+        return listFormResponseStep;
+    }
+
     /**
      * Update of the formResponseStep which is specified in parameter
      * 
@@ -224,4 +238,17 @@ public final class FormResponseStepHome
     {
         return _dao.selectFormResponseStepsByFormResponse( nIdFormResponse, _plugin );
     }
+
+    /**
+     * Load the order step list of several FormResponses <br />
+     * Doesn't load Steps and FormQuestionResponses
+     * 
+     * @param listIdFormResponse
+     *            The form response identifiers
+     * @return the list which contains the data of all the formResponseStep objects, ordered by form response and order
+     */
+    public static List<FormResponseStep> findStepsByFormResponseListPartial( List<Integer> listIdFormResponse )
+    {
+        return _dao.selectFormResponseStepsByFormResponseList( listIdFormResponse, _plugin );
+    }
 }
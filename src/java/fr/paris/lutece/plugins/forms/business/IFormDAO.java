@@ -37,6 +37,7 @@ import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.util.ReferenceList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * IFormDAO Interface
@@ -135,6 +136,26 @@ public interface IFormDAO
      * @return return the number of response of form of user
      */
     int countNumberOfResponseFormByUser( int nIdForm, String strGuid );
+
+    /**
+     * Count the completed responses of a list of forms, grouped by form
+     * 
+     * @param listIdForm
+     *            the ids of the forms
+     * @param plugin
+     *            the Plugin
+     * @return the number of responses by form id, without the forms which have no response
+     */
+    Map<Integer, Integer> countNumberOfResponseForms( List<Integer> listIdForm, Plugin plugin );
+
+    /**
+     * Count the completed responses of all the forms, grouped by form
+     * 
+     * @param plugin
+     *            the Plugin
+     * @return the number of responses by form id, without the forms which have no response
+     */
+    Map<Integer, Integer> countNumberOfResponseAllForms( Plugin plugin );
     
     /**
      * Load the data of all form Objects for a given list of form identifiers
@@ -52,6 +52,16 @@ public interface IFormQuestionResponseDAO
      */
     void insert( FormQuestionResponse formQuestionResponse, Plugin plugin );
 
+    /**
+     * Insert new records in the table, in a single batch, with their entry responses
+     * 
+     * @param listFormQuestionResponse
+     *            the formQuestionResponse objects to insert
+     * @param plugin
+     *            the Plugin
+     */
+    void insert( List<FormQuestionResponse> listFormQuestionResponse, Plugin plugin );
+
     /**
      * Update the record in the table
      * 
@@ -72,6 +82,16 @@ public interface IFormQuestionResponseDAO
      */
     void delete( FormQuestionResponse formQuestionResponse, Plugin plugin );
 
+    /**
+     * Delete the records of a form response, with their entry responses
+     * 
+     * @param nIdFormResponse
+     *            The identifier of the form response
+     * @param plugin
+     *            the Plugin
+     */
+    void deleteByFormResponse( int nIdFormResponse, Plugin plugin );
+
     // /////////////////////////////////////////////////////////////////////////
     // Finders
 
@@ -34,7 +34,10 @@
 package fr.paris.lutece.plugins.forms.business;
 
 import fr.paris.lutece.portal.service.plugin.Plugin;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * IFormResponseDAO Interface
@@ -102,6 +105,45 @@ public interface IFormResponseDAO
      */
     List<Integer> selectAllFormResponsesId( Plugin plugin );
 
+    /**
+     * Load the update dates of the completed FormResponse objects which follow a given primary key, in the order of the primary keys
+     * 
+     * @param nIdFormResponseAfter
+     *            the primary key the loaded form responses follow
+     * @param nMaxResults
+     *            the maximum number of loaded form responses
+     * @param plugin
+     *            the Plugin
+     * @return the update dates by primary key, in the order of the primary keys
+     */
+    Map<Integer, Timestamp> selectCompletedFormResponseUpdateDates( int nIdFormResponseAfter, int nMaxResults, Plugin plugin );
+
+    /**
+     * Load the primary keys of the FormResponse objects matching a filter, page by page in the order of the primary keys, and pass each page to a
+     * consumer. Only one page is held in memory at a time.
+     * 
+     * @param filter
+     *            the filter of the form responses
+     * @param nBatchSize
+     *            the maximum number of primary keys of a page
+     * @param batchConsumer
+     *            the consumer of the pages of primary keys
+     * @param plugin
+     *            the Plugin
+     */
+    void selectFormResponsesIdByBatch( FormResponseBatchFilter filter, int nBatchSize, Consumer<List<Integer>> batchConsumer, Plugin plugin );
+
+    /**
+     * Count the FormResponse objects matching a filter
+     * 
+     * @param filter
+     *            the filter of the form responses
+     * @param plugin
+     *            the Plugin
+     * @return the number of form responses matching the filter
+     */
+    int countFormResponses( FormResponseBatchFilter filter, Plugin plugin );
+
     /**
      * Load the data of all the FormResponse objects and returns them as a list
      * 
@@ -172,6 +214,17 @@ public interface IFormResponseDAO
      */
     List<FormResponse> selectFormResponseByPrimaryKeyList( List<Integer> listIdFormResponse, Plugin plugin );
 
+    /**
+     * Load the data of the completed formResponses Objects (not saved as draft) for a given list of formResponses identifiers
+     * 
+     * @param listIdFormResponse
+     *            the list of formResponses identifiers
+     * @param plugin
+     *            the Plugin
+     * @return The list which contains the data of the completed FormResponse objects
+     */
+    List<FormResponse> selectCompletedFormResponseByPrimaryKeyList( List<Integer> listIdFormResponse, Plugin plugin );
+
     /**
      * Remove all the formResponse linked to a given Form
      * 
@@ -51,6 +51,16 @@ public interface IFormResponseStepDAO
      */
     void insert( FormResponseStep formResponseStep, Plugin plugin );
 
+    /**
+     * Insert new records in the table, in a single batch
+     * 
+     * @param listFormResponseStep
+     *            the formResponseStep objects to insert
+     * @param plugin
+     *            the Plugin
+     */
+    void insert( List<FormResponseStep> listFormResponseStep, Plugin plugin );
+
     /**
      * Update the record in the table
      * 
@@ -96,6 +106,17 @@ public interface IFormResponseStepDAO
      */
     List<FormResponseStep> selectFormResponseStepsByFormResponse( int nIdFormResponse, Plugin plugin );
 
+    /**
+     * Load the order steps list of several FormResponses
+     * 
+     * @param listIdFormResponse
+     *            The identifiers of the FormResponses
+     * @param plugin
+     *            the Plugin
+     * @return The list which contains the data of all the FormResponseStep objects, ordered by FormResponse and order
+     */
+    List<FormResponseStep> selectFormResponseStepsByFormResponseList( List<Integer> listIdFormResponse, Plugin plugin );
+
     /**
      * Remove all the formResponseStep linked to a given FormResponse
      * 
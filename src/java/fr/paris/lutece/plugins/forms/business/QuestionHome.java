@@ -84,6 +84,7 @@ public final class QuestionHome
     {
         _dao.store( question, _plugin );
         _cache.removeKey( _cache.getQuestionCacheKey( question.getId( ) ) );
+        removeFormIndexSchemaFromCache( question.getIdStep( ) );
         return question;
     }
 
@@ -102,6 +103,25 @@ public final class QuestionHome
         }
         _dao.delete( nKey, _plugin );
         _cache.removeKey( _cache.getQuestionCacheKey( nKey ) );
+        if ( questionToDelete != null )
+        {
+            removeFormIndexSchemaFromCache( questionToDelete.getIdStep( ) );
+        }
+    }
+
+    /**
+     * Remove from the cache the index schema of the form of a step
+     * 
+     * @param nIdStep
+     *            The step id
+     */
+    private static void removeFormIndexSchemaFromCache( int nIdStep )
+    {
+        Step step = StepHome.findByPrimaryKey( nIdStep );
+        if ( step != null )
+        {
+            _cache.removeKey( _cache.getFormIndexSchemaCacheKey( step.getIdForm( ) ) );
+        }
     }
 
     /**
@@ -33,6 +33,8 @@
  */
 package fr.paris.lutece.plugins.forms.business.form.column.querypart;
 
+import java.util.List;
+
 import fr.paris.lutece.plugins.forms.business.form.column.FormColumnCell;
 import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
@@ -65,4 +67,15 @@ public interface IFormColumnQueryPart
      * @return the FormColumnCell
      */
     FormColumnCell getFormColumnCell( FormResponseSearchItem formResponseSearchItem );
+
+    /**
+     * Return the prefixes of the names of the index fields read by the column to build its cell. Only these fields are loaded from the index when all the
+     * columns of a search declare them.
+     * 
+     * @return the list of field name prefixes, or null if the column needs all the fields of the document
+     */
+    default List<String> getIndexFieldNamePrefixes( )
+    {
+        return null;
+    }
 }
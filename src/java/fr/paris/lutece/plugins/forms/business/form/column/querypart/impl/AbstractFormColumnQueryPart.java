@@ -37,8 +37,10 @@ import fr.paris.lutece.plugins.forms.business.form.column.FormColumnCell;
 import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
 import fr.paris.lutece.plugins.forms.business.form.column.querypart.IFormColumnQueryPart;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -107,7 +109,7 @@ public abstract class AbstractFormColumnQueryPart implements IFormColumnQueryPar
         Map<String, String> listFields = new HashMap<>( );
         for ( Map.Entry<String, String> entry : formResponseSearchItem.getMapEntryCodeFieldsValue( ).entrySet( ) )
         {
-            String strFieldSuffixEntryCode = FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX + strEntryCode + FormResponseSearchItem.FIELD_RESPONSE_FIELD_ITER;
+            String strFieldSuffixEntryCode = getEntryCodeFieldPrefix( strEntryCode );
 
             if ( entry.getKey( ).startsWith( strFieldSuffixEntryCode ) )
             {
@@ -116,4 +118,33 @@ public abstract class AbstractFormColumnQueryPart implements IFormColumnQueryPar
         }
         return listFields;
     }
+
+    /**
+     * Get the prefix of the names of the index fields of the responses to the question with the given code
+     * 
+     * @param strEntryCode
+     *            the code of the question
+     * @return the prefix of the index field names of the responses to the question
+     */
+    protected static String getEntryCodeFieldPrefix( String strEntryCode )
+    {
+        return FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX + strEntryCode + FormResponseSearchItem.FIELD_RESPONSE_FIELD_ITER;
+    }
+
+    /**
+     * Get the prefixes of the names of the index fields of the responses to the questions with the given codes
+     * 
+     * @param listEntryCode
+     *            the codes of the questions
+     * @return the prefixes of the index field names of the responses to the questions
+     */
+    protected static List<String> getEntryCodeFieldPrefixes( List<String> listEntryCode )
+    {
+        List<String> listPrefixes = new ArrayList<>( listEntryCode.size( ) );
+        for ( String strEntryCode : listEntryCode )
+        {
+            listPrefixes.add( getEntryCodeFieldPrefix( strEntryCode ) );
+        }
+        return listPrefixes;
+    }
 }
@@ -102,4 +102,13 @@ public class FormColumnEntryCartographyQueryPart extends AbstractFormColumnQuery
         }
         return new ArrayList<>( );
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getIndexFieldNamePrefixes( )
+    {
+        return getEntryCodeFieldPrefixes( getListEntryCode( getFormColumn( ) ) );
+    }
 }
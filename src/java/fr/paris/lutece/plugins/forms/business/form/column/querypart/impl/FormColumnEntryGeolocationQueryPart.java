@@ -114,4 +114,13 @@ public class FormColumnEntryGeolocationQueryPart extends AbstractFormColumnQuery
         }
         return new ArrayList<>( );
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getIndexFieldNamePrefixes( )
+    {
+        return getEntryCodeFieldPrefixes( getListEntryCode( getFormColumn( ) ) );
+    }
 }
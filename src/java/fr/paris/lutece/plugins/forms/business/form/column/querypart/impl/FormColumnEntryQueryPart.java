@@ -79,4 +79,13 @@ public class FormColumnEntryQueryPart extends AbstractFormColumnQueryPart
         }
         return new ArrayList<>( );
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getIndexFieldNamePrefixes( )
+    {
+        return getEntryCodeFieldPrefixes( getListEntryCode( getFormColumn( ) ) );
+    }
 }
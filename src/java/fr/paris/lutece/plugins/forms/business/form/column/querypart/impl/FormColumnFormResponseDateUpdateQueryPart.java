@@ -33,7 +33,9 @@
  */
 package fr.paris.lutece.plugins.forms.business.form.column.querypart.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
@@ -58,4 +60,13 @@ public class FormColumnFormResponseDateUpdateQueryPart extends AbstractFormColum
         return mapFormColumnValues;
 
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getIndexFieldNamePrefixes( )
+    {
+        return Collections.singletonList( FormResponseSearchItem.FIELD_DATE_UPDATE );
+    }
 }
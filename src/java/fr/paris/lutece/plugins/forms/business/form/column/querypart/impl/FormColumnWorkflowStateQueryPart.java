@@ -33,7 +33,9 @@
  */
 package fr.paris.lutece.plugins.forms.business.form.column.querypart.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
@@ -61,4 +63,13 @@ public class FormColumnWorkflowStateQueryPart extends AbstractFormColumnQueryPar
 
         return mapFormColumnValues;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getIndexFieldNamePrefixes( )
+    {
+        return Collections.singletonList( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE );
+    }
 }
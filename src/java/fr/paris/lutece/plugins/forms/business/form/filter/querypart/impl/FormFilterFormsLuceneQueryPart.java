@@ -48,12 +48,25 @@ public class FormFilterFormsLuceneQueryPart extends AbstractFormFilterLuceneQuer
 {
     private static final String INTEGER_MINUS_ONE = "-1";
 
+    private Integer _nIdForm;
+
+    /**
+     * Return the id of the form selected by the filter
+     * 
+     * @return the id of the selected form, or null if all the forms are selected
+     */
+    public Integer getIdForm( )
+    {
+        return _nIdForm;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void buildFormFilterQuery( FormParameters formParameters )
     {
+        _nIdForm = null;
         if ( !formParameters.getFormParametersMap( ).isEmpty( ) )
         {
             Collection<Object> setFormParameters = formParameters.getFormParametersMap( ).values( );
@@ -63,7 +76,8 @@ public class FormFilterFormsLuceneQueryPart extends AbstractFormFilterLuceneQuer
                 String strIdForm = String.valueOf( setFormParameters.toArray( ) [0] );
                 if ( !strIdForm.equals( INTEGER_MINUS_ONE ) )
                 {
-                    Query query = IntPoint.newExactQuery( FormResponseSearchItem.FIELD_ID_FORM, Integer.parseInt( strIdForm ) );
+                    _nIdForm = Integer.valueOf( strIdForm );
+                    Query query = IntPoint.newExactQuery( FormResponseSearchItem.FIELD_ID_FORM, _nIdForm );
                     setFormFilterQuery( query );
                 }
             }
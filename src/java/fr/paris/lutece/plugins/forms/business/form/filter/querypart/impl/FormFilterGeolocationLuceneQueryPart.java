@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+
+/**
+ * Implementation of the IFormFilterQueryPart for a filter on the geolocation answers inside a bounding box, or inside a circle around a point
+ */
+public class FormFilterGeolocationLuceneQueryPart extends AbstractFormFilterLuceneQueryPart
+{
+    // Parameters
+    public static final String PARAMETER_FIELDS = "geolocation_fields";
+    public static final String PARAMETER_MIN_LATITUDE = "min_lat";
+    public static final String PARAMETER_MAX_LATITUDE = "max_lat";
+    public static final String PARAMETER_MIN_LONGITUDE = "min_lon";
+    public static final String PARAMETER_MAX_LONGITUDE = "max_lon";
+    public static final String PARAMETER_LATITUDE = "lat";
+    public static final String PARAMETER_LONGITUDE = "lon";
+    public static final String PARAMETER_RADIUS = "radius";
+
+    // Constants
+    private static final double MAX_LATITUDE = 90d;
+    private static final double MAX_LONGITUDE = 180d;
+    private static final double LONGITUDE_SPAN = 360d;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void buildFormFilterQuery( FormParameters formParameters )
+    {
+        Map<String, Object> mapParameters = formParameters.getFormParametersMap( );
+        Object objFields = mapParameters.get( PARAMETER_FIELDS );
+        if ( !( objFields instanceof Collection ) || ( (Collection<?>) objFields ).isEmpty( ) )
+        {
+            setFormFilterQuery( null );
+            return;
+        }
+
+        BooleanQuery.Builder booleanQueryBuilder = new BooleanQuery.Builder( );
+        for ( Object objField : (Collection<?>) objFields )
+        {
+            Query query = buildFieldQuery( String.valueOf( objField ), mapParameters );
+            if ( query == null )
+            {
+                setFormFilterQuery( null );
+                return;
+            }
+            booleanQueryBuilder.add( query, BooleanClause.Occur.SHOULD );
+        }
+        setFormFilterQuery( booleanQueryBuilder.build( ) );
+    }
+
+    /**
+     * Build the query on a geolocation field
+     * 
+     * @param strFieldName
+     *            The name of the geolocation field
+     * @param mapParameters
+     *            The parameters of the filter
+     * @return the distance query if a radius is given, the bounding box query if the box is given, null otherwise. A query matching no document is
+     *         returned for a viewport which is not valid, as a non finite coordinate or a negative radius
+     */
+    private static Query buildFieldQuery( String strFieldName, Map<String, Object> mapParameters )
+    {
+        if ( mapParameters.get( PARAMETER_RADIUS ) instanceof Number )
+        {
+            Double dLatitude = getDouble( mapParameters, PARAMETER_LATITUDE );
+            Double dLongitude = getDouble( mapParameters, PARAMETER_LONGITUDE );
+            if ( dLatitude == null || dLongitude == null )
+            {
+                return null;
+            }
+            double dRadius = getDouble( mapParameters, PARAMETER_RADIUS );
+            if ( !isFinite( dLatitude, dLongitude, dRadius ) || dRadius < 0 )
+            {
+                return new MatchNoDocsQuery( "Invalid geolocation circle" );
+            }
+            return LatLonPoint.newDistanceQuery( strFieldName, clampLatitude( dLatitude ), wrapLongitude( dLongitude ), dRadius );
+        }
+
+        Double dMinLatitude = getDouble( mapParameters, PARAMETER_MIN_LATITUDE );
+        Double dMaxLatitude = getDouble( mapParameters, PARAMETER_MAX_LATITUDE );
+        Double dMinLongitude = getDouble( mapParameters, PARAMETER_MIN_LONGITUDE );
+        Double dMaxLongitude = getDouble( mapParameters, PARAMETER_MAX_LONGITUDE );
+        if ( dMinLatitude == null || dMaxLatitude == null || dMinLongitude == null || dMaxLongitude == null )
+        {
+            return null;
+        }
+        if ( !isFinite( dMinLatitude, dMaxLatitude, dMinLongitude, dMaxLongitude ) )
+        {
+            return new MatchNoDocsQuery( "Invalid geolocation box" );
+        }
+
+        // A map panned past the antimeridian gives longitudes out of [-180, 180], a map zoomed out may span more than the whole world
+        double dLowerLongitude = -MAX_LONGITUDE;
+        double dUpperLongitude = MAX_LONGITUDE;
+        if ( dMaxLongitude - dMinLongitude < LONGITUDE_SPAN )
+        {
+            dLowerLongitude = wrapLongitude( dMinLongitude );
+            dUpperLongitude = wrapLongitude( dMaxLongitude );
+        }
+        // A box crossing the antimeridian has a min longitude greater than its max longitude, which is supported by the box query
+        return LatLonPoint.newBoxQuery( strFieldName, clampLatitude( dMinLatitude ), clampLatitude( dMaxLatitude ), dLowerLongitude, dUpperLongitude );
+    }
+
+    /**
+     * Tell if all the values are finite numbers
+     * 
+     * @param values
+     *            The values
+     * @return true if no value is infinite or NaN, false otherwise
+     */
+    private static boolean isFinite( double... values )
+    {
+        for ( double dValue : values )
+        {
+            if ( Double.isNaN( dValue ) || Double.isInfinite( dValue ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clamp a latitude to [-90, 90]
+     * 
+     * @param dLatitude
+     *            The latitude
+     * @return the clamped latitude
+     */
+    private static double clampLatitude( double dLatitude )
+    {
+        return Math.max( -MAX_LATITUDE, Math.min( MAX_LATITUDE, dLatitude ) );
+    }
+
+    /**
+     * Wrap a longitude to [-180, 180]
+     * 
+     * @param dLongitude
+     *            The longitude
+     * @return the same longitude on the map, inside [-180, 180]
+     */
+    private static double wrapLongitude( double dLongitude )
+    {
+        if ( dLongitude >= -MAX_LONGITUDE && dLongitude <= MAX_LONGITUDE )
+        {
+            return dLongitude;
+        }
+        return ( ( dLongitude + MAX_LONGITUDE ) % LONGITUDE_SPAN + LONGITUDE_SPAN ) % LONGITUDE_SPAN - MAX_LONGITUDE;
+    }
+
+    /**
+     * Get a number parameter of the filter
+     * 
+     * @param mapParameters
+     *            The parameters of the filter
+     * @param strParameterName
+     *            The name of the parameter
+     * @return the value of the parameter, or null if it is not a number
+     */
+    private static Double getDouble( Map<String, Object> mapParameters, String strParameterName )
+    {
+        Object objValue = mapParameters.get( strParameterName );
+        return objValue instanceof Number ? ( (Number) objValue ).doubleValue( ) : null;
+    }
+}
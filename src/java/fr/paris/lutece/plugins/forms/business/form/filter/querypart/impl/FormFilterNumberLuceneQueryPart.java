@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl;
+
+import java.util.Map.Entry;
+
+import org.apache.lucene.document.DoublePoint;
+
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+
+/**
+ * Implementation of the IFormFilterQueryPart for a range filter on the answers to a number question
+ */
+public class FormFilterNumberLuceneQueryPart extends AbstractFormFilterLuceneQueryPart
+{
+    // Constants
+    public static final String SUFFIX_FROM = "_from";
+    public static final String SUFFIX_TO = "_to";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void buildFormFilterQuery( FormParameters formParameters )
+    {
+        String strFieldName = null;
+        double dFrom = Double.NEGATIVE_INFINITY;
+        double dTo = Double.POSITIVE_INFINITY;
+
+        for ( Entry<String, Object> formParam : formParameters.getFormParametersMap( ).entrySet( ) )
+        {
+            String strKey = formParam.getKey( );
+
+            // The other parameters of the filter and the bounds which are not numbers are ignored
+            if ( !( formParam.getValue( ) instanceof Number ) )
+            {
+                continue;
+            }
+            double dValue = ( (Number) formParam.getValue( ) ).doubleValue( );
+
+            if ( strKey.endsWith( SUFFIX_FROM ) )
+            {
+                strFieldName = strKey.substring( 0, strKey.length( ) - SUFFIX_FROM.length( ) );
+                dFrom = dValue;
+            }
+            else
+                if ( strKey.endsWith( SUFFIX_TO ) )
+                {
+                    strFieldName = strKey.substring( 0, strKey.length( ) - SUFFIX_TO.length( ) );
+                    dTo = dValue;
+                }
+        }
+
+        if ( strFieldName != null )
+        {
+            // The bounds are inclusive, an unset bound leaves the range open on its side
+            setFormFilterQuery( DoublePoint.newRangeQuery( strFieldName, dFrom, dTo ) );
+        }
+        else
+        {
+            setFormFilterQuery( null );
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.MatchNoDocsQuery;
+
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+import fr.paris.lutece.plugins.forms.service.search.LuceneFormSearchEngine;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Implementation of the IFormFilterQueryPart for the searched text filter: the full text query is a clause of the panel query
+ */
+public class FormFilterSearchedTextLuceneQueryPart extends AbstractFormFilterLuceneQueryPart
+{
+    public static final String PARAMETER_SEARCHED_TEXT = "searched_text";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void buildFormFilterQuery( FormParameters formParameters )
+    {
+        Object objectSearchedText = formParameters.getFormParametersMap( ).get( PARAMETER_SEARCHED_TEXT );
+        if ( objectSearchedText == null || StringUtils.isBlank( objectSearchedText.toString( ) ) )
+        {
+            setFormFilterQuery( null );
+            return;
+        }
+
+        try
+        {
+            setFormFilterQuery( LuceneFormSearchEngine.buildSearchedTextQuery( objectSearchedText.toString( ) ) );
+        }
+        catch( ParseException e )
+        {
+            AppLogService.error( "Unable to parse the searched text " + objectSearchedText, e );
+            setFormFilterQuery( new MatchNoDocsQuery( ) );
+        }
+    }
+}
@@ -42,8 +42,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.lucene.document.IntPoint;
-import org.apache.lucene.search.Query;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 
 /**
  * Implementation of the IFormFilterQueryPart for an Entry filter
@@ -67,8 +68,14 @@ public class FormFilterWorkflowStateLuceneQueryPart extends AbstractFormFilterLu
                     .filter( i -> i != -1 )
                     .collect( Collectors.toList( ) );
 
-            Query query = IntPoint.newSetQuery( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, idList );
-            setFormFilterQuery( query );
+            // The workflow state is updated in place in the doc values, it is not indexed as a point
+            BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder( );
+            for ( Integer nIdState : idList )
+            {
+                queryBuilder.add( NumericDocValuesField.newSlowExactQuery( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, nIdState ),
+                        BooleanClause.Occur.SHOULD );
+            }
+            setFormFilterQuery( queryBuilder.build( ) );
         }
     }
 }
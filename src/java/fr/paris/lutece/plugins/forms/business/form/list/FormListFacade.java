@@ -34,6 +34,7 @@
 package fr.paris.lutece.plugins.forms.business.form.list;
 
 import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 
@@ -42,6 +43,7 @@ import javax.inject.Inject;
 import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 
 /**
  * Facade used to populate a list of FormColumn
@@ -88,4 +90,36 @@ public class FormListFacade
 
         _formListDAO.populateFormColumns( formPanel, listFormColumn, listFormFilter, nStartIndex, nPageSize, sortConfig );
     }
+
+    /**
+     * Set the total of form responses on the given FormPanel, without retrieving the values of its columns
+     * 
+     * @param formPanel
+     *            The FormPanel to count the form responses of
+     * @param listFormFilter
+     *            The list of FormFilter to use for filtering the form responses to count
+     */
+    public void populateFormResponseCount( FormPanel formPanel, List<FormFilter> listFormFilter )
+    {
+        _formListDAO.populateFormResponseCount( formPanel, listFormFilter );
+    }
+
+    /**
+     * Search the points of the geolocation answers of the form responses of the given FormPanel
+     * 
+     * @param formPanel
+     *            The FormPanel to search the form responses of
+     * @param listFormFilter
+     *            The list of FormFilter to use for filtering the form responses
+     * @param collectionGeolocationFields
+     *            The names of the geolocation fields to read
+     * @param nMaxPoints
+     *            The maximum number of points to return
+     * @return the points, at most nMaxPoints
+     */
+    public List<FormResponseGeolocation> searchFormResponseGeolocations( FormPanel formPanel, List<FormFilter> listFormFilter,
+            Collection<String> collectionGeolocationFields, int nMaxPoints )
+    {
+        return _formListDAO.searchFormResponseGeolocations( formPanel, listFormFilter, collectionGeolocationFields, nMaxPoints );
+    }
 }
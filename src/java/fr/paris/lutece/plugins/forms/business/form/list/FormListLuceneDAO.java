@@ -34,6 +34,7 @@
 package fr.paris.lutece.plugins.forms.business.form.list;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +53,7 @@ import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
 import fr.paris.lutece.plugins.forms.business.form.panel.configuration.IFormPanelConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.panel.initializer.IFormPanelInitializer;
 import fr.paris.lutece.plugins.forms.business.form.panel.initializer.querypart.IFormPanelInitializerQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
 import javax.inject.Inject;
 import fr.paris.lutece.plugins.forms.service.search.IFormSearchEngine;
@@ -85,6 +87,44 @@ public class FormListLuceneDAO implements IFormListDAO
         formPanel.setFormResponseItemList( listFormResponseItem );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void populateFormResponseCount( FormPanel formPanel, List<FormFilter> listFormFilter )
+    {
+        if ( formPanel == null )
+        {
+            return;
+        }
+
+        List<String> listQueryParametersValues = new ArrayList<>( );
+        List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart = buildFormPanelInitializerQueryPartList( formPanel, listQueryParametersValues );
+        List<IFormFilterQueryPart> listFormFilterQueryPart = buildFormFilterQueryPartList( listFormFilter, listQueryParametersValues );
+
+        _formSearchEngine.count( listFormPanelInitializerQueryPart, listFormFilterQueryPart, formPanel );
+        formPanel.setFormResponseItemList( new ArrayList<>( ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<FormResponseGeolocation> searchFormResponseGeolocations( FormPanel formPanel, List<FormFilter> listFormFilter,
+            Collection<String> collectionGeolocationFields, int nMaxPoints )
+    {
+        if ( formPanel == null )
+        {
+            return new ArrayList<>( );
+        }
+
+        List<String> listQueryParametersValues = new ArrayList<>( );
+        List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart = buildFormPanelInitializerQueryPartList( formPanel, listQueryParametersValues );
+        List<IFormFilterQueryPart> listFormFilterQueryPart = buildFormFilterQueryPartList( listFormFilter, listQueryParametersValues );
+
+        return _formSearchEngine.getGeolocations( listFormPanelInitializerQueryPart, listFormFilterQueryPart, collectionGeolocationFields, nMaxPoints );
+    }
+
     @Override
     public List<FormResponseItem> searchAllFormResponseItem( FormPanel formPanel, List<IFormColumn> listFormColumn, List<FormFilter> listFormFilter,
             FormItemSortConfig sortConfig )
@@ -35,11 +35,13 @@ package fr.paris.lutece.plugins.forms.business.form.list;
 
 import fr.paris.lutece.plugins.forms.business.form.FormResponseItem;
 import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
+import java.util.Collection;
 import java.util.List;
 
 import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 
 /**
  * DAO for retrieving the data of a list of FormColumn values from a list of FormFilter
@@ -65,6 +67,32 @@ public interface IFormListDAO
     void populateFormColumns( FormPanel formPanel, List<IFormColumn> listFormColumn, List<FormFilter> listFormFilter, int nStartIndex, int nPageSize,
             FormItemSortConfig sortConfig );
 
+    /**
+     * Set the total of form responses on the FormPanel, without retrieving the values of its columns
+     * 
+     * @param formPanel
+     *            The FormPanel to count the form responses of
+     * @param listFormFilter
+     *            The list of FormFilter used for filtering the data to count
+     */
+    void populateFormResponseCount( FormPanel formPanel, List<FormFilter> listFormFilter );
+
+    /**
+     * Search the points of the geolocation answers of the form responses of the FormPanel
+     * 
+     * @param formPanel
+     *            The FormPanel to search the form responses of
+     * @param listFormFilter
+     *            The list of FormFilter used for filtering the form responses
+     * @param collectionGeolocationFields
+     *            The names of the geolocation fields to read
+     * @param nMaxPoints
+     *            The maximum number of points to return
+     * @return the points, at most nMaxPoints
+     */
+    List<FormResponseGeolocation> searchFormResponseGeolocations( FormPanel formPanel, List<FormFilter> listFormFilter,
+            Collection<String> collectionGeolocationFields, int nMaxPoints );
+
     /**
      * Search the Lucene Index.
      * 
@@ -34,6 +34,8 @@
 package fr.paris.lutece.plugins.forms.business.form.panel;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -41,6 +43,9 @@ import org.apache.commons.lang3.StringUtils;
 import fr.paris.lutece.plugins.forms.business.form.FormResponseItem;
 import fr.paris.lutece.plugins.forms.business.form.panel.configuration.IFormPanelConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.panel.initializer.IFormPanelInitializer;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseCountCache;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseFacetCounts;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchCursor;
 
 /**
  * Abstract class for implementation of the IFormPanel
@@ -56,6 +61,10 @@ public class FormPanel
     private List<FormResponseItem> _listFormResponse = new ArrayList<>( );
     private List<IFormPanelInitializer> _listFormPanelInitializer = new ArrayList<>( );
     private int _nTotalFormResponseItemCount;
+    private final FormResponseSearchCursor _searchCursor = new FormResponseSearchCursor( );
+    private final FormResponseCountCache _countCache = new FormResponseCountCache( );
+    private FormResponseFacetCounts _facetCounts;
+    private Collection<String> _collectionFacetDimensions = Collections.emptyList( );
 
     /**
      * Return the FormPanelConfiguration of the FormPanel. This configuration contains all informations of the FormPanel.
@@ -175,4 +184,66 @@ public class FormPanel
         _nTotalFormResponseItemCount = nTotalFormResponseItemCount;
     }
 
+    /**
+     * Return the counts of the form responses of the panel by workflow state, form and choice answer
+     * 
+     * @return the facet counts of the panel, or null if they were not computed
+     */
+    public FormResponseFacetCounts getFacetCounts( )
+    {
+        return _facetCounts;
+    }
+
+    /**
+     * Set the counts of the form responses of the panel by workflow state, form and choice answer
+     * 
+     * @param facetCounts
+     *            The facet counts to set
+     */
+    public void setFacetCounts( FormResponseFacetCounts facetCounts )
+    {
+        _facetCounts = facetCounts;
+    }
+
+    /**
+     * Return the facet dimensions to count during the search of the panel
+     * 
+     * @return the facet dimensions, empty if no facet is counted
+     */
+    public Collection<String> getFacetDimensions( )
+    {
+        return _collectionFacetDimensions;
+    }
+
+    /**
+     * Set the facet dimensions to count during the search of the panel: the dimensions of the displayed filters
+     * 
+     * @param collectionFacetDimensions
+     *            The facet dimensions, empty if no facet must be counted
+     */
+    public void setFacetDimensions( Collection<String> collectionFacetDimensions )
+    {
+        _collectionFacetDimensions = collectionFacetDimensions;
+    }
+
+    /**
+     * Return the search cursor used to page through the results of the panel
+     * 
+     * @return the search cursor of the panel
+     */
+    public FormResponseSearchCursor getSearchCursor( )
+    {
+        return _searchCursor;
+    }
+
+    /**
+     * Return the cache of the total of form responses of the panel, used when the panel is not the displayed one
+     * 
+     * @return the count cache of the panel
+     */
+    public FormResponseCountCache getCountCache( )
+    {
+        return _countCache;
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.search;
+
+/**
+ * Keeps the last total computed for the query of a panel during a short time, so that the tabs of the multiview which are not displayed do not run
+ * the same count on each page load.
+ */
+public class FormResponseCountCache
+{
+    // Variables
+    private String _strQueryKey;
+    private int _nCount;
+    private long _lComputeTime;
+
+    /**
+     * Return the count computed for the given query, if it is recent enough
+     * 
+     * @param strQueryKey
+     *            the key identifying the query
+     * @param lMaxAgeMillis
+     *            the maximum age of the count in milliseconds
+     * @return the count, or null if it is unknown or too old
+     */
+    public synchronized Integer get( String strQueryKey, long lMaxAgeMillis )
+    {
+        if ( lMaxAgeMillis <= 0 || _strQueryKey == null || !_strQueryKey.equals( strQueryKey ) || System.currentTimeMillis( ) - _lComputeTime > lMaxAgeMillis )
+        {
+            return null;
+        }
+        return _nCount;
+    }
+
+    /**
+     * Store the count computed for the given query
+     * 
+     * @param strQueryKey
+     *            the key identifying the query
+     * @param nCount
+     *            the count
+     */
+    public synchronized void put( String strQueryKey, int nCount )
+    {
+        _strQueryKey = strQueryKey;
+        _nCount = nCount;
+        _lComputeTime = System.currentTimeMillis( );
+    }
+}
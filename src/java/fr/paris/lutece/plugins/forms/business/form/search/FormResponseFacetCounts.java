@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.search;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The number of form responses by value of each facet dimension, for the query of a panel. The dimensions are the workflow state, the form and the
+ * choice questions.
+ */
+public class FormResponseFacetCounts
+{
+    private final Map<String, Map<String, Integer>> _mapCountsByDimension;
+
+    /**
+     * Constructor
+     * 
+     * @param mapCountsByDimension
+     *            the number of form responses by value, for each dimension
+     */
+    public FormResponseFacetCounts( Map<String, Map<String, Integer>> mapCountsByDimension )
+    {
+        _mapCountsByDimension = new HashMap<>( mapCountsByDimension );
+    }
+
+    /**
+     * Return the number of form responses with the given value for a dimension
+     * 
+     * @param strDimension
+     *            the dimension: {@link FormResponseSearchItem#FIELD_ID_WORKFLOW_STATE}, {@link FormResponseSearchItem#FIELD_ID_FORM} or the facet key of a
+     *            choice question
+     * @param strValue
+     *            the value
+     * @return the number of form responses, 0 if none
+     */
+    public int getCount( String strDimension, String strValue )
+    {
+        return getCounts( strDimension ).getOrDefault( strValue, 0 );
+    }
+
+    /**
+     * Return the number of form responses by value for a dimension
+     * 
+     * @param strDimension
+     *            the dimension
+     * @return the number of form responses by value, empty if the dimension was not counted
+     */
+    public Map<String, Integer> getCounts( String strDimension )
+    {
+        return Collections.unmodifiableMap( _mapCountsByDimension.getOrDefault( strDimension, Collections.emptyMap( ) ) );
+    }
+
+    /**
+     * Check if a dimension was counted
+     * 
+     * @param strDimension
+     *            the dimension
+     * @return true if the dimension was counted
+     */
+    public boolean hasDimension( String strDimension )
+    {
+        return _mapCountsByDimension.containsKey( strDimension );
+    }
+}
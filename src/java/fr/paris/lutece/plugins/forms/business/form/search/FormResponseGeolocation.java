@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.search;
+
+/**
+ * The point of a geolocation answer of a form response, read from the index
+ */
+public class FormResponseGeolocation
+{
+    // Variables
+    private final int _nIdFormResponse;
+    private final double _dLatitude;
+    private final double _dLongitude;
+
+    /**
+     * Constructor
+     * 
+     * @param nIdFormResponse
+     *            The id of the form response
+     * @param dLatitude
+     *            The latitude of the point
+     * @param dLongitude
+     *            The longitude of the point
+     */
+    public FormResponseGeolocation( int nIdFormResponse, double dLatitude, double dLongitude )
+    {
+        _nIdFormResponse = nIdFormResponse;
+        _dLatitude = dLatitude;
+        _dLongitude = dLongitude;
+    }
+
+    /**
+     * @return the id of the form response
+     */
+    public int getIdFormResponse( )
+    {
+        return _nIdFormResponse;
+    }
+
+    /**
+     * @return the latitude of the point
+     */
+    public double getLatitude( )
+    {
+        return _dLatitude;
+    }
+
+    /**
+     * @return the longitude of the point
+     */
+    public double getLongitude( )
+    {
+        return _dLongitude;
+    }
+}
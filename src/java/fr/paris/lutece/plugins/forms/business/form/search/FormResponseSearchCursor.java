@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.lucene.search.ScoreDoc;
+
+/**
+ * Keeps the Lucene cursors of the pages already displayed for a given query and sort, so that the next and previous pages can be fetched with a searchAfter
+ * instead of collecting all the preceding hits.
+ */
+public class FormResponseSearchCursor
+{
+    // Constants
+    private static final int MAX_CURSOR_NUMBER = 100;
+
+    // Variables
+    private String _strSearchKey;
+    private final Map<Integer, ScoreDoc> _mapScoreDocBeforeIndex = new LinkedHashMap<Integer, ScoreDoc>( 16, 0.75f, true )
+    {
+        private static final long serialVersionUID = 7311870163286262567L;
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<Integer, ScoreDoc> eldest )
+        {
+            return size( ) > MAX_CURSOR_NUMBER;
+        }
+    };
+
+    /**
+     * Bind the cursor to the given search key. The known cursors are dropped if the key is not the one they were computed for.
+     * 
+     * @param strSearchKey
+     *            the key identifying the query and the sort of the search
+     */
+    public synchronized void bind( String strSearchKey )
+    {
+        if ( _strSearchKey == null || !_strSearchKey.equals( strSearchKey ) )
+        {
+            _mapScoreDocBeforeIndex.clear( );
+            _strSearchKey = strSearchKey;
+        }
+    }
+
+    /**
+     * Return the hit which precedes the given index in the result list
+     * 
+     * @param nIndex
+     *            the index of the first hit of a page
+     * @return the hit which precedes the given index, or null if unknown
+     */
+    public synchronized ScoreDoc getScoreDocBefore( int nIndex )
+    {
+        return _mapScoreDocBeforeIndex.get( nIndex );
+    }
+
+    /**
+     * Store the hit which precedes the given index in the result list
+     * 
+     * @param nIndex
+     *            the index of the first hit of a page
+     * @param scoreDoc
+     *            the hit at the position nIndex - 1
+     */
+    public synchronized void putScoreDocBefore( int nIndex, ScoreDoc scoreDoc )
+    {
+        if ( nIndex > 0 && scoreDoc != null )
+        {
+            _mapScoreDocBeforeIndex.put( nIndex, scoreDoc );
+        }
+    }
+
+    /**
+     * Drop all the known cursors
+     */
+    public synchronized void reset( )
+    {
+        _mapScoreDocBeforeIndex.clear( );
+        _strSearchKey = null;
+    }
+}
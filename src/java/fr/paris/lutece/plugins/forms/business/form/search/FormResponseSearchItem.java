@@ -55,6 +55,7 @@ public class FormResponseSearchItem extends SearchItem
     public static final String FIELD_FORM_TITLE = "form_title";
     public static final String FIELD_ID_WORKFLOW_STATE = "id_workflow_state";
     public static final String FIELD_TITLE_WORKFLOW_STATE = "title_workflow_state";
+    public static final String FIELD_TITLE_WORKFLOW_STATE_VALUE = "title_workflow_state_value";
     public static final String FIELD_ID_ASSIGNEE_USER = "id_assignee_user";
     public static final String FIELD_ID_ASSIGNEE_UNIT = "id_assignee_unit";
     public static final String FIELD_ENTRY_CODE_SUFFIX = "entry_code_";
@@ -63,8 +64,12 @@ public class FormResponseSearchItem extends SearchItem
     public static final String FIELD_RESPONSE_ID = "_response_id_";
     public static final String FIELD_DATE_SUFFIX = "_date";
     public static final String FIELD_INT_SUFFIX = "_int";
+    public static final String FIELD_NUMBER_SUFFIX = "_number";
     public static final String FIELD_SELECT_SUFFIX = "_select";
     public static final String FIELD_SELECT_TITLE = "_select_title";
+    public static final String FIELD_FACET_SUFFIX = "_facet";
+    public static final String FIELD_GEOLOCATION_SUFFIX = "_geoloc";
+    public static final String FIELD_TEXT_SUFFIX = "_fulltext";
     public static final String FIELD_PUBLISHED = "published";
 
     private static final int INTEGER_MINUS_ONE = -1;
@@ -95,4 +95,23 @@ public interface IIndexerActionDAO
      * @return The List which contains the data of all action
      */
     List<IndexerAction> selectList( IndexerActionFilter filter, Plugin plugin );
+
+    /**
+     * Delete a list of records from the table
+     *
+     * @param listIdAction
+     *            The identifiers of the actions
+     * @param plugin
+     *            the plugin
+     */
+    void deleteList( List<Integer> listIdAction, Plugin plugin );
+
+    /**
+     * Count the indexerActions waiting to be processed
+     *
+     * @param plugin
+     *            the plugin
+     * @return the number of indexerActions
+     */
+    int selectCount( Plugin plugin );
 }
@@ -43,9 +43,11 @@ public class IndexerAction
     public static final int TASK_CREATE = 1;
     public static final int TASK_MODIFY = 2;
     public static final int TASK_DELETE = 3;
+    public static final int TASK_MODIFY_STATE = 4;
     private int _nIdAction;
     private int _nIdTask;
     private int _nIdFormResponse;
+    private int _nIdForm;
 
     /**
      * Get the id of the action
@@ -89,6 +91,27 @@ public class IndexerAction
         _nIdFormResponse = idFormResponse;
     }
 
+    /**
+     * Get the id of the form of the form response
+     * 
+     * @return the form id, or 0 if it is not known
+     */
+    public int getIdForm( )
+    {
+        return _nIdForm;
+    }
+
+    /**
+     * Set the id of the form of the form response
+     * 
+     * @param nIdForm
+     *            the form id, or 0 if it is not known
+     */
+    public void setIdForm( int nIdForm )
+    {
+        _nIdForm = nIdForm;
+    }
+
     /**
      * get the task id
      * 
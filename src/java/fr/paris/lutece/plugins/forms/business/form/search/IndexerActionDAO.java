@@ -46,12 +46,21 @@ import java.util.List;
 public final class IndexerActionDAO implements IIndexerActionDAO
 {
     // Constants
-    private static final String SQL_QUERY_FIND_BY_PRIMARY_KEY = "SELECT id_action,id_form_response,id_task" + " FROM forms_indexer_action WHERE id_action = ?";
-    private static final String SQL_QUERY_INSERT = "INSERT INTO forms_indexer_action( id_form_response,id_task)" + " VALUES(?,?)";
+    private static final String SQL_QUERY_FIND_BY_PRIMARY_KEY = "SELECT id_action,id_form_response,id_task,id_form" + " FROM forms_indexer_action WHERE id_action = ?";
+    private static final String SQL_QUERY_INSERT = "INSERT INTO forms_indexer_action( id_form_response,id_task,id_form)" + " VALUES(?,?,?)";
     private static final String SQL_QUERY_DELETE = "DELETE FROM forms_indexer_action WHERE id_action = ? ";
-    private static final String SQL_QUERY_UPDATE = "UPDATE forms_indexer_action SET id_action=?,id_form_response=?,id_task=? WHERE id_action = ? ";
-    private static final String SQL_QUERY_SELECT = "SELECT id_action,id_form_response,id_task" + " FROM forms_indexer_action  ";
-    private static final String SQL_FILTER_ID_TASK = " WHERE id_task = ? ";
+    private static final String SQL_QUERY_UPDATE = "UPDATE forms_indexer_action SET id_action=?,id_form_response=?,id_task=?,id_form=? WHERE id_action = ? ";
+    private static final String SQL_QUERY_SELECT = "SELECT id_action,id_form_response,id_task,id_form" + " FROM forms_indexer_action  ";
+    private static final String SQL_WHERE = " WHERE ";
+    private static final String SQL_AND = " AND ";
+    private static final String SQL_FILTER_ID_TASK = " id_task = ? ";
+    private static final String SQL_FILTER_ID_FORM_RESPONSE_RANGE = " id_form_response BETWEEN ? AND ? ";
+    private static final String SQL_ORDER_BY_ID_ACTION = " ORDER BY id_action ASC";
+    private static final String SQL_QUERY_DELETE_LIST = "DELETE FROM forms_indexer_action WHERE id_action IN (?";
+    private static final String SQL_QUERY_COUNT = "SELECT COUNT(*) FROM forms_indexer_action";
+    private static final String SQL_ADITIONAL_PARAMETER = ",?";
+    private static final String SQL_CLOSE_PARENTHESIS = " ) ";
+    private static final int SIZE_ID_CHUNK = 500;
 
     /**
      * {@inheritDoc}
@@ -64,6 +73,7 @@ public final class IndexerActionDAO implements IIndexerActionDAO
         {
             daoUtil.setInt( 1, indexerAction.getIdFormResponse( ) );
             daoUtil.setInt( 2, indexerAction.getIdTask( ) );
+            daoUtil.setInt( 3, indexerAction.getIdForm( ) );
 
             daoUtil.executeUpdate( );
             if ( daoUtil.nextGeneratedKey( ) )
@@ -93,6 +103,7 @@ public final class IndexerActionDAO implements IIndexerActionDAO
                 indexerAction.setIdAction( daoUtil.getInt( 1 ) );
                 indexerAction.setIdFormResponse( daoUtil.getInt( 2 ) );
                 indexerAction.setIdTask( daoUtil.getInt( 3 ) );
+                indexerAction.setIdForm( daoUtil.getInt( 4 ) );
             }
         }
 
@@ -126,8 +137,9 @@ public final class IndexerActionDAO implements IIndexerActionDAO
             daoUtil.setInt( 1, indexerAction.getIdAction( ) );
             daoUtil.setInt( 2, indexerAction.getIdFormResponse( ) );
             daoUtil.setInt( 3, indexerAction.getIdTask( ) );
+            daoUtil.setInt( 4, indexerAction.getIdForm( ) );
 
-            daoUtil.setInt( 4, indexerAction.getIdAction( ) );
+            daoUtil.setInt( 5, indexerAction.getIdAction( ) );
 
             daoUtil.executeUpdate( );
         }
@@ -142,14 +154,30 @@ public final class IndexerActionDAO implements IIndexerActionDAO
     {
         List<IndexerAction> indexerActionList = new ArrayList<>( );
 
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT + SQL_FILTER_ID_TASK, plugin ) )
+        StringBuilder sbSQL = new StringBuilder( SQL_QUERY_SELECT );
+        if ( filter.containsIdTask( ) )
+        {
+            sbSQL.append( SQL_WHERE ).append( SQL_FILTER_ID_TASK );
+        }
+        if ( filter.containsIdFormResponseRange( ) )
+        {
+            sbSQL.append( filter.containsIdTask( ) ? SQL_AND : SQL_WHERE ).append( SQL_FILTER_ID_FORM_RESPONSE_RANGE );
+        }
+        sbSQL.append( SQL_ORDER_BY_ID_ACTION );
+
+        try ( DAOUtil daoUtil = new DAOUtil( sbSQL.toString( ), plugin ) )
         {
 
             int nIndex = 1;
 
             if ( filter.containsIdTask( ) )
             {
-                daoUtil.setInt( nIndex, filter.getIdTask( ) );
+                daoUtil.setInt( nIndex++, filter.getIdTask( ) );
+            }
+            if ( filter.containsIdFormResponseRange( ) )
+            {
+                daoUtil.setInt( nIndex++, filter.getIdFormResponseFrom( ) );
+                daoUtil.setInt( nIndex, filter.getIdFormResponseTo( ) );
             }
 
             daoUtil.executeQuery( );
@@ -161,6 +189,7 @@ public final class IndexerActionDAO implements IIndexerActionDAO
                 indexerAction.setIdAction( daoUtil.getInt( 1 ) );
                 indexerAction.setIdFormResponse( daoUtil.getInt( 2 ) );
                 indexerAction.setIdTask( daoUtil.getInt( 3 ) );
+                indexerAction.setIdForm( daoUtil.getInt( 4 ) );
 
                 indexerActionList.add( indexerAction );
             }
@@ -168,4 +197,52 @@ public final class IndexerActionDAO implements IIndexerActionDAO
 
         return indexerActionList;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteList( List<Integer> listIdAction, Plugin plugin )
+    {
+        for ( int nFrom = 0; nFrom < listIdAction.size( ); nFrom += SIZE_ID_CHUNK )
+        {
+            List<Integer> listIdChunk = listIdAction.subList( nFrom, Math.min( nFrom + SIZE_ID_CHUNK, listIdAction.size( ) ) );
+            StringBuilder sbSQL = new StringBuilder( SQL_QUERY_DELETE_LIST );
+            for ( int i = 1; i < listIdChunk.size( ); i++ )
+            {
+                sbSQL.append( SQL_ADITIONAL_PARAMETER );
+            }
+            sbSQL.append( SQL_CLOSE_PARENTHESIS );
+
+            try ( DAOUtil daoUtil = new DAOUtil( sbSQL.toString( ), plugin ) )
+            {
+                for ( int i = 0; i < listIdChunk.size( ); i++ )
+                {
+                    daoUtil.setInt( i + 1, listIdChunk.get( i ) );
+                }
+                daoUtil.executeUpdate( );
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int selectCount( Plugin plugin )
+    {
+        int nCount = 0;
+
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_COUNT, plugin ) )
+        {
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                nCount = daoUtil.getInt( 1 );
+            }
+        }
+
+        return nCount;
+    }
 }
@@ -42,6 +42,8 @@ public class IndexerActionFilter
 {
     public static final int ALL_INT = -1;
     private int _nIdTask = ALL_INT;
+    private int _nIdFormResponseFrom = ALL_INT;
+    private int _nIdFormResponseTo = ALL_INT;
 
     /**
      *
@@ -72,4 +74,46 @@ public class IndexerActionFilter
     {
         return ( _nIdTask != ALL_INT );
     }
+
+    /**
+     *
+     * @return the lowest id of the form responses of the filter, included
+     */
+    public int getIdFormResponseFrom( )
+    {
+        return _nIdFormResponseFrom;
+    }
+
+    /**
+     *
+     * @return the highest id of the form responses of the filter, included
+     */
+    public int getIdFormResponseTo( )
+    {
+        return _nIdFormResponseTo;
+    }
+
+    /**
+     * set the range of the ids of the form responses in the filter
+     * 
+     * @param nIdFormResponseFrom
+     *            the lowest id of the form responses, included
+     * @param nIdFormResponseTo
+     *            the highest id of the form responses, included
+     */
+    public void setIdFormResponseRange( int nIdFormResponseFrom, int nIdFormResponseTo )
+    {
+        _nIdFormResponseFrom = nIdFormResponseFrom;
+        _nIdFormResponseTo = nIdFormResponseTo;
+    }
+
+    /**
+     *
+     * @return true if the filter contain a range of form response ids
+     *
+     */
+    public boolean containsIdFormResponseRange( )
+    {
+        return ( _nIdFormResponseFrom != ALL_INT && _nIdFormResponseTo != ALL_INT );
+    }
 }
@@ -94,6 +94,19 @@ public final class IndexerActionHome
         _dao.delete( nId, plugin );
     }
 
+    /**
+     * Remove the indexerActions whose identifiers are specified in parameter
+     *
+     * @param listIdAction
+     *            The IndexerAction ids
+     * @param plugin
+     *            the Plugin
+     */
+    public static void removeList( List<Integer> listIdAction, Plugin plugin )
+    {
+        _dao.deleteList( listIdAction, plugin );
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Finders
 
@@ -124,4 +137,16 @@ public final class IndexerActionHome
     {
         return _dao.selectList( filter, plugin );
     }
+
+    /**
+     * Count the IndexerActions waiting to be processed
+     *
+     * @param plugin
+     *            the Plugin
+     * @return the number of indexerActions
+     */
+    public static int count( Plugin plugin )
+    {
+        return _dao.selectCount( plugin );
+    }
 }
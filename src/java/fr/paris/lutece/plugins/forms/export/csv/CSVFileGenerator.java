@@ -40,6 +40,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import fr.paris.lutece.plugins.forms.business.FormResponse;
 import fr.paris.lutece.plugins.forms.business.FormResponseHome;
@@ -62,6 +65,7 @@ public class CSVFileGenerator extends AbstractFileGenerator
 {
     private static final boolean ZIP_EXPORT = Boolean.parseBoolean( AppPropertiesService.getProperty( "forms.export.csv.zip", "false" ) );
     private static final int FLUSH_SIZE = 1000;
+    private static final int LOAD_SIZE = 500;
     public static final String UTF8_BOM = "\uFEFF";
 
     /**
@@ -113,21 +117,35 @@ public class CSVFileGenerator extends AbstractFileGenerator
             bos.write( UTF8_BOM );
             List<FormResponseItem> listFormResponseItems = MultiviewFormService.getInstance( ).searchAllListFormResponseItem( _formPanel, _listFormColumn,
                     _listFormFilter, _sortConfig );
-            for ( FormResponseItem formResponseItem : listFormResponseItems )
+            for ( int nFrom = 0; nFrom < listFormResponseItems.size( ); nFrom += LOAD_SIZE )
             {
-                count++;
-                if ( first )
+                List<FormResponseItem> listFormResponseItemsChunk = listFormResponseItems.subList( nFrom,
+                        Math.min( nFrom + LOAD_SIZE, listFormResponseItems.size( ) ) );
+                Map<Integer, FormResponse> mapFormResponses = FormResponseHome
+                        .findByPrimaryKeyListForIndex(
+                                listFormResponseItemsChunk.stream( ).map( FormResponseItem::getIdFormResponse ).collect( Collectors.toList( ) ) )
+                        .stream( ).collect( Collectors.toMap( FormResponse::getId, Function.identity( ) ) );
+
+                for ( FormResponseItem formResponseItem : listFormResponseItemsChunk )
                 {
-                    bos.write( formResponseExport.buildCsvColumnToExport( listFormResponseItems ) );
+                    count++;
+                    if ( first )
+                    {
+                        bos.write( formResponseExport.buildCsvColumnToExport( listFormResponseItems ) );
+                        bos.newLine( );
+                        first = false;
+                    }
+                    FormResponse formResponse = mapFormResponses.get( formResponseItem.getIdFormResponse( ) );
+                    if ( formResponse == null )
+                    {
+                        continue;
+                    }
+                    bos.write( formResponseExport.buildCsvDataToExport( formResponse, findWorkflowState( formResponseItem ) ) );
                     bos.newLine( );
-                    first = false;
-                }
-                FormResponse formResponse = FormResponseHome.findByPrimaryKeyForIndex( formResponseItem.getIdFormResponse( ) );
-                bos.write( formResponseExport.buildCsvDataToExport( formResponse, findWorkflowState( formResponseItem ) ) );
-                bos.newLine( );
-                if ( count % FLUSH_SIZE == 0 )
-                {
-                    bos.flush( );
+                    if ( count % FLUSH_SIZE == 0 )
+                    {
+                        bos.flush( );
+                    }
                 }
             }
             bos.flush( );
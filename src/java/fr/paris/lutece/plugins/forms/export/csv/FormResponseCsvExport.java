@@ -38,6 +38,7 @@ import fr.paris.lutece.plugins.forms.business.form.FormResponseItem;
 import fr.paris.lutece.portal.service.i18n.I18nService;
 import org.apache.commons.lang3.StringUtils;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * 
@@ -119,18 +120,24 @@ public class FormResponseCsvExport
         return sbCsvColumn.toString( );
     }
     
+    /**
+     * Load the form responses the header is built from: the first one gives the form, the last one the columns once the responses are sorted by
+     * question export order. The other form responses are not loaded, so that the memory used does not depend on the number of exported responses.
+     * 
+     * @param formResponseItems
+     *            the exported form response items
+     * @return the first and the last form responses, without their steps
+     */
     private List<FormResponse> getFormResponseFromItemList(List<FormResponseItem> formResponseItems)
     {
-    	List<FormResponse> formResponseList = new ArrayList<>();
-    	for (FormResponseItem formResponseItem : formResponseItems)
-    	{
-    		 FormResponse formResponse = FormResponseHome.findByPrimaryKeyForIndex( formResponseItem.getIdFormResponse() );
-    		 if (formResponse != null)
-    		 {
-    			 formResponseList.add(formResponse);
-    		 }
-    	}
-    	return formResponseList;
+        List<Integer> listIdFormResponse = new ArrayList<>( 2 );
+        listIdFormResponse.add( formResponseItems.get( 0 ).getIdFormResponse( ) );
+        if ( formResponseItems.size( ) > 1 )
+        {
+            listIdFormResponse.add( formResponseItems.get( formResponseItems.size( ) - 1 ).getIdFormResponse( ) );
+        }
+        return FormResponseHome.getFormResponseUncompleteByPrimaryKeyList( listIdFormResponse ).stream( )
+                .sorted( Comparator.comparingInt( formResponse -> listIdFormResponse.indexOf( formResponse.getId( ) ) ) ).collect( Collectors.toList( ) );
     }
 
     /**
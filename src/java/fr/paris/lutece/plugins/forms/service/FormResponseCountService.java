@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import fr.paris.lutece.plugins.forms.business.Form;
+import fr.paris.lutece.plugins.forms.business.FormHome;
+
+/**
+ * Counter cache of the completed responses of the forms. The counts are loaded with a single grouped query for a list of forms, incremented when a
+ * response is submitted and removed when responses are deleted. As a count can drift when a submission and a load overlap, the cached counts are
+ * periodically reconciled with the database.
+ */
+public final class FormResponseCountService
+{
+    // Variables
+    private final ConcurrentMap<Integer, Integer> _mapResponseCounts = new ConcurrentHashMap<>( );
+
+    /**
+     * Constructor
+     */
+    private FormResponseCountService( )
+    {
+    }
+
+    /**
+     * Return the singleton of the FormResponseCountService
+     * 
+     * @return the singleton of the FormResponseCountService
+     */
+    public static FormResponseCountService getInstance( )
+    {
+        return FormResponseCountServiceHolder._singleton;
+    }
+
+    /**
+     * Get the number of completed responses of a form
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the number of responses
+     */
+    public int getNumberOfResponses( int nIdForm )
+    {
+        Integer nCount = _mapResponseCounts.get( nIdForm );
+        if ( nCount == null )
+        {
+            Integer nLoadedCount = FormHome.getNumberOfResponseForms( nIdForm );
+            nCount = _mapResponseCounts.putIfAbsent( nIdForm, nLoadedCount );
+            if ( nCount == null )
+            {
+                nCount = nLoadedCount;
+            }
+        }
+        return nCount;
+    }
+
+    /**
+     * Get the number of completed responses of a list of forms. The counts which are not cached are loaded with a single query.
+     * 
+     * @param listIdForm
+     *            the ids of the forms
+     * @return the number of responses by form id
+     */
+    public Map<Integer, Integer> getNumberOfResponses( Collection<Integer> listIdForm )
+    {
+        Map<Integer, Integer> mapCounts = new HashMap<>( );
+        List<Integer> listIdFormToLoad = new ArrayList<>( );
+        for ( Integer nIdForm : listIdForm )
+        {
+            Integer nCount = _mapResponseCounts.get( nIdForm );
+            if ( nCount == null )
+            {
+                listIdFormToLoad.add( nIdForm );
+            }
+            else
+            {
+                mapCounts.put( nIdForm, nCount );
+            }
+        }
+
+        if ( !listIdFormToLoad.isEmpty( ) )
+        {
+            Map<Integer, Integer> mapLoadedCounts = FormHome.getNumberOfResponseForms( listIdFormToLoad );
+            for ( Integer nIdForm : listIdFormToLoad )
+            {
+                Integer nLoadedCount = mapLoadedCounts.getOrDefault( nIdForm, 0 );
+                Integer nCount = _mapResponseCounts.putIfAbsent( nIdForm, nLoadedCount );
+                mapCounts.put( nIdForm, nCount != null ? nCount : nLoadedCount );
+            }
+        }
+        return mapCounts;
+    }
+
+    /**
+     * Set the current number of responses of the given forms, loading the counts which are not cached with a single query
+     * 
+     * @param listForms
+     *            the forms
+     */
+    public void setCurrentNumberResponses( Collection<Form> listForms )
+    {
+        List<Integer> listIdForm = new ArrayList<>( listForms.size( ) );
+        for ( Form form : listForms )
+        {
+            listIdForm.add( form.getId( ) );
+        }
+
+        Map<Integer, Integer> mapCounts = getNumberOfResponses( listIdForm );
+        for ( Form form : listForms )
+        {
+            form.setCurrentNumberResponse( mapCounts.getOrDefault( form.getId( ), 0 ) );
+        }
+    }
+
+    /**
+     * Count a submitted response. The count of the form is only incremented when it is cached, otherwise it is loaded on next read.
+     * 
+     * @param nIdForm
+     *            the id of the form
+     */
+    public void increment( int nIdForm )
+    {
+        _mapResponseCounts.computeIfPresent( nIdForm, ( nId, nCount ) -> nCount + 1 );
+    }
+
+    /**
+     * Remove the cached count of a form, after responses of the form have been deleted or a submission has been rolled back
+     * 
+     * @param nIdForm
+     *            the id of the form
+     */
+    public void invalidate( int nIdForm )
+    {
+        _mapResponseCounts.remove( nIdForm );
+    }
+
+    /**
+     * Replace the cached counts with the counts of the database, loaded with a single grouped query. The cached counts are read before the query, so
+     * that a count which is changed while the query runs is left as is, and is reconciled on the next run.
+     * 
+     * @return the number of cached counts which were wrong
+     */
+    public int reconcile( )
+    {
+        Map<Integer, Integer> mapCachedCounts = new HashMap<>( _mapResponseCounts );
+        return reconcile( mapCachedCounts, FormHome.getNumberOfResponseAllForms( ) );
+    }
+
+    /**
+     * Replace the cached counts read before the query of the database with the counts of the database. A count is only replaced if it is still the
+     * one which has been read.
+     * 
+     * @param mapCachedCounts
+     *            the cached counts, read before the query of the database
+     * @param mapCounts
+     *            the counts of the database
+     * @return the number of cached counts which were wrong
+     */
+    int reconcile( Map<Integer, Integer> mapCachedCounts, Map<Integer, Integer> mapCounts )
+    {
+        int nCorrectedCounts = 0;
+        for ( Map.Entry<Integer, Integer> entryCachedCount : mapCachedCounts.entrySet( ) )
+        {
+            Integer nIdForm = entryCachedCount.getKey( );
+            Integer nCachedCount = entryCachedCount.getValue( );
+            Integer nCount = mapCounts.getOrDefault( nIdForm, 0 );
+            if ( !nCachedCount.equals( nCount ) && _mapResponseCounts.replace( nIdForm, nCachedCount, nCount ) )
+            {
+                nCorrectedCounts++;
+            }
+        }
+        return nCorrectedCounts;
+    }
+
+    /**
+     * Get the number of cached counts
+     * 
+     * @return the number of forms whose count is cached
+     */
+    public int getCachedCountNumber( )
+    {
+        return _mapResponseCounts.size( );
+    }
+
+    /**
+     * Holder of the singleton of the FormResponseCountService
+     */
+    private static class FormResponseCountServiceHolder
+    {
+        // Variables
+        private static final FormResponseCountService _singleton = new FormResponseCountService( );
+    }
+}
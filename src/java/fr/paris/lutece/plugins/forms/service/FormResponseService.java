@@ -36,11 +36,13 @@ package fr.paris.lutece.plugins.forms.service;
 import java.util.ArrayList;
 import java.util.List;
 
-import fr.paris.lutece.plugins.forms.business.FormQuestionResponse;
 import fr.paris.lutece.plugins.forms.business.FormQuestionResponseHome;
 import fr.paris.lutece.plugins.forms.business.FormResponse;
 import fr.paris.lutece.plugins.forms.business.FormResponseHome;
 import fr.paris.lutece.plugins.forms.business.FormResponseStepHome;
+import fr.paris.lutece.plugins.forms.business.form.search.IndexerAction;
+import fr.paris.lutece.plugins.forms.service.search.IFormSearchIndexer;
+import fr.paris.lutece.plugins.forms.service.search.LuceneFormSearchIndexer;
 import fr.paris.lutece.plugins.forms.util.FormsResponseUtils;
 import fr.paris.lutece.plugins.forms.web.FormResponseData;
 import fr.paris.lutece.portal.service.security.LuteceUser;
@@ -56,12 +58,14 @@ import fr.paris.lutece.util.sql.TransactionManager;
 public class FormResponseService
 {
     private FormService _formService;
+    private IFormSearchIndexer _formSearchIndexer;
 
     private static FormResponseService _formResponseService;
 
     private FormResponseService( )
     {
         _formService = SpringContextService.getBean( FormService.BEAN_NAME );
+        _formSearchIndexer = SpringContextService.getBean( LuceneFormSearchIndexer.BEAN_NAME );
     }
 
     public static FormResponseService getInstance( )
@@ -103,11 +107,7 @@ public class FormResponseService
         TransactionManager.beginTransaction( FormsPlugin.getPlugin( ) );
         try
         {
-            for ( FormQuestionResponse formQuestionResponse : FormQuestionResponseHome.getFormQuestionResponseListByFormResponse( formResponse.getId( ) ) )
-            {
-                FormQuestionResponseHome.remove( formQuestionResponse );
-            }
-
+            FormQuestionResponseHome.removeByFormResponse( formResponse.getId( ) );
             FormResponseStepHome.removeByFormResponse( formResponse.getId( ) );
 
             FormResponseHome.remove( formResponse.getId( ) );
@@ -117,6 +117,9 @@ public class FormResponseService
 
             WorkflowService.getInstance( ).doRemoveWorkFlowResource( formResponse.getId( ), FormResponse.RESOURCE_TYPE );
 
+            // The form is recorded with the deletion, so that the document is only deleted from the index of the form
+            _formSearchIndexer.addIndexerAction( formResponse.getId( ), formResponse.getFormId( ), IndexerAction.TASK_DELETE, FormsPlugin.getPlugin( ) );
+
             TransactionManager.commitTransaction( FormsPlugin.getPlugin( ) );
         }
         catch( Exception e )
@@ -125,6 +128,8 @@ public class FormResponseService
             throw new AppException( e.getMessage( ), e );
         }
 
+        // The count of the form is loaded again on next read
+        FormResponseCountService.getInstance( ).invalidate( formResponse.getFormId( ) );
         _formService.fireFormResponseEventDelete( formResponse );
     }
 }
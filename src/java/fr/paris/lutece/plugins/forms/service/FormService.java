@@ -33,7 +33,12 @@
  */
 package fr.paris.lutece.plugins.forms.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -50,6 +55,7 @@ import fr.paris.lutece.plugins.forms.business.FormMessageHome;
 import fr.paris.lutece.plugins.forms.business.FormQuestionResponse;
 import fr.paris.lutece.plugins.forms.business.FormQuestionResponseHome;
 import fr.paris.lutece.plugins.forms.business.FormResponse;
+import fr.paris.lutece.plugins.forms.business.FormResponseBatchFilter;
 import fr.paris.lutece.plugins.forms.business.FormResponseHome;
 import fr.paris.lutece.plugins.forms.business.FormResponseStep;
 import fr.paris.lutece.plugins.forms.business.FormResponseStepHome;
@@ -112,6 +118,9 @@ public class FormService
      */
     public void saveForm( Form form, FormResponse formResponse )
     {
+    	// A new response, or a backup which is submitted, adds a completed response to the form
+    	boolean bCountedResponse = formResponse.getId( ) == 0 || formResponse.isFromSave( );
+    	boolean bCounted = false;
     	TransactionManager.beginTransaction( FormsPlugin.getPlugin( ) );
 	    try
 	    {
@@ -129,15 +138,22 @@ public class FormService
 	            		throw new MaxFormResponseException( "The maximum number of response has been reached for the user with the guid: "+formResponse.getGuid() );    
 		            }
 	            	saveForm(formResponse );
-	                if (form.getMaxNumberResponse( ) != 0) 
+	            	// Counted before the lock is released, so that the next submission checks the maximum number of responses with it
+	                if ( bCountedResponse )
 	                {
-	                	FormsResponseUtils.increaseNumberResponse( form );
+	                	FormResponseCountService.getInstance( ).increment( form.getId( ) );
+	                	bCounted = true;
 	                }
 	            }	        
 	        }
 	    	else
 	    	{	    		
 	        	saveForm( formResponse );
+	        	if ( bCountedResponse )
+	        	{
+	        		FormResponseCountService.getInstance( ).increment( form.getId( ) );
+	        		bCounted = true;
+	        	}
 	        }
 	    	
 	        TransactionManager.commitTransaction( FormsPlugin.getPlugin( ) );
@@ -146,6 +162,10 @@ public class FormService
 	     catch( Exception e )
 	     {
 	    	 TransactionManager.rollBack( FormsPlugin.getPlugin( ) );
+	    	 if ( bCounted )
+	    	 {
+	    		 FormResponseCountService.getInstance( ).invalidate( form.getId( ) );
+	    	 }
 	         throw e ;
 	     }         
         
@@ -198,10 +218,10 @@ public class FormService
     	formResponse.setFromSave( Boolean.FALSE );	
         filterFinalSteps( formResponse );
         save( formResponse );
-        saveFormResponseSteps( formResponse );
     }
     /**
-     * Saves the form response
+     * Saves the form response with its steps and question responses. The steps and question responses of an existing form response are compared
+     * with the saved ones, so that only the changed ones are written.
      * 
      * @param formResponse
      *            the form response to save
@@ -211,18 +231,135 @@ public class FormService
         if ( formResponse.getId( ) > 0 )
         {
             FormResponseHome.update( formResponse );
+            updateFormResponseSteps( formResponse );
+        }
+        else
+        {
+        	FormResponseHome.create( formResponse );
+        	saveFormResponseSteps( formResponse );
+        }
+    }
 
-            for ( FormQuestionResponse formQuestionResponse : FormQuestionResponseHome.getFormQuestionResponseListByFormResponse( formResponse.getId( ) ) )
+    /**
+     * Updates the steps and question responses of an existing form response: the new ones are inserted, the changed ones updated and the ones which
+     * are not part of the form response anymore removed.
+     * 
+     * @param formResponse
+     *            the form response containing the form response steps to save
+     */
+    private void updateFormResponseSteps( FormResponse formResponse )
+    {
+        Map<String, FormQuestionResponse> mapQuestionResponseSaved = new HashMap<>( );
+        List<FormQuestionResponse> listQuestionResponseToRemove = new ArrayList<>( );
+        for ( FormQuestionResponse formQuestionResponseSaved : FormQuestionResponseHome.getFormQuestionResponseListByFormResponse( formResponse.getId( ) ) )
+        {
+            if ( mapQuestionResponseSaved.putIfAbsent( getQuestionResponseKey( formQuestionResponseSaved ), formQuestionResponseSaved ) != null )
             {
-                FormQuestionResponseHome.remove( formQuestionResponse );
+                listQuestionResponseToRemove.add( formQuestionResponseSaved );
             }
+        }
 
-            FormResponseStepHome.removeByFormResponse( formResponse.getId( ) );
+        Map<IEntryDataService, List<FormQuestionResponse>> mapQuestionResponsesToCreate = new LinkedHashMap<>( );
+        for ( FormResponseStep formResponseStep : formResponse.getSteps( ) )
+        {
+            formResponseStep.setFormResponseId( formResponse.getId( ) );
+
+            for ( FormQuestionResponse formQuestionResponse : formResponseStep.getQuestions( ) )
+            {
+                Question question = formQuestionResponse.getQuestion( );
+
+                if ( question != null && question.isVisible( ) )
+                {
+                    IEntryDataService dataService = EntryServiceManager.getInstance( ).getEntryDataService( question.getEntry( ).getEntryType( ) );
+                    formQuestionResponse.setIdFormResponse( formResponse.getId( ) );
+
+                    FormQuestionResponse formQuestionResponseSaved = mapQuestionResponseSaved.remove( getQuestionResponseKey( formQuestionResponse ) );
+                    if ( formQuestionResponseSaved == null )
+                    {
+                        formQuestionResponse.setId( 0 );
+                        mapQuestionResponsesToCreate.computeIfAbsent( dataService, service -> new ArrayList<>( ) ).add( formQuestionResponse );
+                    }
+                    else
+                    {
+                        formQuestionResponse.setId( formQuestionResponseSaved.getId( ) );
+                        if ( dataService.isResponseChanged( formQuestionResponseSaved, formQuestionResponse ) )
+                        {
+                            dataService.save( formQuestionResponse );
+                        }
+                    }
+                }
+            }
         }
-        else
+
+        listQuestionResponseToRemove.addAll( mapQuestionResponseSaved.values( ) );
+        for ( FormQuestionResponse formQuestionResponseToRemove : listQuestionResponseToRemove )
         {
-        	FormResponseHome.create( formResponse );
+            FormQuestionResponseHome.remove( formQuestionResponseToRemove );
+        }
+
+        for ( Map.Entry<IEntryDataService, List<FormQuestionResponse>> questionResponses : mapQuestionResponsesToCreate.entrySet( ) )
+        {
+            questionResponses.getKey( ).save( questionResponses.getValue( ) );
+        }
+
+        updateSteps( formResponse );
+    }
+
+    /**
+     * Updates the steps of an existing form response
+     * 
+     * @param formResponse
+     *            the form response containing the form response steps to save
+     */
+    private void updateSteps( FormResponse formResponse )
+    {
+        Map<Integer, FormResponseStep> mapStepSaved = new HashMap<>( );
+        for ( FormResponseStep formResponseStepSaved : FormResponseStepHome.findStepsByFormResponsePartial( formResponse.getId( ) ) )
+        {
+            FormResponseStep formResponseStepDuplicate = mapStepSaved.putIfAbsent( formResponseStepSaved.getStep( ).getId( ), formResponseStepSaved );
+            if ( formResponseStepDuplicate != null )
+            {
+                FormResponseStepHome.remove( formResponseStepSaved.getId( ) );
+            }
+        }
+
+        List<FormResponseStep> listStepToCreate = new ArrayList<>( );
+        for ( FormResponseStep formResponseStep : formResponse.getSteps( ) )
+        {
+            FormResponseStep formResponseStepSaved = mapStepSaved.remove( formResponseStep.getStep( ).getId( ) );
+            if ( formResponseStepSaved == null )
+            {
+                listStepToCreate.add( formResponseStep );
+            }
+            else
+            {
+                formResponseStep.setId( formResponseStepSaved.getId( ) );
+                if ( formResponseStepSaved.getOrder( ) != formResponseStep.getOrder( ) )
+                {
+                    FormResponseStepHome.update( formResponseStep );
+                }
+            }
         }
+
+        for ( FormResponseStep formResponseStepToRemove : mapStepSaved.values( ) )
+        {
+            FormResponseStepHome.remove( formResponseStepToRemove.getId( ) );
+        }
+
+        FormResponseStepHome.create( listStepToCreate );
+    }
+
+    /**
+     * Gets the key of a question response in its form response: the question and the iteration
+     * 
+     * @param formQuestionResponse
+     *            the form question response
+     * @return the key of the question response
+     */
+    private static String getQuestionResponseKey( FormQuestionResponse formQuestionResponse )
+    {
+        Question question = formQuestionResponse.getQuestion( );
+        return question.getId( ) + "-" + question.getIterationNumber( );
     }
     
     /**
@@ -238,30 +375,39 @@ public class FormService
     }
 
     /**
-     * Saves the form response steps
+     * Saves the form response steps. The question responses and the steps are inserted in batches.
      * 
      * @param formResponse
      *            the form response containing the form response steps to save
      */
     private void saveFormResponseSteps( FormResponse formResponse )
     {
+        Map<IEntryDataService, List<FormQuestionResponse>> mapQuestionResponsesByDataService = new LinkedHashMap<>( );
         for ( FormResponseStep formResponseStep : formResponse.getSteps( ) )
         {
             formResponseStep.setFormResponseId( formResponse.getId( ) );
 
-            saveFormQuestionResponse( formResponseStep );
+            saveFormQuestionResponse( formResponseStep, mapQuestionResponsesByDataService );
+        }
 
-            FormResponseStepHome.create( formResponseStep );
+        for ( Map.Entry<IEntryDataService, List<FormQuestionResponse>> questionResponses : mapQuestionResponsesByDataService.entrySet( ) )
+        {
+            questionResponses.getKey( ).save( questionResponses.getValue( ) );
         }
+
+        FormResponseStepHome.create( formResponse.getSteps( ) );
     }
 
     /**
-     * Saves the form question responses of the specified step
+     * Gathers the form question responses of the specified step to save, by data service
      * 
      * @param formResponseStep
      *            the form response step containing the form questions responses to save
+     * @param mapQuestionResponsesByDataService
+     *            the form question responses to save, by data service
      */
-    private void saveFormQuestionResponse( FormResponseStep formResponseStep )
+    private void saveFormQuestionResponse( FormResponseStep formResponseStep,
+            Map<IEntryDataService, List<FormQuestionResponse>> mapQuestionResponsesByDataService )
     {
         for ( FormQuestionResponse formQuestionResponse : formResponseStep.getQuestions( ) )
         {
@@ -271,7 +417,7 @@ public class FormService
             {
                 IEntryDataService dataService = EntryServiceManager.getInstance( ).getEntryDataService( question.getEntry( ).getEntryType( ) );
                 formQuestionResponse.setIdFormResponse( formResponseStep.getFormResponseId( ) );
-                dataService.save( formQuestionResponse );
+                mapQuestionResponsesByDataService.computeIfAbsent( dataService, service -> new ArrayList<>( ) ).add( formQuestionResponse );
             }
         }
     }
@@ -288,7 +434,6 @@ public class FormService
         formResponse.setFromSave( Boolean.TRUE );
 
         save( formResponse );
-        saveFormResponseSteps( formResponse );
     }
 
     /**
@@ -303,12 +448,7 @@ public class FormService
         if ( formResponse.isFromSave( ) )
         {
             FormResponseHome.remove( formResponse.getId( ) );
-
-            for ( FormQuestionResponse formQuestionResponse : FormQuestionResponseHome.getFormQuestionResponseListByFormResponse( formResponse.getId( ) ) )
-            {
-                FormQuestionResponseHome.remove( formQuestionResponse );
-            }
-
+            FormQuestionResponseHome.removeByFormResponse( formResponse.getId( ) );
             FormResponseStepHome.removeByFormResponse( formResponse.getId( ) );
         }
     }
@@ -377,6 +517,7 @@ public class FormService
         }
 
         FormResponseHome.removeByForm( nIdForm );
+        FormResponseCountService.getInstance( ).invalidate( nIdForm );
         FormMessageHome.removeByForm( nIdForm );
         FormExportConfigHome.removeByForm( nIdForm );
 
@@ -507,14 +648,7 @@ public class FormService
      */
     public void fireFormResponseEventCreation( Form form )
     {
-        new Thread( ( ) -> {
-            List<FormResponse> listFormResponse = FormResponseHome.selectAllFormResponsesUncompleteByIdForm( form.getId( ) );
-
-            for ( FormResponse formResponse : listFormResponse )
-            {
-                fireFormResponseEventCreation( formResponse );
-            }
-        } ).start( );
+        fireFormResponseEvents( form, ResourceEventManager::fireAddedResource );
     }
 
     // FORM RESPONSE UPDATE
@@ -541,14 +675,7 @@ public class FormService
      */
     public void fireFormResponseEventUpdate( Form form )
     {
-        new Thread( ( ) -> {
-            List<FormResponse> listFormResponse = FormResponseHome.selectAllFormResponsesUncompleteByIdForm( form.getId( ) );
-
-            for ( FormResponse formResponse : listFormResponse )
-            {
-                fireFormResponseEventUpdate( formResponse );
-            }
-        } ).start( );
+        fireFormResponseEvents( form, ResourceEventManager::fireUpdatedResource );
     }
 
     // FORM RESPONSE DELETION
@@ -576,16 +703,32 @@ public class FormService
      */
     public void fireFormResponseEventDelete( Form form )
     {
-        new Thread( ( ) -> {
-            List<FormResponse> listFormResponse = FormResponseHome.selectAllFormResponsesUncompleteByIdForm( form.getId( ) );
-
-            for ( FormResponse formResponse : listFormResponse )
+        fireFormResponseEvents( form, ResourceEventManager::fireDeletedResource );
+    }
+    
+    /**
+     * Fire an event on all the form responses associated to given form, in a new thread. The ids of the form responses are read batch by batch.
+     * 
+     * @param form
+     *            the form
+     * @param eventFirer
+     *            the method firing the event of a form response
+     */
+    private void fireFormResponseEvents( Form form, Consumer<ResourceEvent> eventFirer )
+    {
+        FormResponseBatchFilter filter = FormResponseBatchFilter.forForm( form.getId( ) );
+        new Thread( ( ) -> FormResponseHome.forEachFormResponseIdBatch( filter, listIdFormResponse -> {
+            for ( Integer nIdFormResponse : listIdFormResponse )
             {
-                fireFormResponseEventDelete( formResponse );
+                ResourceEvent formResponseEvent = new ResourceEvent( );
+                formResponseEvent.setIdResource( String.valueOf( nIdFormResponse ) );
+                formResponseEvent.setTypeResource( FormResponse.RESOURCE_TYPE );
+
+                eventFirer.accept( formResponseEvent );
             }
-        } ).start( );
+        } ) ).start( );
     }
-    
+
     /**
      * Save or update the field of the entry
      * @param entry
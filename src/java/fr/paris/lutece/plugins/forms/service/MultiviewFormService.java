@@ -55,20 +55,26 @@ import fr.paris.lutece.plugins.forms.business.form.filter.FormFilterForms;
 import fr.paris.lutece.plugins.forms.business.form.filter.configuration.FormFilterDateConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.filter.configuration.FormFilterEntryConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.filter.configuration.FormFilterFormsConfiguration;
+import fr.paris.lutece.plugins.forms.business.form.filter.configuration.FormFilterNumberConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.filter.configuration.IFormFilterConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.list.FormListFacade;
 import fr.paris.lutece.plugins.forms.business.form.list.FormListLuceneDAO;
 import fr.paris.lutece.plugins.forms.business.form.list.IFormListDAO;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeNumber;
 import fr.paris.lutece.plugins.forms.util.FormsConstants;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
 import fr.paris.lutece.plugins.forms.web.entrytype.EntryTypeDateDisplayService;
 import fr.paris.lutece.plugins.forms.web.entrytype.EntryTypeDefaultDisplayService;
 import fr.paris.lutece.plugins.forms.web.entrytype.IEntryDisplayService;
 import fr.paris.lutece.plugins.forms.web.form.panel.display.IFormPanelDisplay;
+import fr.paris.lutece.plugins.genericattributes.service.entrytype.EntryTypeServiceManager;
 import fr.paris.lutece.portal.service.rbac.RBACService;
 import fr.paris.lutece.portal.service.spring.SpringContextService;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -121,6 +127,40 @@ public final class MultiviewFormService
         formListFacade.populateFormColumns( formPanel, listFormColumn, listFormFilter, nStartIndex, nPageSize, sortConfig );
     }
 
+    /**
+     * Set the total of form responses on the given FormPanel, without retrieving the values of its columns
+     * 
+     * @param formPanel
+     *            The FormPanel to count the form responses of
+     * @param listFormFilter
+     *            The list of FormFilter to use for filtering the form responses to count
+     */
+    public void populateFormResponseCount( FormPanel formPanel, List<FormFilter> listFormFilter )
+    {
+        FormListFacade formListFacade = SpringContextService.getBean( FormListFacade.BEAN_NAME );
+        formListFacade.populateFormResponseCount( formPanel, listFormFilter );
+    }
+
+    /**
+     * Search the points of the geolocation answers of the form responses of the given FormPanel
+     * 
+     * @param formPanel
+     *            The FormPanel to search the form responses of
+     * @param listFormFilter
+     *            The list of FormFilter to use for filtering the form responses
+     * @param collectionGeolocationFields
+     *            The names of the geolocation fields to read
+     * @param nMaxPoints
+     *            The maximum number of points to return
+     * @return the points, at most nMaxPoints
+     */
+    public List<FormResponseGeolocation> searchFormResponseGeolocations( FormPanel formPanel, List<FormFilter> listFormFilter,
+            Collection<String> collectionGeolocationFields, int nMaxPoints )
+    {
+        FormListFacade formListFacade = SpringContextService.getBean( FormListFacade.BEAN_NAME );
+        return formListFacade.searchFormResponseGeolocations( formPanel, listFormFilter, collectionGeolocationFields, nMaxPoints );
+    }
+
     public List<FormResponseItem> searchAllListFormResponseItem( FormPanel formPanel, List<IFormColumn> listFormColumn, List<FormFilter> listFormFilter,
             FormItemSortConfig sortConfig )
     {
@@ -352,6 +392,18 @@ public final class MultiviewFormService
 
             IEntryDisplayService displayService = EntryServiceManager.getInstance( ).getEntryDisplayService( currentQuestion.getEntry( ).getEntryType( ) );
 
+            if ( EntryTypeServiceManager.getEntryTypeService( currentQuestion.getEntry( ) ) instanceof EntryTypeNumber )
+            {
+                FormFilter formFilter = new FormFilter( );
+                // The range is filtered on the answers of all the iterations of the question
+                IFormFilterConfiguration formFilterConfiguration = new FormFilterNumberConfiguration( nPosition++, currentQuestion.getTitle( ),
+                        LuceneUtils.createLuceneNumberKey( currentQuestion.getCode( ) ) );
+
+                formFilter.setFormFilterConfiguration( formFilterConfiguration );
+                mapFilters.put( currentQuestion.getCode( ), formFilter );
+                continue;
+            }
+
             if ( displayService instanceof EntryTypeDateDisplayService )
             {
                 FormFilter formFilter = new FormFilter( );
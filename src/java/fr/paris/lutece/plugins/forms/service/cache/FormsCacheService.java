@@ -131,6 +131,11 @@ public class FormsCacheService extends AbstractCacheableService implements Event
         return new StringBuilder( "FormMessage-by-Form:" ).append( nIdForm ).toString( );
     }
 
+    public String getFormIndexSchemaCacheKey( int nIdForm )
+    {
+        return new StringBuilder( "FormIndexSchema-by-Form:" ).append( nIdForm ).toString( );
+    }
+
     @Override
     public void addedResource( ResourceEvent event )
     {
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.daemon;
+
+import java.text.MessageFormat;
+
+import fr.paris.lutece.plugins.forms.service.search.FormIndexConsistencyChecker;
+import fr.paris.lutece.plugins.forms.service.search.FormIndexConsistencyReport;
+import fr.paris.lutece.portal.service.daemon.Daemon;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Daemon checking that the forms index is consistent with the database, and queueing the missing or stale form responses for reindex
+ */
+public class FormIndexConsistencyDaemon extends Daemon
+{
+    private static final String LOG_REPORT = "Forms index consistency: {0} form responses checked in {1} ms, {2} missing, {3} stale, {4} duplicated, {5} orphan documents, {6} queued for reindex, {7} already pending";
+    private static final String LOG_NOT_CHECKED = "Forms index consistency not checked: the indexer is disabled or the index can not be read";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run( )
+    {
+        FormIndexConsistencyChecker checker = SpringContextService.getBean( FormIndexConsistencyChecker.BEAN_NAME );
+        FormIndexConsistencyReport report = checker.check( );
+
+        String strLogs;
+        if ( report == null )
+        {
+            strLogs = LOG_NOT_CHECKED;
+        }
+        else
+        {
+            strLogs = MessageFormat.format( LOG_REPORT, String.valueOf( report.getCheckedFormResponses( ) ), String.valueOf( report.getDuration( ) ),
+                    String.valueOf( report.getMissingFormResponses( ) ), String.valueOf( report.getStaleFormResponses( ) ),
+                    String.valueOf( report.getDuplicateDocuments( ) ), String.valueOf( report.getOrphanDocuments( ) ),
+                    String.valueOf( report.getRepairedFormResponses( ) ), String.valueOf( report.getSkippedFormResponses( ) ) );
+        }
+        AppLogService.info( strLogs );
+        setLastRunLogs( strLogs );
+    }
+}
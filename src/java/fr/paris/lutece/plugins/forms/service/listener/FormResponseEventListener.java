@@ -73,12 +73,13 @@ public class FormResponseEventListener implements EventRessourceListener
     }
 
     /**
-     * {@inheritDoc}
+     * {@inheritDoc}. The update events are mostly fired by workflow transitions: the indexer only updates the workflow state of the response, unless
+     * the response itself has been modified since its last indexation.
      */
     @Override
     public void updatedResource( ResourceEvent event )
     {
-        indexResource( event, IndexerAction.TASK_MODIFY );
+        indexResource( event, IndexerAction.TASK_MODIFY_STATE );
     }
 
     private void indexResource( ResourceEvent event, int nIdTask )
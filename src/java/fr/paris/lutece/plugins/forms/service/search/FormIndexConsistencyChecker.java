@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.search.IndexSearcher;
+
+import fr.paris.lutece.plugins.forms.business.FormResponseHome;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.business.form.search.IndexerAction;
+import fr.paris.lutece.plugins.forms.business.form.search.IndexerActionFilter;
+import fr.paris.lutece.plugins.forms.business.form.search.IndexerActionHome;
+import fr.paris.lutece.plugins.forms.service.FormsPlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Check that the index contains the completed form responses of the database, with their last update, and queue the differing ones for reindex. The
+ * form responses of the database and the indexed ones are both read in the order of their ids, chunk by chunk, and merged.
+ */
+public class FormIndexConsistencyChecker
+{
+    public static final String BEAN_NAME = "forms.formIndexConsistencyChecker";
+    private static final int CHUNK_SIZE = AppPropertiesService.getPropertyInt( "forms.index.consistency.chunkSize", 1000 );
+
+    @Inject
+    private LuceneFormSearchFactory _luceneFormSearchFactory;
+    @Inject
+    private IFormSearchIndexer _formSearchIndexer;
+
+    /**
+     * Compare the completed form responses of the database with the indexed ones, and queue the differing ones for reindex
+     * 
+     * @return the drift found by the check, or null if the indexer is disabled or the index can not be read
+     */
+    public FormIndexConsistencyReport check( )
+    {
+        if ( !_formSearchIndexer.isEnable( ) )
+        {
+            return null;
+        }
+
+        long lStart = System.currentTimeMillis( );
+        FormIndexConsistencyReport report = new FormIndexConsistencyReport( );
+        Plugin plugin = FormsPlugin.getPlugin( );
+
+        try
+        {
+            int nIdAfter = 0;
+            boolean bLastChunk;
+            do
+            {
+                Map<Integer, Timestamp> mapUpdateDates = FormResponseHome.findCompletedUpdateDates( nIdAfter, CHUNK_SIZE );
+                bLastChunk = mapUpdateDates.size( ) < CHUNK_SIZE;
+                int nIdTo = nIdAfter;
+                for ( Integer nIdFormResponse : mapUpdateDates.keySet( ) )
+                {
+                    nIdTo = nIdFormResponse;
+                }
+                if ( bLastChunk )
+                {
+                    // The last chunk also reads the documents of the form responses removed after the last one of the database
+                    nIdTo = Integer.MAX_VALUE;
+                }
+
+                Map<Integer, Integer> mapRepairTasks = compareChunk( mapUpdateDates, nIdAfter + 1, nIdTo, plugin, report );
+                if ( mapRepairTasks == null )
+                {
+                    return null;
+                }
+                for ( Map.Entry<Integer, Integer> entryRepairTask : mapRepairTasks.entrySet( ) )
+                {
+                    _formSearchIndexer.indexDocument( entryRepairTask.getKey( ), entryRepairTask.getValue( ), plugin );
+                }
+                nIdAfter = nIdTo;
+            }
+            while ( !bLastChunk );
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( "Unable to check the consistency of the forms index", e );
+            return null;
+        }
+
+        report.setDuration( System.currentTimeMillis( ) - lStart );
+        return report;
+    }
+
+    /**
+     * Compare a chunk of completed form responses of the database with the documents indexed for the same range of ids, on a searcher acquired for
+     * the chunk only, so that the index files replaced during the check are not held
+     * 
+     * @param mapUpdateDates
+     *            the update dates of the form responses of the database, in the order of their ids
+     * @param nIdFrom
+     *            the lowest id of the range, included
+     * @param nIdTo
+     *            the highest id of the range, included
+     * @param plugin
+     *            the plugin
+     * @param report
+     *            the report the drift is added to
+     * @return the indexer task to run by id of form response to repair, or null if the index can not be searched
+     * @throws IOException
+     *             if the index can not be read
+     */
+    private Map<Integer, Integer> compareChunk( Map<Integer, Timestamp> mapUpdateDates, int nIdFrom, int nIdTo, Plugin plugin,
+            FormIndexConsistencyReport report ) throws IOException
+    {
+        IndexSearcher searcher = _luceneFormSearchFactory.acquireSearcher( );
+        if ( searcher == null )
+        {
+            return null;
+        }
+
+        try
+        {
+            // The form responses waiting for an indexer action are read once the searcher is opened, so that they are not reported as drift
+            IndexerActionFilter filter = new IndexerActionFilter( );
+            filter.setIdFormResponseRange( nIdFrom, nIdTo );
+            Set<Integer> setPendingFormResponses = IndexerActionHome.getList( filter, plugin ).stream( ).map( IndexerAction::getIdFormResponse )
+                    .collect( Collectors.toSet( ) );
+
+            return compare( searcher, mapUpdateDates, nIdFrom, nIdTo, setPendingFormResponses, report );
+        }
+        finally
+        {
+            _luceneFormSearchFactory.releaseSearcher( searcher );
+        }
+    }
+
+    /**
+     * Compare a chunk of completed form responses of the database with the documents indexed for the same range of ids
+     * 
+     * @param searcher
+     *            the searcher on the index
+     * @param mapUpdateDates
+     *            the update dates of the form responses of the database, in the order of their ids
+     * @param nIdFrom
+     *            the lowest id of the range, included
+     * @param nIdTo
+     *            the highest id of the range, included
+     * @param setPendingFormResponses
+     *            the ids of the form responses waiting for an indexer action, which are not repaired
+     * @param report
+     *            the report the drift is added to
+     * @return the indexer task to run by id of form response to repair, in the order of the ids
+     * @throws IOException
+     *             if the index can not be read
+     */
+    static Map<Integer, Integer> compare( IndexSearcher searcher, Map<Integer, Timestamp> mapUpdateDates, int nIdFrom, int nIdTo,
+            Set<Integer> setPendingFormResponses, FormIndexConsistencyReport report ) throws IOException
+    {
+        FormResponseUpdateDateCollector collector = new FormResponseUpdateDateCollector( );
+        searcher.search( IntPoint.newRangeQuery( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFrom, nIdTo ), collector );
+        List<long [ ]> listIndexedUpdateDates = collector.getUpdateDates( );
+
+        Map<Integer, Integer> mapRepairTasks = new LinkedHashMap<>( );
+        Iterator<Map.Entry<Integer, Timestamp>> iteratorDatabase = mapUpdateDates.entrySet( ).iterator( );
+        Map.Entry<Integer, Timestamp> entryDatabase = iteratorDatabase.hasNext( ) ? iteratorDatabase.next( ) : null;
+        int nIndexed = 0;
+
+        while ( entryDatabase != null || nIndexed < listIndexedUpdateDates.size( ) )
+        {
+            long lIdDatabase = entryDatabase != null ? entryDatabase.getKey( ) : Long.MAX_VALUE;
+            long lIdIndexed = nIndexed < listIndexedUpdateDates.size( ) ? listIndexedUpdateDates.get( nIndexed ) [0] : Long.MAX_VALUE;
+
+            if ( lIdDatabase < lIdIndexed )
+            {
+                report.addCheckedFormResponse( );
+                if ( !isPending( entryDatabase.getKey( ), setPendingFormResponses, report ) )
+                {
+                    report.addMissingFormResponse( );
+                    mapRepairTasks.put( entryDatabase.getKey( ), IndexerAction.TASK_CREATE );
+                }
+                entryDatabase = iteratorDatabase.hasNext( ) ? iteratorDatabase.next( ) : null;
+                continue;
+            }
+
+            // All the documents of the same form response are read at once
+            int nDocuments = 0;
+            boolean bSameUpdateDate = true;
+            while ( nIndexed < listIndexedUpdateDates.size( ) && listIndexedUpdateDates.get( nIndexed ) [0] == lIdIndexed )
+            {
+                bSameUpdateDate &= lIdDatabase == lIdIndexed && listIndexedUpdateDates.get( nIndexed ) [1] == entryDatabase.getValue( ).getTime( );
+                nDocuments++;
+                nIndexed++;
+            }
+            int nIdFormResponse = (int) lIdIndexed;
+
+            if ( lIdIndexed < lIdDatabase )
+            {
+                if ( !isPending( nIdFormResponse, setPendingFormResponses, report ) )
+                {
+                    report.addOrphanDocument( );
+                    mapRepairTasks.put( nIdFormResponse, IndexerAction.TASK_DELETE );
+                }
+                continue;
+            }
+
+            report.addCheckedFormResponse( );
+            if ( ( nDocuments > 1 || !bSameUpdateDate ) && !isPending( nIdFormResponse, setPendingFormResponses, report ) )
+            {
+                if ( nDocuments > 1 )
+                {
+                    report.addDuplicateDocument( );
+                }
+                else
+                {
+                    report.addStaleFormResponse( );
+                }
+                mapRepairTasks.put( nIdFormResponse, IndexerAction.TASK_MODIFY );
+            }
+            entryDatabase = iteratorDatabase.hasNext( ) ? iteratorDatabase.next( ) : null;
+        }
+        return mapRepairTasks;
+    }
+
+    /**
+     * Check if an indexer action is already waiting for a differing form response
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param setPendingFormResponses
+     *            the ids of the form responses waiting for an indexer action
+     * @param report
+     *            the report the skipped form response is added to
+     * @return true if an indexer action is pending, false otherwise
+     */
+    private static boolean isPending( int nIdFormResponse, Set<Integer> setPendingFormResponses, FormIndexConsistencyReport report )
+    {
+        if ( setPendingFormResponses.contains( nIdFormResponse ) )
+        {
+            report.addSkippedFormResponse( );
+            return true;
+        }
+        return false;
+    }
+}
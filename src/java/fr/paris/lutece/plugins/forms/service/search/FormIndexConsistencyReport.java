@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+/**
+ * Drift between the completed form responses of the database and the indexed ones, found by a consistency check of the index
+ */
+public class FormIndexConsistencyReport
+{
+    private int _nCheckedFormResponses;
+    private int _nMissingFormResponses;
+    private int _nStaleFormResponses;
+    private int _nOrphanDocuments;
+    private int _nDuplicateDocuments;
+    private int _nSkippedFormResponses;
+    private long _lDuration;
+
+    /**
+     * @return the number of completed form responses of the database which have been checked
+     */
+    public int getCheckedFormResponses( )
+    {
+        return _nCheckedFormResponses;
+    }
+
+    /**
+     * Count a checked form response
+     */
+    public void addCheckedFormResponse( )
+    {
+        _nCheckedFormResponses++;
+    }
+
+    /**
+     * @return the number of form responses which are not indexed
+     */
+    public int getMissingFormResponses( )
+    {
+        return _nMissingFormResponses;
+    }
+
+    /**
+     * Count a form response which is not indexed
+     */
+    public void addMissingFormResponse( )
+    {
+        _nMissingFormResponses++;
+    }
+
+    /**
+     * @return the number of form responses indexed with another update date
+     */
+    public int getStaleFormResponses( )
+    {
+        return _nStaleFormResponses;
+    }
+
+    /**
+     * Count a form response indexed with another update date
+     */
+    public void addStaleFormResponse( )
+    {
+        _nStaleFormResponses++;
+    }
+
+    /**
+     * @return the number of indexed documents whose form response does not exist or is a draft
+     */
+    public int getOrphanDocuments( )
+    {
+        return _nOrphanDocuments;
+    }
+
+    /**
+     * Count an indexed document whose form response does not exist or is a draft
+     */
+    public void addOrphanDocument( )
+    {
+        _nOrphanDocuments++;
+    }
+
+    /**
+     * @return the number of form responses indexed more than once
+     */
+    public int getDuplicateDocuments( )
+    {
+        return _nDuplicateDocuments;
+    }
+
+    /**
+     * Count a form response indexed more than once
+     */
+    public void addDuplicateDocument( )
+    {
+        _nDuplicateDocuments++;
+    }
+
+    /**
+     * @return the number of differing form responses not repaired because an indexer action is already pending for them
+     */
+    public int getSkippedFormResponses( )
+    {
+        return _nSkippedFormResponses;
+    }
+
+    /**
+     * Count a differing form response for which an indexer action is already pending
+     */
+    public void addSkippedFormResponse( )
+    {
+        _nSkippedFormResponses++;
+    }
+
+    /**
+     * @return the number of form responses queued for reindex
+     */
+    public int getRepairedFormResponses( )
+    {
+        return _nMissingFormResponses + _nStaleFormResponses + _nOrphanDocuments + _nDuplicateDocuments;
+    }
+
+    /**
+     * @return the duration of the check in milliseconds
+     */
+    public long getDuration( )
+    {
+        return _lDuration;
+    }
+
+    /**
+     * @param lDuration
+     *            the duration of the check in milliseconds
+     */
+    public void setDuration( long lDuration )
+    {
+        _lDuration = lDuration;
+    }
+}
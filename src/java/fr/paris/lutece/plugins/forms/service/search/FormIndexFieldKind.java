@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.util.BytesRef;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeCheckBox;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeDate;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeNumber;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeNumbering;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeRadioButton;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeSelect;
+import fr.paris.lutece.plugins.genericattributes.service.entrytype.IEntryTypeService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Kind of the index fields of an answer, which decides how the answer value is indexed. The kind of a question is found once from its entry type.
+ */
+public enum FormIndexFieldKind
+{
+    /**
+     * Date answer, indexed as a timestamp
+     */
+    DATE( FormResponseSearchItem.FIELD_DATE_SUFFIX )
+    {
+        @Override
+        public void addFields( Document doc, FormIndexSchema.EntryFieldNames fieldNames, String strValue, String strFieldTitle )
+        {
+            try
+            {
+                long lTimestamp = Long.parseLong( strValue );
+                doc.add( new LongPoint( fieldNames.getTypedName( ), lTimestamp ) );
+                doc.add( new NumericDocValuesField( fieldNames.getTypedName( ), lTimestamp ) );
+                doc.add( new StoredField( fieldNames.getTypedName( ), lTimestamp ) );
+            }
+            catch( NumberFormatException e )
+            {
+                AppLogService.error( "Unable to parse " + strValue + " to a timestamp ", e );
+            }
+        }
+    },
+
+    /**
+     * Numbering answer, indexed as an integer
+     */
+    NUMBERING( FormResponseSearchItem.FIELD_INT_SUFFIX )
+    {
+        @Override
+        public void addFields( Document doc, FormIndexSchema.EntryFieldNames fieldNames, String strValue, String strFieldTitle )
+        {
+            try
+            {
+                int nValue = Integer.parseInt( strValue );
+                doc.add( new IntPoint( fieldNames.getTypedName( ), nValue ) );
+                doc.add( new NumericDocValuesField( fieldNames.getTypedName( ), nValue ) );
+                doc.add( new StoredField( fieldNames.getTypedName( ), nValue ) );
+            }
+            catch( NumberFormatException e )
+            {
+                AppLogService.error( "Unable to parse " + strValue + " to integer ", e );
+            }
+        }
+    },
+
+    /**
+     * Choice answer, indexed with the title of the chosen field and counted in the facet of the question
+     */
+    CHOICE( FormResponseSearchItem.FIELD_SELECT_SUFFIX )
+    {
+        @Override
+        public void addFields( Document doc, FormIndexSchema.EntryFieldNames fieldNames, String strValue, String strFieldTitle )
+        {
+            BytesRef bytesValue = new BytesRef( strValue );
+            doc.add( new StringField( fieldNames.getTypedName( ), strValue, Field.Store.YES ) );
+            doc.add( new SortedDocValuesField( fieldNames.getTypedName( ), bytesValue ) );
+            doc.add( new SortedSetDocValuesField( fieldNames.getFacetName( ), bytesValue ) );
+            if ( strFieldTitle != null && !strFieldTitle.isEmpty( ) )
+            {
+                doc.add( new StringField( fieldNames.getSelectTitleName( ), strFieldTitle, Field.Store.YES ) );
+            }
+        }
+    },
+
+    /**
+     * Number answer, indexed as a string and as a double for the sort. The range queries are done on the number field of the question, which holds
+     * the answers of all its iterations.
+     */
+    NUMBER( FormResponseSearchItem.FIELD_NUMBER_SUFFIX )
+    {
+        @Override
+        public void addFields( Document doc, FormIndexSchema.EntryFieldNames fieldNames, String strValue, String strFieldTitle )
+        {
+            TEXT.addFields( doc, fieldNames, strValue, strFieldTitle );
+            try
+            {
+                double dValue = Double.parseDouble( strValue );
+                doc.add( new DoublePoint( fieldNames.getTypedName( ), dValue ) );
+                doc.add( new DoubleDocValuesField( fieldNames.getTypedName( ), dValue ) );
+                doc.add( new StoredField( fieldNames.getTypedName( ), dValue ) );
+                if ( fieldNames.getNumberName( ) != null )
+                {
+                    doc.add( new DoublePoint( fieldNames.getNumberName( ), dValue ) );
+                }
+            }
+            catch( NumberFormatException e )
+            {
+                AppLogService.error( "Unable to parse " + strValue + " to number ", e );
+            }
+        }
+    },
+
+    /**
+     * Any other answer, indexed as a string
+     */
+    TEXT( null )
+    {
+        @Override
+        public void addFields( Document doc, FormIndexSchema.EntryFieldNames fieldNames, String strValue, String strFieldTitle )
+        {
+            doc.add( new StringField( fieldNames.getName( ), strValue, Field.Store.YES ) );
+            doc.add( new SortedDocValuesField( fieldNames.getName( ), new BytesRef( strValue ) ) );
+        }
+    };
+
+    private final String _strSuffix;
+
+    /**
+     * Constructor
+     * 
+     * @param strSuffix
+     *            the suffix of the typed field name, or null if the answer is only indexed with the field name
+     */
+    FormIndexFieldKind( String strSuffix )
+    {
+        _strSuffix = strSuffix;
+    }
+
+    /**
+     * @return the suffix of the typed field name, or null if the answer is only indexed with the field name
+     */
+    public String getSuffix( )
+    {
+        return _strSuffix;
+    }
+
+    /**
+     * Add the index fields of an answer value to a document
+     * 
+     * @param doc
+     *            the document
+     * @param fieldNames
+     *            the prebuilt names of the fields of the answer
+     * @param strValue
+     *            the answer value, not empty
+     * @param strFieldTitle
+     *            the title of the chosen field, may be null
+     */
+    public abstract void addFields( Document doc, FormIndexSchema.EntryFieldNames fieldNames, String strValue, String strFieldTitle );
+
+    /**
+     * Find the kind of the fields of the answers of an entry type
+     * 
+     * @param entryTypeService
+     *            the entry type service
+     * @return the kind of the fields
+     */
+    public static FormIndexFieldKind of( IEntryTypeService entryTypeService )
+    {
+        if ( entryTypeService instanceof EntryTypeDate )
+        {
+            return DATE;
+        }
+        if ( entryTypeService instanceof EntryTypeNumbering )
+        {
+            return NUMBERING;
+        }
+        if ( entryTypeService instanceof EntryTypeSelect || entryTypeService instanceof EntryTypeRadioButton || entryTypeService instanceof EntryTypeCheckBox )
+        {
+            return CHOICE;
+        }
+        if ( entryTypeService instanceof EntryTypeNumber )
+        {
+            return NUMBER;
+        }
+        return TEXT;
+    }
+}
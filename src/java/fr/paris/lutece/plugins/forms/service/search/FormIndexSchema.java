@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.forms.business.Question;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeGeolocation;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
+import fr.paris.lutece.plugins.genericattributes.business.Field;
+import fr.paris.lutece.plugins.genericattributes.business.FieldHome;
+import fr.paris.lutece.plugins.genericattributes.business.Response;
+import fr.paris.lutece.plugins.genericattributes.service.entrytype.EntryTypeServiceManager;
+import fr.paris.lutece.plugins.genericattributes.service.entrytype.IEntryTypeService;
+
+/**
+ * Index schema of a form: the entry type, the kind of index fields and the prebuilt field names of each question, by iteration and response field.
+ * The schema is filled as the responses of the form are indexed, and shared by the indexing threads.
+ */
+public class FormIndexSchema
+{
+    private static final long NO_RESPONSE_FIELD = 0L;
+    private static final int ITERATION_SHIFT = 32;
+    private static final long ID_FIELD_MASK = 0xFFFFFFFFL;
+    private static final int NO_GEOLOCATION_FIELD = -1;
+    private static final String GEOLOCATION_FIELD_X = "X";
+    private static final String GEOLOCATION_FIELD_Y = "Y";
+
+    private final Map<Integer, QuestionIndexSchema> _mapQuestions = new ConcurrentHashMap<>( );
+
+    /**
+     * Return the index schema of a question of the form
+     * 
+     * @param question
+     *            the question, with its entry
+     * @return the index schema of the question
+     */
+    public QuestionIndexSchema getQuestionSchema( Question question )
+    {
+        QuestionIndexSchema questionSchema = _mapQuestions.get( question.getId( ) );
+        // The code of a question can be changed while the schema is cached
+        if ( questionSchema == null || !Objects.equals( questionSchema.getCode( ), question.getCode( ) ) )
+        {
+            questionSchema = new QuestionIndexSchema( question );
+            _mapQuestions.put( question.getId( ), questionSchema );
+        }
+        return questionSchema;
+    }
+
+    /**
+     * Index schema of a question
+     */
+    public static final class QuestionIndexSchema
+    {
+        private final String _strCode;
+        private final IEntryTypeService _entryTypeService;
+        private final FormIndexFieldKind _fieldKind;
+        private final String _strFacetName;
+        private final String _strNumberName;
+        private final String _strGeolocationName;
+        private final String _strTextName;
+        private final int _nIdLongitudeField;
+        private final int _nIdLatitudeField;
+        private final Map<Long, EntryFieldNames> _mapFieldNames = new ConcurrentHashMap<>( );
+
+        /**
+         * Constructor
+         * 
+         * @param question
+         *            the question, with its entry
+         */
+        QuestionIndexSchema( Question question )
+        {
+            _strCode = question.getCode( );
+            _entryTypeService = EntryTypeServiceManager.getEntryTypeService( question.getEntry( ) );
+            _fieldKind = FormIndexFieldKind.of( _entryTypeService );
+            _strFacetName = LuceneUtils.createLuceneFacetKey( question.getCode( ) );
+            _strNumberName = _fieldKind == FormIndexFieldKind.NUMBER ? LuceneUtils.createLuceneNumberKey( question.getCode( ) ) : null;
+            _strGeolocationName = _entryTypeService instanceof EntryTypeGeolocation ? LuceneUtils.createLuceneGeolocationKey( question.getCode( ) ) : null;
+            _strTextName = StringUtils.isNotEmpty( question.getCode( ) ) ? LuceneUtils.createLuceneTextKey( question.getCode( ) ) : null;
+
+            // The X and Y fields of a geolocation question are resolved once, instead of for each answer
+            int nIdLongitudeField = NO_GEOLOCATION_FIELD;
+            int nIdLatitudeField = NO_GEOLOCATION_FIELD;
+            if ( _strGeolocationName != null )
+            {
+                List<Field> listFields = question.getEntry( ).getFields( );
+                if ( listFields == null )
+                {
+                    listFields = FieldHome.getFieldListByIdEntry( question.getEntry( ).getIdEntry( ) );
+                }
+                for ( Field field : listFields )
+                {
+                    if ( GEOLOCATION_FIELD_X.equals( field.getValue( ) ) )
+                    {
+                        nIdLongitudeField = field.getIdField( );
+                    }
+                    else
+                        if ( GEOLOCATION_FIELD_Y.equals( field.getValue( ) ) )
+                        {
+                            nIdLatitudeField = field.getIdField( );
+                        }
+                }
+            }
+            _nIdLongitudeField = nIdLongitudeField;
+            _nIdLatitudeField = nIdLatitudeField;
+        }
+
+        /**
+         * @return the code of the question
+         */
+        public String getCode( )
+        {
+            return _strCode;
+        }
+
+        /**
+         * @return the entry type service of the question
+         */
+        public IEntryTypeService getEntryTypeService( )
+        {
+            return _entryTypeService;
+        }
+
+        /**
+         * @return the kind of the index fields of the answers
+         */
+        public FormIndexFieldKind getFieldKind( )
+        {
+            return _fieldKind;
+        }
+
+        /**
+         * @return the name of the geolocation field, or null if the question is not a geolocation question
+         */
+        public String getGeolocationName( )
+        {
+            return _strGeolocationName;
+        }
+
+        /**
+         * Tell if a response field is the X (longitude) field of the geolocation question
+         * 
+         * @param responseField
+         *            the field of a response, may be null
+         * @return true if the response field is the X field
+         */
+        public boolean isLongitudeField( Field responseField )
+        {
+            return isGeolocationField( responseField, _nIdLongitudeField, GEOLOCATION_FIELD_X );
+        }
+
+        /**
+         * Tell if a response field is the Y (latitude) field of the geolocation question
+         * 
+         * @param responseField
+         *            the field of a response, may be null
+         * @return true if the response field is the Y field
+         */
+        public boolean isLatitudeField( Field responseField )
+        {
+            return isGeolocationField( responseField, _nIdLatitudeField, GEOLOCATION_FIELD_Y );
+        }
+
+        /**
+         * @return the name of the full text field of the question, or null if the question has no code
+         */
+        public String getTextName( )
+        {
+            return _strTextName;
+        }
+
+        /**
+         * Return the names of the index fields of a response. The names are built once for each iteration and response field which has an id.
+         * 
+         * @param response
+         *            the response
+         * @return the names of the index fields of the response
+         */
+        public EntryFieldNames getFieldNames( Response response )
+        {
+            int nIterationNumber = response.getIterationNumber( ) == -1 ? 0 : response.getIterationNumber( );
+            Field responseField = response.getField( );
+
+            long lIdField = NO_RESPONSE_FIELD;
+            if ( responseField != null )
+            {
+                if ( responseField.getIdField( ) <= 0 )
+                {
+                    return buildFieldNames( nIterationNumber, getFieldName( responseField, response ) );
+                }
+                lIdField = responseField.getIdField( );
+            }
+
+            long lKey = ( (long) nIterationNumber << ITERATION_SHIFT ) | ( lIdField & ID_FIELD_MASK );
+            EntryFieldNames fieldNames = _mapFieldNames.get( lKey );
+            if ( fieldNames == null )
+            {
+                fieldNames = buildFieldNames( nIterationNumber, responseField != null ? String.valueOf( lIdField ) : null );
+                _mapFieldNames.put( lKey, fieldNames );
+            }
+            return fieldNames;
+        }
+
+        /**
+         * Build the names of the index fields of a response
+         * 
+         * @param nIterationNumber
+         *            the iteration number
+         * @param strFieldName
+         *            the name of the response field, or null if the response has no field
+         * @return the names of the index fields
+         */
+        private EntryFieldNames buildFieldNames( int nIterationNumber, String strFieldName )
+        {
+            String strName = LuceneUtils.createLuceneEntryKey( _strCode, nIterationNumber );
+            if ( strFieldName != null )
+            {
+                strName = strName + FormResponseSearchItem.FIELD_RESPONSE_FIELD_SEPARATOR + strFieldName;
+            }
+            return new EntryFieldNames( strName, _fieldKind, _strFacetName, _strNumberName );
+        }
+
+        /**
+         * Tell if a response field is a field of the geolocation question, by its id or, for a field which has no id, by its value
+         * 
+         * @param responseField
+         *            the field of a response, may be null
+         * @param nIdGeolocationField
+         *            the id of the geolocation field
+         * @param strGeolocationFieldValue
+         *            the value of the geolocation field
+         * @return true if the response field is the geolocation field
+         */
+        private static boolean isGeolocationField( Field responseField, int nIdGeolocationField, String strGeolocationFieldValue )
+        {
+            if ( responseField == null )
+            {
+                return false;
+            }
+            if ( responseField.getIdField( ) > 0 )
+            {
+                return responseField.getIdField( ) == nIdGeolocationField;
+            }
+            return strGeolocationFieldValue.equals( responseField.getValue( ) );
+        }
+
+        /**
+         * Get the name of a response field which has no id
+         * 
+         * @param responseField
+         *            the response field
+         * @param response
+         *            the response
+         * @return the field name
+         */
+        private static String getFieldName( Field responseField, Response response )
+        {
+            if ( !StringUtils.isEmpty( responseField.getCode( ) ) )
+            {
+                return responseField.getCode( );
+            }
+            if ( !StringUtils.isEmpty( responseField.getTitle( ) ) )
+            {
+                return responseField.getTitle( );
+            }
+            return String.valueOf( response.getIdResponse( ) );
+        }
+    }
+
+    /**
+     * Prebuilt names of the index fields of a response
+     */
+    public static final class EntryFieldNames
+    {
+        private final String _strName;
+        private final String _strTypedName;
+        private final String _strSelectTitleName;
+        private final String _strFacetName;
+        private final String _strNumberName;
+
+        /**
+         * Constructor
+         * 
+         * @param strName
+         *            the name of the field of the response
+         * @param fieldKind
+         *            the kind of the index fields
+         * @param strFacetName
+         *            the name of the facet field of the question
+         * @param strNumberName
+         *            the name of the number field of the question, or null if the question is not a number question
+         */
+        EntryFieldNames( String strName, FormIndexFieldKind fieldKind, String strFacetName, String strNumberName )
+        {
+            _strName = strName;
+            _strTypedName = fieldKind.getSuffix( ) != null ? strName + fieldKind.getSuffix( ) : strName;
+            _strSelectTitleName = strName + FormResponseSearchItem.FIELD_SELECT_TITLE;
+            _strFacetName = strFacetName;
+            _strNumberName = strNumberName;
+        }
+
+        /**
+         * @return the name of the field of the response, used to detect the responses indexed twice
+         */
+        public String getName( )
+        {
+            return _strName;
+        }
+
+        /**
+         * @return the name of the field typed with the kind of the answer
+         */
+        public String getTypedName( )
+        {
+            return _strTypedName;
+        }
+
+        /**
+         * @return the name of the field of the title of a chosen field
+         */
+        public String getSelectTitleName( )
+        {
+            return _strSelectTitleName;
+        }
+
+        /**
+         * @return the name of the facet field of the question
+         */
+        public String getFacetName( )
+        {
+            return _strFacetName;
+        }
+
+        /**
+         * @return the name of the number field of the question, which holds the answers of all its iterations, or null if the question is not a number
+         *         question
+         */
+        public String getNumberName( )
+        {
+            return _strNumberName;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.MultiReader;
+
+/**
+ * Reader on the indexes of several forms, when there is one index per form. The readers of the forms are kept until this reader is released.
+ */
+public class FormIndexShardsReader extends MultiReader
+{
+    private static final String VERSION_SEPARATOR = "-";
+
+    private final String _strVersion;
+
+    /**
+     * Constructor
+     * 
+     * @param shardReaders
+     *            the readers of the indexes of the forms
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public FormIndexShardsReader( DirectoryReader [ ] shardReaders ) throws IOException
+    {
+        super( shardReaders, false );
+        _strVersion = Arrays.stream( shardReaders ).map( shardReader -> String.valueOf( shardReader.getVersion( ) ) )
+                .collect( Collectors.joining( VERSION_SEPARATOR ) );
+    }
+
+    /**
+     * Return the version of the read indexes, which changes as soon as one of them changes
+     * 
+     * @return the version of the read indexes
+     */
+    public String getVersion( )
+    {
+        return _strVersion;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseFacetCounts;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+
+/**
+ * Collector counting the matching form responses by value of the requested dimensions: the workflow state, the form or the answer of a choice
+ * question. The counts are read from the doc values of the documents, in the pass which counts the hits.
+ */
+public class FormResponseFacetCollector extends SimpleCollector
+{
+    // Constants
+    private static final List<String> LIST_NUMERIC_DIMENSIONS = Arrays.asList( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE,
+            FormResponseSearchItem.FIELD_ID_FORM );
+    private static final int MAX_ARRAY_COUNTED_VALUE = 1 << 16;
+    private static final int INITIAL_ARRAY_SIZE = 64;
+
+    // Variables
+    private final List<String> _listNumericDimensions = new ArrayList<>( );
+    private final List<String> _listChoiceDimensions = new ArrayList<>( );
+    private final List<int [ ]> _listNumericCounts = new ArrayList<>( );
+    private final List<Map<Long, Integer>> _listNumericOutOfRangeCounts = new ArrayList<>( );
+    private final NumericDocValues [ ] _numericDocValues;
+    private final Map<String, Map<String, Integer>> _mapChoiceCounts = new HashMap<>( );
+    private final List<String> _listLeafChoiceDimensions = new ArrayList<>( );
+    private final List<SortedSetDocValues> _listLeafChoiceDocValues = new ArrayList<>( );
+    private final List<int [ ]> _listLeafOrdCounts = new ArrayList<>( );
+    private int _nTotalHits;
+
+    /**
+     * Constructor
+     * 
+     * @param collectionDimensions
+     *            the dimensions to count: {@link FormResponseSearchItem#FIELD_ID_WORKFLOW_STATE}, {@link FormResponseSearchItem#FIELD_ID_FORM} or the facet
+     *            keys of choice questions
+     */
+    public FormResponseFacetCollector( Collection<String> collectionDimensions )
+    {
+        for ( String strDimension : collectionDimensions )
+        {
+            if ( LIST_NUMERIC_DIMENSIONS.contains( strDimension ) )
+            {
+                if ( !_listNumericDimensions.contains( strDimension ) )
+                {
+                    _listNumericDimensions.add( strDimension );
+                    _listNumericCounts.add( new int [ INITIAL_ARRAY_SIZE] );
+                    _listNumericOutOfRangeCounts.add( new HashMap<>( ) );
+                }
+            }
+            else
+                if ( strDimension.endsWith( FormResponseSearchItem.FIELD_FACET_SUFFIX ) && !_listChoiceDimensions.contains( strDimension ) )
+                {
+                    _listChoiceDimensions.add( strDimension );
+                }
+        }
+        _numericDocValues = new NumericDocValues [ _listNumericDimensions.size( )];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doSetNextReader( LeafReaderContext context ) throws IOException
+    {
+        flushLeafCounts( );
+
+        LeafReader reader = context.reader( );
+        for ( int i = 0; i < _numericDocValues.length; i++ )
+        {
+            _numericDocValues [i] = reader.getNumericDocValues( _listNumericDimensions.get( i ) );
+        }
+        for ( String strDimension : _listChoiceDimensions )
+        {
+            FieldInfo fieldInfo = reader.getFieldInfos( ).fieldInfo( strDimension );
+            if ( fieldInfo != null && fieldInfo.getDocValuesType( ) == DocValuesType.SORTED_SET )
+            {
+                SortedSetDocValues sortedSetDocValues = DocValues.getSortedSet( reader, strDimension );
+                _listLeafChoiceDimensions.add( strDimension );
+                _listLeafChoiceDocValues.add( sortedSetDocValues );
+                _listLeafOrdCounts.add( new int [ (int) sortedSetDocValues.getValueCount( )] );
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void collect( int doc ) throws IOException
+    {
+        _nTotalHits++;
+
+        for ( int i = 0; i < _numericDocValues.length; i++ )
+        {
+            NumericDocValues numericDocValues = _numericDocValues [i];
+            if ( numericDocValues != null && numericDocValues.advanceExact( doc ) )
+            {
+                countNumericValue( i, numericDocValues.longValue( ) );
+            }
+        }
+
+        for ( int i = 0; i < _listLeafChoiceDocValues.size( ); i++ )
+        {
+            SortedSetDocValues sortedSetDocValues = _listLeafChoiceDocValues.get( i );
+            if ( sortedSetDocValues.advanceExact( doc ) )
+            {
+                int [ ] ordCounts = _listLeafOrdCounts.get( i );
+                for ( long lOrd = sortedSetDocValues.nextOrd( ); lOrd != SortedSetDocValues.NO_MORE_ORDS; lOrd = sortedSetDocValues.nextOrd( ) )
+                {
+                    ordCounts [(int) lOrd]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ScoreMode scoreMode( )
+    {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * Return the number of matching form responses
+     * 
+     * @return the number of matching form responses
+     */
+    public int getTotalHits( )
+    {
+        return _nTotalHits;
+    }
+
+    /**
+     * Return the counts of the matching form responses by value of each requested dimension. Must be called once the search is done.
+     * 
+     * @return the facet counts
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public FormResponseFacetCounts getFacetCounts( ) throws IOException
+    {
+        flushLeafCounts( );
+
+        Map<String, Map<String, Integer>> mapCountsByDimension = new HashMap<>( );
+        for ( String strDimension : _listChoiceDimensions )
+        {
+            mapCountsByDimension.put( strDimension, _mapChoiceCounts.getOrDefault( strDimension, new HashMap<>( ) ) );
+        }
+        for ( int i = 0; i < _listNumericDimensions.size( ); i++ )
+        {
+            Map<String, Integer> mapCounts = new HashMap<>( );
+            int [ ] counts = _listNumericCounts.get( i );
+            for ( int nValue = 0; nValue < counts.length; nValue++ )
+            {
+                if ( counts [nValue] > 0 )
+                {
+                    mapCounts.put( String.valueOf( nValue ), counts [nValue] );
+                }
+            }
+            _listNumericOutOfRangeCounts.get( i ).forEach( ( lValue, nCount ) -> mapCounts.put( String.valueOf( lValue ), nCount ) );
+            mapCountsByDimension.put( _listNumericDimensions.get( i ), mapCounts );
+        }
+
+        return new FormResponseFacetCounts( mapCountsByDimension );
+    }
+
+    /**
+     * Count a value of a numeric dimension. The ids of states and forms are small positive numbers, counted in an array indexed by value which grows
+     * as needed. The other values are counted in a map.
+     * 
+     * @param nDimension
+     *            the index of the numeric dimension
+     * @param lValue
+     *            the value
+     */
+    private void countNumericValue( int nDimension, long lValue )
+    {
+        if ( lValue < 0 || lValue >= MAX_ARRAY_COUNTED_VALUE )
+        {
+            _listNumericOutOfRangeCounts.get( nDimension ).merge( lValue, 1, Integer::sum );
+            return;
+        }
+
+        int [ ] counts = _listNumericCounts.get( nDimension );
+        if ( lValue >= counts.length )
+        {
+            counts = Arrays.copyOf( counts, (int) Math.min( MAX_ARRAY_COUNTED_VALUE, Math.max( lValue + 1, 2L * counts.length ) ) );
+            _listNumericCounts.set( nDimension, counts );
+        }
+        counts [(int) lValue]++;
+    }
+
+    /**
+     * Add the counts of the choice answers of the current segment to the global counts. The ordinals are resolved once per segment instead of once per
+     * hit.
+     * 
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private void flushLeafCounts( ) throws IOException
+    {
+        for ( int i = 0; i < _listLeafChoiceDocValues.size( ); i++ )
+        {
+            SortedSetDocValues sortedSetDocValues = _listLeafChoiceDocValues.get( i );
+            int [ ] ordCounts = _listLeafOrdCounts.get( i );
+            Map<String, Integer> mapCounts = _mapChoiceCounts.computeIfAbsent( _listLeafChoiceDimensions.get( i ), strDimension -> new HashMap<>( ) );
+            for ( int nOrd = 0; nOrd < ordCounts.length; nOrd++ )
+            {
+                if ( ordCounts [nOrd] > 0 )
+                {
+                    mapCounts.merge( sortedSetDocValues.lookupOrd( nOrd ).utf8ToString( ), ordCounts [nOrd], Integer::sum );
+                }
+            }
+        }
+        _listLeafChoiceDimensions.clear( );
+        _listLeafChoiceDocValues.clear( );
+        _listLeafOrdCounts.clear( );
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.search.IndexSearcher;
+
+import fr.paris.lutece.plugins.forms.business.form.column.querypart.IFormColumnQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.portal.service.search.SearchItem;
+
+/**
+ * Projection of a form response document on the fields needed to identify the response and to build the cells of a list of columns
+ */
+public final class FormResponseFieldProjection
+{
+    private static final Set<String> SET_IDENTIFICATION_FIELDS = new HashSet<>( Arrays.asList( SearchItem.FIELD_UID, FormResponseSearchItem.FIELD_ID_FORM_RESPONSE,
+            FormResponseSearchItem.FIELD_ID_FORM, FormResponseSearchItem.FIELD_GUID, FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE,
+            FormResponseSearchItem.FIELD_ID_ASSIGNEE_USER, FormResponseSearchItem.FIELD_ID_ASSIGNEE_UNIT ) );
+
+    private final List<String> _listFieldNamePrefixes;
+
+    /**
+     * Constructor
+     * 
+     * @param listFieldNamePrefixes
+     *            the prefixes of the names of the fields to load in addition to the identification fields
+     */
+    private FormResponseFieldProjection( List<String> listFieldNamePrefixes )
+    {
+        _listFieldNamePrefixes = listFieldNamePrefixes;
+    }
+
+    /**
+     * Create the projection on the fields needed by the given columns
+     * 
+     * @param listFormColumnQueryPart
+     *            the column query parts of the search
+     * @return the projection, or null if one of the columns needs the whole document
+     */
+    public static FormResponseFieldProjection create( List<IFormColumnQueryPart> listFormColumnQueryPart )
+    {
+        List<String> listFieldNamePrefixes = new ArrayList<>( );
+        if ( listFormColumnQueryPart != null )
+        {
+            for ( IFormColumnQueryPart formColumnQueryPart : listFormColumnQueryPart )
+            {
+                List<String> listPrefixes = formColumnQueryPart.getIndexFieldNamePrefixes( );
+                if ( listPrefixes == null )
+                {
+                    return null;
+                }
+                listFieldNamePrefixes.addAll( listPrefixes );
+            }
+        }
+        return new FormResponseFieldProjection( listFieldNamePrefixes );
+    }
+
+    /**
+     * Load the projected fields of a document
+     * 
+     * @param searcher
+     *            the searcher
+     * @param nDocId
+     *            the id of the document in the searcher
+     * @return the document containing only the projected fields
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public Document load( IndexSearcher searcher, int nDocId ) throws IOException
+    {
+        ProjectionStoredFieldVisitor visitor = new ProjectionStoredFieldVisitor( );
+        searcher.doc( nDocId, visitor );
+        return visitor.getDocument( );
+    }
+
+    /**
+     * Tell if the field with the given name is part of the projection
+     * 
+     * @param strFieldName
+     *            the name of the field
+     * @return true if the field must be loaded, false otherwise
+     */
+    boolean isFieldNeeded( String strFieldName )
+    {
+        if ( SET_IDENTIFICATION_FIELDS.contains( strFieldName ) )
+        {
+            return true;
+        }
+        for ( String strPrefix : _listFieldNamePrefixes )
+        {
+            if ( strFieldName.startsWith( strPrefix ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stored field visitor which skips the fields that are not part of the projection
+     */
+    private final class ProjectionStoredFieldVisitor extends DocumentStoredFieldVisitor
+    {
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Status needsField( FieldInfo fieldInfo )
+        {
+            return isFieldNeeded( fieldInfo.name ) ? Status.YES : Status.NO;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.lucene.geo.GeoEncodingUtils;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+
+/**
+ * Collector reading the id and the geolocation points of the matching form responses from the doc values, without loading the documents
+ */
+public class FormResponseGeolocationCollector extends SimpleCollector
+{
+    // Variables
+    private final String [ ] _geolocationFields;
+    private final SortedNumericDocValues [ ] _geolocationDocValues;
+    private final int _nMaxPoints;
+    private final List<FormResponseGeolocation> _listGeolocations = new ArrayList<>( );
+    private NumericDocValues _idFormResponseDocValues;
+    private boolean _bTruncated;
+
+    /**
+     * Constructor
+     * 
+     * @param collectionGeolocationFields
+     *            The names of the geolocation fields to read
+     * @param nMaxPoints
+     *            The maximum number of points to collect
+     */
+    public FormResponseGeolocationCollector( Collection<String> collectionGeolocationFields, int nMaxPoints )
+    {
+        _geolocationFields = collectionGeolocationFields.toArray( new String [ collectionGeolocationFields.size( )] );
+        _geolocationDocValues = new SortedNumericDocValues [ _geolocationFields.length];
+        _nMaxPoints = nMaxPoints;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doSetNextReader( LeafReaderContext context ) throws IOException
+    {
+        if ( _bTruncated )
+        {
+            throw new CollectionTerminatedException( );
+        }
+        _idFormResponseDocValues = DocValues.getNumeric( context.reader( ), FormResponseSearchItem.FIELD_ID_FORM_RESPONSE );
+        for ( int i = 0; i < _geolocationFields.length; i++ )
+        {
+            _geolocationDocValues [i] = DocValues.getSortedNumeric( context.reader( ), _geolocationFields [i] );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void collect( int nDoc ) throws IOException
+    {
+        if ( !_idFormResponseDocValues.advanceExact( nDoc ) )
+        {
+            return;
+        }
+        int nIdFormResponse = (int) _idFormResponseDocValues.longValue( );
+
+        for ( SortedNumericDocValues geolocationDocValues : _geolocationDocValues )
+        {
+            if ( geolocationDocValues.advanceExact( nDoc ) )
+            {
+                for ( int i = 0; i < geolocationDocValues.docValueCount( ); i++ )
+                {
+                    if ( _listGeolocations.size( ) >= _nMaxPoints )
+                    {
+                        _bTruncated = true;
+                        throw new CollectionTerminatedException( );
+                    }
+                    long lEncoded = geolocationDocValues.nextValue( );
+                    double dLatitude = GeoEncodingUtils.decodeLatitude( (int) ( lEncoded >>> 32 ) );
+                    double dLongitude = GeoEncodingUtils.decodeLongitude( (int) ( lEncoded & 0xFFFFFFFFL ) );
+                    _listGeolocations.add( new FormResponseGeolocation( nIdFormResponse, dLatitude, dLongitude ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ScoreMode scoreMode( )
+    {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * @return the collected points
+     */
+    public List<FormResponseGeolocation> getGeolocations( )
+    {
+        return _listGeolocations;
+    }
+
+    /**
+     * @return true if the collect was stopped because the maximum number of points was reached
+     */
+    public boolean isTruncated( )
+    {
+        return _bTruncated;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.lucene.document.Document;
+
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Multi-stage pipeline used to rebuild the forms index:
+ * <ul>
+ * <li>a producer reads the form response ids batch by batch and splits them into ranges,</li>
+ * <li>a pool of workers loads the form responses of each range and builds their documents,</li>
+ * <li>a single writer stage, run by the calling thread, adds the documents to the index.</li>
+ * </ul>
+ * The pipeline fails with the first error of a stage, like a form response whose document can not be built, so that a partial index is never taken
+ * for a complete one. The stages are linked by bounded queues, so the producer and the workers wait when the writer can not keep up, and the memory
+ * used does not depend on the number of form responses.
+ */
+public class FormResponseReindexPipeline
+{
+    // Constants
+    private static final List<Integer> END_OF_IDS = new ArrayList<>( 0 );
+    private static final List<Document> END_OF_DOCUMENTS = new ArrayList<>( 0 );
+    private static final int QUEUE_SIZE_PER_WORKER = 2;
+    private static final long PROGRESS_LOG_INTERVAL = 10000L;
+    private static final long TERMINATION_TIMEOUT = 30L;
+
+    // Variables
+    private final Consumer<Consumer<List<Integer>>> _idSource;
+    private final int _nTotalIds;
+    private final int _nBatchSize;
+    private final int _nWorkerNumber;
+    private final Function<List<Integer>, List<Document>> _documentBuilder;
+    private final Consumer<List<Document>> _documentWriter;
+    private final BlockingQueue<List<Integer>> _queueIds;
+    private final BlockingQueue<List<Document>> _queueDocuments;
+    private final AtomicInteger _nProcessedIds = new AtomicInteger( );
+    private final AtomicReference<RuntimeException> _failure = new AtomicReference<>( );
+    private long _lStartTime;
+    private long _lLastProgressLogTime;
+    private int _nIndexedDocuments;
+
+    /**
+     * Constructor
+     * 
+     * @param listIdFormResponse
+     *            the ids of the form responses to index
+     * @param nBatchSize
+     *            the number of ids of each range
+     * @param nWorkerNumber
+     *            the number of loader / document builder workers
+     * @param documentBuilder
+     *            the function loading the form responses of a range of ids and building their documents. Called concurrently by the workers.
+     * @param documentWriter
+     *            the consumer adding a batch of documents to the index. Only called by the writer stage.
+     */
+    public FormResponseReindexPipeline( List<Integer> listIdFormResponse, int nBatchSize, int nWorkerNumber,
+            Function<List<Integer>, List<Document>> documentBuilder, Consumer<List<Document>> documentWriter )
+    {
+        this( batchConsumer -> batchConsumer.accept( listIdFormResponse ), listIdFormResponse.size( ), nBatchSize, nWorkerNumber, documentBuilder,
+                documentWriter );
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param idSource
+     *            the source of the ids of the form responses to index, which passes them batch by batch to the given consumer. Called by the producer
+     *            stage.
+     * @param nTotalIds
+     *            the expected number of ids, only used to log the progress
+     * @param nBatchSize
+     *            the number of ids of each range
+     * @param nWorkerNumber
+     *            the number of loader / document builder workers
+     * @param documentBuilder
+     *            the function loading the form responses of a range of ids and building their documents. Called concurrently by the workers.
+     * @param documentWriter
+     *            the consumer adding a batch of documents to the index. Only called by the writer stage.
+     */
+    public FormResponseReindexPipeline( Consumer<Consumer<List<Integer>>> idSource, int nTotalIds, int nBatchSize, int nWorkerNumber,
+            Function<List<Integer>, List<Document>> documentBuilder, Consumer<List<Document>> documentWriter )
+    {
+        _idSource = idSource;
+        _nTotalIds = nTotalIds;
+        _nBatchSize = Math.max( 1, nBatchSize );
+        _nWorkerNumber = Math.max( 1, nWorkerNumber );
+        _documentBuilder = documentBuilder;
+        _documentWriter = documentWriter;
+        _queueIds = new ArrayBlockingQueue<>( _nWorkerNumber * QUEUE_SIZE_PER_WORKER );
+        _queueDocuments = new ArrayBlockingQueue<>( _nWorkerNumber * QUEUE_SIZE_PER_WORKER );
+    }
+
+    /**
+     * Run the pipeline until all the form responses are indexed
+     * 
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     * @throws RuntimeException
+     *             the first error of the stages, thrown once the writer has ended. The documents already written must then be rolled back.
+     */
+    public void run( ) throws InterruptedException
+    {
+        _lStartTime = System.currentTimeMillis( );
+        _lLastProgressLogTime = _lStartTime;
+        AppLogService.info( "Forms reindex started: " + _nTotalIds + " form responses, " + _nWorkerNumber + " workers" );
+
+        ExecutorService executor = Executors.newFixedThreadPool( _nWorkerNumber + 1 );
+        try
+        {
+            executor.submit( this::produce );
+            for ( int i = 0; i < _nWorkerNumber; i++ )
+            {
+                executor.submit( this::build );
+            }
+            write( );
+        }
+        finally
+        {
+            executor.shutdownNow( );
+            executor.awaitTermination( TERMINATION_TIMEOUT, TimeUnit.SECONDS );
+        }
+
+        RuntimeException failure = _failure.get( );
+        if ( failure != null )
+        {
+            AppLogService.error( "Forms reindex failed after " + _nIndexedDocuments + " documents indexed" );
+            throw failure;
+        }
+
+        AppLogService.info( "Forms reindex ended: " + _nIndexedDocuments + " documents indexed in " + ( System.currentTimeMillis( ) - _lStartTime ) + " ms" );
+    }
+
+    /**
+     * Producer stage: read the ids batch by batch and split them into ranges
+     */
+    private void produce( )
+    {
+        try
+        {
+            _idSource.accept( this::putRanges );
+        }
+        catch( CancellationException e )
+        {
+            // Interrupted while waiting for the workers
+            return;
+        }
+        catch( RuntimeException e )
+        {
+            // The workers and the writer must still be ended, then the failure is thrown by the pipeline
+            AppLogService.error( "Unable to read the ids of the form responses to index", e );
+            _failure.compareAndSet( null, e );
+        }
+
+        try
+        {
+            for ( int i = 0; i < _nWorkerNumber; i++ )
+            {
+                _queueIds.put( END_OF_IDS );
+            }
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+
+    /**
+     * Split a batch of ids into ranges and pass them to the workers
+     * 
+     * @param listIds
+     *            the batch of ids
+     */
+    private void putRanges( List<Integer> listIds )
+    {
+        try
+        {
+            for ( int nFrom = 0; nFrom < listIds.size( ); nFrom += _nBatchSize )
+            {
+                int nTo = Math.min( nFrom + _nBatchSize, listIds.size( ) );
+                _queueIds.put( new ArrayList<>( listIds.subList( nFrom, nTo ) ) );
+            }
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new CancellationException( "Forms reindex interrupted" );
+        }
+    }
+
+    /**
+     * Worker stage: load the form responses of each range and build their documents
+     */
+    private void build( )
+    {
+        try
+        {
+            List<Integer> listIds = _queueIds.take( );
+            while ( listIds != END_OF_IDS )
+            {
+                List<Document> listDocuments;
+                try
+                {
+                    listDocuments = _documentBuilder.apply( listIds );
+                }
+                catch( RuntimeException e )
+                {
+                    AppLogService.error( "Unable to build the documents of the form responses " + listIds + ", built one by one", e );
+                    listDocuments = buildOneByOne( listIds );
+                }
+                _nProcessedIds.addAndGet( listIds.size( ) );
+                _queueDocuments.put( listDocuments );
+                listIds = _queueIds.take( );
+            }
+            _queueDocuments.put( END_OF_DOCUMENTS );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+
+    /**
+     * Build the documents of a range of ids one by one, so that the form response which can not be indexed is found. The pipeline fails with it, as
+     * the rebuilt index would not be complete.
+     * 
+     * @param listIds
+     *            the range of ids
+     * @return the documents of the form responses built before the failure
+     */
+    private List<Document> buildOneByOne( List<Integer> listIds )
+    {
+        List<Document> listDocuments = new ArrayList<>( );
+        for ( Integer nIdFormResponse : listIds )
+        {
+            try
+            {
+                listDocuments.addAll( _documentBuilder.apply( Collections.singletonList( nIdFormResponse ) ) );
+            }
+            catch( RuntimeException e )
+            {
+                AppLogService.error( "Unable to build the document of the form response " + nIdFormResponse, e );
+                _failure.compareAndSet( null, e );
+                break;
+            }
+        }
+        return listDocuments;
+    }
+
+    /**
+     * Writer stage: add the documents to the index
+     * 
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     */
+    private void write( ) throws InterruptedException
+    {
+        int nEndedWorkers = 0;
+        while ( nEndedWorkers < _nWorkerNumber )
+        {
+            List<Document> listDocuments = _queueDocuments.take( );
+            if ( listDocuments == END_OF_DOCUMENTS )
+            {
+                nEndedWorkers++;
+                continue;
+            }
+            // Once the pipeline has failed, the remaining documents are drained without being written
+            if ( !listDocuments.isEmpty( ) && _failure.get( ) == null )
+            {
+                _nIndexedDocuments += listDocuments.size( );
+                _documentWriter.accept( listDocuments );
+            }
+            logProgress( );
+        }
+    }
+
+    /**
+     * Log the progress of the reindex and its estimated remaining time
+     */
+    private void logProgress( )
+    {
+        long lNow = System.currentTimeMillis( );
+        if ( lNow - _lLastProgressLogTime < PROGRESS_LOG_INTERVAL )
+        {
+            return;
+        }
+        _lLastProgressLogTime = lNow;
+
+        int nProcessed = _nProcessedIds.get( );
+        int nTotal = Math.max( _nTotalIds, nProcessed );
+        long lElapsed = lNow - _lStartTime;
+        long lRemaining = nProcessed > 0 ? lElapsed * ( nTotal - nProcessed ) / nProcessed : -1;
+        AppLogService.info( "Forms reindex progress: " + nProcessed + "/" + nTotal + " form responses processed, " + _nIndexedDocuments
+                + " documents indexed, estimated remaining time " + ( lRemaining / 1000 ) + " s" );
+    }
+
+    /**
+     * Get the number of form response ids already processed by the workers
+     * 
+     * @return the number of processed ids
+     */
+    public int getProcessedIdNumber( )
+    {
+        return _nProcessedIds.get( );
+    }
+}
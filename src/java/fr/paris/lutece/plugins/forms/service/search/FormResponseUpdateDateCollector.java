@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+
+/**
+ * Collector reading the id and the update date of the matching form responses from the doc values, without loading the documents
+ */
+public class FormResponseUpdateDateCollector extends SimpleCollector
+{
+    // Variables
+    private final List<long [ ]> _listUpdateDates = new ArrayList<>( );
+    private NumericDocValues _idFormResponseDocValues;
+    private NumericDocValues _updateDateDocValues;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doSetNextReader( LeafReaderContext context ) throws IOException
+    {
+        _idFormResponseDocValues = DocValues.getNumeric( context.reader( ), FormResponseSearchItem.FIELD_ID_FORM_RESPONSE );
+        _updateDateDocValues = DocValues.getNumeric( context.reader( ), FormResponseSearchItem.FIELD_DATE_UPDATE );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void collect( int nDoc ) throws IOException
+    {
+        if ( !_idFormResponseDocValues.advanceExact( nDoc ) )
+        {
+            return;
+        }
+        long lUpdateDate = _updateDateDocValues.advanceExact( nDoc ) ? _updateDateDocValues.longValue( ) : 0L;
+        _listUpdateDates.add( new long [ ] {
+                _idFormResponseDocValues.longValue( ), lUpdateDate
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ScoreMode scoreMode( )
+    {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * @return the pairs of form response id and update date, in the order of the ids
+     */
+    public List<long [ ]> getUpdateDates( )
+    {
+        _listUpdateDates.sort( Comparator.comparingLong( ( long [ ] updateDate ) -> updateDate [0] ) );
+        return _listUpdateDates;
+    }
+}
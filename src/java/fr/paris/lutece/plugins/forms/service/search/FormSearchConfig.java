@@ -33,9 +33,13 @@
  */
 package fr.paris.lutece.plugins.forms.service.search;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class FormSearchConfig
 {
     private String _strSearchText;
+    private Map<String, Float> _mapQuestionBoosts = new HashMap<>( );
 
     /**
      * Get the searched text
@@ -58,4 +62,26 @@ public class FormSearchConfig
         _strSearchText = strSearchText;
     }
 
+    /**
+     * Get the boosts of the full text fields of the questions
+     * 
+     * @return the boosts, by question code
+     */
+    public Map<String, Float> getQuestionBoosts( )
+    {
+        return _mapQuestionBoosts;
+    }
+
+    /**
+     * Set the boosts of the full text fields of the questions. The searched text is also searched in the boosted questions, so that the form
+     * responses matching in these questions are scored higher.
+     * 
+     * @param mapQuestionBoosts
+     *            the boosts, by question code
+     */
+    public void setQuestionBoosts( Map<String, Float> mapQuestionBoosts )
+    {
+        _mapQuestionBoosts = mapQuestionBoosts;
+    }
+
 }
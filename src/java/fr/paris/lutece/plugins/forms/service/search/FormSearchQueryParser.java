@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.Query;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
+import fr.paris.lutece.portal.service.search.SearchItem;
+
+/**
+ * Query parser of the searched text of the form responses. A clause prefixed with the code of a question, like <code>comments:term</code>, is searched
+ * in the full text field of the question instead of the contents of the whole form response.
+ */
+public class FormSearchQueryParser extends QueryParser
+{
+    private static final String ALL_FIELDS = "*";
+    private static final Set<String> RESPONSE_FIELDS = new HashSet<>( Arrays.asList( SearchItem.FIELD_CONTENTS, FormResponseSearchItem.FIELD_DATE_CREATION,
+            FormResponseSearchItem.FIELD_DATE_UPDATE, FormResponseSearchItem.FIELD_GUID ) );
+
+    /**
+     * Constructor
+     * 
+     * @param strField
+     *            the default field of the clauses which have no field
+     * @param analyzer
+     *            the analyzer of the searched text
+     */
+    public FormSearchQueryParser( String strField, Analyzer analyzer )
+    {
+        super( strField, analyzer );
+    }
+
+    /**
+     * Get the index field of a field of the searched text
+     * 
+     * @param strField
+     *            the field of a clause of the searched text
+     * @return the field itself if it is a field of the form response or an index field, the full text field of the question otherwise
+     */
+    public String getIndexField( String strField )
+    {
+        if ( strField == null || strField.equals( getField( ) ) || ALL_FIELDS.equals( strField ) || RESPONSE_FIELDS.contains( strField )
+                || strField.startsWith( FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX ) )
+        {
+            return strField;
+        }
+        return LuceneUtils.createLuceneTextKey( strField );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Query getFieldQuery( String field, String queryText, boolean quoted ) throws ParseException
+    {
+        return super.getFieldQuery( getIndexField( field ), queryText, quoted );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Query getFieldQuery( String field, String queryText, int slop ) throws ParseException
+    {
+        return super.getFieldQuery( getIndexField( field ), queryText, slop );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Query getPrefixQuery( String field, String termStr ) throws ParseException
+    {
+        return super.getPrefixQuery( getIndexField( field ), termStr );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Query getWildcardQuery( String field, String termStr ) throws ParseException
+    {
+        return super.getWildcardQuery( getIndexField( field ), termStr );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Query getFuzzyQuery( String field, String termStr, float minSimilarity ) throws ParseException
+    {
+        return super.getFuzzyQuery( getIndexField( field ), termStr, minSimilarity );
+    }
+}
@@ -38,7 +38,9 @@ import fr.paris.lutece.plugins.forms.business.form.column.querypart.IFormColumnQ
 import fr.paris.lutece.plugins.forms.business.form.filter.querypart.IFormFilterQueryPart;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
 import fr.paris.lutece.plugins.forms.business.form.panel.initializer.querypart.IFormPanelInitializerQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import java.util.Collection;
 import java.util.List;
 
 public interface IFormSearchEngine
@@ -75,4 +77,35 @@ public interface IFormSearchEngine
     List<FormResponseSearchItem> getSearchResults( List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart,
             List<IFormColumnQueryPart> listFormColumnQueryPart, List<IFormFilterQueryPart> listFormFilterQueryPart, FormItemSortConfig sortConfig,
             int nStartIndex, int nPageSize, FormPanel formPanel );
+
+    /**
+     * Count the form responses matching the given FormPanel and FormFilterList, without collecting them. The total is set on the FormPanel.
+     * 
+     * @param listFormPanelInitializerQueryPart
+     *            the query parts of the panel initializers
+     * @param listFormFilterQueryPart
+     *            the query parts of the filters
+     * @param formPanel
+     *            the form panel
+     * @return the number of matching form responses
+     */
+    int count( List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart, List<IFormFilterQueryPart> listFormFilterQueryPart,
+            FormPanel formPanel );
+
+    /**
+     * Get the points of the geolocation answers of the form responses matching the given FormPanel and FormFilterList. Only the ids and the coordinates
+     * are read, the documents are not loaded.
+     * 
+     * @param listFormPanelInitializerQueryPart
+     *            the query parts of the panel initializers
+     * @param listFormFilterQueryPart
+     *            the query parts of the filters
+     * @param collectionGeolocationFields
+     *            the names of the geolocation fields to read
+     * @param nMaxPoints
+     *            the maximum number of points to return
+     * @return the points, at most nMaxPoints
+     */
+    List<FormResponseGeolocation> getGeolocations( List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart,
+            List<IFormFilterQueryPart> listFormFilterQueryPart, Collection<String> collectionGeolocationFields, int nMaxPoints );
 }
@@ -64,4 +64,34 @@ public interface IFormSearchIndexer extends SearchIndexer
      */
     void addIndexerAction( int nIdFormResponse, int nIdTask, Plugin plugin );
 
+    /**
+     * Add an indexer action on a form response whose form is known, so that only the index of the form is updated even once the form response is
+     * deleted from the database
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param nIdForm
+     *            the id of the form of the form response
+     * @param nIdTask
+     *            the task of the action
+     * @param plugin
+     *            the plugin
+     */
+    void addIndexerAction( int nIdFormResponse, int nIdForm, int nIdTask, Plugin plugin );
+
+    /**
+     * Get the number of indexer actions waiting to be processed
+     * 
+     * @return the number of pending indexer actions
+     */
+    int getQueueDepth( );
+
+    /**
+     * Rebuild the index of the form responses of a form, without reindexing the other forms
+     * 
+     * @param nIdForm
+     *            the id of the form
+     */
+    void reindexForm( int nIdForm );
+
 }
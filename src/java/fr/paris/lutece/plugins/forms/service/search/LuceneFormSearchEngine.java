@@ -37,29 +37,46 @@ import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
 import fr.paris.lutece.plugins.forms.business.form.LuceneQueryBuilder;
 import fr.paris.lutece.plugins.forms.business.form.column.querypart.IFormColumnQueryPart;
 import fr.paris.lutece.plugins.forms.business.form.filter.querypart.IFormFilterQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl.FormFilterFormsLuceneQueryPart;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
 import fr.paris.lutece.plugins.forms.business.form.panel.initializer.querypart.IFormPanelInitializerQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchCursor;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
 import fr.paris.lutece.portal.service.search.IndexationService;
 import fr.paris.lutece.portal.service.search.LuceneSearchEngine;
 import fr.paris.lutece.portal.service.search.SearchItem;
 import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
 
 import java.io.IOException;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
@@ -67,11 +84,18 @@ import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.Directory;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopScoreDocCollector;
 
 public class LuceneFormSearchEngine implements IFormSearchEngine
 {
     public static final String BEAN_NAME = "forms.luceneFormsSearchEngine";
+    private static final long COUNT_CACHE_DURATION = AppPropertiesService.getPropertyLong( "forms.multiview.panel.count.cacheMillis", 10000L );
+    private static final boolean FACETS_ENABLED = AppPropertiesService.getPropertyBoolean( "forms.multiview.facets.enabled", false );
+    private static final String SEPARATOR_QUESTION_BOOSTS = ",";
+    private static final String SEPARATOR_QUESTION_BOOST = ":";
+    private static final Map<String, Float> DEFAULT_QUESTION_BOOSTS = parseQuestionBoosts(
+            AppPropertiesService.getProperty( "forms.search.questionBoosts", StringUtils.EMPTY ) );
 
     @Inject
     private LuceneFormSearchFactory _luceneFormSearchFactory;
@@ -85,48 +109,20 @@ public class LuceneFormSearchEngine implements IFormSearchEngine
         ArrayList<Integer> listResults = new ArrayList<>( );
         IndexSearcher searcher = null;
 
-        try ( Directory directory = _luceneFormSearchFactory.getDirectory( ) ; IndexReader ir = DirectoryReader.open( directory ) ; )
+        try
         {
-            searcher = new IndexSearcher( ir );
-
-            Collection<String> queries = new ArrayList<>( );
-            Collection<String> fields = new ArrayList<>( );
-            Collection<BooleanClause.Occur> flags = new ArrayList<>( );
-
-            QueryParser qpContent = new QueryParser( SearchItem.FIELD_CONTENTS, IndexationService.getAnalyser( ) );
-            QueryParser qpDateCreation = new QueryParser( FormResponseSearchItem.FIELD_DATE_CREATION, IndexationService.getAnalyser( ) );
-            QueryParser qpDateUpdate = new QueryParser( FormResponseSearchItem.FIELD_DATE_UPDATE, IndexationService.getAnalyser( ) );
-            QueryParser qpGuid = new QueryParser( FormResponseSearchItem.FIELD_GUID, IndexationService.getAnalyser( ) );
-
-            qpContent.setDefaultOperator( QueryParser.Operator.AND );
-            qpDateCreation.setDefaultOperator( QueryParser.Operator.AND );
-            qpDateUpdate.setDefaultOperator( QueryParser.Operator.AND );
-            qpGuid.setDefaultOperator( QueryParser.Operator.AND );
-
-            String searchedText = normalizeSearchText( formSearchConfig.getSearchedText( ) );
-
-            Query queryContent = qpContent.parse( searchedText );
-            Query queryDateCreation = qpDateCreation.parse( searchedText );
-            Query queryDateUpdate = qpDateUpdate.parse( searchedText );
-            Query queryGuid = qpGuid.parse( searchedText );
-
-            queries.add( queryContent.toString( ) );
-            queries.add( queryDateCreation.toString( ) );
-            queries.add( queryDateUpdate.toString( ) );
-            queries.add( queryGuid.toString( ) );
-
-            fields.add( SearchItem.FIELD_CONTENTS );
-            fields.add( FormResponseSearchItem.FIELD_DATE_CREATION );
-            fields.add( FormResponseSearchItem.FIELD_DATE_UPDATE );
-            fields.add( FormResponseSearchItem.FIELD_GUID );
-
-            flags.add( BooleanClause.Occur.SHOULD );
-            flags.add( BooleanClause.Occur.SHOULD );
-            flags.add( BooleanClause.Occur.SHOULD );
-            flags.add( BooleanClause.Occur.SHOULD );
+            searcher = _luceneFormSearchFactory.acquireSearcher( );
+            if ( searcher == null )
+            {
+                return listResults;
+            }
 
-            Query queryMulti = MultiFieldQueryParser.parse( queries.toArray( new String [ queries.size( )] ), fields.toArray( new String [ fields.size( )] ),
-                    flags.toArray( new BooleanClause.Occur [ flags.size( )] ), IndexationService.getAnalyser( ) );
+            Map<String, Float> mapQuestionBoosts = formSearchConfig.getQuestionBoosts( );
+            if ( mapQuestionBoosts == null || mapQuestionBoosts.isEmpty( ) )
+            {
+                mapQuestionBoosts = DEFAULT_QUESTION_BOOSTS;
+            }
+            Query queryMulti = buildSearchedTextQuery( formSearchConfig.getSearchedText( ), mapQuestionBoosts );
 
             // Get results documents
             TopDocs topDocs = searcher.search( queryMulti, LuceneSearchEngine.MAX_RESPONSES );
@@ -143,11 +139,133 @@ public class LuceneFormSearchEngine implements IFormSearchEngine
         {
             AppLogService.error( e.getMessage( ), e );
         }
+        finally
+        {
+            _luceneFormSearchFactory.releaseSearcher( searcher );
+        }
 
         return listResults;
     }
 
-    private String normalizeSearchText( String text )
+    /**
+     * Build the full text query of a searched text, on the contents, the dates and the guid of the form responses, with the default boosts of the
+     * questions
+     * 
+     * @param strSearchedText
+     *            the searched text
+     * @return the full text query
+     * @throws ParseException
+     *             if the searched text can not be parsed
+     */
+    public static Query buildSearchedTextQuery( String strSearchedText ) throws ParseException
+    {
+        return buildSearchedTextQuery( strSearchedText, DEFAULT_QUESTION_BOOSTS );
+    }
+
+    /**
+     * Build the full text query of a searched text, on the contents, the dates and the guid of the form responses. The clauses prefixed with the code
+     * of a question are searched in the full text field of the question, and the searched text is also searched in the boosted questions.
+     * 
+     * @param strSearchedText
+     *            the searched text
+     * @param mapQuestionBoosts
+     *            the boosts of the full text fields of the questions, by question code
+     * @return the full text query
+     * @throws ParseException
+     *             if the searched text can not be parsed
+     */
+    public static Query buildSearchedTextQuery( String strSearchedText, Map<String, Float> mapQuestionBoosts ) throws ParseException
+    {
+        Collection<String> queries = new ArrayList<>( );
+        Collection<String> fields = new ArrayList<>( );
+        Collection<BooleanClause.Occur> flags = new ArrayList<>( );
+
+        QueryParser qpContent = new FormSearchQueryParser( SearchItem.FIELD_CONTENTS, IndexationService.getAnalyser( ) );
+        QueryParser qpDateCreation = new FormSearchQueryParser( FormResponseSearchItem.FIELD_DATE_CREATION, IndexationService.getAnalyser( ) );
+        QueryParser qpDateUpdate = new FormSearchQueryParser( FormResponseSearchItem.FIELD_DATE_UPDATE, IndexationService.getAnalyser( ) );
+        QueryParser qpGuid = new FormSearchQueryParser( FormResponseSearchItem.FIELD_GUID, IndexationService.getAnalyser( ) );
+
+        qpContent.setDefaultOperator( QueryParser.Operator.AND );
+        qpDateCreation.setDefaultOperator( QueryParser.Operator.AND );
+        qpDateUpdate.setDefaultOperator( QueryParser.Operator.AND );
+        qpGuid.setDefaultOperator( QueryParser.Operator.AND );
+
+        String searchedText = normalizeSearchText( strSearchedText );
+
+        Query queryContent = qpContent.parse( searchedText );
+        Query queryDateCreation = qpDateCreation.parse( searchedText );
+        Query queryDateUpdate = qpDateUpdate.parse( searchedText );
+        Query queryGuid = qpGuid.parse( searchedText );
+
+        queries.add( queryContent.toString( ) );
+        queries.add( queryDateCreation.toString( ) );
+        queries.add( queryDateUpdate.toString( ) );
+        queries.add( queryGuid.toString( ) );
+
+        fields.add( SearchItem.FIELD_CONTENTS );
+        fields.add( FormResponseSearchItem.FIELD_DATE_CREATION );
+        fields.add( FormResponseSearchItem.FIELD_DATE_UPDATE );
+        fields.add( FormResponseSearchItem.FIELD_GUID );
+
+        flags.add( BooleanClause.Occur.SHOULD );
+        flags.add( BooleanClause.Occur.SHOULD );
+        flags.add( BooleanClause.Occur.SHOULD );
+        flags.add( BooleanClause.Occur.SHOULD );
+
+        Query query = MultiFieldQueryParser.parse( queries.toArray( new String [ queries.size( )] ), fields.toArray( new String [ fields.size( )] ),
+                flags.toArray( new BooleanClause.Occur [ flags.size( )] ), IndexationService.getAnalyser( ) );
+        if ( mapQuestionBoosts == null || mapQuestionBoosts.isEmpty( ) )
+        {
+            return query;
+        }
+
+        // The text of a question is also in the contents: the boosted clauses only raise the score of the form responses already matched
+        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder( );
+        queryBuilder.add( query, BooleanClause.Occur.SHOULD );
+        for ( Map.Entry<String, Float> questionBoost : mapQuestionBoosts.entrySet( ) )
+        {
+            QueryParser qpQuestion = new FormSearchQueryParser( LuceneUtils.createLuceneTextKey( questionBoost.getKey( ) ), IndexationService.getAnalyser( ) );
+            qpQuestion.setDefaultOperator( QueryParser.Operator.AND );
+            queryBuilder.add( new BoostQuery( qpQuestion.parse( searchedText ), questionBoost.getValue( ) ), BooleanClause.Occur.SHOULD );
+        }
+        return queryBuilder.build( );
+    }
+
+    /**
+     * Parse the boosts of the full text fields of the questions
+     * 
+     * @param strQuestionBoosts
+     *            the boosts, like <code>code1:2,code2:1.5</code>
+     * @return the boosts, by question code
+     */
+    static Map<String, Float> parseQuestionBoosts( String strQuestionBoosts )
+    {
+        Map<String, Float> mapQuestionBoosts = new LinkedHashMap<>( );
+        if ( StringUtils.isBlank( strQuestionBoosts ) )
+        {
+            return mapQuestionBoosts;
+        }
+        for ( String strQuestionBoost : strQuestionBoosts.split( SEPARATOR_QUESTION_BOOSTS ) )
+        {
+            String strCode = StringUtils.substringBeforeLast( strQuestionBoost, SEPARATOR_QUESTION_BOOST ).trim( );
+            String strBoost = StringUtils.substringAfterLast( strQuestionBoost, SEPARATOR_QUESTION_BOOST ).trim( );
+            try
+            {
+                float fBoost = Float.parseFloat( strBoost );
+                if ( !strCode.isEmpty( ) && fBoost > 0 )
+                {
+                    mapQuestionBoosts.put( strCode, fBoost );
+                }
+            }
+            catch( NumberFormatException e )
+            {
+                AppLogService.error( "Unable to parse the boost of the question " + strQuestionBoost, e );
+            }
+        }
+        return mapQuestionBoosts;
+    }
+
+    private static String normalizeSearchText( String text )
     {
         if ( StringUtils.isEmpty( text ) )
         {
@@ -182,45 +300,328 @@ public class LuceneFormSearchEngine implements IFormSearchEngine
         // Build the sort
         Sort sort = buildLuceneSort( sortConfig );
 
+        // Only load the fields needed by the columns, when they all declare them
+        FormResponseFieldProjection fieldProjection = FormResponseFieldProjection.create( listFormColumnQueryPart );
+
         List<FormResponseSearchItem> listResults = new ArrayList<>( );
         IndexSearcher searcher = null;
 
-        try ( Directory directory = _luceneFormSearchFactory.getDirectory( ) ; IndexReader ir = DirectoryReader.open( directory ) ; )
+        try
         {
+            searcher = _luceneFormSearchFactory.acquireSearcher( findSearchedIdForms( listFormFilterQueryPart ) );
+            if ( searcher == null )
+            {
+                formPanel.setTotalFormResponseItemCount( 0 );
+                formPanel.setFacetCounts( null );
+                return listResults;
+            }
+            // The exact total is computed apart so that only the hits of the page have to be collected. The facets are counted in the same pass.
+            int nTotal;
+            if ( FACETS_ENABLED && !formPanel.getFacetDimensions( ).isEmpty( ) )
+            {
+                FormResponseFacetCollector facetCollector = new FormResponseFacetCollector( formPanel.getFacetDimensions( ) );
+                searcher.search( query, facetCollector );
+                nTotal = facetCollector.getTotalHits( );
+                formPanel.setFacetCounts( facetCollector.getFacetCounts( ) );
+            }
+            else
+            {
+                nTotal = searcher.count( query );
+                formPanel.setFacetCounts( null );
+            }
+            formPanel.setTotalFormResponseItemCount( nTotal );
+            if ( nTotal == 0 || ( nPageSize > 0 && nStartIndex >= nTotal ) )
+            {
+                return listResults;
+            }
 
-            searcher = new IndexSearcher( ir );
-            TopDocs topDocs = null;
-            // Get results documents
-            if ( sort != null )
+            FormResponseSearchCursor searchCursor = formPanel.getSearchCursor( );
+            searchCursor.bind( buildSearchCursorKey( searcher, query, sort ) );
+            ScoreDoc scoreDocBefore = nPageSize > 0 ? searchCursor.getScoreDocBefore( nStartIndex ) : null;
+
+            ScoreDoc [ ] hits;
+            int nFirstIndex;
+            if ( scoreDocBefore != null )
             {
-                topDocs = searcher.search( query, LuceneSearchEngine.MAX_RESPONSES, sort );
+                // Cursor mode: resume right after the last hit of the previous page
+                hits = searchAfter( searcher, scoreDocBefore, query, nPageSize, sort ).scoreDocs;
+                nFirstIndex = 0;
             }
             else
             {
-                topDocs = searcher.search( query, LuceneSearchEngine.MAX_RESPONSES );
+                int nNumHits = nTotal;
+                if ( nPageSize > 0 )
+                {
+                    nNumHits = Math.min( nStartIndex + nPageSize, nTotal );
+                }
+                hits = search( searcher, query, nNumHits, sort ).scoreDocs;
+                nFirstIndex = Math.min( nStartIndex, hits.length );
+                if ( nFirstIndex > 0 )
+                {
+                    searchCursor.putScoreDocBefore( nStartIndex, hits [nFirstIndex - 1] );
+                }
             }
-            ScoreDoc [ ] hits = topDocs.scoreDocs;
 
-            int nMaxIndex = hits.length;
-            if ( nPageSize > 0 )
+            if ( nPageSize > 0 && hits.length > nFirstIndex )
             {
-                nMaxIndex = Math.min( nStartIndex + nPageSize, hits.length );
+                searchCursor.putScoreDocBefore( nStartIndex + hits.length - nFirstIndex, hits [hits.length - 1] );
             }
-            formPanel.setTotalFormResponseItemCount( hits.length );
-            for ( int i = nStartIndex; i < nMaxIndex; i++ )
+
+            for ( int i = nFirstIndex; i < hits.length; i++ )
             {
-                Document document = searcher.doc( hits [i].doc );
-                listResults.add( new FormResponseSearchItem( document ) );
+                listResults.add( new FormResponseSearchItem( loadDocument( searcher, hits [i].doc, fieldProjection ) ) );
             }
         }
         catch( IOException e )
         {
             AppLogService.error( e.getMessage( ), e );
         }
+        finally
+        {
+            _luceneFormSearchFactory.releaseSearcher( searcher );
+        }
 
         return listResults;
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int count( List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart, List<IFormFilterQueryPart> listFormFilterQueryPart,
+            FormPanel formPanel )
+    {
+        Query query = LuceneQueryBuilder.buildQuery( listFormPanelInitializerQueryPart, listFormFilterQueryPart );
+
+        // The panel is kept in the session of the user, so is its cache
+        String strQueryKey = query.toString( );
+        Integer nCachedCount = formPanel.getCountCache( ).get( strQueryKey, COUNT_CACHE_DURATION );
+        if ( nCachedCount != null )
+        {
+            formPanel.setTotalFormResponseItemCount( nCachedCount );
+            return nCachedCount;
+        }
+
+        int nCount = 0;
+        IndexSearcher searcher = null;
+        try
+        {
+            searcher = _luceneFormSearchFactory.acquireSearcher( findSearchedIdForms( listFormFilterQueryPart ) );
+            if ( searcher != null )
+            {
+                nCount = searcher.count( query );
+                formPanel.getCountCache( ).put( strQueryKey, nCount );
+            }
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( e.getMessage( ), e );
+        }
+        finally
+        {
+            _luceneFormSearchFactory.releaseSearcher( searcher );
+        }
+
+        formPanel.setTotalFormResponseItemCount( nCount );
+        return nCount;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public List<FormResponseGeolocation> getGeolocations( List<IFormPanelInitializerQueryPart> listFormPanelInitializerQueryPart,
+            List<IFormFilterQueryPart> listFormFilterQueryPart, Collection<String> collectionGeolocationFields, int nMaxPoints )
+    {
+        if ( collectionGeolocationFields.isEmpty( ) || nMaxPoints <= 0 )
+        {
+            return new ArrayList<>( );
+        }
+
+        Query query = LuceneQueryBuilder.buildQuery( listFormPanelInitializerQueryPart, listFormFilterQueryPart );
+        FormResponseGeolocationCollector geolocationCollector = new FormResponseGeolocationCollector( collectionGeolocationFields, nMaxPoints );
+
+        IndexSearcher searcher = null;
+        try
+        {
+            searcher = _luceneFormSearchFactory.acquireSearcher( findSearchedIdForms( listFormFilterQueryPart ) );
+            if ( searcher != null )
+            {
+                searcher.search( query, geolocationCollector );
+            }
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( e.getMessage( ), e );
+        }
+        finally
+        {
+            _luceneFormSearchFactory.releaseSearcher( searcher );
+        }
+
+        return geolocationCollector.getGeolocations( );
+    }
+
+    /**
+     * Find the forms the search is restricted to by the forms filter, so that only their indexes are opened when there is one index per form
+     * 
+     * @param listFormFilterQueryPart
+     *            The filter query parts
+     * @return the ids of the searched forms, or null if all the forms are searched
+     */
+    private static Collection<Integer> findSearchedIdForms( List<IFormFilterQueryPart> listFormFilterQueryPart )
+    {
+        for ( IFormFilterQueryPart formFilterQueryPart : listFormFilterQueryPart )
+        {
+            if ( formFilterQueryPart instanceof FormFilterFormsLuceneQueryPart )
+            {
+                Integer nIdForm = ( (FormFilterFormsLuceneQueryPart) formFilterQueryPart ).getIdForm( );
+                if ( nIdForm != null )
+                {
+                    return Collections.singletonList( nIdForm );
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Build the key a search cursor is valid for: the cursors of a page can only be reused for the same query, the same sort and the same index version
+     * 
+     * @param searcher
+     *            The searcher
+     * @param query
+     *            The query
+     * @param sort
+     *            The sort, may be null
+     * @return the key of the search cursor
+     */
+    private String buildSearchCursorKey( IndexSearcher searcher, Query query, Sort sort )
+    {
+        String strIndexVersion = "0";
+        if ( searcher.getIndexReader( ) instanceof DirectoryReader )
+        {
+            strIndexVersion = String.valueOf( ( (DirectoryReader) searcher.getIndexReader( ) ).getVersion( ) );
+        }
+        else
+            if ( searcher.getIndexReader( ) instanceof FormIndexShardsReader )
+            {
+                strIndexVersion = ( (FormIndexShardsReader) searcher.getIndexReader( ) ).getVersion( );
+            }
+        return strIndexVersion + "|" + sort + "|" + query;
+    }
+
+    /**
+     * Collect the top hits of the given query
+     * 
+     * @param searcher
+     *            The searcher
+     * @param query
+     *            The query
+     * @param nNumHits
+     *            The number of hits to collect
+     * @param sort
+     *            The sort, may be null
+     * @return the top hits
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private TopDocs search( IndexSearcher searcher, Query query, int nNumHits, Sort sort ) throws IOException
+    {
+        return collectTopDocs( searcher, null, query, nNumHits, sort );
+    }
+
+    /**
+     * Collect the hits of the given query which follow the given hit
+     * 
+     * @param searcher
+     *            The searcher
+     * @param after
+     *            The last hit of the previous page
+     * @param query
+     *            The query
+     * @param nNumHits
+     *            The number of hits to collect
+     * @param sort
+     *            The sort, may be null
+     * @return the hits following the given one
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private TopDocs searchAfter( IndexSearcher searcher, ScoreDoc after, Query query, int nNumHits, Sort sort ) throws IOException
+    {
+        return collectTopDocs( searcher, after, query, nNumHits, sort );
+    }
+
+    /**
+     * Collect the top hits of the given query. The total of the hits is computed apart, so the hits are not counted beyond the requested ones: when the
+     * sort is the one of the index, the collect of each segment stops as soon as the page is full.
+     * 
+     * @param searcher
+     *            The searcher
+     * @param after
+     *            The last hit of the previous page, may be null
+     * @param query
+     *            The query
+     * @param nNumHits
+     *            The number of hits to collect
+     * @param sort
+     *            The sort, may be null
+     * @return the top hits
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private TopDocs collectTopDocs( IndexSearcher searcher, ScoreDoc after, Query query, int nNumHits, Sort sort ) throws IOException
+    {
+        int nLimit = Math.max( 1, Math.min( nNumHits, searcher.getIndexReader( ).maxDoc( ) ) );
+        if ( sort != null )
+        {
+            TopFieldCollector topFieldCollector = TopFieldCollector.create( sort, nLimit, (FieldDoc) after, nLimit );
+            searcher.search( query, topFieldCollector );
+            return topFieldCollector.topDocs( );
+        }
+        TopScoreDocCollector topScoreDocCollector = TopScoreDocCollector.create( nLimit, after, nLimit );
+        searcher.search( query, topScoreDocCollector );
+        return topScoreDocCollector.topDocs( );
+    }
+
+    /**
+     * Load the stored fields of a document, with the workflow state read from its doc values. The workflow state is updated in place in the doc
+     * values, so that the stored fields of a document indexed before the update are outdated.
+     * 
+     * @param searcher
+     *            the searcher
+     * @param nDocId
+     *            the id of the document in the searcher
+     * @param fieldProjection
+     *            the projection of the fields to load, or null to load the whole document
+     * @return the document
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    static Document loadDocument( IndexSearcher searcher, int nDocId, FormResponseFieldProjection fieldProjection ) throws IOException
+    {
+        Document document = fieldProjection != null ? fieldProjection.load( searcher, nDocId ) : searcher.doc( nDocId );
+
+        List<LeafReaderContext> listLeaves = searcher.getIndexReader( ).leaves( );
+        LeafReaderContext leaf = listLeaves.get( ReaderUtil.subIndex( nDocId, listLeaves ) );
+        int nLeafDocId = nDocId - leaf.docBase;
+
+        NumericDocValues idStateValues = DocValues.getNumeric( leaf.reader( ), FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE );
+        if ( idStateValues.advanceExact( nLeafDocId ) )
+        {
+            document.removeFields( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE );
+            document.add( new StoredField( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, (int) idStateValues.longValue( ) ) );
+        }
+        BinaryDocValues titleStateValues = DocValues.getBinary( leaf.reader( ), FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE_VALUE );
+        if ( titleStateValues.advanceExact( nLeafDocId ) )
+        {
+            document.removeFields( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE );
+            document.add( new StoredField( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE, titleStateValues.binaryValue( ).utf8ToString( ) ) );
+        }
+        return document;
+    }
+
     /**
      * Build the Lucene Sort obj
      * 
@@ -228,13 +629,24 @@ public class LuceneFormSearchEngine implements IFormSearchEngine
      *            The sort config
      * @return the Lucene Sort obj
      */
-    private Sort buildLuceneSort( FormItemSortConfig sortConfig )
+    static Sort buildLuceneSort( FormItemSortConfig sortConfig )
     {
         if ( sortConfig != null )
         {
             String strAttributeName = sortConfig.getSortAttributeName( );
             if ( strAttributeName != null )
             {
+                if ( FormResponseSearchItem.FIELD_DATE_CREATION.equals( strAttributeName ) )
+                {
+                    // The creation date has a single value: the plain sort is the same as the index sort, which allows to stop the collect early
+                    return new Sort( new SortField( strAttributeName, SortField.Type.LONG, sortConfig.isAscSort( ) ) );
+                }
+                if ( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE.equals( strAttributeName ) )
+                {
+                    // The title of the workflow state is updated in place, in a binary doc value which is sorted by value
+                    return new Sort( new SortField( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE_VALUE, SortField.Type.STRING_VAL,
+                            sortConfig.isAscSort( ) ) );
+                }
                 if ( strAttributeName.endsWith( FormResponseSearchItem.FIELD_DATE_SUFFIX ) )
                 {
                     return new Sort( new SortedNumericSortField( sortConfig.getSortAttributeName( ), SortField.Type.LONG, sortConfig.isAscSort( ) ) );
@@ -244,11 +656,17 @@ public class LuceneFormSearchEngine implements IFormSearchEngine
                     return new Sort( new SortedNumericSortField( sortConfig.getSortAttributeName( ), SortField.Type.LONG, sortConfig.isAscSort( ) ) );
 
                 }
+                if ( strAttributeName.endsWith( FormResponseSearchItem.FIELD_NUMBER_SUFFIX ) )
+                {
+                    // A number answer is indexed with a single valued DoubleDocValuesField, which is sorted by a plain double sort
+                    return new Sort( new SortField( sortConfig.getSortAttributeName( ), SortField.Type.DOUBLE, sortConfig.isAscSort( ) ) );
+                }
                 return new Sort( new SortField( sortConfig.getSortAttributeName( ), SortField.Type.STRING, sortConfig.isAscSort( ) ) );
             }
         }
 
-        return null;
+        // Without sort, the form responses are listed in the order of the index
+        return LuceneFormSearchFactory.getIndexSort( );
     }
 
 }
@@ -34,19 +34,49 @@
 package fr.paris.lutece.plugins.forms.service.search;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
 import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.portal.service.util.AppPathService;
 import fr.paris.lutece.portal.service.util.AppPropertiesService;
@@ -59,13 +89,41 @@ public class LuceneFormSearchFactory
     // Constants
     private static final String PATH_INDEX = "forms.internalIndexer.lucene.indexPath";
     private static final String PATH_INDEX_IN_WEBAPP = "forms.internalIndexer.lucene.indexInWebapp";
+    private static final String PROPERTY_SEARCHER_REFRESH_ON_COMMIT = "forms.index.searcher.refresh.onCommit";
+    private static final String PROPERTY_SEARCHER_REFRESH_MAX_STALE = "forms.index.searcher.refresh.maxStaleMillis";
+    private static final String PROPERTY_SEARCHER_REFRESH_MIN_STALE = "forms.index.searcher.refresh.minStaleMillis";
+    private static final double MILLIS_PER_SECOND = 1000d;
+    private static final String SUFFIX_REBUILD_DIRECTORY = ".rebuild";
+    private static final String SUFFIX_RETIRED_DIRECTORY = ".old";
+    private static final String SUFFIX_SHARDS_DIRECTORY = ".shards";
+    private static final String PREFIX_SHARD_DIRECTORY = "form_";
+    private static final Pattern PATTERN_SHARD_DIRECTORY = Pattern.compile( PREFIX_SHARD_DIRECTORY + "(\\d+)" );
+    private static final String PROPERTY_COMMIT_MAX_DELAY = "forms.index.writer.commit.maxDelayMillis";
+    private static final String PROPERTY_COMMIT_MAX_DOCUMENTS = "forms.index.writer.commit.maxDocuments";
+    private static final String COMMIT_THREAD_NAME = "forms-lucene-commit";
+    private static final boolean INDEX_SORT_ENABLED = AppPropertiesService.getPropertyBoolean( "forms.index.sort.creationDate.enabled", false );
+    private static final Sort INDEX_SORT = new Sort( new SortField( FormResponseSearchItem.FIELD_DATE_CREATION, SortField.Type.LONG, true ) );
+    private static final boolean SHARDS_ENABLED = AppPropertiesService.getPropertyBoolean( "forms.index.shards.perForm.enabled", false );
 
     // Variables
     @Inject
     @Named( value = "forms.luceneFrenchAnalizer" )
     private Analyzer _analyzer;
 
-    private IndexWriter _indexWriter;
+    // The index of all the forms, or one index per form when the shards are enabled
+    private final IndexShard _globalShard = new IndexShard( null );
+    private final Map<Integer, IndexShard> _mapFormShards = new ConcurrentHashMap<>( );
+
+    // Group commit: the changes are visible to the searches as soon as they are indexed, and made durable on a time or size budget
+    private final ScheduledExecutorService _commitExecutor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, COMMIT_THREAD_NAME );
+        thread.setDaemon( true );
+        return thread;
+    } );
+    private final Object _commitLock = new Object( );
+    private final List<Runnable> _listAfterCommitTasks = new ArrayList<>( );
+    private int _nUncommittedDocuments;
+    private ScheduledFuture<?> _scheduledCommit;
 
     /**
      * Return the Analyzer to use for the search
@@ -77,6 +135,16 @@ public class LuceneFormSearchFactory
         return _analyzer;
     }
 
+    /**
+     * Check if the form responses are indexed in one index per form
+     * 
+     * @return true if there is one index per form, false if all the forms share the same index
+     */
+    public static boolean isShardingEnabled( )
+    {
+        return SHARDS_ENABLED;
+    }
+
     /**
      * Create the IndexWriter with its configuration
      * 
@@ -86,13 +154,104 @@ public class LuceneFormSearchFactory
      * @throws IOException
      *             - if there is a low level IO error
      */
-    public IndexWriter getIndexWriter( Boolean bCreateIndex )
+    public synchronized IndexWriter getIndexWriter( Boolean bCreateIndex )
+    {
+        return getIndexWriter( _globalShard, bCreateIndex );
+    }
+
+    /**
+     * Create the IndexWriter of the index of a form, when there is one index per form
+     * 
+     * @param nIdForm
+     *            The id of the form
+     * @param bCreateIndex
+     *            The boolean which tell if the index must be created
+     * @return the IndexWriter of the index of the form
+     */
+    public synchronized IndexWriter getIndexWriter( int nIdForm, Boolean bCreateIndex )
+    {
+        return getIndexWriter( getFormShard( nIdForm ), bCreateIndex );
+    }
+
+    /**
+     * Return the IndexWriters of all the existing indexes: the one of each indexed form when there is one index per form, the shared one otherwise
+     * 
+     * @return the IndexWriters of the existing indexes
+     */
+    public synchronized List<IndexWriter> getIndexWriters( )
+    {
+        List<IndexWriter> listIndexWriters = new ArrayList<>( );
+        if ( SHARDS_ENABLED )
+        {
+            for ( Integer nIdForm : getShardIdForms( ) )
+            {
+                IndexWriter indexWriter = getIndexWriter( nIdForm, Boolean.FALSE );
+                if ( indexWriter != null )
+                {
+                    listIndexWriters.add( indexWriter );
+                }
+            }
+        }
+        else
+        {
+            IndexWriter indexWriter = getIndexWriter( Boolean.FALSE );
+            if ( indexWriter != null )
+            {
+                listIndexWriters.add( indexWriter );
+            }
+        }
+        return listIndexWriters;
+    }
+
+    /**
+     * Return the ids of the forms which have an index, opened or existing on disk
+     * 
+     * @return the ids of the forms, sorted
+     */
+    public Set<Integer> getShardIdForms( )
     {
-        if ( _indexWriter == null || !_indexWriter.isOpen( ) )
+        Set<Integer> setIdForms = new TreeSet<>( _mapFormShards.keySet( ) );
+        Path pathShards = getSiblingPath( getIndexPath( ), SUFFIX_SHARDS_DIRECTORY );
+        if ( !Files.isDirectory( pathShards ) )
+        {
+            return setIdForms;
+        }
+
+        try ( DirectoryStream<Path> directoryStream = Files.newDirectoryStream( pathShards, Files::isDirectory ) )
+        {
+            for ( Path pathShard : directoryStream )
+            {
+                Matcher matcher = PATTERN_SHARD_DIRECTORY.matcher( pathShard.getFileName( ).toString( ) );
+                if ( matcher.matches( ) )
+                {
+                    setIdForms.add( Integer.valueOf( matcher.group( 1 ) ) );
+                }
+            }
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( "Unable to list the form indexes in " + pathShards, e );
+        }
+        return setIdForms;
+    }
+
+    /**
+     * Create the IndexWriter of an index with its configuration
+     * 
+     * @param shard
+     *            The index
+     * @param bCreateIndex
+     *            The boolean which tell if the index must be created
+     * @return the IndexWriter, or null if it can not be created
+     */
+    private IndexWriter getIndexWriter( IndexShard shard, Boolean bCreateIndex )
+    {
+        if ( shard._indexWriter == null || !shard._indexWriter.isOpen( ) )
         {
             try
             {
-                Directory luceneDirectory = getDirectory( );
+                recoverInterruptedSwitch( getShardPath( shard ) );
+                Directory luceneDirectory = FSDirectory.open( getShardPath( shard ) );
 
                 if ( !DirectoryReader.indexExists( luceneDirectory ) )
                 {
@@ -109,7 +268,18 @@ public class LuceneFormSearchFactory
                 {
                     conf.setOpenMode( OpenMode.APPEND );
                 }
-                _indexWriter = new IndexWriter( luceneDirectory, conf );
+
+                // The sort of an existing index can not be changed: an index built before the sort was enabled is sorted once fully rebuilt
+                if ( INDEX_SORT_ENABLED && ( Boolean.TRUE.equals( bCreateIndex ) || isIndexSorted( luceneDirectory ) ) )
+                {
+                    conf.setIndexSort( INDEX_SORT );
+                }
+                else
+                    if ( INDEX_SORT_ENABLED )
+                    {
+                        AppLogService.info( "The forms index is not sorted by creation date yet, it will be once fully rebuilt" );
+                    }
+                shard._indexWriter = new IndexWriter( luceneDirectory, conf );
             }
             catch( IOException e )
             {
@@ -117,8 +287,588 @@ public class LuceneFormSearchFactory
                 return null;
             }
         }
-        return _indexWriter;
+        return shard._indexWriter;
+    }
+
+    /**
+     * Return the sort of the documents in the index segments, by creation date of the form responses from the most recent one. The searches using this
+     * sort stop collecting the hits of a segment once the requested page is full.
+     * 
+     * @return the sort of the index, or null if the index sort is not enabled
+     */
+    public static Sort getIndexSort( )
+    {
+        return INDEX_SORT_ENABLED ? INDEX_SORT : null;
+    }
+
+    /**
+     * Check if all the segments of the existing index are sorted with the index sort
+     * 
+     * @param luceneDirectory
+     *            The directory of the index
+     * @return true if the index is sorted, false otherwise
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private static boolean isIndexSorted( Directory luceneDirectory ) throws IOException
+    {
+        for ( SegmentCommitInfo segmentCommitInfo : SegmentInfos.readLatestCommit( luceneDirectory ) )
+        {
+            if ( !INDEX_SORT.equals( segmentCommitInfo.info.getIndexSort( ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Acquire an IndexSearcher on all the form responses from the shared searcher manager. The searcher must be given back with
+     * {@link #releaseSearcher(IndexSearcher)} once the search is done.
+     * 
+     * @return the IndexSearcher, or null if the index can not be opened
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public IndexSearcher acquireSearcher( ) throws IOException
+    {
+        return acquireSearcher( null );
+    }
+
+    /**
+     * Acquire an IndexSearcher on the form responses of the given forms. When there is one index per form, only the indexes of these forms are opened,
+     * and read together if there are several of them. The searcher must be given back with {@link #releaseSearcher(IndexSearcher)} once the search is
+     * done.
+     * 
+     * @param collectionIdForms
+     *            the ids of the searched forms, or null to search all the forms
+     * @return the IndexSearcher, or null if the index can not be opened
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public IndexSearcher acquireSearcher( Collection<Integer> collectionIdForms ) throws IOException
+    {
+        if ( !SHARDS_ENABLED )
+        {
+            SearcherManager searcherManager = getSearcherManager( _globalShard );
+            if ( searcherManager == null )
+            {
+                return null;
+            }
+            return searcherManager.acquire( );
+        }
+
+        Set<Integer> setIdForms = getShardIdForms( );
+        if ( collectionIdForms != null )
+        {
+            setIdForms.retainAll( collectionIdForms );
+        }
+
+        List<IndexSearcher> listShardSearchers = new ArrayList<>( setIdForms.size( ) );
+        try
+        {
+            for ( Integer nIdForm : setIdForms )
+            {
+                SearcherManager searcherManager = getSearcherManager( getFormShard( nIdForm ) );
+                if ( searcherManager != null )
+                {
+                    listShardSearchers.add( searcherManager.acquire( ) );
+                }
+            }
+            if ( listShardSearchers.size( ) == 1 )
+            {
+                // The searcher of the form is returned as is, and released by the caller
+                return listShardSearchers.remove( 0 );
+            }
+
+            DirectoryReader [ ] shardReaders = new DirectoryReader [ listShardSearchers.size( )];
+            for ( int i = 0; i < shardReaders.length; i++ )
+            {
+                shardReaders [i] = (DirectoryReader) listShardSearchers.get( i ).getIndexReader( );
+            }
+            return new IndexSearcher( new FormIndexShardsReader( shardReaders ) );
+        }
+        finally
+        {
+            // The multi reader holds its own reference on the readers of the forms
+            for ( IndexSearcher shardSearcher : listShardSearchers )
+            {
+                releaseSearcher( shardSearcher );
+            }
+        }
+    }
+
+    /**
+     * Release an IndexSearcher previously obtained with {@link #acquireSearcher()}. The searcher may have been acquired before a switch of the index
+     * directory, so its reader is released directly instead of through the current searcher manager.
+     * 
+     * @param searcher
+     *            the searcher to release, may be null
+     */
+    public void releaseSearcher( IndexSearcher searcher )
+    {
+        if ( searcher == null )
+        {
+            return;
+        }
+        try
+        {
+            searcher.getIndexReader( ).decRef( );
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( "Unable to release the Lucene searcher", e );
+        }
+    }
 
+    /**
+     * Refresh the shared searchers so that the documents indexed since the last refresh are visible, whether they are committed or not. Does nothing if
+     * the refresh is disabled.
+     */
+    public void refreshSearcher( )
+    {
+        if ( !AppPropertiesService.getPropertyBoolean( PROPERTY_SEARCHER_REFRESH_ON_COMMIT, true ) )
+        {
+            return;
+        }
+        for ( IndexShard shard : getOpenedShards( ) )
+        {
+            SearcherManager searcherManager = shard._searcherManager;
+            if ( searcherManager != null )
+            {
+                try
+                {
+                    searcherManager.maybeRefresh( );
+                }
+                catch( IOException | AlreadyClosedException e )
+                {
+                    AppLogService.error( "Unable to refresh the Lucene searcher", e );
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify that documents have been indexed with the shared IndexWriters. The searchers are refreshed so that the changes are visible, and the
+     * changes are committed once the maximum number of uncommitted documents is reached, or after the maximum commit delay.
+     * 
+     * @param nChangedDocuments
+     *            the number of added, updated or deleted documents
+     * @param afterCommitTask
+     *            a task to run once the changes are durably committed, may be null
+     */
+    public void indexChanged( int nChangedDocuments, Runnable afterCommitTask )
+    {
+        refreshSearcher( );
+
+        long lMaxDelay = AppPropertiesService.getPropertyLong( PROPERTY_COMMIT_MAX_DELAY, 0L );
+        int nMaxDocuments = AppPropertiesService.getPropertyInt( PROPERTY_COMMIT_MAX_DOCUMENTS, 1 );
+        boolean bCommitNow;
+
+        synchronized( _commitLock )
+        {
+            _nUncommittedDocuments += nChangedDocuments;
+            if ( afterCommitTask != null )
+            {
+                _listAfterCommitTasks.add( afterCommitTask );
+            }
+
+            bCommitNow = lMaxDelay <= 0 || _nUncommittedDocuments >= nMaxDocuments;
+            if ( !bCommitNow && _scheduledCommit == null )
+            {
+                try
+                {
+                    _scheduledCommit = _commitExecutor.schedule( this::commit, lMaxDelay, TimeUnit.MILLISECONDS );
+                }
+                catch( RejectedExecutionException e )
+                {
+                    bCommitNow = true;
+                }
+            }
+        }
+
+        if ( bCommitNow )
+        {
+            commit( );
+        }
+    }
+
+    /**
+     * Commit the pending changes of the shared IndexWriters, then run the tasks waiting for this commit
+     */
+    public void commit( )
+    {
+        List<Runnable> listAfterCommitTasks;
+
+        synchronized( _commitLock )
+        {
+            if ( _scheduledCommit != null )
+            {
+                _scheduledCommit.cancel( false );
+                _scheduledCommit = null;
+            }
+
+            for ( IndexShard shard : getOpenedShards( ) )
+            {
+                IndexWriter indexWriter = shard._indexWriter;
+                try
+                {
+                    if ( indexWriter != null && indexWriter.hasUncommittedChanges( ) )
+                    {
+                        indexWriter.commit( );
+                    }
+                }
+                catch( IOException | AlreadyClosedException e )
+                {
+                    // The tasks are kept for the next commit
+                    AppLogService.error( "Unable to commit the Lucene index", e );
+                    return;
+                }
+            }
+
+            _nUncommittedDocuments = 0;
+            listAfterCommitTasks = new ArrayList<>( _listAfterCommitTasks );
+            _listAfterCommitTasks.clear( );
+        }
+
+        for ( Runnable afterCommitTask : listAfterCommitTasks )
+        {
+            try
+            {
+                afterCommitTask.run( );
+            }
+            catch( RuntimeException e )
+            {
+                AppLogService.error( e.getMessage( ), e );
+            }
+        }
+    }
+
+    /**
+     * Return the searcher manager opened on the IndexWriter of an index, creating it if needed
+     * 
+     * @param shard
+     *            the index
+     * @return the searcher manager, or null if the IndexWriter can not be opened
+     */
+    private synchronized SearcherManager getSearcherManager( IndexShard shard )
+    {
+        IndexWriter indexWriter = getIndexWriter( shard, Boolean.FALSE );
+        if ( indexWriter == null )
+        {
+            return null;
+        }
+        if ( shard._searcherManager == null || shard._indexWriter != shard._searcherManagerWriter )
+        {
+            closeSearcherManager( shard );
+            try
+            {
+                shard._searcherManager = new SearcherManager( indexWriter, new SearcherFactory( ) );
+                shard._searcherManagerWriter = indexWriter;
+                startReopenThread( shard, indexWriter );
+            }
+            catch( IOException e )
+            {
+                AppLogService.error( "Unable to create the Lucene searcher manager", e );
+                shard._searcherManager = null;
+                shard._searcherManagerWriter = null;
+            }
+        }
+        return shard._searcherManager;
+    }
+
+    /**
+     * Start the background thread which periodically refreshes the searcher of an index, if a maximum staleness is configured
+     * 
+     * @param shard
+     *            the index
+     * @param indexWriter
+     *            the IndexWriter the searcher manager is opened on
+     */
+    private void startReopenThread( IndexShard shard, IndexWriter indexWriter )
+    {
+        long lMaxStale = AppPropertiesService.getPropertyLong( PROPERTY_SEARCHER_REFRESH_MAX_STALE, 0L );
+        if ( lMaxStale <= 0 )
+        {
+            return;
+        }
+        long lMinStale = Math.min( AppPropertiesService.getPropertyLong( PROPERTY_SEARCHER_REFRESH_MIN_STALE, 0L ), lMaxStale );
+        shard._reopenThread = new ControlledRealTimeReopenThread<>( indexWriter, shard._searcherManager, lMaxStale / MILLIS_PER_SECOND,
+                lMinStale / MILLIS_PER_SECOND );
+        shard._reopenThread.setName( shard._nIdForm == null ? "forms-lucene-searcher-refresh" : "forms-lucene-searcher-refresh-" + shard._nIdForm );
+        shard._reopenThread.setDaemon( true );
+        shard._reopenThread.start( );
+    }
+
+    /**
+     * Close the searcher manager of an index and its refresh thread
+     * 
+     * @param shard
+     *            the index
+     */
+    private void closeSearcherManager( IndexShard shard )
+    {
+        if ( shard._reopenThread != null )
+        {
+            shard._reopenThread.close( );
+            shard._reopenThread = null;
+        }
+        if ( shard._searcherManager != null )
+        {
+            try
+            {
+                shard._searcherManager.close( );
+            }
+            catch( IOException e )
+            {
+                AppLogService.error( "Unable to close the Lucene searcher manager", e );
+            }
+            shard._searcherManager = null;
+            shard._searcherManagerWriter = null;
+        }
+    }
+
+    /**
+     * Commit the pending changes, then release the searcher managers and the IndexWriters when the context is destroyed
+     */
+    @PreDestroy
+    public synchronized void shutdown( )
+    {
+        _commitExecutor.shutdownNow( );
+        commit( );
+        for ( IndexShard shard : getOpenedShards( ) )
+        {
+            closeSearcherManager( shard );
+            if ( shard._indexWriter != null && shard._indexWriter.isOpen( ) )
+            {
+                try
+                {
+                    shard._indexWriter.close( );
+                }
+                catch( IOException e )
+                {
+                    AppLogService.error( "Unable to close the Lucene index writer", e );
+                }
+            }
+            shard._indexWriter = null;
+        }
+    }
+
+    /**
+     * Close the index of a form which no longer exists, discarding its pending changes, and delete its directories
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public synchronized void deleteFormIndex( int nIdForm ) throws IOException
+    {
+        IndexShard shard = _mapFormShards.remove( nIdForm );
+        if ( shard == null )
+        {
+            shard = new IndexShard( nIdForm );
+        }
+        closeSearcherManager( shard );
+        if ( shard._indexWriter != null && shard._indexWriter.isOpen( ) )
+        {
+            shard._indexWriter.rollback( );
+        }
+        shard._indexWriter = null;
+
+        Path pathIndex = getShardPath( shard );
+        FileUtils.deleteDirectory( getSiblingPath( pathIndex, SUFFIX_REBUILD_DIRECTORY ).toFile( ) );
+        FileUtils.deleteDirectory( getSiblingPath( pathIndex, SUFFIX_RETIRED_DIRECTORY ).toFile( ) );
+        FileUtils.deleteDirectory( pathIndex.toFile( ) );
+    }
+
+    /**
+     * Create an IndexWriter on an empty side directory, next to the index directory. The index can be rebuilt in this directory while the current
+     * index is still searched, then switched with {@link #switchToRebuiltIndex(IndexWriter)}.
+     * 
+     * @return the IndexWriter of the side directory
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public IndexWriter createRebuildIndexWriter( ) throws IOException
+    {
+        return createRebuildIndexWriter( _globalShard );
+    }
+
+    /**
+     * Create an IndexWriter on an empty side directory, next to the index directory of a form. The index of the form can be rebuilt in this directory
+     * while its current index is still searched, then switched with {@link #switchToRebuiltIndex(int, IndexWriter)}.
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the IndexWriter of the side directory
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public IndexWriter createRebuildIndexWriter( int nIdForm ) throws IOException
+    {
+        return createRebuildIndexWriter( getFormShard( nIdForm ) );
+    }
+
+    /**
+     * Create an IndexWriter on an empty side directory, next to the directory of an index
+     * 
+     * @param shard
+     *            the index
+     * @return the IndexWriter of the side directory
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private IndexWriter createRebuildIndexWriter( IndexShard shard ) throws IOException
+    {
+        Path pathRebuild = getSiblingPath( getShardPath( shard ), SUFFIX_REBUILD_DIRECTORY );
+        FileUtils.deleteDirectory( pathRebuild.toFile( ) );
+
+        IndexWriterConfig conf = new IndexWriterConfig( getAnalyzer( ) );
+        conf.setOpenMode( OpenMode.CREATE );
+        if ( INDEX_SORT_ENABLED )
+        {
+            conf.setIndexSort( INDEX_SORT );
+        }
+        return new IndexWriter( FSDirectory.open( pathRebuild ), conf );
+    }
+
+    /**
+     * Switch the search to the index rebuilt in the side directory, and retire the previous index. The searches still running on the previous index
+     * keep their reader until they release it.
+     * 
+     * @param rebuildIndexWriter
+     *            the IndexWriter returned by {@link #createRebuildIndexWriter()}
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public synchronized void switchToRebuiltIndex( IndexWriter rebuildIndexWriter ) throws IOException
+    {
+        switchToRebuiltIndex( _globalShard, rebuildIndexWriter );
+    }
+
+    /**
+     * Switch the search of a form to its index rebuilt in the side directory, and retire its previous index
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @param rebuildIndexWriter
+     *            the IndexWriter returned by {@link #createRebuildIndexWriter(int)}
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    public synchronized void switchToRebuiltIndex( int nIdForm, IndexWriter rebuildIndexWriter ) throws IOException
+    {
+        switchToRebuiltIndex( getFormShard( nIdForm ), rebuildIndexWriter );
+    }
+
+    /**
+     * Switch the search of an index to the index rebuilt in its side directory, and retire the previous one
+     * 
+     * @param shard
+     *            the index
+     * @param rebuildIndexWriter
+     *            the IndexWriter of the side directory
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private void switchToRebuiltIndex( IndexShard shard, IndexWriter rebuildIndexWriter ) throws IOException
+    {
+        rebuildIndexWriter.commit( );
+        rebuildIndexWriter.close( );
+
+        // The pending changes of the current index are committed so that the tasks waiting for them are run
+        commit( );
+        closeSearcherManager( shard );
+        if ( shard._indexWriter != null && shard._indexWriter.isOpen( ) )
+        {
+            shard._indexWriter.close( );
+        }
+        shard._indexWriter = null;
+
+        Path pathIndex = getShardPath( shard );
+        Path pathRetired = getSiblingPath( pathIndex, SUFFIX_RETIRED_DIRECTORY );
+        FileUtils.deleteDirectory( pathRetired.toFile( ) );
+        if ( Files.exists( pathIndex ) )
+        {
+            Files.move( pathIndex, pathRetired, StandardCopyOption.ATOMIC_MOVE );
+        }
+        try
+        {
+            Files.move( getSiblingPath( pathIndex, SUFFIX_REBUILD_DIRECTORY ), pathIndex, StandardCopyOption.ATOMIC_MOVE );
+        }
+        catch( IOException e )
+        {
+            // The previous index is put back, so that the search does not start again on an empty index
+            if ( Files.exists( pathRetired ) && !Files.exists( pathIndex ) )
+            {
+                Files.move( pathRetired, pathIndex, StandardCopyOption.ATOMIC_MOVE );
+            }
+            throw e;
+        }
+
+        try
+        {
+            FileUtils.deleteDirectory( pathRetired.toFile( ) );
+        }
+        catch( IOException e )
+        {
+            // The files may still be opened by a running search, they will be deleted by the next switch
+            AppLogService.error( "Unable to delete the retired Lucene index " + pathRetired, e );
+        }
+    }
+
+    /**
+     * Recover an index whose switch to its rebuilt directory has been interrupted between the two moves of {@link #switchToRebuiltIndex(IndexShard, IndexWriter)}.
+     * The rebuilt directory is only committed once complete, so it is moved in place of the missing index if it holds a commit. Otherwise the retired
+     * index is moved back.
+     * 
+     * @param pathIndex
+     *            the path of the index directory
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private static void recoverInterruptedSwitch( Path pathIndex ) throws IOException
+    {
+        if ( Files.exists( pathIndex ) )
+        {
+            return;
+        }
+
+        Path pathRebuild = getSiblingPath( pathIndex, SUFFIX_REBUILD_DIRECTORY );
+        Path pathRetired = getSiblingPath( pathIndex, SUFFIX_RETIRED_DIRECTORY );
+        if ( hasIndex( pathRebuild ) )
+        {
+            AppLogService.info( "Recovering the interrupted switch of the Lucene index " + pathIndex + " to its rebuilt directory" );
+            Files.move( pathRebuild, pathIndex, StandardCopyOption.ATOMIC_MOVE );
+        }
+        else
+            if ( hasIndex( pathRetired ) )
+            {
+                AppLogService.info( "Restoring the retired Lucene index " + pathIndex + " after an interrupted switch" );
+                Files.move( pathRetired, pathIndex, StandardCopyOption.ATOMIC_MOVE );
+            }
+    }
+
+    /**
+     * Tell if a directory holds a committed index
+     * 
+     * @param path
+     *            the path of the directory
+     * @return true if the directory holds a committed index, false otherwise
+     * @throws IOException
+     *             - if there is a low level IO error
+     */
+    private static boolean hasIndex( Path path ) throws IOException
+    {
+        if ( !Files.isDirectory( path ) )
+        {
+            return false;
+        }
+        try ( Directory directory = FSDirectory.open( path ) )
+        {
+            return DirectoryReader.indexExists( directory );
+        }
     }
 
     /**
@@ -129,6 +879,56 @@ public class LuceneFormSearchFactory
      *             - if the path string cannot be converted to a Path
      */
     public Directory getDirectory( ) throws IOException
+    {
+        return FSDirectory.open( getIndexPath( ) );
+    }
+
+    /**
+     * Return the index of a form, created if needed
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the index of the form
+     */
+    private IndexShard getFormShard( int nIdForm )
+    {
+        return _mapFormShards.computeIfAbsent( nIdForm, IndexShard::new );
+    }
+
+    /**
+     * Return the indexes which may be opened
+     * 
+     * @return the opened indexes
+     */
+    private List<IndexShard> getOpenedShards( )
+    {
+        List<IndexShard> listShards = new ArrayList<>( _mapFormShards.values( ) );
+        listShards.add( _globalShard );
+        return listShards;
+    }
+
+    /**
+     * Return the path of the directory of an index: the index directory for the shared index, a directory next to it for the index of a form
+     * 
+     * @param shard
+     *            the index
+     * @return the path of the directory of the index
+     */
+    private Path getShardPath( IndexShard shard )
+    {
+        if ( shard._nIdForm == null )
+        {
+            return getIndexPath( );
+        }
+        return getSiblingPath( getIndexPath( ), SUFFIX_SHARDS_DIRECTORY ).resolve( PREFIX_SHARD_DIRECTORY + shard._nIdForm );
+    }
+
+    /**
+     * Return the path of the index directory
+     * 
+     * @return the path of the index directory
+     */
+    private Path getIndexPath( )
     {
         String strIndex;
 
@@ -142,6 +942,44 @@ public class LuceneFormSearchFactory
             strIndex = AppPropertiesService.getProperty( PATH_INDEX );
         }
 
-        return FSDirectory.open( Paths.get( strIndex ) );
+        return Paths.get( strIndex );
+    }
+
+    /**
+     * Return the path of a directory next to a directory
+     * 
+     * @param path
+     *            the path of the directory
+     * @param strSuffix
+     *            the suffix added to the name of the directory
+     * @return the path of the sibling directory
+     */
+    private static Path getSiblingPath( Path path, String strSuffix )
+    {
+        Path pathAbsolute = path.toAbsolutePath( );
+        return pathAbsolute.resolveSibling( pathAbsolute.getFileName( ) + strSuffix );
+    }
+
+    /**
+     * An index directory, with its IndexWriter and the searcher manager opened on it
+     */
+    private static final class IndexShard
+    {
+        private final Integer _nIdForm;
+        private IndexWriter _indexWriter;
+        private SearcherManager _searcherManager;
+        private IndexWriter _searcherManagerWriter;
+        private ControlledRealTimeReopenThread<IndexSearcher> _reopenThread;
+
+        /**
+         * Constructor
+         * 
+         * @param nIdForm
+         *            the id of the form of the index, or null for the index shared by all the forms
+         */
+        IndexShard( Integer nIdForm )
+        {
+            _nIdForm = nIdForm;
+        }
     }
 }
@@ -35,19 +35,34 @@ package fr.paris.lutece.plugins.forms.service.search;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LatLonDocValuesField;
+import org.apache.lucene.document.LatLonPoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedDocValuesField;
@@ -55,7 +70,11 @@ import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.util.BytesRef;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -63,6 +82,7 @@ import fr.paris.lutece.plugins.forms.business.Form;
 import fr.paris.lutece.plugins.forms.business.FormHome;
 import fr.paris.lutece.plugins.forms.business.FormQuestionResponse;
 import fr.paris.lutece.plugins.forms.business.FormResponse;
+import fr.paris.lutece.plugins.forms.business.FormResponseBatchFilter;
 import fr.paris.lutece.plugins.forms.business.FormResponseHome;
 import fr.paris.lutece.plugins.forms.business.FormResponseStep;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
@@ -70,17 +90,14 @@ import fr.paris.lutece.plugins.forms.business.form.search.IndexerAction;
 import fr.paris.lutece.plugins.forms.business.form.search.IndexerActionFilter;
 import fr.paris.lutece.plugins.forms.business.form.search.IndexerActionHome;
 import fr.paris.lutece.plugins.forms.service.FormsPlugin;
-import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeCheckBox;
-import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeDate;
-import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeNumbering;
-import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeRadioButton;
-import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeSelect;
+import fr.paris.lutece.plugins.forms.service.cache.FormsCacheService;
 import fr.paris.lutece.plugins.forms.util.LuceneUtils;
 import fr.paris.lutece.plugins.genericattributes.business.Entry;
 import fr.paris.lutece.plugins.genericattributes.business.Response;
-import fr.paris.lutece.plugins.genericattributes.service.entrytype.EntryTypeServiceManager;
 import fr.paris.lutece.plugins.genericattributes.service.entrytype.IEntryTypeService;
 import fr.paris.lutece.plugins.workflowcore.business.state.State;
+import fr.paris.lutece.plugins.workflowcore.business.state.StateFilter;
+import fr.paris.lutece.plugins.workflowcore.service.resource.IResourceWorkflowService;
 import fr.paris.lutece.plugins.workflowcore.service.state.StateService;
 import fr.paris.lutece.portal.service.content.XPageAppService;
 import fr.paris.lutece.portal.service.message.SiteMessageException;
@@ -99,22 +116,41 @@ import fr.paris.lutece.util.url.UrlItem;
  */
 public class LuceneFormSearchIndexer implements IFormSearchIndexer
 {
+    public static final String BEAN_NAME = "forms.luceneFormsSearchIndexer";
     public static final String INDEXER_NAME = "FormsIndexer";
     private static final String INDEXER_DESCRIPTION = "Indexer service for forms";
     private static final String FORMS = "forms";
     private static final String INDEXER_VERSION = "1.0.0";
     private static final String PROPERTY_INDEXER_ENABLE = "forms.globalIndexer.enable";
-    private static final String FILTER_DATE_FORMAT = AppPropertiesService.getProperty( "forms.index.date.format", "dd/MM/yyyy" );
     private static final int TAILLE_LOT = AppPropertiesService.getPropertyInt( "forms.index.writer.commit.size", 100 );
-
-    private static AtomicBoolean _bIndexIsRunning = new AtomicBoolean( false );
-    private static AtomicBoolean _bIndexToLunch = new AtomicBoolean( false );
+    private static final int REINDEX_WORKER_NUMBER = AppPropertiesService.getPropertyInt( "forms.index.reindex.threads",
+            Runtime.getRuntime( ).availableProcessors( ) );
+    private static final boolean REBUILD_IN_SIDE_DIRECTORY = AppPropertiesService.getPropertyBoolean( "forms.index.rebuild.sideDirectory", true );
+
+    private static final long INDEXING_DEBOUNCE_DELAY = AppPropertiesService.getPropertyLong( "forms.index.indexing.debounceMillis", 500L );
+    private static final long INDEXING_SHUTDOWN_TIMEOUT = AppPropertiesService.getPropertyLong( "forms.index.indexing.shutdownTimeoutSeconds", 30L );
+    private static final String INDEXING_THREAD_NAME = "forms-indexer";
+
+    // Single writer thread: the debounced incremental indexing and the full reindex are run one after the other
+    private final ScheduledExecutorService _indexingExecutor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, INDEXING_THREAD_NAME );
+        thread.setDaemon( true );
+        return thread;
+    } );
+    private final AtomicBoolean _bIndexingScheduled = new AtomicBoolean( false );
+    // Actions already indexed, removed once their changes are committed
+    private final Set<Integer> _setUncommittedActions = ConcurrentHashMap.newKeySet( );
 
     @Inject
     private LuceneFormSearchFactory _luceneFormSearchFactory;
+    @Inject
+    @Named( value = "forms.cacheService" )
+    private FormsCacheService _formsCacheService;
     private IndexWriter _indexWriter;
     @Autowired( required = false )
     private StateService _stateService;
+    @Autowired( required = false )
+    private IResourceWorkflowService _resourceWorkflowService;
 
     public LuceneFormSearchIndexer( )
     {
@@ -193,9 +229,19 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
      */
     @Override
     public void addIndexerAction( int nIdFormResponse, int nIdTask, Plugin plugin )
+    {
+        addIndexerAction( nIdFormResponse, 0, nIdTask, plugin );
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addIndexerAction( int nIdFormResponse, int nIdForm, int nIdTask, Plugin plugin )
     {
         IndexerAction indexerAction = new IndexerAction( );
         indexerAction.setIdFormResponse( nIdFormResponse );
+        indexerAction.setIdForm( nIdForm );
         indexerAction.setIdTask( nIdTask );
         IndexerActionHome.create( indexerAction, plugin );
     }
@@ -206,50 +252,80 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
     @Override
     public synchronized void indexDocuments( ) throws IOException, InterruptedException, SiteMessageException
     {
-        List<Integer> listFormResponsesId = FormResponseHome.selectAllFormResponsesId( );
-
-        deleteIndex( );
-        _bIndexToLunch.set( true );
-        if ( _bIndexIsRunning.compareAndSet( false, true ) )
+        if ( LuceneFormSearchFactory.isShardingEnabled( ) )
         {
-            new Thread( ( ) -> {
+            submitIndexing( ( ) -> {
                 try
                 {
-                    List<FormResponse> listFormResponses = new ArrayList<>( TAILLE_LOT );
-                    for ( Integer nIdFormResponse : listFormResponsesId )
-                    {
-                        FormResponse response = FormResponseHome.findByPrimaryKeyForIndex( nIdFormResponse );
-                        if ( response != null )
-                        {
-                            listFormResponses.add( response );
-                        }
-                        if ( listFormResponses.size( ) == TAILLE_LOT )
-                        {
-                            indexFormResponseList( listFormResponses );
-                            listFormResponses.clear( );
-                        }
-                    }
-                    indexFormResponseList( listFormResponses );
-                    // Indexation increment
-                    while ( _bIndexToLunch.compareAndSet( true, false ) )
-                    {
-                        processIndexing( );
-
-                    }
+                    reindexFormShards( );
                 }
-                catch( Exception e )
+                catch( InterruptedException e )
                 {
-                    AppLogService.error( e.getMessage( ), e );
+                    AppLogService.error( "Forms reindex interrupted", e );
                     Thread.currentThread( ).interrupt( );
+                    return;
                 }
-                finally
+                processIndexing( );
+                _luceneFormSearchFactory.commit( );
+            } );
+            return;
+        }
+
+        FormResponseBatchFilter filter = new FormResponseBatchFilter( );
+
+        submitIndexing( ( ) -> {
+            try
+            {
+                if ( REBUILD_IN_SIDE_DIRECTORY )
                 {
-                    _bIndexIsRunning.set( false );
+                    rebuildInSideDirectory( filter );
                 }
+                else
+                {
+                    deleteIndex( );
+                    reindexFormResponses( filter );
+                }
+            }
+            catch( InterruptedException e )
+            {
+                AppLogService.error( "Forms reindex interrupted", e );
+                Thread.currentThread( ).interrupt( );
+                return;
+            }
+            catch( IOException e )
+            {
+                AppLogService.error( e.getMessage( ), e );
+            }
+            // Indexation increment, replays the actions queued during the rebuild
+            processIndexing( );
+            _luceneFormSearchFactory.commit( );
+        } );
+    }
 
-            } ).start( );
-        }
-
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void reindexForm( int nIdForm )
+    {
+        submitIndexing( ( ) -> {
+            try
+            {
+                reindexForm( nIdForm, FormResponseBatchFilter.forForm( nIdForm ) );
+            }
+            catch( InterruptedException e )
+            {
+                AppLogService.error( "Reindex of the form " + nIdForm + " interrupted", e );
+                Thread.currentThread( ).interrupt( );
+                return;
+            }
+            catch( IOException e )
+            {
+                AppLogService.error( e.getMessage( ), e );
+            }
+            processIndexing( );
+            _luceneFormSearchFactory.commit( );
+        } );
     }
 
     /**
@@ -259,28 +335,88 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
     public void indexDocument( int nIdFormResponse, int nIdTask, Plugin plugin )
     {
         addIndexerAction( nIdFormResponse, nIdTask, plugin );
-        _bIndexToLunch.set( true );
-        if ( _bIndexIsRunning.compareAndSet( false, true ) )
+
+        // The actions added during the debounce delay are processed together
+        if ( _bIndexingScheduled.compareAndSet( false, true ) )
         {
-            new Thread( ( ) -> {
-                try
-                {
-                    while ( _bIndexToLunch.compareAndSet( true, false ) )
+            try
+            {
+                _indexingExecutor.schedule( ( ) -> {
+                    _bIndexingScheduled.set( false );
+                    try
                     {
                         processIndexing( );
                     }
-                }
-                catch( Exception e )
+                    catch( RuntimeException e )
+                    {
+                        AppLogService.error( e.getMessage( ), e );
+                    }
+                }, INDEXING_DEBOUNCE_DELAY, TimeUnit.MILLISECONDS );
+            }
+            catch( RejectedExecutionException e )
+            {
+                _bIndexingScheduled.set( false );
+                AppLogService.info( "Forms indexer stopped, the form response " + nIdFormResponse + " will be indexed on next start" );
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getQueueDepth( )
+    {
+        return Math.max( 0, IndexerActionHome.count( PluginService.getPlugin( FormsPlugin.PLUGIN_NAME ) ) - _setUncommittedActions.size( ) );
+    }
+
+    /**
+     * Stop the indexing thread once the pending indexing is done
+     */
+    @PreDestroy
+    public void shutdown( )
+    {
+        _indexingExecutor.shutdown( );
+        try
+        {
+            if ( !_indexingExecutor.awaitTermination( INDEXING_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS ) )
+            {
+                AppLogService.error(
+                        "Forms indexer still running after " + INDEXING_SHUTDOWN_TIMEOUT + " s, the remaining actions will be processed on next start" );
+                _indexingExecutor.shutdownNow( );
+            }
+        }
+        catch( InterruptedException e )
+        {
+            _indexingExecutor.shutdownNow( );
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+
+    /**
+     * Submit an indexing task to the indexing thread
+     * 
+     * @param indexingTask
+     *            the indexing task
+     */
+    private void submitIndexing( Runnable indexingTask )
+    {
+        try
+        {
+            _indexingExecutor.execute( ( ) -> {
+                try
                 {
-                    AppLogService.error( e.getMessage( ), e );
-                    Thread.currentThread( ).interrupt( );
+                    indexingTask.run( );
                 }
-                finally
+                catch( RuntimeException e )
                 {
-                    _bIndexIsRunning.set( false );
+                    AppLogService.error( e.getMessage( ), e );
                 }
-
-            } ).start( );
+            } );
+        }
+        catch( RejectedExecutionException e )
+        {
+            AppLogService.error( "Forms indexer stopped, unable to run the indexing", e );
         }
     }
 
@@ -293,58 +429,71 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
         initIndexing( false );
 
         Plugin plugin = PluginService.getPlugin( FormsPlugin.PLUGIN_NAME );
-        Set<Integer> listIdsToAdd = new HashSet<>( );
-        Set<Integer> listIdsToDelete = new HashSet<>( );
-
-        // Delete all record which must be delete
-        for ( IndexerAction action : getAllIndexerActionByTask( IndexerAction.TASK_DELETE, plugin ) )
+        List<IndexerAction> listActions = IndexerActionHome.getList( new IndexerActionFilter( ), plugin ).stream( )
+                .filter( action -> !_setUncommittedActions.contains( action.getIdAction( ) ) ).collect( Collectors.toList( ) );
+        if ( listActions.isEmpty( ) )
         {
-            listIdsToDelete.add( action.getIdFormResponse( ) );
-            removeIndexerAction( action.getIdAction( ), plugin );
+            return;
         }
 
-        // Update all record which must be update
-        for ( IndexerAction action : getAllIndexerActionByTask( IndexerAction.TASK_MODIFY, plugin ) )
+        // Coalesce the actions of each form response: the last create, modify or delete action wins, a state update is part of any of them
+        Map<Integer, Integer> mapTaskByFormResponse = new HashMap<>( );
+        Map<Integer, Integer> mapFormByFormResponse = new HashMap<>( );
+        for ( IndexerAction action : listActions )
         {
-            listIdsToDelete.add( action.getIdFormResponse( ) );
-            listIdsToAdd.add( action.getIdFormResponse( ) );
-            removeIndexerAction( action.getIdAction( ), plugin );
+            mapTaskByFormResponse.merge( action.getIdFormResponse( ), action.getIdTask( ),
+                    ( nPreviousTask, nTask ) -> nTask == IndexerAction.TASK_MODIFY_STATE ? nPreviousTask : nTask );
+            if ( action.getIdForm( ) > 0 )
+            {
+                mapFormByFormResponse.put( action.getIdFormResponse( ), action.getIdForm( ) );
+            }
         }
 
-        // Add all form response which must be add
-        for ( IndexerAction action : getAllIndexerActionByTask( IndexerAction.TASK_CREATE, plugin ) )
+        Set<Integer> listIdsToAdd = new HashSet<>( );
+        Set<Integer> listIdsToDelete = new HashSet<>( );
+        Set<Integer> listIdsToUpdateState = new HashSet<>( );
+        for ( Map.Entry<Integer, Integer> entryTask : mapTaskByFormResponse.entrySet( ) )
         {
-            listIdsToAdd.add( action.getIdFormResponse( ) );
-            removeIndexerAction( action.getIdAction( ), plugin );
+            int nIdFormResponse = entryTask.getKey( );
+            switch( entryTask.getValue( ) )
+            {
+                case IndexerAction.TASK_DELETE:
+                    listIdsToDelete.add( nIdFormResponse );
+                    break;
+                case IndexerAction.TASK_MODIFY_STATE:
+                    listIdsToUpdateState.add( nIdFormResponse );
+                    break;
+                default:
+                    // A created response is deleted first, in case it has already been indexed by a rebuild
+                    listIdsToDelete.add( nIdFormResponse );
+                    listIdsToAdd.add( nIdFormResponse );
+                    break;
+            }
         }
+        AppLogService.debug( "Forms indexer: " + listActions.size( ) + " actions coalesced into " + mapTaskByFormResponse.size( ) + " form responses" );
 
-        List<Query> queryList = new ArrayList<>( TAILLE_LOT );
-        for ( Integer nIdFormResponse : listIdsToDelete )
+        for ( Integer nIdFormResponse : updateWorkflowStates( listIdsToUpdateState ) )
         {
-            queryList.add( IntPoint.newExactQuery( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
-            if ( queryList.size( ) == TAILLE_LOT )
-            {
-                deleteDocument( queryList );
-                queryList.clear( );
-            }
+            listIdsToDelete.add( nIdFormResponse );
+            listIdsToAdd.add( nIdFormResponse );
         }
-        deleteDocument( queryList );
 
-        List<FormResponse> listFormResponses = new ArrayList<>( TAILLE_LOT );
-        for ( Integer nIdFormResponse : listIdsToAdd )
+        deleteFormResponseDocuments( listIdsToDelete, mapFormByFormResponse );
+
+        List<Integer> listIdFormResponseToAdd = new ArrayList<>( listIdsToAdd );
+        for ( int nFrom = 0; nFrom < listIdFormResponseToAdd.size( ); nFrom += TAILLE_LOT )
         {
-            FormResponse response = FormResponseHome.findByPrimaryKeyForIndex( nIdFormResponse );
-            if ( response != null )
-            {
-                listFormResponses.add( response );
-            }
-            if ( listFormResponses.size( ) == TAILLE_LOT )
-            {
-                indexFormResponseList( listFormResponses );
-                listFormResponses.clear( );
-            }
+            int nTo = Math.min( nFrom + TAILLE_LOT, listIdFormResponseToAdd.size( ) );
+            indexFormResponseList( FormResponseHome.findByPrimaryKeyListForIndex( listIdFormResponseToAdd.subList( nFrom, nTo ) ) );
         }
-        indexFormResponseList( listFormResponses );
+
+        // The actions are removed once the changes are durably committed, so that they are replayed after a crash
+        List<Integer> listIdActions = listActions.stream( ).map( IndexerAction::getIdAction ).collect( Collectors.toList( ) );
+        _setUncommittedActions.addAll( listIdActions );
+        endIndexing( mapTaskByFormResponse.size( ), ( ) -> {
+            IndexerActionHome.removeList( listIdActions, plugin );
+            _setUncommittedActions.removeAll( listIdActions );
+        } );
     }
 
     /**
@@ -374,7 +523,7 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
             formResponseState = _stateService.findByResource( formResponse.getId( ), FormResponse.RESOURCE_TYPE, form.getIdWorkflow( ) );
         }
 
-        Document doc = getDocument( formResponse, form, formResponseState );
+        Document doc = getDocument( formResponse, form, formResponseState, getFormIndexSchema( form.getId( ) ) );
         if ( doc != null )
         {
             List<Document> listDocument = new ArrayList<>( 1 );
@@ -387,7 +536,170 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
     }
 
     /**
-     * {@inheritDoc}
+     * Rebuild the documents of the form responses matching a filter with the parallel reindex pipeline
+     * 
+     * @param filter
+     *            the filter of the form responses to index
+     * @throws InterruptedException
+     *             if the current thread is interrupted
+     */
+    private void reindexFormResponses( FormResponseBatchFilter filter ) throws InterruptedException
+    {
+        if ( _indexWriter == null || !_indexWriter.isOpen( ) )
+        {
+            initIndexing( true );
+        }
+
+        createReindexPipeline( filter, documentList -> {
+            int nChangedDocuments = documentList.size( );
+            addDocuments( documentList );
+            endIndexing( nChangedDocuments, null );
+        } ).run( );
+    }
+
+    /**
+     * Create the reindex pipeline of the form responses matching a filter. The ids of the form responses are read batch by batch while they are indexed.
+     * 
+     * @param filter
+     *            the filter of the form responses to index
+     * @param documentWriter
+     *            the consumer adding a batch of documents to the index
+     * @return the pipeline
+     */
+    private FormResponseReindexPipeline createReindexPipeline( FormResponseBatchFilter filter, Consumer<List<Document>> documentWriter )
+    {
+        Map<Integer, Form> mapForms = FormHome.getFormList( ).stream( ).collect( Collectors.toMap( Form::getId, form -> form ) );
+        return new FormResponseReindexPipeline( batchConsumer -> FormResponseHome.forEachFormResponseIdBatch( filter, batchConsumer ),
+                FormResponseHome.countFormResponses( filter ), TAILLE_LOT, REINDEX_WORKER_NUMBER,
+                listIds -> buildDocuments( FormResponseHome.findByPrimaryKeyListForIndex( listIds ), mapForms ), documentWriter );
+    }
+
+    /**
+     * Rebuild the index of each form, then delete the indexes of the forms which no longer exist. Used when there is one index per form.
+     * 
+     * @throws InterruptedException
+     *             if the current thread is interrupted
+     */
+    private void reindexFormShards( ) throws InterruptedException
+    {
+        Set<Integer> setIdForms = new HashSet<>( );
+        for ( Form form : FormHome.getFormList( ) )
+        {
+            setIdForms.add( form.getId( ) );
+            try
+            {
+                reindexForm( form.getId( ), FormResponseBatchFilter.forForm( form.getId( ) ) );
+            }
+            catch( IOException | RuntimeException e )
+            {
+                AppLogService.error( "Unable to reindex the form " + form.getId( ), e );
+            }
+        }
+
+        for ( Integer nIdForm : _luceneFormSearchFactory.getShardIdForms( ) )
+        {
+            if ( !setIdForms.contains( nIdForm ) )
+            {
+                try
+                {
+                    _luceneFormSearchFactory.deleteFormIndex( nIdForm );
+                }
+                catch( IOException e )
+                {
+                    AppLogService.error( "Unable to delete the index of the deleted form " + nIdForm, e );
+                }
+            }
+        }
+        endIndexing( 0, null );
+    }
+
+    /**
+     * Rebuild the documents of the form responses of a form. When there is one index per form, the index of the form is rebuilt, in a side directory if
+     * enabled. Otherwise the documents of the form are replaced in the shared index.
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @param filter
+     *            the filter of the form responses of the form
+     * @throws InterruptedException
+     *             if the current thread is interrupted
+     * @throws IOException
+     *             if the index can not be written
+     */
+    private void reindexForm( int nIdForm, FormResponseBatchFilter filter ) throws InterruptedException, IOException
+    {
+        if ( !LuceneFormSearchFactory.isShardingEnabled( ) )
+        {
+            initIndexing( false );
+            deleteDocument( Collections.singletonList( IntPoint.newExactQuery( FormResponseSearchItem.FIELD_ID_FORM, nIdForm ) ) );
+            reindexFormResponses( filter );
+            return;
+        }
+
+        if ( REBUILD_IN_SIDE_DIRECTORY )
+        {
+            IndexWriter rebuildIndexWriter = _luceneFormSearchFactory.createRebuildIndexWriter( nIdForm );
+            rebuildIndex( rebuildIndexWriter, filter );
+            _luceneFormSearchFactory.switchToRebuiltIndex( nIdForm, rebuildIndexWriter );
+        }
+        else
+        {
+            deleteAllDocuments( _luceneFormSearchFactory.getIndexWriter( nIdForm, Boolean.FALSE ) );
+            reindexFormResponses( filter );
+        }
+    }
+
+    /**
+     * Rebuild the index of the form responses matching a filter in a side directory while the current index is still searched, then switch the search
+     * to the rebuilt index. The indexer actions queued during the rebuild are kept and replayed on the new index by the next processing.
+     * 
+     * @param filter
+     *            the filter of the form responses to index
+     * @throws InterruptedException
+     *             if the current thread is interrupted
+     * @throws IOException
+     *             if the side directory can not be written or switched
+     */
+    private void rebuildInSideDirectory( FormResponseBatchFilter filter ) throws InterruptedException, IOException
+    {
+        IndexWriter rebuildIndexWriter = _luceneFormSearchFactory.createRebuildIndexWriter( );
+        rebuildIndex( rebuildIndexWriter, filter );
+
+        _luceneFormSearchFactory.switchToRebuiltIndex( rebuildIndexWriter );
+        _indexWriter = null;
+    }
+
+    /**
+     * Index the form responses matching a filter with the IndexWriter of a side directory. The changes of the side directory are rolled back if the
+     * rebuild fails.
+     * 
+     * @param rebuildIndexWriter
+     *            the IndexWriter of the side directory
+     * @param filter
+     *            the filter of the form responses to index
+     * @throws InterruptedException
+     *             if the current thread is interrupted
+     * @throws IOException
+     *             if the changes can not be rolled back
+     */
+    private void rebuildIndex( IndexWriter rebuildIndexWriter, FormResponseBatchFilter filter ) throws InterruptedException, IOException
+    {
+        try
+        {
+            createReindexPipeline( filter, documentList -> addDocuments( rebuildIndexWriter, documentList ) ).run( );
+        }
+        catch( InterruptedException | RuntimeException e )
+        {
+            rebuildIndexWriter.rollback( );
+            throw e;
+        }
+    }
+
+    /**
+     * Index a list of form responses
+     * 
+     * @param listFormResponse
+     *            the form responses to index
      */
     private void indexFormResponseList( List<FormResponse> listFormResponse )
     {
@@ -397,7 +709,46 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
         }
 
         Map<Integer, Form> mapForms = FormHome.getFormList( ).stream( ).collect( Collectors.toMap( Form::getId, form -> form ) );
-        List<Document> documentList = new ArrayList<>( );
+        List<Document> documentList = buildDocuments( listFormResponse, mapForms );
+        if ( !documentList.isEmpty( ) )
+        {
+            addDocuments( documentList );
+        }
+    }
+
+    /**
+     * Get the index schema of a form, shared by the indexing threads while the form is not modified
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the index schema of the form
+     */
+    private FormIndexSchema getFormIndexSchema( int nIdForm )
+    {
+        String strCacheKey = _formsCacheService.getFormIndexSchemaCacheKey( nIdForm );
+        FormIndexSchema formIndexSchema = (FormIndexSchema) _formsCacheService.getFromCache( strCacheKey );
+        if ( formIndexSchema == null )
+        {
+            formIndexSchema = new FormIndexSchema( );
+            _formsCacheService.putInCache( strCacheKey, formIndexSchema );
+        }
+        return formIndexSchema;
+    }
+
+    /**
+     * Build the documents of a list of form responses
+     * 
+     * @param listFormResponse
+     *            the form responses
+     * @param mapForms
+     *            the forms by id
+     * @return the documents of the form responses
+     */
+    private List<Document> buildDocuments( List<FormResponse> listFormResponse, Map<Integer, Form> mapForms )
+    {
+        List<Document> documentList = new ArrayList<>( listFormResponse.size( ) );
+        Map<Integer, State> mapStates = findFormResponseStates( listFormResponse, mapForms );
+        Map<Integer, FormIndexSchema> mapSchemas = new HashMap<>( );
         for ( FormResponse formResponse : listFormResponse )
         {
             Document doc = null;
@@ -405,7 +756,7 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
             State formResponseState = null;
             if ( _stateService != null )
             {
-                formResponseState = _stateService.findByResource( formResponse.getId( ), FormResponse.RESOURCE_TYPE, form.getIdWorkflow( ) );
+                formResponseState = mapStates.get( formResponse.getId( ) );
             }
             else
             {
@@ -416,7 +767,7 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
 
             try
             {
-                doc = getDocument( formResponse, form, formResponseState );
+                doc = getDocument( formResponse, form, formResponseState, mapSchemas.computeIfAbsent( form.getId( ), this::getFormIndexSchema ) );
             }
             catch( Exception e )
             {
@@ -428,19 +779,277 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
                 documentList.add( doc );
             }
         }
-        if ( !documentList.isEmpty( ) )
+        return documentList;
+    }
+
+    /**
+     * Update the workflow state of indexed form responses. The doc values of the state are updated in place, without loading the responses graph nor
+     * rebuilding their documents.
+     * 
+     * @param setIdFormResponse
+     *            the ids of the form responses
+     * @return the ids of the form responses which must be fully reindexed: not indexed yet, modified since their indexation or without workflow state
+     */
+    private Set<Integer> updateWorkflowStates( Set<Integer> setIdFormResponse )
+    {
+        Set<Integer> setIdToReindex = new HashSet<>( );
+        if ( setIdFormResponse.isEmpty( ) )
         {
-            addDocuments( documentList );
+            return setIdToReindex;
         }
-        endIndexing( );
+
+        List<Integer> listIdFormResponse = new ArrayList<>( setIdFormResponse );
+        Map<Integer, Form> mapForms = FormHome.getFormList( ).stream( ).collect( Collectors.toMap( Form::getId, form -> form ) );
+
+        for ( int nFrom = 0; nFrom < listIdFormResponse.size( ); nFrom += TAILLE_LOT )
+        {
+            List<Integer> listIdChunk = listIdFormResponse.subList( nFrom, Math.min( nFrom + TAILLE_LOT, listIdFormResponse.size( ) ) );
+            try
+            {
+                setIdToReindex.addAll( updateWorkflowStates( listIdChunk, mapForms ) );
+            }
+            catch( IOException | IllegalArgumentException e )
+            {
+                AppLogService.error( "Unable to update the workflow state of the form responses, they will be fully reindexed", e );
+                setIdToReindex.addAll( listIdChunk );
+            }
+        }
+        return setIdToReindex;
+    }
+
+    /**
+     * Update the workflow state of a chunk of indexed form responses. The indexed update date of the responses is read with the shared searcher of
+     * their forms only: a response missing from this searcher, or indexed with another update date, is fully reindexed.
+     * 
+     * @param listIdFormResponse
+     *            the ids of the form responses
+     * @param mapForms
+     *            the forms by id
+     * @return the ids of the form responses which must be fully reindexed
+     * @throws IOException
+     *             if the index can not be read or written
+     */
+    private Set<Integer> updateWorkflowStates( List<Integer> listIdFormResponse, Map<Integer, Form> mapForms ) throws IOException
+    {
+        Set<Integer> setIdToReindex = new HashSet<>( listIdFormResponse );
+        List<FormResponse> listFormResponse = FormResponseHome.getFormResponseUncompleteByPrimaryKeyList( listIdFormResponse ).stream( )
+                .filter( formResponse -> !formResponse.isFromSave( ) ).collect( Collectors.toList( ) );
+        if ( listFormResponse.isEmpty( ) )
+        {
+            return setIdToReindex;
+        }
+
+        List<FormResponse> listFormResponseToUpdate = new ArrayList<>( listFormResponse.size( ) );
+        IndexSearcher searcher = _luceneFormSearchFactory
+                .acquireSearcher( listFormResponse.stream( ).map( FormResponse::getFormId ).collect( Collectors.toSet( ) ) );
+        if ( searcher == null )
+        {
+            return setIdToReindex;
+        }
+        try
+        {
+            for ( FormResponse formResponse : listFormResponse )
+            {
+                // The response update date changes with its content, in that case the whole document is rebuilt
+                TopDocs topDocs = searcher.search( new TermQuery( new Term( SearchItem.FIELD_UID, String.valueOf( formResponse.getId( ) ) ) ), 1 );
+                if ( topDocs.scoreDocs.length > 0 && formResponse.getUpdate( ).getTime( ) == searcher.doc( topDocs.scoreDocs [0].doc )
+                        .getField( FormResponseSearchItem.FIELD_DATE_UPDATE ).numericValue( ).longValue( ) )
+                {
+                    listFormResponseToUpdate.add( formResponse );
+                }
+            }
+        }
+        finally
+        {
+            _luceneFormSearchFactory.releaseSearcher( searcher );
+        }
+
+        Map<Integer, State> mapStates = findFormResponseStates( listFormResponseToUpdate, mapForms );
+        for ( FormResponse formResponse : listFormResponseToUpdate )
+        {
+            State formResponseState = mapStates.get( formResponse.getId( ) );
+            IndexWriter indexWriter = getIndexWriter( formResponse.getFormId( ) );
+            if ( formResponseState != null && indexWriter != null )
+            {
+                indexWriter.updateDocValues( new Term( SearchItem.FIELD_UID, String.valueOf( formResponse.getId( ) ) ),
+                        createWorkflowStateFields( formResponseState ) );
+                setIdToReindex.remove( formResponse.getId( ) );
+            }
+        }
+        return setIdToReindex;
+    }
+
+    /**
+     * Create the doc values of the workflow state of a form response. They are not stored nor indexed as points, so that they can be updated in place
+     * when the state changes.
+     * 
+     * @param formResponseState
+     *            the workflow state
+     * @return the doc values fields of the id and of the title of the state
+     */
+    static Field [ ] createWorkflowStateFields( State formResponseState )
+    {
+        return new Field [ ] {
+                new NumericDocValuesField( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, formResponseState.getId( ) ),
+                new BinaryDocValuesField( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE_VALUE,
+                        new BytesRef( StringUtils.defaultString( formResponseState.getName( ) ) ) )
+        };
+    }
+
+    /**
+     * Find the workflow states of a list of form responses, with one lookup per form and a single load of the states of each workflow
+     * 
+     * @param listFormResponse
+     *            the form responses
+     * @param mapForms
+     *            the forms by id
+     * @return the states by form response id
+     */
+    private Map<Integer, State> findFormResponseStates( List<FormResponse> listFormResponse, Map<Integer, Form> mapForms )
+    {
+        Map<Integer, State> mapStates = new HashMap<>( );
+        if ( _stateService == null )
+        {
+            return mapStates;
+        }
+
+        Map<Integer, List<Integer>> mapIdFormResponseByForm = listFormResponse.stream( )
+                .collect( Collectors.groupingBy( FormResponse::getFormId, Collectors.mapping( FormResponse::getId, Collectors.toList( ) ) ) );
+        Map<Integer, Map<Integer, State>> mapStatesByWorkflow = new HashMap<>( );
+
+        for ( Map.Entry<Integer, List<Integer>> entryForm : mapIdFormResponseByForm.entrySet( ) )
+        {
+            Form form = mapForms.get( entryForm.getKey( ) );
+            if ( form == null || form.getIdWorkflow( ) <= 0 )
+            {
+                continue;
+            }
+            int nIdWorkflow = form.getIdWorkflow( );
+
+            if ( _resourceWorkflowService == null )
+            {
+                for ( Integer nIdFormResponse : entryForm.getValue( ) )
+                {
+                    mapStates.put( nIdFormResponse, _stateService.findByResource( nIdFormResponse, FormResponse.RESOURCE_TYPE, nIdWorkflow ) );
+                }
+                continue;
+            }
+
+            Map<Integer, State> mapWorkflowStates = mapStatesByWorkflow.computeIfAbsent( nIdWorkflow, this::findWorkflowStates );
+            Map<Integer, Integer> mapIdStates = _resourceWorkflowService.getListIdStateByListId( entryForm.getValue( ), nIdWorkflow, FormResponse.RESOURCE_TYPE,
+                    null );
+            for ( Map.Entry<Integer, Integer> entryState : mapIdStates.entrySet( ) )
+            {
+                mapStates.put( entryState.getKey( ), mapWorkflowStates.get( entryState.getValue( ) ) );
+            }
+        }
+        return mapStates;
+    }
+
+    /**
+     * Load the states of a workflow
+     * 
+     * @param nIdWorkflow
+     *            the workflow id
+     * @return the states of the workflow by id
+     */
+    private Map<Integer, State> findWorkflowStates( Integer nIdWorkflow )
+    {
+        StateFilter filter = new StateFilter( );
+        filter.setIdWorkflow( nIdWorkflow );
+        return _stateService.getListStateByFilter( filter ).stream( ).collect( Collectors.toMap( State::getId, state -> state ) );
     }
 
+    /**
+     * Add documents to the index of their form, or to the shared index
+     * 
+     * @param documentList
+     *            the documents to add
+     */
     private void addDocuments( List<Document> documentList )
+    {
+        if ( !LuceneFormSearchFactory.isShardingEnabled( ) )
+        {
+            if ( _indexWriter == null || !_indexWriter.isOpen( ) )
+            {
+                initIndexing( true );
+            }
+            addDocuments( _indexWriter, documentList );
+            return;
+        }
+
+        Map<Integer, List<Document>> mapDocumentsByForm = documentList.stream( ).collect( Collectors.groupingBy( LuceneFormSearchIndexer::getIdForm ) );
+        for ( Map.Entry<Integer, List<Document>> entryForm : mapDocumentsByForm.entrySet( ) )
+        {
+            IndexWriter indexWriter = _luceneFormSearchFactory.getIndexWriter( entryForm.getKey( ), Boolean.FALSE );
+            if ( indexWriter != null )
+            {
+                addDocuments( indexWriter, entryForm.getValue( ) );
+            }
+        }
+        documentList.clear( );
+    }
+
+    /**
+     * Return the IndexWriter of the index the responses of a form belong to
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the IndexWriter of the index of the form, or the shared IndexWriter
+     */
+    private IndexWriter getIndexWriter( int nIdForm )
+    {
+        if ( LuceneFormSearchFactory.isShardingEnabled( ) )
+        {
+            return _luceneFormSearchFactory.getIndexWriter( nIdForm, Boolean.FALSE );
+        }
+        return _indexWriter;
+    }
+
+    /**
+     * Return the IndexWriters of all the indexes
+     * 
+     * @return the IndexWriter of each indexed form, or the shared IndexWriter
+     */
+    private List<IndexWriter> getIndexWriters( )
+    {
+        if ( LuceneFormSearchFactory.isShardingEnabled( ) )
+        {
+            return _luceneFormSearchFactory.getIndexWriters( );
+        }
+        if ( _indexWriter == null )
+        {
+            return Collections.emptyList( );
+        }
+        return Collections.singletonList( _indexWriter );
+    }
+
+    /**
+     * Return the id of the form of a document
+     * 
+     * @param doc
+     *            the document
+     * @return the id of the form
+     */
+    private static Integer getIdForm( Document doc )
+    {
+        return doc.getField( FormResponseSearchItem.FIELD_ID_FORM ).numericValue( ).intValue( );
+    }
+
+    /**
+     * Add documents to an index
+     * 
+     * @param indexWriter
+     *            the IndexWriter of the index
+     * @param documentList
+     *            the documents to add
+     */
+    private void addDocuments( IndexWriter indexWriter, List<Document> documentList )
     {
         provideExternalFields( documentList );
         try
         {
-            _indexWriter.addDocuments( documentList );
+            indexWriter.addDocuments( documentList );
         }
         catch( IOException e )
         {
@@ -471,25 +1080,28 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
      */
     private void initIndexing( boolean bCreate )
     {
+        // The IndexWriters of the forms are opened as their documents are indexed
+        if ( LuceneFormSearchFactory.isShardingEnabled( ) )
+        {
+            return;
+        }
         Boolean boolCreate = Boolean.valueOf( bCreate );
         _indexWriter = _luceneFormSearchFactory.getIndexWriter( boolCreate );
     }
 
     /**
-     * End the indexing action
+     * End the indexing action: the changes are made visible to the searches, and committed according to the commit policy of the factory
+     * 
+     * @param nChangedDocuments
+     *            the number of changed documents
+     * @param afterCommitTask
+     *            a task to run once the changes are committed, may be null
      */
-    private void endIndexing( )
+    private void endIndexing( int nChangedDocuments, Runnable afterCommitTask )
     {
-        if ( _indexWriter != null )
+        if ( _indexWriter != null || LuceneFormSearchFactory.isShardingEnabled( ) )
         {
-            try
-            {
-                _indexWriter.commit( );
-            }
-            catch( IOException e )
-            {
-                AppLogService.error( "Unable to close index writer ", e );
-            }
+            _luceneFormSearchFactory.indexChanged( nChangedDocuments, afterCommitTask );
         }
     }
 
@@ -504,58 +1116,147 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
         }
         try
         {
-            _indexWriter.deleteAll( );
-        }
-        catch( IOException e )
-        {
-            AppLogService.error( "Unable to delete all docs in index ", e );
+            for ( IndexWriter indexWriter : getIndexWriters( ) )
+            {
+                deleteAllDocuments( indexWriter );
+            }
         }
         finally
         {
-            endIndexing( );
+            endIndexing( 0, null );
         }
     }
 
-    private void deleteDocument( List<Query> luceneQueryList )
+    /**
+     * Delete all the documents of an index
+     * 
+     * @param indexWriter
+     *            the IndexWriter of the index, may be null
+     */
+    private void deleteAllDocuments( IndexWriter indexWriter )
     {
+        if ( indexWriter == null )
+        {
+            return;
+        }
         try
         {
-            _indexWriter.deleteDocuments( luceneQueryList.toArray( new Query [ luceneQueryList.size( )] ) );
+            indexWriter.deleteAll( );
         }
         catch( IOException e )
         {
-            AppLogService.error( "Unable to delete document ", e );
+            AppLogService.error( "Unable to delete all docs in index ", e );
+        }
+    }
+
+    private void deleteDocument( List<Query> luceneQueryList )
+    {
+        if ( luceneQueryList.isEmpty( ) )
+        {
+            return;
+        }
+        for ( IndexWriter indexWriter : getIndexWriters( ) )
+        {
+            deleteDocuments( indexWriter, luceneQueryList );
         }
     }
 
     /**
-     * Remove a Indexer Action
+     * Delete the documents of form responses from the index of their form. The form of a form response is the one recorded by its indexer actions, or
+     * the one of the database. The documents of the form responses whose form is not known anymore are deleted from all the indexes.
      * 
-     * @param nIdAction
-     *            the key of the action to remove
-     * @param plugin
-     *            the plugin
+     * @param collectionIdFormResponse
+     *            the ids of the form responses
+     * @param mapFormByFormResponse
+     *            the ids of the forms recorded by the indexer actions, by form response id
      */
-    private void removeIndexerAction( int nIdAction, Plugin plugin )
+    private void deleteFormResponseDocuments( Collection<Integer> collectionIdFormResponse, Map<Integer, Integer> mapFormByFormResponse )
     {
-        IndexerActionHome.remove( nIdAction, plugin );
+        if ( !LuceneFormSearchFactory.isShardingEnabled( ) )
+        {
+            deleteFormResponseDocuments( _indexWriter, new ArrayList<>( collectionIdFormResponse ) );
+            return;
+        }
+
+        List<Integer> listIdUnknownForm = collectionIdFormResponse.stream( )
+                .filter( nIdFormResponse -> !mapFormByFormResponse.containsKey( nIdFormResponse ) ).collect( Collectors.toList( ) );
+        Map<Integer, Integer> mapForms = new HashMap<>( mapFormByFormResponse );
+        for ( int nFrom = 0; nFrom < listIdUnknownForm.size( ); nFrom += TAILLE_LOT )
+        {
+            List<Integer> listIdChunk = listIdUnknownForm.subList( nFrom, Math.min( nFrom + TAILLE_LOT, listIdUnknownForm.size( ) ) );
+            for ( FormResponse formResponse : FormResponseHome.getFormResponseUncompleteByPrimaryKeyList( listIdChunk ) )
+            {
+                mapForms.put( formResponse.getId( ), formResponse.getFormId( ) );
+            }
+        }
+
+        Map<Integer, List<Integer>> mapFormResponsesByForm = new HashMap<>( );
+        for ( Integer nIdFormResponse : collectionIdFormResponse )
+        {
+            int nIdForm = mapForms.getOrDefault( nIdFormResponse, 0 );
+            mapFormResponsesByForm.computeIfAbsent( nIdForm, nKey -> new ArrayList<>( ) ).add( nIdFormResponse );
+        }
+        for ( Map.Entry<Integer, List<Integer>> entryForm : mapFormResponsesByForm.entrySet( ) )
+        {
+            if ( entryForm.getKey( ) > 0 )
+            {
+                deleteFormResponseDocuments( getIndexWriter( entryForm.getKey( ) ), entryForm.getValue( ) );
+                continue;
+            }
+            // The form of a response deleted without recording its form is not known anymore, so its documents are searched in all the indexes
+            AppLogService.debug( "Forms indexer: " + entryForm.getValue( ).size( ) + " form responses of unknown form deleted from all the indexes" );
+            for ( IndexWriter indexWriter : getIndexWriters( ) )
+            {
+                deleteFormResponseDocuments( indexWriter, entryForm.getValue( ) );
+            }
+        }
     }
 
     /**
-     * return a list of IndexerAction by task key
+     * Delete the documents of form responses from an index, chunk by chunk
      * 
-     * @param nIdTask
-     *            the task kety
-     * @param plugin
-     *            the plugin
-     * @return a list of IndexerAction
+     * @param indexWriter
+     *            the IndexWriter of the index, may be null
+     * @param listIdFormResponse
+     *            the ids of the form responses
      */
-    private List<IndexerAction> getAllIndexerActionByTask( int nIdTask, Plugin plugin )
+    private void deleteFormResponseDocuments( IndexWriter indexWriter, List<Integer> listIdFormResponse )
     {
-        IndexerActionFilter filter = new IndexerActionFilter( );
-        filter.setIdTask( nIdTask );
+        List<Query> queryList = new ArrayList<>( TAILLE_LOT );
+        for ( Integer nIdFormResponse : listIdFormResponse )
+        {
+            queryList.add( IntPoint.newExactQuery( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
+            if ( queryList.size( ) == TAILLE_LOT )
+            {
+                deleteDocuments( indexWriter, queryList );
+                queryList.clear( );
+            }
+        }
+        deleteDocuments( indexWriter, queryList );
+    }
 
-        return IndexerActionHome.getList( filter, plugin );
+    /**
+     * Delete the documents matching queries from an index
+     * 
+     * @param indexWriter
+     *            the IndexWriter of the index, may be null
+     * @param luceneQueryList
+     *            the queries of the documents to delete
+     */
+    private void deleteDocuments( IndexWriter indexWriter, List<Query> luceneQueryList )
+    {
+        if ( indexWriter == null || luceneQueryList.isEmpty( ) )
+        {
+            return;
+        }
+        try
+        {
+            indexWriter.deleteDocuments( luceneQueryList.toArray( new Query [ luceneQueryList.size( )] ) );
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( "Unable to delete document ", e );
+        }
     }
 
     /**
@@ -565,9 +1266,13 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
      *            the formResponse object
      * @param form
      *            the form
+     * @param formResponseState
+     *            the workflow state of the form response, may be null
+     * @param formIndexSchema
+     *            the index schema of the form
      * @return a lucene document filled with the record data
      */
-    private Document getDocument( FormResponse formResponse, Form form, State formResponseState )
+    private Document getDocument( FormResponse formResponse, Form form, State formResponseState, FormIndexSchema formIndexSchema )
     {
         // make a new, empty document
         Document doc = new Document( );
@@ -583,7 +1288,14 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
         doc.add( new StoredField( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
 
         // --- field contents
-        doc.add( new TextField( SearchItem.FIELD_CONTENTS, manageNullValue( getContentToIndex( formResponse ) ), Field.Store.NO ) );
+        // The text of each indexed question is also analyzed in its own field, so that a search can be restricted to a question
+        Map<String, StringBuilder> mapQuestionContents = new LinkedHashMap<>( );
+        doc.add( new TextField( SearchItem.FIELD_CONTENTS, manageNullValue( getContentToIndex( formResponse, formIndexSchema, mapQuestionContents ) ),
+                Field.Store.NO ) );
+        for ( Map.Entry<String, StringBuilder> questionContents : mapQuestionContents.entrySet( ) )
+        {
+            doc.add( new TextField( questionContents.getKey( ), questionContents.getValue( ).toString( ), Field.Store.NO ) );
+        }
 
         // --- form title
         String strFormTitle = manageNullValue( form.getTitle( ) );
@@ -609,16 +1321,11 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
 
         if ( formResponseState != null )
         {
-            // --- id form response workflow state
-            int nIdFormResponseWorkflowState = formResponseState.getId( );
-            doc.add( new IntPoint( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, nIdFormResponseWorkflowState ) );
-            doc.add( new NumericDocValuesField( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, nIdFormResponseWorkflowState ) );
-            doc.add( new StoredField( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, nIdFormResponseWorkflowState ) );
-
-            // --- form response workflow state title
-            String strFormResponseWorkflowStateTitle = manageNullValue( formResponseState.getName( ) );
-            doc.add( new StringField( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE, strFormResponseWorkflowStateTitle, Field.Store.YES ) );
-            doc.add( new SortedDocValuesField( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE, new BytesRef( strFormResponseWorkflowStateTitle ) ) );
+            // --- id and title of the form response workflow state, updated in place when the state changes
+            for ( Field field : createWorkflowStateFields( formResponseState ) )
+            {
+                doc.add( field );
+            }
         }
 
         // --- form response entry code / fields
@@ -627,78 +1334,23 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
         {
             for ( FormQuestionResponse formQuestionResponse : formResponseStep.getQuestions( ) )
             {
-                String strQuestionCode = formQuestionResponse.getQuestion( ).getCode( );
-                Entry entry = formQuestionResponse.getQuestion( ).getEntry( );
-                IEntryTypeService entryTypeService = EntryTypeServiceManager.getEntryTypeService( entry );
+                FormIndexSchema.QuestionIndexSchema questionSchema = formIndexSchema.getQuestionSchema( formQuestionResponse.getQuestion( ) );
 
                 for ( Response response : formQuestionResponse.getEntryResponse( ) )
                 {
-                    fr.paris.lutece.plugins.genericattributes.business.Field responseField = response.getField( );
-
                     if ( !StringUtils.isEmpty( response.getResponseValue( ) ) )
                     {
-                        StringBuilder fieldNameBuilder = new StringBuilder(
-                                LuceneUtils.createLuceneEntryKey( strQuestionCode, response.getIterationNumber( ) ) );
+                        FormIndexSchema.EntryFieldNames fieldNames = questionSchema.getFieldNames( response );
 
-                        if ( responseField != null )
+                        if ( setFieldNameBuilderUsed.add( fieldNames.getName( ) ) )
                         {
-                            String getFieldName = getFieldName( responseField, response );
-                            fieldNameBuilder.append( FormResponseSearchItem.FIELD_RESPONSE_FIELD_SEPARATOR );
-                            fieldNameBuilder.append( getFieldName );
-                        }
-
-                        if ( !setFieldNameBuilderUsed.contains( fieldNameBuilder.toString( ) ) )
-                        {
-                            setFieldNameBuilderUsed.add( fieldNameBuilder.toString( ) );
-                            if ( entryTypeService instanceof EntryTypeDate )
-                            {
-                                try
-                                {
-                                    Long timestamp = Long.valueOf( response.getResponseValue( ) );
-                                    doc.add( new LongPoint( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_DATE_SUFFIX, timestamp ) );
-                                    doc.add( new NumericDocValuesField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_DATE_SUFFIX, timestamp ) );
-                                    doc.add( new StoredField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_DATE_SUFFIX, timestamp ) );
-                                }
-                                catch( Exception e )
-                                {
-                                    AppLogService.error( "Unable to parse " + response.getResponseValue( ) + " with date formatter " + FILTER_DATE_FORMAT, e );
-                                }
-                            }
-                            else
-                                if ( entryTypeService instanceof EntryTypeNumbering )
-                                {
-                                    try
-                                    {
-                                        Integer value = Integer.valueOf( response.getResponseValue( ) );
-                                        doc.add( new IntPoint( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_INT_SUFFIX, value ) );
-                                        doc.add( new NumericDocValuesField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_INT_SUFFIX, value ) );
-                                        doc.add( new StoredField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_INT_SUFFIX, value ) );
-                                    }
-                                    catch( NumberFormatException e )
-                                    {
-                                        AppLogService.error( "Unable to parse " + response.getResponseValue( ) + " to integer ", e );
-                                    }
-                                }
-                                else
-                                    if ( entryTypeService instanceof EntryTypeSelect || entryTypeService instanceof EntryTypeRadioButton || entryTypeService instanceof EntryTypeCheckBox )
-                                    {
-                                        doc.add( new StringField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_SELECT_SUFFIX, response.getResponseValue( ), Field.Store.YES ) );
-                                        doc.add( new SortedDocValuesField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_SELECT_SUFFIX, new BytesRef( response.getResponseValue( ) ) ) );
-                                        if ( responseField != null && StringUtils.isNotEmpty( responseField.getTitle( ) ) )
-                                        {
-                                            doc.add( new StringField( fieldNameBuilder.toString( ) + FormResponseSearchItem.FIELD_SELECT_TITLE , responseField.getTitle( ), Field.Store.YES ) );
-                                        }
-                                    }
-                                else
-                                {
-                                    doc.add( new StringField( fieldNameBuilder.toString( ), response.getResponseValue( ), Field.Store.YES ) );
-                                    doc.add( new SortedDocValuesField( fieldNameBuilder.toString( ), new BytesRef( response.getResponseValue( ) ) ) );
-                                }
-
+                            fr.paris.lutece.plugins.genericattributes.business.Field responseField = response.getField( );
+                            questionSchema.getFieldKind( ).addFields( doc, fieldNames, response.getResponseValue( ),
+                                    responseField != null ? responseField.getTitle( ) : null );
                         }
                         else
                         {
-                            AppLogService.error( " FieldNameBuilder " + fieldNameBuilder.toString( ) + "  already used for formResponse.getId( )  "
+                            AppLogService.error( " FieldNameBuilder " + fieldNames.getName( ) + "  already used for formResponse.getId( )  "
                                     + formResponse.getId( ) + "  formQuestionResponse.getId( )  " + formQuestionResponse.getId( )
                                     + " response.getIdResponse( ) " + response.getIdResponse( ) + " formResponseStep" + formResponseStep.getId( ) );
 
@@ -706,6 +1358,11 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
 
                     }
                 }
+
+                if ( questionSchema.getGeolocationName( ) != null )
+                {
+                    addGeolocationField( doc, questionSchema, formQuestionResponse.getEntryResponse( ) );
+                }
             }
         }
 
@@ -715,15 +1372,15 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
     /**
      * Concatenates the value of the specified field in this record
      * 
-     * @param record
-     *            the record to seek
-     * @param listEntry
-     *            the list of field to concatenate
-     * @param plugin
-     *            the plugin object
-     * @return
+     * @param formResponse
+     *            the form response
+     * @param formIndexSchema
+     *            the index schema of the form
+     * @param mapQuestionContents
+     *            filled with the text of each indexed question, by name of its full text field
+     * @return the text of all the indexed questions
      */
-    private String getContentToIndex( FormResponse formResponse )
+    private String getContentToIndex( FormResponse formResponse, FormIndexSchema formIndexSchema, Map<String, StringBuilder> mapQuestionContents )
     {
 
         StringBuilder sb = new StringBuilder( );
@@ -737,14 +1394,21 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
                 if ( questionResponse.getQuestion( ).isResponsesIndexed( ) )
                 {
                     Entry entry = questionResponse.getQuestion( ).getEntry( );
+                    FormIndexSchema.QuestionIndexSchema questionSchema = formIndexSchema.getQuestionSchema( questionResponse.getQuestion( ) );
+                    IEntryTypeService entryTypeService = questionSchema.getEntryTypeService( );
                     for ( Response response : questionResponse.getEntryResponse( ) )
                     {
 
-                        String responseString = EntryTypeServiceManager.getEntryTypeService( entry ).getResponseValueForExport( entry, null, response, null );
+                        String responseString = entryTypeService.getResponseValueForExport( entry, null, response, null );
                         if ( !StringUtils.isEmpty( responseString ) )
                         {
                             sb.append( responseString );
                             sb.append( " " );
+                            if ( questionSchema.getTextName( ) != null )
+                            {
+                                mapQuestionContents.computeIfAbsent( questionSchema.getTextName( ), strTextName -> new StringBuilder( ) ).append( responseString )
+                                        .append( " " );
+                            }
                         }
                     }
                 }
@@ -755,27 +1419,52 @@ public class LuceneFormSearchIndexer implements IFormSearchIndexer
     }
 
     /**
-     * Get the field name
-     * 
-     * @param responseField
-     * @param response
-     * @return the field name
+     * Add the point of a geolocation answer, indexed for the bounding box and distance queries and as a doc value to be read without loading the
+     * document. The coordinates are the X (longitude) and Y (latitude) fields of the answer, in WGS84.
+     *
+     * @param doc
+     *            the document
+     * @param questionSchema
+     *            the index schema of the geolocation question
+     * @param listResponses
+     *            the responses of the geolocation answer
      */
-    private String getFieldName( fr.paris.lutece.plugins.genericattributes.business.Field responseField, Response response )
+    private void addGeolocationField( Document doc, FormIndexSchema.QuestionIndexSchema questionSchema, List<Response> listResponses )
     {
-        if ( responseField.getIdField( ) > 0 )
+        String strFieldName = questionSchema.getGeolocationName( );
+        String strLongitude = null;
+        String strLatitude = null;
+        for ( Response response : listResponses )
         {
-            return String.valueOf( responseField.getIdField( ) );
+            if ( questionSchema.isLongitudeField( response.getField( ) ) )
+            {
+                strLongitude = response.getResponseValue( );
+            }
+            else
+                if ( questionSchema.isLatitudeField( response.getField( ) ) )
+                {
+                    strLatitude = response.getResponseValue( );
+                }
+        }
+
+        if ( StringUtils.isBlank( strLongitude ) || StringUtils.isBlank( strLatitude ) )
+        {
+            return;
         }
-        if ( !StringUtils.isEmpty( responseField.getCode( ) ) )
+
+        try
         {
-            return responseField.getCode( );
+            double dLatitude = Double.parseDouble( strLatitude );
+            double dLongitude = Double.parseDouble( strLongitude );
+            doc.add( new LatLonPoint( strFieldName, dLatitude, dLongitude ) );
+            doc.add( new LatLonDocValuesField( strFieldName, dLatitude, dLongitude ) );
+            doc.add( new StoredField( strFieldName, LuceneUtils.formatGeolocation( dLatitude, dLongitude ) ) );
         }
-        if ( !StringUtils.isEmpty( responseField.getTitle( ) ) )
+        catch( IllegalArgumentException e )
         {
-            return responseField.getTitle( );
+            // Also thrown by the points for the coordinates out of the WGS84 bounds
+            AppLogService.error( "Unable to index the geolocation " + strLatitude + ", " + strLongitude + " of the field " + strFieldName, e );
         }
-        return String.valueOf( response.getIdResponse( ) );
     }
 
     /**
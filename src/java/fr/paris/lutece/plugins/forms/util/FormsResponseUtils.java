@@ -3,10 +3,8 @@ package fr.paris.lutece.plugins.forms.util;
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -34,6 +32,7 @@ import fr.paris.lutece.plugins.forms.business.Transition;
 import fr.paris.lutece.plugins.forms.business.TransitionHome;
 import fr.paris.lutece.plugins.forms.exception.QuestionValidationException;
 import fr.paris.lutece.plugins.forms.service.EntryServiceManager;
+import fr.paris.lutece.plugins.forms.service.FormResponseCountService;
 import fr.paris.lutece.plugins.forms.validation.IValidator;
 import fr.paris.lutece.plugins.forms.web.FormResponseData;
 import fr.paris.lutece.plugins.forms.web.FormResponseManager;
@@ -62,7 +61,6 @@ import fr.paris.lutece.util.url.UrlItem;
 public class FormsResponseUtils 
 {
     private static ConcurrentMap<Integer, Object> _lockFormId = new ConcurrentHashMap<>( );
-    private static Map<Integer, Integer> _responsePerFormMap = new HashMap<>( );
 
 	private FormsResponseUtils( )
 	{
@@ -270,7 +268,7 @@ public class FormsResponseUtils
     {
         if ( form.isCountResponses( ) )
         {
-            form.setCurrentNumberResponse( FormHome.getNumberOfResponseForms( form.getId( ) ) );
+            form.setCurrentNumberResponse( FormResponseCountService.getInstance( ).getNumberOfResponses( form.getId( ) ) );
         }
         if ( form.getLogo( ) != null )
         {
@@ -390,16 +388,8 @@ public class FormsResponseUtils
      * @param form
      */
     public static void increaseNumberResponse( Form form )
-    {        
-       if ( form.getMaxNumberResponse( ) != 0 )
-       {
-        	synchronized( FormsResponseUtils.getLockOnForm( form ) )
-             {
-        		int nNumberReponseForm = _responsePerFormMap.get( form.getId( ) );
-        		_responsePerFormMap.put( form.getId( ), nNumberReponseForm + 1 );
-              }
-        }
-        
+    {
+        FormResponseCountService.getInstance( ).increment( form.getId( ) );
     }
     
     /**
@@ -419,7 +409,7 @@ public class FormsResponseUtils
 	    {
 	      	synchronized( FormsResponseUtils.getLockOnForm( form ) )
 	        {
-	      		return ( _responsePerFormMap.computeIfAbsent( form.getId( ), FormHome::getNumberOfResponseForms ) < form.getMaxNumberResponse( ) );
+	      		return ( FormResponseCountService.getInstance( ).getNumberOfResponses( form.getId( ) ) < form.getMaxNumberResponse( ) );
 	        }
 	    }
 	    return true;
@@ -40,6 +40,7 @@ import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem
  */
 public final class LuceneUtils
 {
+    private static final String GEOLOCATION_SEPARATOR = ",";
 
     private LuceneUtils( )
     {
@@ -65,4 +66,127 @@ public final class LuceneUtils
         fieldNameBuilder.append( nIterationNumber );
         return fieldNameBuilder.toString( );
     }
+
+    /**
+     * Creates the lucene facet key of a choice question. The answers of all the iterations of the question are counted together.
+     * 
+     * @param strQuestionCode
+     *            the code of the question
+     * @return key
+     */
+    public static String createLuceneFacetKey( String strQuestionCode )
+    {
+        return FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX + strQuestionCode + FormResponseSearchItem.FIELD_FACET_SUFFIX;
+    }
+
+    /**
+     * Creates the lucene facet key of a choice question from the name of one of its select fields
+     * 
+     * @param strSelectFieldName
+     *            the name of a select field, built from {@link #createLuceneEntryKey(String, int)}
+     * @return key, or null if the name is not the one of a select field
+     */
+    public static String createLuceneFacetKeyFromSelectField( String strSelectFieldName )
+    {
+        int nIterIndex = strSelectFieldName.lastIndexOf( FormResponseSearchItem.FIELD_RESPONSE_FIELD_ITER );
+        if ( !strSelectFieldName.startsWith( FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX ) || nIterIndex < 0 )
+        {
+            return null;
+        }
+        return createLuceneFacetKey( strSelectFieldName.substring( FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX.length( ), nIterIndex ) );
+    }
+
+    /**
+     * Creates the lucene number key of a number question. The answers of all the iterations of the question are indexed together, for the range
+     * filters.
+     * 
+     * @param strQuestionCode
+     *            the code of the question
+     * @return key
+     */
+    public static String createLuceneNumberKey( String strQuestionCode )
+    {
+        return FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX + strQuestionCode + FormResponseSearchItem.FIELD_NUMBER_SUFFIX;
+    }
+
+    /**
+     * Creates the lucene geolocation key of a geolocation question. The points of all the iterations of the question are indexed together.
+     * 
+     * @param strQuestionCode
+     *            the code of the question
+     * @return key
+     */
+    public static String createLuceneGeolocationKey( String strQuestionCode )
+    {
+        return FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX + strQuestionCode + FormResponseSearchItem.FIELD_GEOLOCATION_SUFFIX;
+    }
+
+    /**
+     * Creates the lucene full text key of a question. The text of all the iterations of the question is analyzed together.
+     * 
+     * @param strQuestionCode
+     *            the code of the question
+     * @return key
+     */
+    public static String createLuceneTextKey( String strQuestionCode )
+    {
+        return FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX + strQuestionCode + FormResponseSearchItem.FIELD_TEXT_SUFFIX;
+    }
+
+    /**
+     * Check if a field name is the full text key of a question
+     * 
+     * @param strFieldName
+     *            the field name
+     * @return true if the field name has been built by {@link #createLuceneTextKey(String)}
+     */
+    public static boolean isLuceneTextKey( String strFieldName )
+    {
+        return strFieldName.startsWith( FormResponseSearchItem.FIELD_ENTRY_CODE_SUFFIX ) && strFieldName.endsWith( FormResponseSearchItem.FIELD_TEXT_SUFFIX )
+                && !strFieldName.contains( FormResponseSearchItem.FIELD_RESPONSE_FIELD_ITER );
+    }
+
+    /**
+     * Format the coordinates of a point as they are stored in the geolocation fields
+     * 
+     * @param dLatitude
+     *            the latitude
+     * @param dLongitude
+     *            the longitude
+     * @return the formatted coordinates
+     */
+    public static String formatGeolocation( double dLatitude, double dLongitude )
+    {
+        return dLatitude + GEOLOCATION_SEPARATOR + dLongitude;
+    }
+
+    /**
+     * Parse the coordinates of a point stored in a geolocation field
+     * 
+     * @param strGeolocation
+     *            the stored coordinates, built from {@link #formatGeolocation(double, double)}
+     * @return the latitude and the longitude, or null if the value is not a point
+     */
+    public static double [ ] parseGeolocation( String strGeolocation )
+    {
+        if ( strGeolocation == null )
+        {
+            return null;
+        }
+        String [ ] coordinates = strGeolocation.split( GEOLOCATION_SEPARATOR );
+        if ( coordinates.length != 2 )
+        {
+            return null;
+        }
+        try
+        {
+            return new double [ ] {
+                    Double.parseDouble( coordinates [0] ), Double.parseDouble( coordinates [1] )
+            };
+        }
+        catch( NumberFormatException e )
+        {
+            return null;
+        }
+    }
 }
@@ -50,6 +50,7 @@ import org.apache.commons.lang3.math.NumberUtils;
 import fr.paris.lutece.plugins.forms.exception.FormNotFoundException;
 import fr.paris.lutece.plugins.forms.exception.MaxFormResponseException;
 import fr.paris.lutece.plugins.forms.exception.QuestionValidationException;
+import fr.paris.lutece.plugins.forms.service.FormResponseCountService;
 import fr.paris.lutece.plugins.forms.service.FormService;
 import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeAutomaticFileReading;
 import fr.paris.lutece.plugins.forms.service.upload.FormsAsynchronousUploadHandler;
@@ -167,12 +168,10 @@ public class FormXPage extends MVCApplication
     {
         Locale locale = getLocale( request );
         List<Form> listFormsAll = FormHome.getFormList( );
+        FormResponseCountService.getInstance( ).setCurrentNumberResponses(
+                listFormsAll.stream( ).filter( Form::isCountResponses ).collect( Collectors.toList( ) ) );
         for ( Form form : listFormsAll )
         {
-            if ( form.isCountResponses( ) )
-            {
-                form.setCurrentNumberResponse( FormHome.getNumberOfResponseForms( form.getId( ) ) );
-            }
             if ( form.getLogo( ) != null )
             {
                 form.setLogo( FileHome.findByPrimaryKey( form.getLogo( ).getIdFile( ) ) );
@@ -585,7 +584,7 @@ public class FormXPage extends MVCApplication
     {
         if ( form.isCountResponses( ) )
         {
-            form.setCurrentNumberResponse( FormHome.getNumberOfResponseForms( form.getId( ) ) );
+            form.setCurrentNumberResponse( FormResponseCountService.getInstance( ).getNumberOfResponses( form.getId( ) ) );
         }
 
         Map<String, Object> model = buildModelForSummary( form, request );
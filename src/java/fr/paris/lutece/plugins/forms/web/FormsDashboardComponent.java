@@ -49,6 +49,7 @@ import fr.paris.lutece.plugins.forms.business.Form;
 import fr.paris.lutece.plugins.forms.business.FormAction;
 import fr.paris.lutece.plugins.forms.business.FormActionHome;
 import fr.paris.lutece.plugins.forms.business.FormHome;
+import fr.paris.lutece.plugins.forms.service.FormResponseCountService;
 import fr.paris.lutece.plugins.forms.util.FormsConstants;
 import fr.paris.lutece.plugins.forms.util.FormsUtils;
 import fr.paris.lutece.portal.business.right.Right;
@@ -103,9 +104,9 @@ public class FormsDashboardComponent extends DashboardComponent
 
         List<FormAction> listFormActions = FormActionHome.selectAllFormActions( plugin, user.getLocale( ) );
 
+        FormResponseCountService.getInstance( ).setCurrentNumberResponses( displayList );
         for ( Form form : displayList )
         {
-            form.setCurrentNumberResponse( FormHome.getNumberOfResponseForms( form.getId( ) ) );
             List<FormAction> listAuthorisedActions = (List<FormAction>) RBACService.getAuthorizedActionsCollection( listFormActions, form, (User) user );
             form.setActions( listAuthorisedActions );
         }
@@ -20,6 +20,7 @@ import fr.paris.lutece.plugins.forms.business.StepHome;
 import fr.paris.lutece.plugins.forms.exception.FormNotFoundException;
 import fr.paris.lutece.plugins.forms.exception.MaxFormResponseException;
 import fr.paris.lutece.plugins.forms.exception.QuestionValidationException;
+import fr.paris.lutece.plugins.forms.service.FormResponseCountService;
 import fr.paris.lutece.plugins.forms.service.FormService;
 import fr.paris.lutece.plugins.forms.service.upload.FormsAsynchronousUploadHandler;
 import fr.paris.lutece.plugins.forms.util.FormsConstants;
@@ -369,7 +370,7 @@ public class FormResponseJspBean extends AbstractJspBean
 
         if ( form.isCountResponses( ) )
         {
-            form.setCurrentNumberResponse( FormHome.getNumberOfResponseForms( form.getId( ) ) );
+            form.setCurrentNumberResponse( FormResponseCountService.getInstance( ).getNumberOfResponses( form.getId( ) ) );
         }
 
         Map<String, Object> model = buildModelForSummary( request );
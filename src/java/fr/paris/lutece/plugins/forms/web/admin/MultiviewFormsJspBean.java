@@ -35,9 +35,13 @@ package fr.paris.lutece.plugins.forms.web.admin;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
@@ -46,6 +50,9 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import fr.paris.lutece.api.user.User;
 import fr.paris.lutece.plugins.asynchronousupload.service.AsynchronousUploadHandler;
 import fr.paris.lutece.plugins.asynchronousupload.service.IAsyncUploadHandler;
@@ -56,18 +63,25 @@ import fr.paris.lutece.plugins.forms.business.MultiviewConfig;
 import fr.paris.lutece.plugins.forms.business.action.GlobalFormsAction;
 import fr.paris.lutece.plugins.forms.business.action.GlobalFormsActionHome;
 import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
 import fr.paris.lutece.plugins.forms.business.form.column.FormColumnFactory;
 import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
+import fr.paris.lutece.plugins.forms.business.form.column.impl.FormColumnEntryGeolocation;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilterForms;
+import fr.paris.lutece.plugins.forms.business.form.filter.configuration.FormFilterGeolocationConfiguration;
+import fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl.FormFilterGeolocationLuceneQueryPart;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanelFactory;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseFacetCounts;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 import fr.paris.lutece.plugins.forms.export.ExportServiceManager;
 import fr.paris.lutece.plugins.forms.export.IFormatExport;
 import fr.paris.lutece.plugins.forms.service.FormPanelConfigIdService;
 import fr.paris.lutece.plugins.forms.service.FormsPlugin;
 import fr.paris.lutece.plugins.forms.service.MultiviewFormService;
 import fr.paris.lutece.plugins.forms.util.FormsConstants;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
 import fr.paris.lutece.plugins.forms.web.form.FormDisplayFactory;
 import fr.paris.lutece.plugins.forms.web.form.column.display.IFormColumnDisplay;
 import fr.paris.lutece.plugins.forms.web.form.filter.display.IFormFilterDisplay;
@@ -88,6 +102,9 @@ import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.rbac.RBACResource;
 import fr.paris.lutece.portal.service.rbac.RBACService;
 import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppException;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
 import fr.paris.lutece.portal.util.mvc.admin.annotations.Controller;
 import fr.paris.lutece.portal.util.mvc.commons.annotations.Action;
 import fr.paris.lutece.portal.util.mvc.commons.annotations.View;
@@ -98,9 +115,12 @@ import fr.paris.lutece.util.url.UrlItem;
 /**
  * Controller which manage the multiview of responses of all Forms
  */
-@Controller( controllerJsp = "MultiviewForms.jsp", controllerPath = "jsp/admin/plugins/forms/", right = "FORMS_MULTIVIEW" )
+@Controller( controllerJsp = "MultiviewForms.jsp", controllerPath = "jsp/admin/plugins/forms/", right = MultiviewFormsJspBean.RIGHT_FORMS_MULTIVIEW )
 public class MultiviewFormsJspBean extends AbstractJspBean
 {
+    // Rights
+    public static final String RIGHT_FORMS_MULTIVIEW = "FORMS_MULTIVIEW";
+
     // Generated serial UID
     private static final long serialVersionUID = 2122079505317782087L;
 
@@ -134,6 +154,20 @@ public class MultiviewFormsJspBean extends AbstractJspBean
     private static final String PARAMETER_DISPLAY_ASSIGNEE_COLUMN = "display_assignee_column";
     private static final String PARAMETER_CHANGE_PANEL = "change_panel";
     private static final String PARAMETER_UPLOAD_TEMPLATE_PDF = "upload_template";
+    private static final String PARAMETER_GEOLOCATION_QUESTION = "geolocation_question";
+
+    // Geolocation
+    private static final int GEOLOCATION_MAX_POINTS = AppPropertiesService.getPropertyInt( "forms.multiview.geolocation.maxPoints", 50000 );
+    private static final String GEOLOCATION_FILTER_NAME = "geolocation_viewport";
+    private static final String JSON_TRUNCATED = "truncated";
+    private static final String JSON_POINTS = "points";
+    private static final String [ ] GEOLOCATION_NUMBER_PARAMETERS = {
+            FormFilterGeolocationLuceneQueryPart.PARAMETER_MIN_LATITUDE, FormFilterGeolocationLuceneQueryPart.PARAMETER_MAX_LATITUDE,
+            FormFilterGeolocationLuceneQueryPart.PARAMETER_MIN_LONGITUDE, FormFilterGeolocationLuceneQueryPart.PARAMETER_MAX_LONGITUDE,
+            FormFilterGeolocationLuceneQueryPart.PARAMETER_LATITUDE, FormFilterGeolocationLuceneQueryPart.PARAMETER_LONGITUDE,
+            FormFilterGeolocationLuceneQueryPart.PARAMETER_RADIUS
+    };
+    private static ObjectMapper _mapper = new ObjectMapper( );
 
     // Marks
     private static final String MARK_LOCALE = "locale";
@@ -182,11 +216,15 @@ public class MultiviewFormsJspBean extends AbstractJspBean
         // Build the Column for the Panel and save their values for the active panel
         initiatePaginatorProperties( request );
         buildFormItemSortConfiguration( request );
-        buildFormPanelDisplayWithData( request, getIndexStart( ), _nItemsPerPage, _formItemSortConfig );
+        buildFormPanelDisplayWithData( request, getIndexStart( ), _nItemsPerPage, _formItemSortConfig,
+                isPaginationAndSortNotUsed( request ) || bIsSessionLost );
 
         // Build the template of each form filter display
         if ( isPaginationAndSortNotUsed( request ) || bIsSessionLost )
         {
+            // The values of the filters show the number of form responses of the displayed panel
+            FormResponseFacetCounts facetCounts = _formPanelDisplayActive != null ? _formPanelDisplayActive.getFormPanel( ).getFacetCounts( ) : null;
+            _listFormFilterDisplay.stream( ).forEach( formFilterDisplay -> formFilterDisplay.setFacetCounts( facetCounts ) );
             _listFormFilterDisplay.stream( ).forEach( formFilterDisplay -> formFilterDisplay.buildTemplate( request , getLocale()) );
             Collections.sort( _listFormFilterDisplay, new FormListPositionComparator( ) );
         }
@@ -450,6 +488,14 @@ public class MultiviewFormsJspBean extends AbstractJspBean
         {
             if ( formPanelDisplay.isActive( ) )
             {
+                List<String> listFacetDimensions = new ArrayList<>( );
+                if ( bCountFacets )
+                {
+                    _listFormFilterDisplay.stream( ).flatMap( formFilterDisplay -> formFilterDisplay.getFacetDimensions( ).stream( ) ).distinct( )
+                            .forEach( listFacetDimensions::add );
+                }
+                formPanel.setFacetDimensions( listFacetDimensions );
+
                 _formPanelDisplayActive = formPanelDisplay;
             }
         }
@@ -476,8 +522,12 @@ public class MultiviewFormsJspBean extends AbstractJspBean
 
     /**
      * Build all the form panels by building their template and retrieve the data of their columns for the given list of filter and the specified text to search
+     * 
+     * @param bCountFacets
+     *            true if the templates of the filters are built, so that the responses of the active panel are counted by value of the displayed filters
      */
-    private void buildFormPanelDisplayWithData( HttpServletRequest request, int nIndexStart, int nPageSize, FormItemSortConfig sortConfig )
+    private void buildFormPanelDisplayWithData( HttpServletRequest request, int nIndexStart, int nPageSize, FormItemSortConfig sortConfig,
+            boolean bCountFacets )
     {
         // Retrieve the list of all FormFilter
         List<FormFilter> listFormFilter = _listFormFilterDisplay.stream( ).map( IFormFilterDisplay::getFormFilter ).collect( Collectors.toList( ) );
@@ -490,27 +540,137 @@ public class MultiviewFormsJspBean extends AbstractJspBean
             reloadFormFilterList( listFormFilter, request );
         }
 
+        // The first authorized panel is displayed if the active panel is not authorized
+        if ( _listAuthorizedFormPanelDisplay.stream( ).noneMatch( IFormPanelDisplay::isActive ) && CollectionUtils.isNotEmpty( _listAuthorizedFormPanelDisplay ) )
+        {
+            _listAuthorizedFormPanelDisplay.get( 0 ).setActive( true );
+        }
+
         for ( IFormPanelDisplay formPanelDisplay : _listAuthorizedFormPanelDisplay )
         {
             // Retrieve the FormPanel from the FormPanelDisplay
             FormPanel formPanel = formPanelDisplay.getFormPanel( );
 
-            // Populate the FormColumns from the information of the list of FormResponseItem
-            // of the given FormPanel
-            MultiviewFormService.getInstance( ).populateFormColumns( formPanel, _listFormColumn, listFormFilter, nIndexStart, nPageSize, sortConfig );
-
             // Associate for each FormColumnDisplay its FormColumnValues if the panel is
             // active
             if ( formPanelDisplay.isActive( ) )
             {
+                // Populate the FormColumns from the information of the list of FormResponseItem
+                // of the given FormPanel
+                MultiviewFormService.getInstance( ).populateFormColumns( formPanel, _listFormColumn, listFormFilter, nIndexStart, nPageSize, sortConfig );
                 _formPanelDisplayActive = formPanelDisplay;
             }
+            else
+            {
+                // Only the total is displayed in the tab of the other panels
+                MultiviewFormService.getInstance( ).populateFormResponseCount( formPanel, listFormFilter );
+            }
 
             // Build the template of the form list panel
             formPanelDisplay.buildTemplate( getLocale( ) );
         }
     }
-    
+
+    /**
+     * Return the ids and the coordinates of the geolocation answers of the form responses of the displayed panel, with the displayed filters, inside the
+     * given viewport. The viewport is either a bounding box (min_lat, max_lat, min_lon, max_lon) or a circle (lat, lon and radius in meters). The
+     * geolocation questions are given by their codes, the ones of the first geolocation column are used otherwise. No point is returned if the session
+     * is lost or if a parameter of the viewport is not a valid number.
+     * 
+     * @param request
+     *            The request
+     * @return the points as json: {"truncated":false,"points":[[id,longitude,latitude],...]}
+     */
+    public String getGeolocationsJson( HttpServletRequest request )
+    {
+        Map<String, Object> mapResult = new LinkedHashMap<>( );
+        List<Object []> listPoints = new ArrayList<>( );
+        boolean bTruncated = false;
+
+        Set<String> setGeolocationFields = isSessionLost( ) ? Collections.emptySet( ) : getGeolocationFields( request );
+        Map<String, Object> mapGeolocationParameters = new HashMap<>( );
+        boolean bValidViewport = true;
+        for ( String strParameterName : GEOLOCATION_NUMBER_PARAMETERS )
+        {
+            String strValue = request.getParameter( strParameterName );
+            if ( StringUtils.isNotBlank( strValue ) )
+            {
+                try
+                {
+                    mapGeolocationParameters.put( strParameterName, Double.valueOf( strValue ) );
+                }
+                catch( NumberFormatException e )
+                {
+                    AppLogService.debug( "Invalid geolocation parameter " + strParameterName + " : " + strValue );
+                    bValidViewport = false;
+                }
+            }
+        }
+
+        // The coordinates out of range are clamped and an invalid radius matches no point in the query part
+        if ( bValidViewport && _formPanelDisplayActive != null && !setGeolocationFields.isEmpty( ) )
+        {
+            mapGeolocationParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_FIELDS, setGeolocationFields );
+            FormParameters geolocationParameters = new FormParameters( );
+            geolocationParameters.setFormParametersMap( mapGeolocationParameters );
+            FormFilter geolocationFilter = new FormFilter( );
+            geolocationFilter.setFormFilterConfiguration( new FormFilterGeolocationConfiguration( -1, GEOLOCATION_FILTER_NAME, GEOLOCATION_FILTER_NAME ) );
+            geolocationFilter.setFormParameters( geolocationParameters );
+
+            List<FormFilter> listFormFilter = _listFormFilterDisplay.stream( ).map( IFormFilterDisplay::getFormFilter ).collect( Collectors.toList( ) );
+            listFormFilter.add( geolocationFilter );
+
+            // One more point is searched to know if the list is truncated
+            List<FormResponseGeolocation> listGeolocations = MultiviewFormService.getInstance( )
+                    .searchFormResponseGeolocations( _formPanelDisplayActive.getFormPanel( ), listFormFilter, setGeolocationFields, GEOLOCATION_MAX_POINTS + 1 );
+            bTruncated = listGeolocations.size( ) > GEOLOCATION_MAX_POINTS;
+            for ( FormResponseGeolocation geolocation : listGeolocations.subList( 0, Math.min( listGeolocations.size( ), GEOLOCATION_MAX_POINTS ) ) )
+            {
+                listPoints.add( new Object [ ] {
+                        geolocation.getIdFormResponse( ), geolocation.getLongitude( ), geolocation.getLatitude( )
+                } );
+            }
+        }
+
+        mapResult.put( JSON_TRUNCATED, bTruncated );
+        mapResult.put( JSON_POINTS, listPoints );
+        try
+        {
+            return _mapper.writeValueAsString( mapResult );
+        }
+        catch( JsonProcessingException e )
+        {
+            throw new AppException( "Error creating the json of the geolocations", e );
+        }
+    }
+
+    /**
+     * Get the names of the geolocation fields to read: the ones of the questions of the request, or the ones of the first geolocation column
+     * 
+     * @param request
+     *            The request
+     * @return the names of the geolocation fields
+     */
+    private Set<String> getGeolocationFields( HttpServletRequest request )
+    {
+        Set<String> setGeolocationFields = new LinkedHashSet<>( );
+        String [ ] questionCodes = request.getParameterValues( PARAMETER_GEOLOCATION_QUESTION );
+        if ( questionCodes != null )
+        {
+            for ( String strQuestionCode : questionCodes )
+            {
+                setGeolocationFields.add( LuceneUtils.createLuceneGeolocationKey( strQuestionCode ) );
+            }
+        }
+        else
+            if ( _listFormColumn != null )
+            {
+                _listFormColumn.stream( ).filter( FormColumnEntryGeolocation.class::isInstance ).map( FormColumnEntryGeolocation.class::cast ).findFirst( )
+                        .ifPresent( column -> column.getListEntryCode( ).forEach(
+                                strQuestionCode -> setGeolocationFields.add( LuceneUtils.createLuceneGeolocationKey( strQuestionCode ) ) ) );
+            }
+        return setGeolocationFields;
+    }
 
     /**
      * Build the base url to use for redirect to the page of the details of a form response
@@ -35,6 +35,7 @@ package fr.paris.lutece.plugins.forms.web.entrytype;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -104,6 +105,28 @@ public class EntryTypeDefaultDataService implements IEntryDataService
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save( List<FormQuestionResponse> listQuestionResponse )
+    {
+        // The question responses which have never been saved are inserted in a single batch, without looking them up
+        List<FormQuestionResponse> listQuestionResponseToCreate = new ArrayList<>( );
+        for ( FormQuestionResponse questionResponse : listQuestionResponse )
+        {
+            if ( questionResponse.getId( ) > 0 )
+            {
+                save( questionResponse );
+            }
+            else
+            {
+                listQuestionResponseToCreate.add( questionResponse );
+            }
+        }
+        FormQuestionResponseHome.create( listQuestionResponseToCreate );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -177,16 +200,75 @@ public class EntryTypeDefaultDataService implements IEntryDataService
             return true;
         }
 
-        boolean bIsChanged = false;
+        List<Response> listResponseReference = responseReference.getEntryResponse( );
+        List<Response> listResponseNew = responseNew.getEntryResponse( );
+        if ( listResponseReference == null || listResponseNew == null || listResponseReference.isEmpty( ) || listResponseNew.isEmpty( ) )
+        {
+            return !isEmpty( listResponseReference ) || !isEmpty( listResponseNew );
+        }
 
         IEntryTypeService service = EntryTypeServiceManager.getEntryTypeService( responseReference.getQuestion( ).getEntry( ) );
 
         if ( service instanceof IResponseComparator )
         {
-            bIsChanged = ( (IResponseComparator) service ).isResponseChanged( responseReference.getEntryResponse( ), responseNew.getEntryResponse( ) );
+            return ( (IResponseComparator) service ).isResponseChanged( listResponseReference, listResponseNew );
+        }
+
+        // The entry types without comparator are compared on the stored values of their responses
+        if ( listResponseReference.size( ) != listResponseNew.size( ) )
+        {
+            return true;
+        }
+        for ( int i = 0; i < listResponseReference.size( ); i++ )
+        {
+            if ( isResponseValueChanged( listResponseReference.get( i ), listResponseNew.get( i ) ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a list of responses is null or empty
+     * 
+     * @param listResponse
+     *            the list of responses
+     * @return true if the list is null or empty
+     */
+    private static boolean isEmpty( List<Response> listResponse )
+    {
+        return listResponse == null || listResponse.isEmpty( );
+    }
+
+    /**
+     * Check if the stored values of a response are changed: value, field, iteration and file
+     * 
+     * @param responseReference
+     *            the reference response
+     * @param responseNew
+     *            the new response
+     * @return true if the response is changed
+     */
+    private static boolean isResponseValueChanged( Response responseReference, Response responseNew )
+    {
+        if ( !Objects.equals( responseReference.getResponseValue( ), responseNew.getResponseValue( ) )
+                || responseReference.getIterationNumber( ) != responseNew.getIterationNumber( ) )
+        {
+            return true;
+        }
+
+        int nIdFieldReference = responseReference.getField( ) != null ? responseReference.getField( ).getIdField( ) : 0;
+        int nIdFieldNew = responseNew.getField( ) != null ? responseNew.getField( ).getIdField( ) : 0;
+        if ( nIdFieldReference != nIdFieldNew )
+        {
+            return true;
         }
 
-        return bIsChanged;
+        // A new file has no key until it is saved
+        String strFileKeyReference = responseReference.getFile( ) != null ? responseReference.getFile( ).getFileKey( ) : null;
+        String strFileKeyNew = responseNew.getFile( ) != null ? responseNew.getFile( ).getFileKey( ) : null;
+        return ( responseNew.getFile( ) != null && strFileKeyNew == null ) || !Objects.equals( strFileKeyReference, strFileKeyNew );
     }
 
     /**
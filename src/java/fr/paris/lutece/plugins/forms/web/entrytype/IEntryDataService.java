@@ -58,6 +58,20 @@ public interface IEntryDataService
      */
     void save( FormQuestionResponse questionResponse );
 
+    /**
+     * Save the question responses of a form response. Saved one by one by default.
+     * 
+     * @param listQuestionResponse
+     *            the question responses to save
+     */
+    default void save( List<FormQuestionResponse> listQuestionResponse )
+    {
+        for ( FormQuestionResponse questionResponse : listQuestionResponse )
+        {
+            save( questionResponse );
+        }
+    }
+
     /**
      * Creates the response values from request for the given question
      * 
@@ -91,9 +91,9 @@ public class FormDisplayFactory
         for ( FormFilter formFilter : listFormFilter )
         {
             IFormFilterConfiguration formFilterConfiguration = formFilter.getFormFilterConfiguration( );
-            if ( formFilterConfiguration != null )
+            IFormFilterDisplay formFilterDisplay = formFilterConfiguration != null ? formFilterConfiguration.getFormFilterDisplay( formFilter ) : null;
+            if ( formFilterDisplay != null )
             {
-                IFormFilterDisplay formFilterDisplay = formFilterConfiguration.getFormFilterDisplay( formFilter );
                 formFilterDisplay.createFormParameters( request );
                 formFilterDisplay.setPosition( formFilterConfiguration.getPosition( ) );
 
@@ -47,6 +47,7 @@ import fr.paris.lutece.plugins.forms.business.form.column.FormColumnCell;
 import fr.paris.lutece.plugins.forms.business.form.column.impl.FormColumnEntry;
 import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
 import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeDate;
+import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeNumber;
 import fr.paris.lutece.plugins.forms.service.entrytype.EntryTypeNumbering;
 import fr.paris.lutece.plugins.genericattributes.business.Entry;
 import fr.paris.lutece.plugins.genericattributes.service.entrytype.EntryTypeServiceManager;
@@ -99,6 +100,10 @@ public class FormColumnDisplayEntry extends AbstractFormColumnDisplay
             {
                 strAttributeSort += FormResponseSearchItem.FIELD_DATE_SUFFIX;
             }
+            if ( entryTypeService instanceof EntryTypeNumber )
+            {
+                strAttributeSort += FormResponseSearchItem.FIELD_NUMBER_SUFFIX;
+            }
             model.put( MARK_COLUMN_SORT_ATTRIBUTE, strAttributeSort );
         }
 
@@ -121,7 +126,8 @@ public class FormColumnDisplayEntry extends AbstractFormColumnDisplay
             {
                 Object objEntryValue = entry.getValue( );
                 String objEntryKey = entry.getKey( );
-                if ( objEntryValue == null || objEntryKey.endsWith( FormResponseSearchItem.FIELD_SELECT_SUFFIX ) )
+                if ( objEntryValue == null || objEntryKey.endsWith( FormResponseSearchItem.FIELD_SELECT_SUFFIX )
+                        || objEntryKey.endsWith( FormResponseSearchItem.FIELD_NUMBER_SUFFIX ) )
                 {
                     continue;
                 }
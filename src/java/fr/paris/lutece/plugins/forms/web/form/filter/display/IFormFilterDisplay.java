@@ -35,9 +35,12 @@ package fr.paris.lutece.plugins.forms.web.form.filter.display;
 
 import javax.servlet.http.HttpServletRequest;
 
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseFacetCounts;
 import fr.paris.lutece.plugins.forms.web.form.filter.IFilterable;
 import fr.paris.lutece.plugins.forms.web.form.multiview.util.IFormListPosition;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Locale;
 
 /**
@@ -82,4 +85,23 @@ public interface IFormFilterDisplay extends IFilterable, IFormListPosition
      * @param locale The locale to use for i18n labels in the template
      */
     void buildTemplate(HttpServletRequest request, Locale locale);
+
+    /**
+     * Set the counts of the form responses of the displayed panel, shown next to the values of the filter
+     * 
+     * @param facetCounts
+     *            The facet counts of the displayed panel, may be null
+     */
+    void setFacetCounts( FormResponseFacetCounts facetCounts );
+
+    /**
+     * Return the facet dimensions whose counts are shown next to the values of the filter. Only these dimensions are counted by the search of the
+     * displayed panel.
+     * 
+     * @return the facet dimensions of the filter, empty if the filter shows no counts
+     */
+    default Collection<String> getFacetDimensions( )
+    {
+        return Collections.emptyList( );
+    }
 }
@@ -33,6 +33,8 @@
  */
 package fr.paris.lutece.plugins.forms.web.form.filter.display.impl;
 
+import java.text.NumberFormat;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -43,8 +45,11 @@ import org.apache.commons.lang3.StringUtils;
 
 import fr.paris.lutece.plugins.forms.business.form.FormParameters;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseFacetCounts;
+import fr.paris.lutece.plugins.forms.util.ReferenceListFactory;
 import fr.paris.lutece.plugins.forms.web.form.filter.display.IFormFilterDisplay;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
+import fr.paris.lutece.util.ReferenceItem;
 import fr.paris.lutece.util.ReferenceList;
 import fr.paris.lutece.util.html.HtmlTemplate;
 
@@ -71,6 +76,7 @@ public abstract class AbstractFormFilterDisplay implements IFormFilterDisplay
     private String _strValue = StringUtils.EMPTY;
     private String _strTemplate = StringUtils.EMPTY;
     private FormFilter _formFilter;
+    private FormResponseFacetCounts _facetCounts;
 
     /**
      * {@inheritDoc}
@@ -157,6 +163,44 @@ public abstract class AbstractFormFilterDisplay implements IFormFilterDisplay
         _formFilter = formFilter;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setFacetCounts( FormResponseFacetCounts facetCounts )
+    {
+        _facetCounts = facetCounts;
+    }
+
+    /**
+     * Append to the name of each item of the list the number of form responses of the displayed panel having its code as value, for example
+     * "New (1,204)". The list is left as is if the dimensions were not counted.
+     * 
+     * @param referenceList
+     *            The list of the values of the filter
+     * @param collectionDimensions
+     *            The facet dimensions of the filter, the counts of all the dimensions are added
+     * @param locale
+     *            The locale used to format the counts
+     */
+    protected void addFacetCounts( ReferenceList referenceList, Collection<String> collectionDimensions, Locale locale )
+    {
+        if ( _facetCounts == null || referenceList == null || collectionDimensions.stream( ).noneMatch( _facetCounts::hasDimension ) )
+        {
+            return;
+        }
+
+        NumberFormat numberFormat = NumberFormat.getIntegerInstance( locale );
+        for ( ReferenceItem referenceItem : referenceList )
+        {
+            if ( !ReferenceListFactory.DEFAULT_CODE.equals( referenceItem.getCode( ) ) )
+            {
+                int nCount = collectionDimensions.stream( ).mapToInt( strDimension -> _facetCounts.getCount( strDimension, referenceItem.getCode( ) ) ).sum( );
+                referenceItem.setName( referenceItem.getName( ) + " (" + numberFormat.format( nCount ) + ")" );
+            }
+        }
+    }
+
     /**
      * Get the map of all parameter names and values used by the filter
      * 
@@ -35,6 +35,8 @@ package fr.paris.lutece.plugins.forms.web.form.filter.display.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -55,6 +57,7 @@ import fr.paris.lutece.plugins.forms.business.form.column.impl.FormColumnEntry;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
 import fr.paris.lutece.plugins.forms.business.form.filter.configuration.FormFilterEntryConfiguration;
 import fr.paris.lutece.plugins.forms.business.form.filter.configuration.IFormFilterConfiguration;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
 import fr.paris.lutece.plugins.forms.util.ReferenceListFactory;
 import fr.paris.lutece.plugins.genericattributes.business.Entry;
 import fr.paris.lutece.plugins.genericattributes.business.EntryFilter;
@@ -123,7 +126,25 @@ public class FormFilterDisplayEntry extends AbstractFormFilterDisplay
     public void buildTemplate(HttpServletRequest request, Locale locale)
     {
         String strParameterName = buildElementName( PARAMETER_ENTRY_VALUE_PATTERN );
-        manageFilterTemplate( request, createReferenceList( locale ), strParameterName );
+        ReferenceList referenceList = createReferenceList( locale );
+
+        addFacetCounts( referenceList, getFacetDimensions( ), locale );
+
+        manageFilterTemplate( request, referenceList, strParameterName );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<String> getFacetDimensions( )
+    {
+        IFormColumn formColumn = retrieveFormColumn( );
+        if ( formColumn instanceof FormColumnEntry )
+        {
+            return ( (FormColumnEntry) formColumn ).getListEntryCode( ).stream( ).map( LuceneUtils::createLuceneFacetKey ).collect( Collectors.toList( ) );
+        }
+        return Collections.emptyList( );
     }
 
     /**
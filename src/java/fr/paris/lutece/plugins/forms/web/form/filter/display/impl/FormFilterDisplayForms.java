@@ -33,6 +33,8 @@
  */
 package fr.paris.lutece.plugins.forms.web.form.filter.display.impl;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -47,6 +49,7 @@ import org.apache.commons.lang3.StringUtils;
 import fr.paris.lutece.api.user.User;
 import fr.paris.lutece.plugins.forms.business.Form;
 import fr.paris.lutece.plugins.forms.business.FormHome;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
 import fr.paris.lutece.plugins.forms.service.FormsResourceIdService;
 import fr.paris.lutece.plugins.forms.util.FormMultiviewFormsNameConstants;
 import fr.paris.lutece.plugins.forms.util.ReferenceListFactory;
@@ -149,6 +152,8 @@ public class FormFilterDisplayForms extends AbstractFormFilterDisplay
             if ( refListForms.size( ) > 2 )
             {
 
+                addFacetCounts( refListForms, getFacetDimensions( ), locale );
+
                 Map<String, Object> model = new LinkedHashMap<>( );
                 model.put( MARK_FILTER_LIST, refListForms );
                 model.put( MARK_FILTER_LIST_VALUE, getValue( ) );
@@ -168,6 +173,15 @@ public class FormFilterDisplayForms extends AbstractFormFilterDisplay
         setTemplate( strTemplateResult );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<String> getFacetDimensions( )
+    {
+        return Collections.singletonList( FormResponseSearchItem.FIELD_ID_FORM );
+    }
+
     /**
      * Create the ReferenceList of the Forms on which we can filter
      * 
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.web.form.filter.display.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl.FormFilterNumberLuceneQueryPart;
+import fr.paris.lutece.portal.service.template.AppTemplateService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.util.html.HtmlTemplate;
+
+/**
+ * Implementation of the IFormFilterDisplay interface for the filter on the range of the answers to a number question
+ */
+public class FormFilterDisplayNumber extends AbstractFormFilterDisplay
+{
+    // Templates
+    private static final String FORM_FILTER_NUMBER_TEMPLATE_NAME = "admin/plugins/forms/multiview/filter/number_filter.html";
+
+    // Marks
+    private static final String MARK_FILTER_VALUE_FROM = "filter_list_value_from";
+    private static final String MARK_FILTER_VALUE_TO = "filter_list_value_to";
+
+    // Variables
+    private String _strValueFrom;
+    private String _strValueTo;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getParameterName( )
+    {
+        return getFormFilter( ).getFormFilterConfiguration( ).getFormFilterName( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> getFilterDisplayMapValues( HttpServletRequest request )
+    {
+        String strFilterName = getFormFilter( ).getFormFilterConfiguration( ).getFormFilterName( );
+        _strValueFrom = request.getParameter( strFilterName + FormFilterNumberLuceneQueryPart.SUFFIX_FROM );
+        _strValueTo = request.getParameter( strFilterName + FormFilterNumberLuceneQueryPart.SUFFIX_TO );
+
+        Map<String, Object> mapFilterNameValues = new LinkedHashMap<>( );
+        addBound( mapFilterNameValues, strFilterName + FormFilterNumberLuceneQueryPart.SUFFIX_FROM, _strValueFrom );
+        addBound( mapFilterNameValues, strFilterName + FormFilterNumberLuceneQueryPart.SUFFIX_TO, _strValueTo );
+
+        return mapFilterNameValues;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void buildTemplate( HttpServletRequest request, Locale locale )
+    {
+        String strTemplateResult = StringUtils.EMPTY;
+
+        Map<String, Object> model = new LinkedHashMap<>( );
+        model.put( MARK_FILTER_VALUE_FROM, StringUtils.defaultString( _strValueFrom ) );
+        model.put( MARK_FILTER_VALUE_TO, StringUtils.defaultString( _strValueTo ) );
+        model.put( MARK_FILTER_CONFIG, getFormFilter( ).getFormFilterConfiguration( ) );
+        model.put( MARK_FILTER_LABEL, getFormFilter( ).getFormFilterConfiguration( ).getFormFilterLabel( locale ) );
+        HtmlTemplate htmlTemplate = AppTemplateService.getTemplate( getBaseTemplate( ), locale, model );
+        if ( htmlTemplate != null )
+        {
+            strTemplateResult = htmlTemplate.getHtml( );
+        }
+
+        setTemplate( strTemplateResult );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getBaseTemplate( )
+    {
+        return FORM_FILTER_NUMBER_TEMPLATE_NAME;
+    }
+
+    /**
+     * Add a bound of the range to the filter values, if it is a number
+     * 
+     * @param mapFilterNameValues
+     *            The filter values
+     * @param strParameterName
+     *            The name of the bound parameter
+     * @param strValue
+     *            The value of the bound parameter
+     */
+    private static void addBound( Map<String, Object> mapFilterNameValues, String strParameterName, String strValue )
+    {
+        if ( StringUtils.isNotBlank( strValue ) )
+        {
+            try
+            {
+                mapFilterNameValues.put( strParameterName, Double.valueOf( strValue.trim( ).replace( ',', '.' ) ) );
+            }
+            catch( NumberFormatException e )
+            {
+                AppLogService.error( "Unable to parse the bound " + strValue + " of the filter " + strParameterName, e );
+            }
+        }
+    }
+}
@@ -42,21 +42,19 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import fr.paris.lutece.plugins.forms.business.form.FormParameters;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
-import fr.paris.lutece.plugins.forms.service.search.FormSearchConfig;
+import fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl.FormFilterSearchedTextLuceneQueryPart;
+import fr.paris.lutece.plugins.forms.service.search.IFormSearchEngine;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
 import fr.paris.lutece.util.html.HtmlTemplate;
-import java.util.List;
-import fr.paris.lutece.plugins.forms.service.search.IFormSearchEngine;
 
 /**
- * Implementation of the IFormFilterDisplay interface for the filter on workflow state
+ * Implementation of the IFormFilterDisplay interface for the filter on the searched text
  */
 public class FormFilterDisplaySearchedText extends AbstractFormFilterDisplay
 {
     // Constants
     private static final String PARAMETER_SEARCHED_TEXT = "searched_text";
     private static final String MARK_SEARCHED_TEXT = "searched_text";
-    private static final String PARAMETER_ID_RESPONSE = "id_response_";
 
     // Templates
     private static final String FORM_FILTER_SEARCHED_TEXT_TEMPLATE_NAME = "admin/plugins/forms/multiview/filter/searched_text_filter.html";
@@ -66,11 +64,26 @@ public class FormFilterDisplaySearchedText extends AbstractFormFilterDisplay
     private String _strTemplate;
     private String _strValue;
     private FormFilter _formFilter;
-    private IFormSearchEngine _formSearchEngine;
 
+    /**
+     * Constructor
+     */
+    public FormFilterDisplaySearchedText( )
+    {
+        // Default constructor, kept alongside the deprecated one
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param formSearchEngine
+     *            the search engine, which is no longer used
+     * @deprecated the searched text is no longer searched by the display but by the query of the panel, use {@link #FormFilterDisplaySearchedText()}
+     */
+    @Deprecated
     public FormFilterDisplaySearchedText( IFormSearchEngine formSearchEngine )
     {
-        _formSearchEngine = formSearchEngine;
+        this( );
     }
 
     /**
@@ -102,17 +115,8 @@ public class FormFilterDisplaySearchedText extends AbstractFormFilterDisplay
         String strSearchedText = request.getParameter( PARAMETER_SEARCHED_TEXT );
         if ( StringUtils.isNotBlank( strSearchedText ) )
         {
-            FormSearchConfig config = new FormSearchConfig( );
-            config.setSearchedText( strSearchedText );
-            List<Integer> listIdsResults = _formSearchEngine.getSearchResults( config );
-            for ( int i = 0; i < listIdsResults.size( ); i++ )
-            {
-                mapFilterNameValues.put( PARAMETER_ID_RESPONSE + String.valueOf( i ), listIdsResults.get( i ) );
-            }
-            if ( listIdsResults.isEmpty( ) )
-            {
-                mapFilterNameValues.put( PARAMETER_ID_RESPONSE + "0", -2 );
-            }
+            // The searched text is parsed by the query part, as a clause of the query of the panel
+            mapFilterNameValues.put( FormFilterSearchedTextLuceneQueryPart.PARAMETER_SEARCHED_TEXT, strSearchedText );
         }
 
         setValue( strSearchedText );
@@ -35,6 +35,8 @@ package fr.paris.lutece.plugins.forms.web.form.filter.display.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,6 +53,7 @@ import org.apache.commons.lang3.math.NumberUtils;
 import fr.paris.lutece.api.user.User;
 import fr.paris.lutece.plugins.forms.business.Form;
 import fr.paris.lutece.plugins.forms.business.FormHome;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
 import fr.paris.lutece.plugins.forms.service.FormsResourceIdService;
 import fr.paris.lutece.plugins.forms.util.FormMultiviewFormsNameConstants;
 import fr.paris.lutece.plugins.forms.util.FormMultiviewWorkflowStateNameConstants;
@@ -146,6 +149,15 @@ public class FormFilterDisplayWorkflowState extends AbstractFormFilterDisplay
         manageFilterTemplate( request, referenceList, PARAMETER_ID_WORKFLOW_STATE );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<String> getFacetDimensions( )
+    {
+        return Collections.singletonList( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE );
+    }
+
     /**
      * Build the ReferenceList for the workflow state associated to the form
      * 
@@ -167,6 +179,7 @@ public class FormFilterDisplayWorkflowState extends AbstractFormFilterDisplay
                     WORKFLOW_STATE_NAME_ATTRIBUTE );
             referenceListFactory.setDefaultName( getFormFilterDisplayLabel( request.getLocale( ) ) );
             referenceList = referenceListFactory.createReferenceList( );
+            addFacetCounts( referenceList, getFacetDimensions( ), request.getLocale( ) );
         }
 
         return referenceList;
@@ -260,6 +260,7 @@ CREATE TABLE forms_indexer_action (
   id_action int AUTO_INCREMENT,
   id_form_response INT DEFAULT 0 NOT NULL,
   id_task INT DEFAULT 0 NOT NULL ,
+  id_form INT DEFAULT 0 NOT NULL,
   PRIMARY KEY (id_action)
 );
 CREATE INDEX idx_fia_id_form_response on forms_indexer_action  ( id_form_response );
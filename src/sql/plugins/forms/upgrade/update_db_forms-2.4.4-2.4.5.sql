@@ -7,3 +7,6 @@ DELETE FROM core_datastore WHERE entity_key='core.cache.status.formsCacheService
 INSERT INTO core_datastore VALUES ( 'core.cache.status.formsCacheService.timeToLiveSeconds', '86400' );
 DELETE FROM core_datastore WHERE entity_key='core.cache.status.formsCacheService.overflowToDisk';
 INSERT INTO core_datastore VALUES ( 'core.cache.status.formsCacheService.overflowToDisk', '0' );
+
+-- the form of the indexed response, to update only the index of the form
+ALTER TABLE forms_indexer_action ADD id_form INT DEFAULT 0 NOT NULL;
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * This is the business class test for the object FormQuestionResponse
+ */
+public class FormQuestionResponseBusinessTest extends LuteceTestCase
+{
+    private static final int IDFORM = 1;
+    private static final int IDSTEP = 2;
+    private static final int IDQUESTION1 = 3;
+    private static final int IDQUESTION2 = 4;
+
+    /**
+     * Test the keys generated by the batch insert of a list of form question responses
+     */
+    public void testCreateList( )
+    {
+        FormResponse formResponse = new FormResponse( );
+        formResponse.setFormId( IDFORM );
+        FormResponseHome.create( formResponse );
+
+        try
+        {
+            List<FormQuestionResponse> listFormQuestionResponse = new ArrayList<>( );
+            listFormQuestionResponse.add( createFormQuestionResponse( formResponse.getId( ), IDQUESTION1, 0 ) );
+            listFormQuestionResponse.add( createFormQuestionResponse( formResponse.getId( ), IDQUESTION2, 0 ) );
+            listFormQuestionResponse.add( createFormQuestionResponse( formResponse.getId( ), IDQUESTION2, 1 ) );
+
+            FormQuestionResponseHome.create( listFormQuestionResponse );
+
+            // Each form question response has its own key, which loads the row inserted for it
+            Set<Integer> setIds = new HashSet<>( );
+            for ( FormQuestionResponse formQuestionResponse : listFormQuestionResponse )
+            {
+                assertTrue( formQuestionResponse.getId( ) > 0 );
+                assertTrue( setIds.add( formQuestionResponse.getId( ) ) );
+
+                FormQuestionResponse formQuestionResponseStored = FormQuestionResponseHome.findByPrimaryKey( formQuestionResponse.getId( ) );
+                assertEquals( formQuestionResponse.getIdFormResponse( ), formQuestionResponseStored.getIdFormResponse( ) );
+                assertEquals( formQuestionResponse.getIdStep( ), formQuestionResponseStored.getIdStep( ) );
+                assertEquals( formQuestionResponse.getQuestion( ).getId( ), formQuestionResponseStored.getQuestion( ).getId( ) );
+                assertEquals( formQuestionResponse.getQuestion( ).getIterationNumber( ),
+                        formQuestionResponseStored.getQuestion( ).getIterationNumber( ) );
+            }
+            List<FormQuestionResponse> listStored = FormQuestionResponseHome.getFormQuestionResponseListByFormResponse( formResponse.getId( ) );
+            assertEquals( listFormQuestionResponse.size( ), listStored.size( ) );
+
+            // An empty list inserts nothing
+            FormQuestionResponseHome.create( new ArrayList<>( ) );
+        }
+        finally
+        {
+            FormQuestionResponseHome.removeByFormResponse( formResponse.getId( ) );
+            FormResponseHome.remove( formResponse.getId( ) );
+        }
+    }
+
+    /**
+     * Create a form question response without entry response
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param nIdQuestion
+     *            the id of the question
+     * @param nIterationNumber
+     *            the iteration number of the question
+     * @return the form question response
+     */
+    private FormQuestionResponse createFormQuestionResponse( int nIdFormResponse, int nIdQuestion, int nIterationNumber )
+    {
+        Question question = new Question( );
+        question.setId( nIdQuestion );
+        question.setIterationNumber( nIterationNumber );
+
+        FormQuestionResponse formQuestionResponse = new FormQuestionResponse( );
+        formQuestionResponse.setIdFormResponse( nIdFormResponse );
+        formQuestionResponse.setIdStep( IDSTEP );
+        formQuestionResponse.setQuestion( question );
+        formQuestionResponse.setEntryResponse( new ArrayList<>( ) );
+
+        return formQuestionResponse;
+    }
+}
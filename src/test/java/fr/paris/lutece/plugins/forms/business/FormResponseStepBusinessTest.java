@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * This is the business class test for the object FormResponseStep
+ */
+public class FormResponseStepBusinessTest extends LuteceTestCase
+{
+    private static final int IDFORM = 1;
+    private static final String TITLE = "Title";
+
+    /**
+     * Test the keys generated by the batch insert of a list of form response steps
+     */
+    public void testCreateList( )
+    {
+        FormResponse formResponse = new FormResponse( );
+        formResponse.setFormId( IDFORM );
+        FormResponseHome.create( formResponse );
+        List<Step> listSteps = new ArrayList<>( );
+
+        try
+        {
+            List<FormResponseStep> listFormResponseStep = new ArrayList<>( );
+            for ( int nOrder = 0; nOrder < 3; nOrder++ )
+            {
+                Step step = new Step( );
+                step.setTitle( TITLE );
+                step.setIdForm( IDFORM );
+                StepHome.create( step );
+                listSteps.add( step );
+
+                FormResponseStep formResponseStep = new FormResponseStep( );
+                formResponseStep.setFormResponseId( formResponse.getId( ) );
+                formResponseStep.setStep( step );
+                formResponseStep.setOrder( nOrder );
+                listFormResponseStep.add( formResponseStep );
+            }
+
+            FormResponseStepHome.create( listFormResponseStep );
+
+            // Each form response step has its own key, which loads the row inserted for it
+            Set<Integer> setIds = new HashSet<>( );
+            for ( FormResponseStep formResponseStep : listFormResponseStep )
+            {
+                assertTrue( formResponseStep.getId( ) > 0 );
+                assertTrue( setIds.add( formResponseStep.getId( ) ) );
+
+                FormResponseStep formResponseStepStored = FormResponseStepHome.findByPrimaryKey( formResponseStep.getId( ) );
+                assertEquals( formResponseStep.getFormResponseId( ), formResponseStepStored.getFormResponseId( ) );
+                assertEquals( formResponseStep.getStep( ).getId( ), formResponseStepStored.getStep( ).getId( ) );
+                assertEquals( formResponseStep.getOrder( ), formResponseStepStored.getOrder( ) );
+            }
+            assertEquals( listFormResponseStep.size( ), FormResponseStepHome.findStepsByFormResponsePartial( formResponse.getId( ) ).size( ) );
+        }
+        finally
+        {
+            FormResponseStepHome.removeByFormResponse( formResponse.getId( ) );
+            FormResponseHome.remove( formResponse.getId( ) );
+            for ( Step step : listSteps )
+            {
+                StepHome.remove( step.getId( ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormFilterGeolocationLuceneQueryPart class
+ */
+public class FormFilterGeolocationLuceneQueryPartTest extends LuteceTestCase
+{
+    private static final String FIELD_NAME = "entry_code_address_geolocation";
+
+    /**
+     * Test the viewports out of the ranges of the coordinates, as a map panned past the antimeridian, and the invalid radius
+     * 
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testViewportOutOfRange( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                // Paris and Tokyo
+                Document doc = new Document( );
+                doc.add( new LatLonPoint( FIELD_NAME, 48.85, 2.35 ) );
+                indexWriter.addDocument( doc );
+                doc = new Document( );
+                doc.add( new LatLonPoint( FIELD_NAME, 35.68, 139.69 ) );
+                indexWriter.addDocument( doc );
+            }
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                IndexSearcher searcher = new IndexSearcher( reader );
+
+                // Paris seen after a whole turn to the east
+                assertEquals( 1, searcher.count( buildBoxQuery( 40d, 50d, 350d, 370d ) ) );
+                // Tokyo seen from the west of the antimeridian
+                assertEquals( 1, searcher.count( buildBoxQuery( -100d, 100d, -230d, -200d ) ) );
+                // A map zoomed out on more than the whole world
+                assertEquals( 2, searcher.count( buildBoxQuery( -95d, 95d, -300d, 300d ) ) );
+
+                Map<String, Object> mapParameters = new HashMap<>( );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_LATITUDE, 48.85 );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_LONGITUDE, 362.35 );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_RADIUS, 1000d );
+                assertEquals( 1, searcher.count( buildQuery( mapParameters ) ) );
+
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_RADIUS, -1d );
+                assertEquals( 0, searcher.count( buildQuery( mapParameters ) ) );
+            }
+        }
+    }
+
+    /**
+     * Build the query of a bounding box
+     * 
+     * @param dMinLatitude
+     *            the min latitude
+     * @param dMaxLatitude
+     *            the max latitude
+     * @param dMinLongitude
+     *            the min longitude
+     * @param dMaxLongitude
+     *            the max longitude
+     * @return the query
+     */
+    private Query buildBoxQuery( double dMinLatitude, double dMaxLatitude, double dMinLongitude, double dMaxLongitude )
+    {
+        Map<String, Object> mapParameters = new HashMap<>( );
+        mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MIN_LATITUDE, dMinLatitude );
+        mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MAX_LATITUDE, dMaxLatitude );
+        mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MIN_LONGITUDE, dMinLongitude );
+        mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MAX_LONGITUDE, dMaxLongitude );
+
+        return buildQuery( mapParameters );
+    }
+
+    /**
+     * Build the query of the query part for the given parameters, on the geolocation field
+     * 
+     * @param mapParameters
+     *            the parameters of the viewport
+     * @return the query
+     */
+    private Query buildQuery( Map<String, Object> mapParameters )
+    {
+        mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_FIELDS, Collections.singletonList( FIELD_NAME ) );
+        FormParameters formParameters = new FormParameters( );
+        formParameters.setFormParametersMap( mapParameters );
+
+        FormFilterGeolocationLuceneQueryPart queryPart = new FormFilterGeolocationLuceneQueryPart( );
+        queryPart.buildFormFilterQuery( formParameters );
+
+        return queryPart.getFormFilterQuery( );
+    }
+}
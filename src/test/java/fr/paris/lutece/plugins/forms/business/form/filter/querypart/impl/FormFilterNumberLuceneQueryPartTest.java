@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormFilterNumberLuceneQueryPart class
+ */
+public class FormFilterNumberLuceneQueryPartTest extends LuteceTestCase
+{
+    private static final String FIELD_NAME = "entry_code_amount_number";
+
+    /**
+     * Test the range queries with both bounds, a single bound and no bound
+     * 
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testBuildFormFilterQuery( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                for ( double dValue : new double [ ] {
+                        -3.5, 0, 2, 9.99, 10, 150
+                } )
+                {
+                    Document doc = new Document( );
+                    doc.add( new DoublePoint( FIELD_NAME, dValue ) );
+                    indexWriter.addDocument( doc );
+                }
+            }
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                IndexSearcher searcher = new IndexSearcher( reader );
+
+                assertEquals( 3, searcher.count( buildQueryPart( 0d, 9.99 ).getFormFilterQuery( ) ) );
+                assertEquals( 2, searcher.count( buildQueryPart( 10d, null ).getFormFilterQuery( ) ) );
+                assertEquals( 1, searcher.count( buildQueryPart( null, -1d ).getFormFilterQuery( ) ) );
+                assertNull( buildQueryPart( null, null ).getFormFilterQuery( ) );
+            }
+        }
+    }
+
+    /**
+     * Test that the parameters without a bound suffix and the bounds which are not numbers are ignored
+     */
+    public void testIgnoredParameters( )
+    {
+        Map<String, Object> mapParameters = new HashMap<>( );
+        mapParameters.put( FIELD_NAME, 5d );
+        mapParameters.put( FIELD_NAME + FormFilterNumberLuceneQueryPart.SUFFIX_TO, "10" );
+        FormParameters formParameters = new FormParameters( );
+        formParameters.setFormParametersMap( mapParameters );
+
+        FormFilterNumberLuceneQueryPart queryPart = new FormFilterNumberLuceneQueryPart( );
+        queryPart.buildFormFilterQuery( formParameters );
+        assertNull( queryPart.getFormFilterQuery( ) );
+
+        mapParameters.put( FIELD_NAME + FormFilterNumberLuceneQueryPart.SUFFIX_FROM, 1 );
+        queryPart.buildFormFilterQuery( formParameters );
+        assertEquals( DoublePoint.newRangeQuery( FIELD_NAME, 1d, Double.POSITIVE_INFINITY ), queryPart.getFormFilterQuery( ) );
+    }
+
+    /**
+     * Build the query part for the given bounds
+     * 
+     * @param dFrom
+     *            the lower bound, may be null
+     * @param dTo
+     *            the upper bound, may be null
+     * @return the query part
+     */
+    private FormFilterNumberLuceneQueryPart buildQueryPart( Double dFrom, Double dTo )
+    {
+        Map<String, Object> mapParameters = new HashMap<>( );
+        if ( dFrom != null )
+        {
+            mapParameters.put( FIELD_NAME + FormFilterNumberLuceneQueryPart.SUFFIX_FROM, dFrom );
+        }
+        if ( dTo != null )
+        {
+            mapParameters.put( FIELD_NAME + FormFilterNumberLuceneQueryPart.SUFFIX_TO, dTo );
+        }
+        FormParameters formParameters = new FormParameters( );
+        formParameters.setFormParametersMap( mapParameters );
+
+        FormFilterNumberLuceneQueryPart queryPart = new FormFilterNumberLuceneQueryPart( );
+        queryPart.buildFormFilterQuery( formParameters );
+
+        return queryPart;
+    }
+}
@@ -34,6 +34,7 @@
 package fr.paris.lutece.plugins.forms.business.form.list;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import fr.paris.lutece.plugins.forms.business.form.FormResponseItem;
@@ -41,6 +42,7 @@ import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
 import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
 import fr.paris.lutece.plugins.forms.business.form.filter.FormFilter;
 import fr.paris.lutece.plugins.forms.business.form.panel.FormPanel;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
 
 /**
  * Mock implementation of the FormListDAO
@@ -81,6 +83,25 @@ public class FormListDAOMock implements IFormListDAO
         formPanel.setFormResponseItemList( listFormResponseItem );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void populateFormResponseCount( FormPanel formPanel, List<FormFilter> listFormFilter )
+    {
+        formPanel.setTotalFormResponseItemCount( _listIdAuthorizedFormResponse.size( ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<FormResponseGeolocation> searchFormResponseGeolocations( FormPanel formPanel, List<FormFilter> listFormFilter,
+            Collection<String> collectionGeolocationFields, int nMaxPoints )
+    {
+        return new ArrayList<>( );
+    }
+
     @Override
     public List<FormResponseItem> searchAllFormResponseItem( FormPanel formPanel, List<IFormColumn> listFormColumn, List<FormFilter> listFormFilter,
             FormItemSortConfig sortConfig )
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+import fr.paris.lutece.plugins.forms.business.Form;
+import fr.paris.lutece.plugins.forms.business.FormHome;
+import fr.paris.lutece.plugins.forms.business.FormResponse;
+import fr.paris.lutece.plugins.forms.business.FormResponseHome;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormResponseCountService class
+ */
+public class FormResponseCountServiceTest extends LuteceTestCase
+{
+    private static final String TITLE = "Title";
+
+    /**
+     * Test the cached count of the responses of a form, with the grouped count, the reconciliation and the invalidation on deletion
+     */
+    public void testCounts( )
+    {
+        Form form = new Form( );
+        form.setTitle( TITLE );
+        FormHome.create( form );
+
+        FormResponse formResponse = new FormResponse( );
+        formResponse.setFormId( form.getId( ) );
+        formResponse.setFromSave( false );
+        FormResponseHome.create( formResponse );
+
+        try
+        {
+            Map<Integer, Integer> mapCounts = FormHome.getNumberOfResponseForms( Collections.singletonList( form.getId( ) ) );
+            assertEquals( Integer.valueOf( 1 ), mapCounts.get( form.getId( ) ) );
+
+            FormResponseCountService countService = FormResponseCountService.getInstance( );
+            assertEquals( 1, countService.getNumberOfResponses( form.getId( ) ) );
+
+            // A count which drifted from the database is corrected by the reconciliation
+            countService.increment( form.getId( ) );
+            assertEquals( 2, countService.getNumberOfResponses( form.getId( ) ) );
+            assertTrue( countService.reconcile( ) >= 1 );
+            assertEquals( 1, countService.getNumberOfResponses( form.getId( ) ) );
+
+            // The services which delete responses invalidate the count of the form
+            FormResponseHome.remove( formResponse.getId( ) );
+            countService.invalidate( form.getId( ) );
+            assertEquals( 0, countService.getNumberOfResponses( form.getId( ) ) );
+        }
+        finally
+        {
+            FormResponseHome.removeByForm( form.getId( ) );
+            FormHome.remove( form.getId( ) );
+        }
+    }
+
+    /**
+     * Test that the reconciliation leaves as is a count which changed after the snapshot of the cached counts
+     */
+    public void testReconcileKeepsCountChangedAfterSnapshot( )
+    {
+        Form form = new Form( );
+        form.setTitle( TITLE );
+        FormHome.create( form );
+
+        try
+        {
+            FormResponseCountService countService = FormResponseCountService.getInstance( );
+            assertEquals( 0, countService.getNumberOfResponses( form.getId( ) ) );
+
+            Map<Integer, Integer> mapCachedCounts = Collections.singletonMap( form.getId( ), 0 );
+
+            // A response is submitted while the grouped query runs
+            countService.increment( form.getId( ) );
+            Map<Integer, Integer> mapCounts = Collections.singletonMap( form.getId( ), 0 );
+
+            assertEquals( 0, countService.reconcile( mapCachedCounts, mapCounts ) );
+            assertEquals( 1, countService.getNumberOfResponses( form.getId( ) ) );
+
+            // The count read in the snapshot is replaced by the count of the database
+            mapCachedCounts = Collections.singletonMap( form.getId( ), 1 );
+            assertEquals( 1, countService.reconcile( mapCachedCounts, mapCounts ) );
+            assertEquals( 0, countService.getNumberOfResponses( form.getId( ) ) );
+        }
+        finally
+        {
+            FormResponseCountService.getInstance( ).invalidate( form.getId( ) );
+            FormHome.remove( form.getId( ) );
+        }
+    }
+}
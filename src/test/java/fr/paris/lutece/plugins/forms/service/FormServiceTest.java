@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import fr.paris.lutece.plugins.forms.business.FormQuestionResponse;
+import fr.paris.lutece.plugins.forms.business.FormQuestionResponseHome;
+import fr.paris.lutece.plugins.forms.business.FormResponse;
+import fr.paris.lutece.plugins.forms.business.FormResponseStep;
+import fr.paris.lutece.plugins.forms.business.FormResponseStepHome;
+import fr.paris.lutece.plugins.forms.business.Question;
+import fr.paris.lutece.plugins.forms.business.Step;
+import fr.paris.lutece.plugins.genericattributes.business.Entry;
+import fr.paris.lutece.plugins.genericattributes.business.EntryType;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the save of the form responses by the FormService
+ */
+public class FormServiceTest extends LuteceTestCase
+{
+    private static final int IDFORM = 1;
+    private static final int IDSTEP_A = 1001;
+    private static final int IDSTEP_B = 1002;
+    private static final int IDSTEP_C = 1003;
+    private static final int IDQUESTION1 = 2001;
+    private static final int IDQUESTION2 = 2002;
+    private static final int IDQUESTION3 = 2003;
+    private static final String ENTRY_TYPE_BEAN_NAME = "forms.entryTypeComment";
+
+    /**
+     * Test that saving again an existing form response keeps the keys of its unchanged steps and question responses, inserts the new ones and removes
+     * the ones which are not part of it anymore
+     */
+    public void testUpdateKeepsUnchangedRows( )
+    {
+        FormService formService = SpringContextService.getBean( FormService.BEAN_NAME );
+
+        FormResponse formResponse = new FormResponse( );
+        formResponse.setFormId( IDFORM );
+        formResponse.setSteps( Arrays.asList( createStep( IDSTEP_A, 0, createQuestionResponse( IDQUESTION1, 0 ) ),
+                createStep( IDSTEP_B, 1, createQuestionResponse( IDQUESTION2, 0 ), createQuestionResponse( IDQUESTION2, 1 ) ) ) );
+        formService.saveFormForBackup( formResponse );
+
+        try
+        {
+            Map<String, Integer> mapQuestionResponseIds = getQuestionResponseIds( formResponse.getId( ) );
+            Map<Integer, Integer> mapStepIds = getStepIds( formResponse.getId( ) );
+            assertEquals( 3, mapQuestionResponseIds.size( ) );
+            assertEquals( 2, mapStepIds.size( ) );
+
+            // The form response is submitted again with a new graph: the step B is replaced by the step C, the question 2 loses its second
+            // iteration, the question 3 is answered and the order of the step A changes
+            FormResponse formResponseSubmitted = new FormResponse( );
+            formResponseSubmitted.setId( formResponse.getId( ) );
+            formResponseSubmitted.setFormId( IDFORM );
+            formResponseSubmitted.setSteps( Arrays.asList( createStep( IDSTEP_C, 0, createQuestionResponse( IDQUESTION2, 0 ) ),
+                    createStep( IDSTEP_A, 1, createQuestionResponse( IDQUESTION1, 0 ), createQuestionResponse( IDQUESTION3, 0 ) ) ) );
+            formService.saveFormForBackup( formResponseSubmitted );
+
+            Map<String, Integer> mapQuestionResponseIdsSaved = getQuestionResponseIds( formResponse.getId( ) );
+            assertEquals( 3, mapQuestionResponseIdsSaved.size( ) );
+            assertEquals( mapQuestionResponseIds.get( IDQUESTION1 + "-0" ), mapQuestionResponseIdsSaved.get( IDQUESTION1 + "-0" ) );
+            assertEquals( mapQuestionResponseIds.get( IDQUESTION2 + "-0" ), mapQuestionResponseIdsSaved.get( IDQUESTION2 + "-0" ) );
+            assertFalse( mapQuestionResponseIdsSaved.containsKey( IDQUESTION2 + "-1" ) );
+            assertNull( FormQuestionResponseHome.findByPrimaryKey( mapQuestionResponseIds.get( IDQUESTION2 + "-1" ) ) );
+            assertFalse( mapQuestionResponseIds.containsValue( mapQuestionResponseIdsSaved.get( IDQUESTION3 + "-0" ) ) );
+
+            Map<Integer, Integer> mapStepIdsSaved = getStepIds( formResponse.getId( ) );
+            assertEquals( 2, mapStepIdsSaved.size( ) );
+            assertEquals( mapStepIds.get( IDSTEP_A ), mapStepIdsSaved.get( IDSTEP_A ) );
+            assertFalse( mapStepIdsSaved.containsKey( IDSTEP_B ) );
+            assertFalse( mapStepIds.containsValue( mapStepIdsSaved.get( IDSTEP_C ) ) );
+            assertEquals( 1, FormResponseStepHome.findByPrimaryKey( mapStepIdsSaved.get( IDSTEP_A ) ).getOrder( ) );
+        }
+        finally
+        {
+            formService.removeFormBackup( formResponse );
+        }
+    }
+
+    /**
+     * Get the keys of the saved question responses of a form response
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @return the ids of the question responses, by question and iteration
+     */
+    private Map<String, Integer> getQuestionResponseIds( int nIdFormResponse )
+    {
+        return FormQuestionResponseHome.getFormQuestionResponseListByFormResponse( nIdFormResponse ).stream( )
+                .collect( Collectors.toMap( formQuestionResponse -> formQuestionResponse.getQuestion( ).getId( ) + "-"
+                        + formQuestionResponse.getQuestion( ).getIterationNumber( ), FormQuestionResponse::getId ) );
+    }
+
+    /**
+     * Get the keys of the saved steps of a form response
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @return the ids of the form response steps, by step
+     */
+    private Map<Integer, Integer> getStepIds( int nIdFormResponse )
+    {
+        return FormResponseStepHome.findStepsByFormResponsePartial( nIdFormResponse ).stream( )
+                .collect( Collectors.toMap( formResponseStep -> formResponseStep.getStep( ).getId( ), FormResponseStep::getId ) );
+    }
+
+    /**
+     * Create a form response step
+     * 
+     * @param nIdStep
+     *            the id of the step
+     * @param nOrder
+     *            the order of the step in the form response
+     * @param questionResponses
+     *            the question responses of the step
+     * @return the form response step
+     */
+    private FormResponseStep createStep( int nIdStep, int nOrder, FormQuestionResponse... questionResponses )
+    {
+        Step step = new Step( );
+        step.setId( nIdStep );
+
+        List<FormQuestionResponse> listQuestionResponses = new ArrayList<>( Arrays.asList( questionResponses ) );
+        listQuestionResponses.forEach( formQuestionResponse -> formQuestionResponse.setIdStep( nIdStep ) );
+
+        FormResponseStep formResponseStep = new FormResponseStep( );
+        formResponseStep.setStep( step );
+        formResponseStep.setOrder( nOrder );
+        formResponseStep.setQuestions( listQuestionResponses );
+
+        return formResponseStep;
+    }
+
+    /**
+     * Create a question response without entry response, on a visible question whose entry type has a data service
+     * 
+     * @param nIdQuestion
+     *            the id of the question
+     * @param nIterationNumber
+     *            the iteration number of the question
+     * @return the question response
+     */
+    private FormQuestionResponse createQuestionResponse( int nIdQuestion, int nIterationNumber )
+    {
+        EntryType entryType = new EntryType( );
+        entryType.setBeanName( ENTRY_TYPE_BEAN_NAME );
+        Entry entry = new Entry( );
+        entry.setEntryType( entryType );
+
+        Question question = new Question( );
+        question.setId( nIdQuestion );
+        question.setIterationNumber( nIterationNumber );
+        question.setIsVisible( true );
+        question.setEntry( entry );
+
+        FormQuestionResponse formQuestionResponse = new FormQuestionResponse( );
+        formQuestionResponse.setQuestion( question );
+        formQuestionResponse.setEntryResponse( new ArrayList<>( ) );
+
+        return formQuestionResponse;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.business.form.search.IndexerAction;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormIndexConsistencyChecker class
+ */
+public class FormIndexConsistencyCheckerTest extends LuteceTestCase
+{
+    /**
+     * Test the merge of the form responses of the database with the indexed ones
+     * 
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testCompare( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                indexWriter.addDocument( createDocument( 1, 1000L ) );
+                indexWriter.addDocument( createDocument( 3, 1000L ) );
+                indexWriter.addDocument( createDocument( 4, 1000L ) );
+                indexWriter.addDocument( createDocument( 4, 1000L ) );
+                indexWriter.addDocument( createDocument( 6, 1000L ) );
+                indexWriter.addDocument( createDocument( 7, 1000L ) );
+            }
+
+            Map<Integer, Timestamp> mapUpdateDates = new LinkedHashMap<>( );
+            mapUpdateDates.put( 1, new Timestamp( 1000L ) );
+            mapUpdateDates.put( 2, new Timestamp( 1000L ) );
+            mapUpdateDates.put( 3, new Timestamp( 2000L ) );
+            mapUpdateDates.put( 4, new Timestamp( 1000L ) );
+            mapUpdateDates.put( 5, new Timestamp( 1000L ) );
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                FormIndexConsistencyReport report = new FormIndexConsistencyReport( );
+                Map<Integer, Integer> mapRepairTasks = FormIndexConsistencyChecker.compare( new IndexSearcher( reader ), mapUpdateDates, 1,
+                        Integer.MAX_VALUE, Collections.singleton( 7 ), report );
+
+                assertEquals( 5, mapRepairTasks.size( ) );
+                assertEquals( Integer.valueOf( IndexerAction.TASK_CREATE ), mapRepairTasks.get( 2 ) );
+                assertEquals( Integer.valueOf( IndexerAction.TASK_MODIFY ), mapRepairTasks.get( 3 ) );
+                assertEquals( Integer.valueOf( IndexerAction.TASK_MODIFY ), mapRepairTasks.get( 4 ) );
+                assertEquals( Integer.valueOf( IndexerAction.TASK_CREATE ), mapRepairTasks.get( 5 ) );
+                assertEquals( Integer.valueOf( IndexerAction.TASK_DELETE ), mapRepairTasks.get( 6 ) );
+                assertFalse( mapRepairTasks.containsKey( 7 ) );
+                assertEquals( 5, report.getCheckedFormResponses( ) );
+                assertEquals( 2, report.getMissingFormResponses( ) );
+                assertEquals( 1, report.getStaleFormResponses( ) );
+                assertEquals( 1, report.getDuplicateDocuments( ) );
+                assertEquals( 1, report.getOrphanDocuments( ) );
+                assertEquals( 1, report.getSkippedFormResponses( ) );
+            }
+        }
+    }
+
+    /**
+     * Create the document of a form response
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param lUpdateDate
+     *            the update date
+     * @return the document
+     */
+    private Document createDocument( int nIdFormResponse, long lUpdateDate )
+    {
+        Document doc = new Document( );
+        doc.add( new IntPoint( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
+        doc.add( new NumericDocValuesField( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
+        doc.add( new NumericDocValuesField( FormResponseSearchItem.FIELD_DATE_UPDATE, lUpdateDate ) );
+        return doc;
+    }
+}
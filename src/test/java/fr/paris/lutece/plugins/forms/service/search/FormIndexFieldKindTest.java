@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import org.apache.lucene.document.Document;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormIndexFieldKind class
+ */
+public class FormIndexFieldKindTest extends LuteceTestCase
+{
+    private static final String QUESTION_CODE = "question";
+
+    /**
+     * Test the fields of a choice answer, added with the prebuilt names
+     */
+    public void testChoiceFields( )
+    {
+        String strName = LuceneUtils.createLuceneEntryKey( QUESTION_CODE, 0 ) + FormResponseSearchItem.FIELD_RESPONSE_FIELD_SEPARATOR + "12";
+        FormIndexSchema.EntryFieldNames fieldNames = new FormIndexSchema.EntryFieldNames( strName, FormIndexFieldKind.CHOICE,
+                LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), null );
+
+        Document doc = new Document( );
+        FormIndexFieldKind.CHOICE.addFields( doc, fieldNames, "value", "Title" );
+
+        assertEquals( strName + FormResponseSearchItem.FIELD_SELECT_SUFFIX, fieldNames.getTypedName( ) );
+        assertEquals( "value", doc.get( fieldNames.getTypedName( ) ) );
+        assertEquals( "Title", doc.get( strName + FormResponseSearchItem.FIELD_SELECT_TITLE ) );
+        assertEquals( 1, doc.getFields( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ) ).length );
+    }
+
+    /**
+     * Test the fields of a number answer, indexed as a string and as a double
+     */
+    public void testNumberFields( )
+    {
+        String strName = LuceneUtils.createLuceneEntryKey( QUESTION_CODE, 0 );
+        FormIndexSchema.EntryFieldNames fieldNames = new FormIndexSchema.EntryFieldNames( strName, FormIndexFieldKind.NUMBER,
+                LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), LuceneUtils.createLuceneNumberKey( QUESTION_CODE ) );
+
+        Document doc = new Document( );
+        FormIndexFieldKind.NUMBER.addFields( doc, fieldNames, "12.5", null );
+        FormIndexFieldKind.NUMBER.addFields( doc, fieldNames, "not a number", null );
+
+        // The value which is not a number is only indexed as a string
+        assertEquals( 4, doc.getFields( strName ).length );
+        assertEquals( 3, doc.getFields( fieldNames.getTypedName( ) ).length );
+        assertEquals( 0, doc.getFields( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ) ).length );
+        // The number is also indexed on the field of the question, for the range filters over all the iterations
+        assertEquals( 1, doc.getFields( LuceneUtils.createLuceneNumberKey( QUESTION_CODE ) ).length );
+    }
+}
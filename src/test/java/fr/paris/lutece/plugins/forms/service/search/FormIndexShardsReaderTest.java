@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormIndexShardsReader class
+ */
+public class FormIndexShardsReaderTest extends LuteceTestCase
+{
+    /**
+     * Test the search on the indexes of two forms, the version of the read indexes and the release of the readers of the forms
+     * 
+     * @throws IOException
+     *             if the indexes can not be written
+     */
+    public void testSearchShards( ) throws IOException
+    {
+        try ( Directory directoryForm1 = new ByteBuffersDirectory( ); Directory directoryForm2 = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriterForm1 = new IndexWriter( directoryForm1, new IndexWriterConfig( new StandardAnalyzer( ) ) );
+                    IndexWriter indexWriterForm2 = new IndexWriter( directoryForm2, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                indexWriterForm1.addDocument( createDocument( 1 ) );
+                indexWriterForm1.addDocument( createDocument( 1 ) );
+                indexWriterForm2.addDocument( createDocument( 2 ) );
+
+                DirectoryReader readerForm1 = DirectoryReader.open( indexWriterForm1 );
+                DirectoryReader readerForm2 = DirectoryReader.open( indexWriterForm2 );
+                FormIndexShardsReader shardsReader = new FormIndexShardsReader( new DirectoryReader [ ] {
+                        readerForm1, readerForm2
+                } );
+                IndexSearcher searcher = new IndexSearcher( shardsReader );
+                assertEquals( 3, searcher.getIndexReader( ).numDocs( ) );
+                assertEquals( 1, searcher.count( IntPoint.newExactQuery( FormResponseSearchItem.FIELD_ID_FORM, 2 ) ) );
+
+                indexWriterForm2.addDocument( createDocument( 2 ) );
+                DirectoryReader newReaderForm2 = DirectoryReader.openIfChanged( readerForm2, indexWriterForm2 );
+                FormIndexShardsReader newShardsReader = new FormIndexShardsReader( new DirectoryReader [ ] {
+                        readerForm1, newReaderForm2
+                } );
+                assertFalse( shardsReader.getVersion( ).equals( newShardsReader.getVersion( ) ) );
+
+                // The shards readers hold their own reference on the readers of the forms
+                readerForm1.decRef( );
+                readerForm2.decRef( );
+                newReaderForm2.decRef( );
+                assertEquals( 2, readerForm1.getRefCount( ) );
+                shardsReader.decRef( );
+                assertEquals( 0, readerForm2.getRefCount( ) );
+                newShardsReader.decRef( );
+                assertEquals( 0, readerForm1.getRefCount( ) );
+            }
+        }
+    }
+
+    /**
+     * Create the document of a form response
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @return the document
+     */
+    private Document createDocument( int nIdForm )
+    {
+        Document doc = new Document( );
+        doc.add( new IntPoint( FormResponseSearchItem.FIELD_ID_FORM, nIdForm ) );
+        return doc;
+    }
+}
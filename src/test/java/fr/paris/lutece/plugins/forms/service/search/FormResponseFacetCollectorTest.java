@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseFacetCounts;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormResponseFacetCollector class
+ */
+public class FormResponseFacetCollectorTest extends LuteceTestCase
+{
+    private static final String QUESTION_CODE = "color";
+
+    /**
+     * Test the counts by workflow state, by form and by choice answer, across several segments
+     * 
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testFacetCounts( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                indexWriter.addDocument( createDocument( 1, 10, "red", "blue" ) );
+                indexWriter.addDocument( createDocument( 1, 11, "red" ) );
+                indexWriter.commit( );
+                indexWriter.addDocument( createDocument( 2, 10, "blue" ) );
+                indexWriter.addDocument( createDocument( 2, 12 ) );
+            }
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                FormResponseFacetCollector facetCollector = new FormResponseFacetCollector( Arrays.asList( FormResponseSearchItem.FIELD_ID_FORM,
+                        FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, LuceneUtils.createLuceneFacetKey( QUESTION_CODE ) ) );
+                new IndexSearcher( reader ).search( new MatchAllDocsQuery( ), facetCollector );
+                FormResponseFacetCounts facetCounts = facetCollector.getFacetCounts( );
+
+                assertEquals( 4, facetCollector.getTotalHits( ) );
+                assertEquals( 2, facetCounts.getCount( FormResponseSearchItem.FIELD_ID_FORM, "1" ) );
+                assertEquals( 2, facetCounts.getCount( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, "10" ) );
+                assertEquals( 1, facetCounts.getCount( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, "12" ) );
+                assertEquals( 2, facetCounts.getCount( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), "red" ) );
+                assertEquals( 2, facetCounts.getCount( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), "blue" ) );
+                assertEquals( 0, facetCounts.getCount( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), "green" ) );
+            }
+        }
+    }
+
+    /**
+     * Test that only the requested dimensions are counted, and that the values out of the range of the count arrays are counted
+     * 
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testRequestedDimensions( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                indexWriter.addDocument( createDocument( 1, 10, "red" ) );
+                indexWriter.addDocument( createDocument( 1, 100000, "blue" ) );
+                indexWriter.addDocument( createDocument( 2, -1 ) );
+            }
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                FormResponseFacetCollector facetCollector = new FormResponseFacetCollector(
+                        Collections.singletonList( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE ) );
+                new IndexSearcher( reader ).search( new MatchAllDocsQuery( ), facetCollector );
+                FormResponseFacetCounts facetCounts = facetCollector.getFacetCounts( );
+
+                assertEquals( 3, facetCollector.getTotalHits( ) );
+                assertTrue( facetCounts.hasDimension( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE ) );
+                assertFalse( facetCounts.hasDimension( FormResponseSearchItem.FIELD_ID_FORM ) );
+                assertFalse( facetCounts.hasDimension( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ) ) );
+                assertEquals( 1, facetCounts.getCount( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, "10" ) );
+                assertEquals( 1, facetCounts.getCount( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, "100000" ) );
+                assertEquals( 1, facetCounts.getCount( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, "-1" ) );
+            }
+        }
+    }
+
+    /**
+     * Test the facet key derived from the name of a select field
+     */
+    public void testFacetKeyFromSelectField( )
+    {
+        String strSelectField = LuceneUtils.createLuceneEntryKey( QUESTION_CODE, 2 ) + FormResponseSearchItem.FIELD_RESPONSE_FIELD_SEPARATOR + "12"
+                + FormResponseSearchItem.FIELD_SELECT_SUFFIX;
+
+        assertEquals( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), LuceneUtils.createLuceneFacetKeyFromSelectField( strSelectField ) );
+        assertNull( LuceneUtils.createLuceneFacetKeyFromSelectField( FormResponseSearchItem.FIELD_FORM_TITLE ) );
+    }
+
+    /**
+     * Create a document with the facet fields of a form response
+     * 
+     * @param nIdForm
+     *            the id of the form
+     * @param nIdState
+     *            the id of the workflow state
+     * @param strChoices
+     *            the choice answers
+     * @return the document
+     */
+    private Document createDocument( int nIdForm, int nIdState, String... strChoices )
+    {
+        Document doc = new Document( );
+        doc.add( new IntPoint( FormResponseSearchItem.FIELD_ID_FORM, nIdForm ) );
+        doc.add( new NumericDocValuesField( FormResponseSearchItem.FIELD_ID_FORM, nIdForm ) );
+        doc.add( new NumericDocValuesField( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, nIdState ) );
+        for ( String strChoice : strChoices )
+        {
+            doc.add( new SortedSetDocValuesField( LuceneUtils.createLuceneFacetKey( QUESTION_CODE ), new BytesRef( strChoice ) ) );
+        }
+        return doc;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.paris.lutece.plugins.forms.business.form.column.FormColumnCell;
+import fr.paris.lutece.plugins.forms.business.form.column.IFormColumn;
+import fr.paris.lutece.plugins.forms.business.form.column.impl.FormColumnEntry;
+import fr.paris.lutece.plugins.forms.business.form.column.querypart.IFormColumnQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.column.querypart.impl.FormColumnEntryQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.column.querypart.impl.FormColumnWorkflowStateQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormResponseFieldProjection class
+ */
+public class FormResponseFieldProjectionTest extends LuteceTestCase
+{
+    /**
+     * Test that the projection keeps the identification fields and the fields of the displayed columns only
+     */
+    public void testProjectedFields( )
+    {
+        IFormColumnQueryPart entryQueryPart = new FormColumnEntryQueryPart( );
+        entryQueryPart.setFormColumn( new FormColumnEntry( 1, "title", Arrays.asList( "code" ) ) );
+        IFormColumnQueryPart workflowStateQueryPart = new FormColumnWorkflowStateQueryPart( );
+
+        List<IFormColumnQueryPart> listFormColumnQueryPart = new ArrayList<>( );
+        listFormColumnQueryPart.add( entryQueryPart );
+        listFormColumnQueryPart.add( workflowStateQueryPart );
+
+        FormResponseFieldProjection projection = FormResponseFieldProjection.create( listFormColumnQueryPart );
+
+        assertNotNull( projection );
+        assertTrue( projection.isFieldNeeded( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE ) );
+        assertTrue( projection.isFieldNeeded( FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE ) );
+        assertTrue( projection.isFieldNeeded( "entry_code_code_iter_0" ) );
+        assertTrue( projection.isFieldNeeded( "entry_code_code_iter_1_field_12" ) );
+        assertFalse( projection.isFieldNeeded( "entry_code_code2_iter_0" ) );
+        assertFalse( projection.isFieldNeeded( FormResponseSearchItem.FIELD_FORM_TITLE ) );
+    }
+
+    /**
+     * Test that no projection is made when a column does not declare the fields it needs
+     */
+    public void testNoProjectionForUndeclaredColumn( )
+    {
+        IFormColumnQueryPart undeclaredQueryPart = new IFormColumnQueryPart( )
+        {
+            @Override
+            public IFormColumn getFormColumn( )
+            {
+                return null;
+            }
+
+            @Override
+            public void setFormColumn( IFormColumn formColumn )
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public FormColumnCell getFormColumnCell( FormResponseSearchItem formResponseSearchItem )
+            {
+                return new FormColumnCell( );
+            }
+        };
+
+        assertNull( FormResponseFieldProjection.create( Arrays.asList( undeclaredQueryPart ) ) );
+    }
+}
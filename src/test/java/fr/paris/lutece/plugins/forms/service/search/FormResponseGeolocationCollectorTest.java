@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LatLonDocValuesField;
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+import fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl.FormFilterGeolocationLuceneQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseGeolocation;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormResponseGeolocationCollector class
+ */
+public class FormResponseGeolocationCollectorTest extends LuteceTestCase
+{
+    private static final String FIELD_NAME = LuceneUtils.createLuceneGeolocationKey( "incident" );
+    private static final double DELTA = 1e-6;
+
+    /**
+     * Test the collect of the points inside a bounding box and the limit of the number of points
+     * 
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testCollectGeolocations( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                indexWriter.addDocument( createDocument( 1, 48.8566, 2.3522 ) );
+                indexWriter.addDocument( createDocument( 2, 48.8738, 2.2950 ) );
+                indexWriter.commit( );
+                indexWriter.addDocument( createDocument( 3, 45.7640, 4.8357 ) );
+                indexWriter.addDocument( createDocument( 4, Double.NaN, Double.NaN ) );
+            }
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                IndexSearcher searcher = new IndexSearcher( reader );
+
+                FormParameters formParameters = new FormParameters( );
+                Map<String, Object> mapParameters = new HashMap<>( );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_FIELDS, Arrays.asList( FIELD_NAME ) );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MIN_LATITUDE, 48.8 );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MAX_LATITUDE, 48.9 );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MIN_LONGITUDE, 2.2 );
+                mapParameters.put( FormFilterGeolocationLuceneQueryPart.PARAMETER_MAX_LONGITUDE, 2.4 );
+                formParameters.setFormParametersMap( mapParameters );
+                FormFilterGeolocationLuceneQueryPart queryPart = new FormFilterGeolocationLuceneQueryPart( );
+                queryPart.buildFormFilterQuery( formParameters );
+
+                FormResponseGeolocationCollector collector = new FormResponseGeolocationCollector( Arrays.asList( FIELD_NAME ), 10 );
+                searcher.search( queryPart.getFormFilterQuery( ), collector );
+                List<FormResponseGeolocation> listGeolocations = collector.getGeolocations( );
+                assertEquals( 2, listGeolocations.size( ) );
+                assertEquals( 1, listGeolocations.get( 0 ).getIdFormResponse( ) );
+                assertEquals( 48.8566, listGeolocations.get( 0 ).getLatitude( ), DELTA );
+                assertEquals( 2.3522, listGeolocations.get( 0 ).getLongitude( ), DELTA );
+                assertFalse( collector.isTruncated( ) );
+
+                FormResponseGeolocationCollector limitedCollector = new FormResponseGeolocationCollector( Arrays.asList( FIELD_NAME ), 2 );
+                searcher.search( new MatchAllDocsQuery( ), limitedCollector );
+                assertEquals( 2, limitedCollector.getGeolocations( ).size( ) );
+                assertTrue( limitedCollector.isTruncated( ) );
+            }
+        }
+    }
+
+    /**
+     * Create the document of a form response, without point if the coordinates are not numbers
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param dLatitude
+     *            the latitude
+     * @param dLongitude
+     *            the longitude
+     * @return the document
+     */
+    private Document createDocument( int nIdFormResponse, double dLatitude, double dLongitude )
+    {
+        Document doc = new Document( );
+        doc.add( new NumericDocValuesField( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
+        if ( !Double.isNaN( dLatitude ) )
+        {
+            doc.add( new LatLonPoint( FIELD_NAME, dLatitude, dLongitude ) );
+            doc.add( new LatLonDocValuesField( FIELD_NAME, dLatitude, dLongitude ) );
+        }
+        return doc;
+    }
+}
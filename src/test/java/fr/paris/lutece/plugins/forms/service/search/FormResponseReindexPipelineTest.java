@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormResponseReindexPipeline class
+ */
+public class FormResponseReindexPipelineTest extends LuteceTestCase
+{
+    private static final String FIELD_ID = "id";
+
+    /**
+     * Test that all the ids are indexed, with ranges of the pipeline batch size
+     * 
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    public void testReindex( ) throws InterruptedException
+    {
+        List<Integer> listIds = new ArrayList<>( );
+        for ( int i = 1; i <= 35; i++ )
+        {
+            listIds.add( i );
+        }
+        List<String> listIndexedIds = Collections.synchronizedList( new ArrayList<>( ) );
+
+        FormResponseReindexPipeline pipeline = new FormResponseReindexPipeline( listIds, 3, 2, this::buildDocuments,
+                listDocuments -> listDocuments.forEach( doc -> listIndexedIds.add( doc.get( FIELD_ID ) ) ) );
+        pipeline.run( );
+
+        assertEquals( 35, pipeline.getProcessedIdNumber( ) );
+        assertEquals( 35, listIndexedIds.size( ) );
+    }
+
+    /**
+     * Test that all the ids read batch by batch are indexed, with ranges of the pipeline batch size
+     * 
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    public void testBatchedIdSource( ) throws InterruptedException
+    {
+        List<String> listIndexedIds = Collections.synchronizedList( new ArrayList<>( ) );
+        Consumer<Consumer<List<Integer>>> idSource = batchConsumer -> {
+            for ( int nBatch = 0; nBatch < 5; nBatch++ )
+            {
+                List<Integer> listIds = new ArrayList<>( );
+                for ( int i = 1; i <= 7; i++ )
+                {
+                    listIds.add( nBatch * 7 + i );
+                }
+                batchConsumer.accept( listIds );
+            }
+        };
+
+        FormResponseReindexPipeline pipeline = new FormResponseReindexPipeline( idSource, 35, 3, 2, this::buildDocuments,
+                listDocuments -> listDocuments.forEach( doc -> listIndexedIds.add( doc.get( FIELD_ID ) ) ) );
+        pipeline.run( );
+
+        assertEquals( 35, pipeline.getProcessedIdNumber( ) );
+        assertEquals( 35, listIndexedIds.size( ) );
+    }
+
+    /**
+     * Test that the pipeline fails when the id source fails, so that the documents of the partially rebuilt index are rolled back instead of being
+     * switched in
+     * 
+     * @throws InterruptedException
+     *             if the test is interrupted
+     * @throws IOException
+     *             if the index can not be written
+     */
+    public void testFailingIdSource( ) throws InterruptedException, IOException
+    {
+        Consumer<Consumer<List<Integer>>> idSource = batchConsumer -> {
+            batchConsumer.accept( Arrays.asList( 1, 2, 3 ) );
+            throw new IllegalStateException( "Connection lost" );
+        };
+
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            IndexWriter rebuildIndexWriter = new IndexWriter( directory, new IndexWriterConfig( ) );
+            FormResponseReindexPipeline pipeline = new FormResponseReindexPipeline( idSource, 10, 2, 2, this::buildDocuments,
+                    listDocuments -> addDocuments( rebuildIndexWriter, listDocuments ) );
+
+            // As in the rebuild in a side directory, the index is only committed and switched in when the pipeline ends normally
+            try
+            {
+                pipeline.run( );
+                rebuildIndexWriter.commit( );
+                fail( "The failure of the id source must be thrown by the pipeline" );
+            }
+            catch( IllegalStateException e )
+            {
+                assertEquals( "Connection lost", e.getMessage( ) );
+                rebuildIndexWriter.rollback( );
+            }
+
+            assertFalse( DirectoryReader.indexExists( directory ) );
+        }
+    }
+
+    /**
+     * Test that a range whose documents can not be built is built again one by one, and that the pipeline fails with the form response which can not
+     * be indexed
+     * 
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    public void testFailingDocumentBuilder( ) throws InterruptedException
+    {
+        List<Integer> listBuiltIds = Collections.synchronizedList( new ArrayList<>( ) );
+        Function<List<Integer>, List<Document>> documentBuilder = listIds -> {
+            if ( listIds.contains( 5 ) )
+            {
+                throw new IllegalStateException( "Invalid form response" );
+            }
+            listBuiltIds.addAll( listIds );
+            return buildDocuments( listIds );
+        };
+
+        FormResponseReindexPipeline pipeline = new FormResponseReindexPipeline( Arrays.asList( 1, 2, 3, 4, 5, 6 ), 3, 1, documentBuilder,
+                listDocuments -> {
+                } );
+        try
+        {
+            pipeline.run( );
+            fail( "The failure of the document builder must be thrown by the pipeline" );
+        }
+        catch( IllegalStateException e )
+        {
+            assertEquals( "Invalid form response", e.getMessage( ) );
+        }
+
+        // The form response 4, in the range of the failing one, is built on its own
+        assertTrue( listBuiltIds.contains( 4 ) );
+    }
+
+    /**
+     * Add documents to an index
+     * 
+     * @param indexWriter
+     *            the index writer
+     * @param listDocuments
+     *            the documents
+     */
+    private void addDocuments( IndexWriter indexWriter, List<Document> listDocuments )
+    {
+        try
+        {
+            indexWriter.addDocuments( listDocuments );
+        }
+        catch( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Build a document per id
+     * 
+     * @param listIds
+     *            the ids
+     * @return the documents
+     */
+    private List<Document> buildDocuments( List<Integer> listIds )
+    {
+        List<Document> listDocuments = new ArrayList<>( );
+        for ( Integer nId : listIds )
+        {
+            Document doc = new Document( );
+            doc.add( new StringField( FIELD_ID, String.valueOf( nId ), Field.Store.YES ) );
+            listDocuments.add( doc );
+        }
+        return listDocuments;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.Query;
+
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.forms.util.LuceneUtils;
+import fr.paris.lutece.portal.service.search.SearchItem;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the FormSearchQueryParser class
+ */
+public class FormSearchQueryParserTest extends LuteceTestCase
+{
+    /**
+     * Test the fielded clauses of the searched text, searched in the full text field of the question
+     * 
+     * @throws ParseException
+     *             if the searched text can not be parsed
+     */
+    public void testFieldedQuery( ) throws ParseException
+    {
+        FormSearchQueryParser parser = new FormSearchQueryParser( SearchItem.FIELD_CONTENTS, new StandardAnalyzer( ) );
+        Query query = parser.parse( "comments:noisy street" );
+
+        assertEquals( LuceneUtils.createLuceneTextKey( "comments" ) + ":noisy " + SearchItem.FIELD_CONTENTS + ":street", query.toString( ) );
+        assertEquals( FormResponseSearchItem.FIELD_GUID, parser.getIndexField( FormResponseSearchItem.FIELD_GUID ) );
+        assertEquals( SearchItem.FIELD_CONTENTS, parser.getIndexField( SearchItem.FIELD_CONTENTS ) );
+    }
+
+    /**
+     * Test the parsing of the boosts of the questions
+     */
+    public void testParseQuestionBoosts( )
+    {
+        assertTrue( LuceneFormSearchEngine.parseQuestionBoosts( "" ).isEmpty( ) );
+        assertEquals( 2, LuceneFormSearchEngine.parseQuestionBoosts( "comments:2, address:1.5, wrong" ).size( ) );
+        assertEquals( 1.5f, LuceneFormSearchEngine.parseQuestionBoosts( "address:1.5" ).get( "address" ) );
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.forms.service.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+import fr.paris.lutece.plugins.forms.business.form.FormItemSortConfig;
+import fr.paris.lutece.plugins.forms.business.form.FormParameters;
+import fr.paris.lutece.plugins.forms.business.form.filter.querypart.impl.FormFilterWorkflowStateLuceneQueryPart;
+import fr.paris.lutece.plugins.forms.business.form.search.FormResponseSearchItem;
+import fr.paris.lutece.plugins.workflowcore.business.state.State;
+import fr.paris.lutece.portal.service.search.SearchItem;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Test class for the LuceneFormSearchEngine class
+ */
+public class LuceneFormSearchEngineTest extends LuteceTestCase
+{
+    private static final String FIELD_NAME = "entry_code_amount_iter_0_number";
+
+    /**
+     * Test the sort of number answers, with negative and positive values, indexed with the fields of the indexer
+     * 
+     * @throws IOException
+     *             if the index can not be written or read
+     */
+    public void testNumberSort( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                for ( double dValue : new double [ ] {
+                        2.5, -10, 0, -0.5, 100
+                } )
+                {
+                    Document doc = new Document( );
+                    doc.add( new DoublePoint( FIELD_NAME, dValue ) );
+                    doc.add( new DoubleDocValuesField( FIELD_NAME, dValue ) );
+                    doc.add( new StoredField( FIELD_NAME, dValue ) );
+                    indexWriter.addDocument( doc );
+                }
+            }
+
+            try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+            {
+                IndexSearcher searcher = new IndexSearcher( reader );
+                List<Double> listValues = searchSortedValues( searcher, new FormItemSortConfig( 0, FIELD_NAME, false ) );
+                List<Double> listReversedValues = searchSortedValues( searcher, new FormItemSortConfig( 0, FIELD_NAME, true ) );
+
+                assertEquals( 5, listValues.size( ) );
+                for ( int i = 1; i < listValues.size( ); i++ )
+                {
+                    assertTrue( listValues.get( i - 1 ) < listValues.get( i ) );
+                    assertEquals( listValues.get( i ), listReversedValues.get( listValues.size( ) - 1 - i ) );
+                }
+                assertEquals( -10.0, listValues.get( 0 ), 0.0 );
+                assertEquals( 100.0, listValues.get( listValues.size( ) - 1 ), 0.0 );
+            }
+        }
+    }
+
+    /**
+     * Test the update in place of the workflow state of an indexed form response: the loaded document, the sort on the state title and the filter on
+     * the state see the new state
+     * 
+     * @throws IOException
+     *             if the index can not be written or read
+     */
+    public void testWorkflowStateUpdate( ) throws IOException
+    {
+        try ( Directory directory = new ByteBuffersDirectory( ) )
+        {
+            try ( IndexWriter indexWriter = new IndexWriter( directory, new IndexWriterConfig( new StandardAnalyzer( ) ) ) )
+            {
+                indexWriter.addDocument( createDocument( 1, createState( 10, "Draft" ) ) );
+                indexWriter.addDocument( createDocument( 2, createState( 11, "Published" ) ) );
+                indexWriter.addDocument( createDocument( 3, createState( 10, "Draft" ) ) );
+                indexWriter.commit( );
+
+                indexWriter.updateDocValues( new Term( SearchItem.FIELD_UID, "3" ),
+                        LuceneFormSearchIndexer.createWorkflowStateFields( createState( 12, "Archived" ) ) );
+
+                try ( DirectoryReader reader = DirectoryReader.open( indexWriter ) )
+                {
+                    IndexSearcher searcher = new IndexSearcher( reader );
+
+                    FormItemSortConfig sortConfig = new FormItemSortConfig( 0, FormResponseSearchItem.FIELD_TITLE_WORKFLOW_STATE, true );
+                    TopDocs topDocs = searcher.search( new MatchAllDocsQuery( ), 10, LuceneFormSearchEngine.buildLuceneSort( sortConfig ) );
+                    assertEquals( 3, topDocs.scoreDocs.length );
+                    Document firstDocument = LuceneFormSearchEngine.loadDocument( searcher, topDocs.scoreDocs [0].doc, null );
+                    FormResponseSearchItem firstItem = new FormResponseSearchItem( firstDocument );
+                    assertEquals( 3, firstItem.getIdFormResponse( ) );
+                    assertEquals( 12, firstItem.getIdWorkflowState( ) );
+                    assertEquals( "Archived", firstItem.getWorkflowStateTitle( ) );
+
+                    assertEquals( 1, searcher.count( buildWorkflowStateQuery( "10" ) ) );
+                    assertEquals( 2, searcher.count( buildWorkflowStateQuery( "11;12" ) ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a workflow state
+     * 
+     * @param nIdState
+     *            the id of the state
+     * @param strName
+     *            the name of the state
+     * @return the state
+     */
+    private State createState( int nIdState, String strName )
+    {
+        State state = new State( );
+        state.setId( nIdState );
+        state.setName( strName );
+        return state;
+    }
+
+    /**
+     * Create the document of a form response, with the workflow state fields of the indexer
+     * 
+     * @param nIdFormResponse
+     *            the id of the form response
+     * @param state
+     *            the workflow state
+     * @return the document
+     */
+    private Document createDocument( int nIdFormResponse, State state )
+    {
+        Document doc = new Document( );
+        doc.add( new StringField( SearchItem.FIELD_UID, String.valueOf( nIdFormResponse ), Field.Store.YES ) );
+        doc.add( new StoredField( FormResponseSearchItem.FIELD_ID_FORM_RESPONSE, nIdFormResponse ) );
+        for ( Field field : LuceneFormSearchIndexer.createWorkflowStateFields( state ) )
+        {
+            doc.add( field );
+        }
+        return doc;
+    }
+
+    /**
+     * Build the query of the filter on the workflow state
+     * 
+     * @param strIdStates
+     *            the ids of the states, separated by semicolons
+     * @return the query
+     */
+    private Query buildWorkflowStateQuery( String strIdStates )
+    {
+        FormParameters formParameters = new FormParameters( );
+        Map<String, Object> mapParameters = new HashMap<>( );
+        mapParameters.put( FormResponseSearchItem.FIELD_ID_WORKFLOW_STATE, strIdStates );
+        formParameters.setFormParametersMap( mapParameters );
+
+        FormFilterWorkflowStateLuceneQueryPart queryPart = new FormFilterWorkflowStateLuceneQueryPart( );
+        queryPart.buildFormFilterQuery( formParameters );
+        return queryPart.getFormFilterQuery( );
+    }
+
+    /**
+     * Search all the documents with the sort of the search engine
+     * 
+     * @param searcher
+     *            the searcher
+     * @param sortConfig
+     *            the sort config
+     * @return the number values, in the order of the sort
+     * @throws IOException
+     *             if the index can not be read
+     */
+    private List<Double> searchSortedValues( IndexSearcher searcher, FormItemSortConfig sortConfig ) throws IOException
+    {
+        TopDocs topDocs = searcher.search( new MatchAllDocsQuery( ), 10, LuceneFormSearchEngine.buildLuceneSort( sortConfig ) );
+        List<Double> listValues = new ArrayList<>( );
+        for ( ScoreDoc scoreDoc : topDocs.scoreDocs )
+        {
+            listValues.add( searcher.doc( scoreDoc.doc ).getField( FIELD_NAME ).numericValue( ).doubleValue( ) );
+        }
+        return listValues;
+    }
+}
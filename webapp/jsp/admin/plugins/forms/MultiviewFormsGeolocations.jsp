@@ -0,0 +1,5 @@
+<%@ page contentType="application/json; charset=UTF-8" trimDirectiveWhitespaces="true" %>
+<%@ page errorPage="../../ErrorPage.jsp" %>
+<jsp:useBean id="multiviewForms" scope="session" class="fr.paris.lutece.plugins.forms.web.admin.MultiviewFormsJspBean" />
+<% multiviewForms.init( request, fr.paris.lutece.plugins.forms.web.admin.MultiviewFormsJspBean.RIGHT_FORMS_MULTIVIEW ); %>
+<%= multiviewForms.getGeolocationsJson( request ) %>